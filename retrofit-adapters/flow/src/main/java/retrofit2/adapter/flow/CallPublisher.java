@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.flow;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import okhttp3.RequestBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Publishes the elements of a call's response. The call is executed and each element is read on
+ * {@code executor} only once a subscriber has requested it.
+ */
+final class CallPublisher<R, T> implements Flow.Publisher<T> {
+  /** Elements read from a response. */
+  interface Elements<T> {
+    /** Returns the next element, or null if there are no more. */
+    @Nullable T next() throws IOException;
+
+    /**
+     * Returns true if it is known without reading that there are no more elements. This lets a
+     * publisher of a single element complete without waiting for further demand.
+     */
+    boolean isExhausted();
+
+    void close();
+  }
+
+  /** Reads the elements of a response. */
+  interface Reader<R, T> {
+    Elements<T> open(Response<R> response) throws IOException;
+  }
+
+  private final Call<R> originalCall;
+  private final Reader<R, T> reader;
+  private final Executor executor;
+
+  CallPublisher(Call<R> originalCall, Reader<R, T> reader, Executor executor) {
+    this.originalCall = originalCall;
+    this.reader = reader;
+    this.executor = executor;
+  }
+
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  @Override public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    if (subscriber == null) throw new NullPointerException("subscriber == null");
+    // Since Call is a one-shot type, clone it for each new subscriber.
+    CallSubscription<R, T> subscription =
+        new CallSubscription<>(originalCall.clone(), reader, executor, subscriber);
+    subscriber.onSubscribe(subscription);
+  }
+
+  static final class CallSubscription<R, T> implements Flow.Subscription, Runnable {
+    private final Call<R> call;
+    private final Reader<R, T> reader;
+    private final Executor executor;
+    private final Flow.Subscriber<? super T> subscriber;
+
+    /**
+     * Outstanding demand. The drain loop runs while this is non-zero, so bumping it from zero also
+     * wakes the loop for cancellation and invalid requests.
+     */
+    private final AtomicLong requested = new AtomicLong();
+    private volatile boolean canceled;
+    private volatile @Nullable IllegalArgumentException invalidRequest;
+
+    // Only used by the drain loop, which never runs concurrently with itself.
+    private @Nullable Elements<T> elements;
+    private boolean done;
+
+    CallSubscription(Call<R> call, Reader<R, T> reader, Executor executor,
+        Flow.Subscriber<? super T> subscriber) {
+      this.call = call;
+      this.reader = reader;
+      this.executor = executor;
+      this.subscriber = subscriber;
+    }
+
+    @Override public void request(long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("n <= 0: " + n);
+        n = 1;
+      }
+      long current;
+      long next;
+      do {
+        current = requested.get();
+        next = current + n;
+        if (next < 0) next = Long.MAX_VALUE; // Overflow means unbounded demand.
+      } while (!requested.compareAndSet(current, next));
+      if (current == 0) {
+        executor.execute(this);
+      }
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+      call.cancel();
+      cancelRequestBody();
+      if (requested.getAndIncrement() == 0) {
+        executor.execute(this); // Release the response from the drain loop.
+      }
+    }
+
+    @Override public void run() {
+      long emitted = 0;
+      while (true) {
+        long demand = requested.get();
+        while (true) {
+          if (done) return;
+          if (canceled) {
+            finish();
+            return;
+          }
+          IllegalArgumentException invalidRequest = this.invalidRequest;
+          if (invalidRequest != null) {
+            // Rule 3.9: a non-positive request is signaled as an error and ends the subscription.
+            canceled = true;
+            call.cancel();
+            finish();
+            subscriber.onError(invalidRequest);
+            return;
+          }
+          Elements<T> elements = this.elements;
+          if (elements != null && elements.isExhausted()) {
+            finish();
+            subscriber.onComplete();
+            return;
+          }
+          if (emitted == demand) break;
+
+          T element;
+          try {
+            if (elements == null) {
+              elements = this.elements = reader.open(call.execute());
+            }
+            element = elements.next();
+          } catch (Throwable t) {
+            finish();
+            // Canceling the call to stop a blocked read fails the read. Nobody is listening.
+            if (!canceled) {
+              subscriber.onError(t);
+            }
+            return;
+          }
+          if (element == null) {
+            finish();
+            subscriber.onComplete();
+            return;
+          }
+          subscriber.onNext(element);
+          emitted++;
+        }
+
+        if (demand == Long.MAX_VALUE) continue;
+        if (requested.addAndGet(-emitted) == 0) return;
+        emitted = 0;
+      }
+    }
+
+    /** Stops a publisher body waiting for elements, which canceling the call does not reach. */
+    private void cancelRequestBody() {
+      RequestBody body;
+      try {
+        body = call.request().body();
+      } catch (RuntimeException e) {
+        return; // The request could not be created, so there is no body being written.
+      }
+      if (body instanceof PublisherRequestBody) {
+        ((PublisherRequestBody<?>) body).cancel();
+      }
+    }
+
+    private void finish() {
+      done = true;
+      Elements<T> elements = this.elements;
+      if (elements != null) {
+        this.elements = null;
+        elements.close();
+      }
+    }
+  }
+}
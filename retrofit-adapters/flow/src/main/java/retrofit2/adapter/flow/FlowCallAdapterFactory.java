@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.flow;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
+import retrofit2.ElementReader;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.Streaming;
+
+/**
+ * A {@linkplain CallAdapter.Factory call adapter} which creates JDK {@link Flow.Publisher}
+ * instances.
+ * <p>
+ * Adding this class to {@link Retrofit} allows you to return {@link Flow.Publisher} from service
+ * methods.
+ * <pre><code>
+ * interface MyService {
+ *   &#64;GET("user/me")
+ *   Flow.Publisher&lt;User&gt; getUser()
+ * }
+ * </code></pre>
+ * There are two configurations supported for the {@code Flow.Publisher} type parameter:
+ * <ul>
+ * <li>Direct body (e.g., {@code Flow.Publisher<User>}) publishes the deserialized body for 2XX
+ * responses and signals {@link HttpException} for non-2XX responses and {@link IOException} for
+ * network errors. A 2XX response without a body completes without elements.</li>
+ * <li>Response wrapped body (e.g., {@code Flow.Publisher<Response<User>>}) publishes a
+ * {@link Response} object for all HTTP responses and signals {@link IOException} for network
+ * errors</li>
+ * </ul>
+ * A direct body publisher of a {@link Streaming @Streaming} method publishes each element of a
+ * {@code text/event-stream} or {@code application/x-ndjson} response as described by
+ * {@link ElementReader}.
+ * <p>
+ * Nothing happens until a subscriber requests an element. The call is then executed, and each
+ * element read, on the factory's executor and only as far as the subscriber's demand allows.
+ * Canceling the subscription cancels the call.
+ *
+ * @see PublisherConverterFactory for streaming request bodies.
+ */
+public final class FlowCallAdapterFactory extends CallAdapter.Factory {
+  /** Returns an instance which executes calls and reads their elements on daemon threads. */
+  public static FlowCallAdapterFactory create() {
+    return new FlowCallAdapterFactory(DefaultExecutorHolder.EXECUTOR);
+  }
+
+  /** Returns an instance which executes calls and reads their elements on {@code executor}. */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static FlowCallAdapterFactory create(Executor executor) {
+    if (executor == null) throw new NullPointerException("executor == null");
+    return new FlowCallAdapterFactory(executor);
+  }
+
+  private final Executor executor;
+
+  private FlowCallAdapterFactory(Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public @Nullable CallAdapter<?, ?> get(Type returnType, Annotation[] annotations,
+      Retrofit retrofit) {
+    if (getRawType(returnType) != Flow.Publisher.class) {
+      return null;
+    }
+    if (!(returnType instanceof ParameterizedType)) {
+      throw new IllegalStateException("Publisher return type must be parameterized"
+          + " as Publisher<Foo> or Publisher<? extends Foo>");
+    }
+    Type innerType = getParameterUpperBound(0, (ParameterizedType) returnType);
+    Class<?> rawInnerType = getRawType(innerType);
+
+    if (rawInnerType == Response.class) {
+      if (!(innerType instanceof ParameterizedType)) {
+        throw new IllegalStateException("Response must be parameterized"
+            + " as Response<Foo> or Response<? extends Foo>");
+      }
+      Type responseType = getParameterUpperBound(0, (ParameterizedType) innerType);
+      return new ResponseCallAdapter<>(responseType, executor);
+    }
+
+    if (rawInnerType != ResponseBody.class && isStreaming(annotations)) {
+      Converter<ResponseBody, ?> converter =
+          retrofit.responseBodyConverter(innerType, annotations);
+      return new ElementsCallAdapter<>(converter, executor);
+    }
+    return new BodyCallAdapter<>(innerType, executor);
+  }
+
+  private static boolean isStreaming(Annotation[] annotations) {
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof Streaming) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class BodyCallAdapter<R>
+      implements CallAdapter<R, Flow.Publisher<R>>, CallPublisher.Reader<R, R> {
+    private final Type responseType;
+    private final Executor executor;
+
+    BodyCallAdapter(Type responseType, Executor executor) {
+      this.responseType = responseType;
+      this.executor = executor;
+    }
+
+    @Override public Type responseType() {
+      return responseType;
+    }
+
+    @Override public Flow.Publisher<R> adapt(Call<R> call) {
+      return new CallPublisher<>(call, this, executor);
+    }
+
+    @Override public CallPublisher.Elements<R> open(Response<R> response) {
+      if (!response.isSuccessful()) {
+        throw new HttpException(response);
+      }
+      return new SingleElement<>(response.body());
+    }
+  }
+
+  private static final class ResponseCallAdapter<R>
+      implements CallAdapter<R, Flow.Publisher<Response<R>>>,
+      CallPublisher.Reader<R, Response<R>> {
+    private final Type responseType;
+    private final Executor executor;
+
+    ResponseCallAdapter(Type responseType, Executor executor) {
+      this.responseType = responseType;
+      this.executor = executor;
+    }
+
+    @Override public Type responseType() {
+      return responseType;
+    }
+
+    @Override public Flow.Publisher<Response<R>> adapt(Call<R> call) {
+      return new CallPublisher<>(call, this, executor);
+    }
+
+    @Override public CallPublisher.Elements<Response<R>> open(Response<R> response) {
+      return new SingleElement<>(response);
+    }
+  }
+
+  private static final class ElementsCallAdapter<T>
+      implements CallAdapter<ResponseBody, Flow.Publisher<T>>,
+      CallPublisher.Reader<ResponseBody, T> {
+    private final Converter<ResponseBody, T> converter;
+    private final Executor executor;
+
+    ElementsCallAdapter(Converter<ResponseBody, T> converter, Executor executor) {
+      this.converter = converter;
+      this.executor = executor;
+    }
+
+    @Override public Type responseType() {
+      return ResponseBody.class;
+    }
+
+    @Override public Flow.Publisher<T> adapt(Call<ResponseBody> call) {
+      return new CallPublisher<>(call, this, executor);
+    }
+
+    @Override public CallPublisher.Elements<T> open(Response<ResponseBody> response) {
+      if (!response.isSuccessful()) {
+        throw new HttpException(response);
+      }
+      //noinspection ConstantConditions Successful responses have a body.
+      final ElementReader<T> reader = ElementReader.create(response.body(), converter);
+      return new CallPublisher.Elements<T>() {
+        @Override public @Nullable T next() throws IOException {
+          return reader.read();
+        }
+
+        @Override public boolean isExhausted() {
+          return false;
+        }
+
+        @Override public void close() {
+          reader.close();
+        }
+      };
+    }
+  }
+
+  private static final class SingleElement<T> implements CallPublisher.Elements<T> {
+    private @Nullable T element;
+
+    SingleElement(@Nullable T element) {
+      this.element = element;
+    }
+
+    @Override public @Nullable T next() {
+      T element = this.element;
+      this.element = null;
+      return element;
+    }
+
+    @Override public boolean isExhausted() {
+      return element == null;
+    }
+
+    @Override public void close() {
+    }
+  }
+
+  private static final class DefaultExecutorHolder {
+    static final ExecutorService EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+        60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+          @Override public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Retrofit Flow");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+  }
+}
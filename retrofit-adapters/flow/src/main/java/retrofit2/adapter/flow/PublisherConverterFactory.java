@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.flow;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Flow;
+import javax.annotation.Nullable;
+import okhttp3.RequestBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * A {@linkplain Converter.Factory converter} which streams a {@link Flow.Publisher} {@link
+ * retrofit2.http.Body @Body} as newline-delimited elements.
+ * <pre><code>
+ * interface MyService {
+ *   &#64;POST("events")
+ *   Call&lt;Void&gt; send(@Body Flow.Publisher&lt;Event&gt; events)
+ * }
+ * </code></pre>
+ * The body is sent as {@code application/x-ndjson}. Each element is converted by the next
+ * converter able to convert its type, written, and followed by a newline. The converter must
+ * produce JSON or text without newlines; other elements fail the call. Elements are requested
+ * one at a time as the previous one has been written to the connection, so a slow connection
+ * slows the publisher down. The publisher is subscribed to each time the body is written, which
+ * may be more than once if the request is retried.
+ * <p>
+ * A publisher which emits nothing for longer than the client's write timeout fails the call.
+ * Canceling a call made with {@link FlowCallAdapterFactory} stops waiting for the publisher
+ * right away; other calls notice cancellation when the publisher next emits or times out.
+ * <p>
+ * Add this factory before any converter which could claim {@code Flow.Publisher} itself.
+ */
+public final class PublisherConverterFactory extends Converter.Factory {
+  public static PublisherConverterFactory create() {
+    return new PublisherConverterFactory();
+  }
+
+  private PublisherConverterFactory() {
+  }
+
+  @Override public @Nullable Converter<?, RequestBody> requestBodyConverter(Type type,
+      Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+    if (getRawType(type) != Flow.Publisher.class) {
+      return null;
+    }
+    if (!(type instanceof ParameterizedType)) {
+      throw new IllegalStateException("Publisher body must be parameterized"
+          + " as Publisher<Foo> or Publisher<? extends Foo>");
+    }
+    Type elementType = getParameterUpperBound(0, (ParameterizedType) type);
+    Converter<?, RequestBody> elementConverter = retrofit.nextRequestBodyConverter(this,
+        elementType, parameterAnnotations, methodAnnotations);
+    return new PublisherRequestBodyConverter<>(elementConverter);
+  }
+
+  static final class PublisherRequestBodyConverter<T>
+      implements Converter<Flow.Publisher<T>, RequestBody> {
+    private final Converter<T, RequestBody> elementConverter;
+
+    @SuppressWarnings("unchecked") // The element converter was created for T.
+    PublisherRequestBodyConverter(Converter<?, RequestBody> elementConverter) {
+      this.elementConverter = (Converter<T, RequestBody>) elementConverter;
+    }
+
+    @Override public RequestBody convert(Flow.Publisher<T> publisher) {
+      return new PublisherRequestBody<>(publisher, elementConverter);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.flow;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ProtocolException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Timeout;
+import retrofit2.Converter;
+
+/**
+ * Writes the elements of a publisher as they arrive, requesting each after the previous one. The
+ * wait for each element is bounded by the sink's timeout, which is the client's write timeout.
+ */
+final class PublisherRequestBody<T> extends RequestBody {
+  private static final MediaType NDJSON = MediaType.get("application/x-ndjson");
+
+  private final Flow.Publisher<T> publisher;
+  private final Converter<T, RequestBody> elementConverter;
+  private volatile boolean canceled;
+  private volatile @Nullable SinkSubscriber<T> writing;
+
+  PublisherRequestBody(Flow.Publisher<T> publisher, Converter<T, RequestBody> elementConverter) {
+    this.publisher = publisher;
+    this.elementConverter = elementConverter;
+  }
+
+  @Override public MediaType contentType() {
+    return NDJSON;
+  }
+
+  /**
+   * Stops waiting for the publisher. Canceling the HTTP call closes its connection, which a writer
+   * blocked on the publisher rather than the connection would otherwise not notice.
+   */
+  void cancel() {
+    canceled = true;
+    SinkSubscriber<T> subscriber = writing;
+    if (subscriber != null) {
+      subscriber.signals.add(SinkSubscriber.CANCELED);
+    }
+  }
+
+  @Override public void writeTo(BufferedSink sink) throws IOException {
+    SinkSubscriber<T> subscriber = new SinkSubscriber<>();
+    writing = subscriber;
+    if (canceled) throw new IOException("Canceled");
+    publisher.subscribe(subscriber);
+    boolean completed = false;
+    try {
+      while (true) {
+        Object signal = subscriber.poll(sink.timeout());
+        if (signal == SinkSubscriber.CANCELED) throw new IOException("Canceled");
+        if (signal == SinkSubscriber.COMPLETE) {
+          completed = true;
+          return;
+        }
+        if (signal instanceof SinkSubscriber.Failure) {
+          completed = true;
+          Throwable error = ((SinkSubscriber.Failure) signal).error;
+          if (error instanceof IOException) throw (IOException) error;
+          throw new IOException("Publisher failed", error);
+        }
+
+        @SuppressWarnings("unchecked") // Only elements remain.
+        T element = (T) signal;
+        sink.writeAll(encode(elementConverter.convert(element)));
+        sink.writeByte('\n');
+        sink.flush(); // Send each element when it is produced.
+        subscriber.request();
+      }
+    } finally {
+      writing = null;
+      if (!completed) {
+        subscriber.cancel();
+      }
+    }
+  }
+
+  /** Returns the bytes of {@code body}, which must be one line of JSON or text. */
+  static Buffer encode(RequestBody body) throws IOException {
+    MediaType contentType = body.contentType();
+    if (contentType == null
+        || !contentType.type().equals("text")
+        && !contentType.subtype().equals("json")
+        && !contentType.subtype().endsWith("+json")) {
+      throw new ProtocolException("Newline-delimited elements must be JSON or text but were "
+          + contentType);
+    }
+    Buffer encoded = new Buffer();
+    body.writeTo(encoded);
+    if (encoded.indexOf((byte) '\n') != -1) {
+      throw new ProtocolException("Element contains a newline, which would split it in two.");
+    }
+    return encoded;
+  }
+
+  /** Queues the signals of a publisher for the writing thread. */
+  static final class SinkSubscriber<T> implements Flow.Subscriber<T> {
+    static final Object COMPLETE = new Object();
+    static final Object CANCELED = new Object();
+
+    static final class Failure {
+      final Throwable error;
+
+      Failure(Throwable error) {
+        this.error = error;
+      }
+    }
+
+    final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+    private volatile @Nullable Flow.Subscription subscription;
+    private volatile boolean canceled;
+
+    @Override public void onSubscribe(Flow.Subscription subscription) {
+      if (this.subscription != null || canceled) {
+        subscription.cancel(); // Rule 2.5.
+        return;
+      }
+      this.subscription = subscription;
+      subscription.request(1);
+    }
+
+    @Override public void onNext(T element) {
+      if (element == null) {
+        onError(new NullPointerException("Publisher emitted a null element"));
+        return;
+      }
+      signals.add(element);
+    }
+
+    @Override public void onError(Throwable error) {
+      signals.add(new Failure(error));
+    }
+
+    @Override public void onComplete() {
+      signals.add(COMPLETE);
+    }
+
+    /** Returns the next signal, waiting no longer than {@code timeout} allows. */
+    Object poll(Timeout timeout) throws IOException {
+      long waitNanos = timeout.timeoutNanos();
+      if (timeout.hasDeadline()) {
+        long untilDeadline = Math.max(timeout.deadlineNanoTime() - System.nanoTime(), 1L);
+        waitNanos = waitNanos != 0L ? Math.min(waitNanos, untilDeadline) : untilDeadline;
+      }
+      try {
+        if (waitNanos == 0L) return signals.take(); // No timeout.
+        Object signal = signals.poll(waitNanos, TimeUnit.NANOSECONDS);
+        if (signal == null) throw new InterruptedIOException("Timed out waiting for the publisher");
+        return signal;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted waiting for the publisher");
+      }
+    }
+
+    void request() {
+      Flow.Subscription subscription = this.subscription;
+      if (subscription != null) {
+        subscription.request(1);
+      }
+    }
+
+    void cancel() {
+      canceled = true;
+      Flow.Subscription subscription = this.subscription;
+      if (subscription != null) {
+        subscription.cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package retrofit2.adapter.flow;
+
+import javax.annotation.ParametersAreNonnullByDefault;
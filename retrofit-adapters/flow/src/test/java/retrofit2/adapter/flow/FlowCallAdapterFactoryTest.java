@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.flow;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+import static okhttp3.mockwebserver.SocketPolicy.NO_RESPONSE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FlowCallAdapterFactoryTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @GET("/") Flow.Publisher<String> body();
+    @GET("/") Flow.Publisher<Response<String>> response();
+    @Streaming @GET("/") Flow.Publisher<String> elements();
+  }
+
+  private final List<okhttp3.Call> rawCalls = new CopyOnWriteArrayList<>();
+  private Service service;
+
+  @Before public void setUp() {
+    final OkHttpClient client = new OkHttpClient();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .callFactory(new okhttp3.Call.Factory() {
+          @Override public okhttp3.Call newCall(Request request) {
+            okhttp3.Call call = client.newCall(request);
+            rawCalls.add(call);
+            return call;
+          }
+        })
+        .addConverterFactory(new StringConverterFactory())
+        .addCallAdapterFactory(FlowCallAdapterFactory.create())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void bodySuccess200() throws InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(1);
+    service.body().subscribe(subscriber);
+    subscriber.assertValue("Hi").assertComplete();
+  }
+
+  @Test public void bodySuccess204CompletesEmpty() throws InterruptedException {
+    server.enqueue(new MockResponse().setResponseCode(204));
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(1);
+    service.body().subscribe(subscriber);
+    subscriber.assertComplete();
+  }
+
+  @Test public void bodySuccess404() throws InterruptedException {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(1);
+    service.body().subscribe(subscriber);
+    Throwable error = subscriber.takeError();
+    assertThat(error).isInstanceOf(HttpException.class).hasMessage("HTTP 404 Client Error");
+  }
+
+  @Test public void responseSuccess404() throws InterruptedException {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    RecordingSubscriber<Response<String>> subscriber = new RecordingSubscriber<>(1);
+    service.response().subscribe(subscriber);
+    Response<?> response = (Response<?>) subscriber.takeValue();
+    assertThat(response.code()).isEqualTo(404);
+    subscriber.assertComplete();
+  }
+
+  @Test public void nothingHappensUntilRequested() throws InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(0);
+    service.body().subscribe(subscriber);
+    subscriber.assertNoEvents();
+    assertThat(rawCalls).isEmpty();
+
+    subscriber.request(1);
+    subscriber.assertValue("Hi").assertComplete();
+  }
+
+  @Test public void elementsFollowDemand() throws InterruptedException {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("1\n2\n3\n"));
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(1);
+    service.elements().subscribe(subscriber);
+    subscriber.assertValue("1");
+    subscriber.assertNoEvents();
+
+    subscriber.request(2);
+    subscriber.assertValue("2").assertValue("3");
+    subscriber.assertNoEvents();
+
+    subscriber.request(1);
+    subscriber.assertComplete();
+  }
+
+  @Test public void eventStreamElements() throws InterruptedException {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "text/event-stream")
+        .setBody("data: one\n\ndata: two\n\n"));
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(Long.MAX_VALUE);
+    service.elements().subscribe(subscriber);
+    subscriber.assertValue("one").assertValue("two").assertComplete();
+  }
+
+  @Test public void eachSubscriberMakesACall() throws InterruptedException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+    server.enqueue(new MockResponse().setBody("Hello"));
+
+    Flow.Publisher<String> publisher = service.body();
+    RecordingSubscriber<String> first = new RecordingSubscriber<>(1);
+    publisher.subscribe(first);
+    first.assertValue("Hi").assertComplete();
+    RecordingSubscriber<String> second = new RecordingSubscriber<>(1);
+    publisher.subscribe(second);
+    second.assertValue("Hello").assertComplete();
+  }
+
+  @Test public void cancelingTheSubscriptionCancelsTheCall() throws InterruptedException {
+    server.enqueue(new MockResponse().setSocketPolicy(NO_RESPONSE));
+
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(1);
+    service.body().subscribe(subscriber);
+    server.takeRequest();
+    assertThat(rawCalls).hasSize(1);
+
+    subscriber.cancel();
+    assertThat(rawCalls.get(0).isCanceled()).isTrue();
+    subscriber.assertNoEvents();
+  }
+
+  @Test public void nonPositiveRequestIsAnError() throws InterruptedException {
+    RecordingSubscriber<String> subscriber = new RecordingSubscriber<>(0);
+    service.body().subscribe(subscriber);
+    subscriber.request(0);
+    assertThat(subscriber.takeError())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("n <= 0: 0");
+    assertThat(server.getRequestCount()).isEqualTo(0);
+  }
+}
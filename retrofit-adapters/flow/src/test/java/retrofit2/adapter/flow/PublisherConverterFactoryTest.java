@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.flow;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.ProtocolException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.POST;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class PublisherConverterFactoryTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @POST("/") Call<ResponseBody> send(@Body Flow.Publisher<String> body);
+    @POST("/") Flow.Publisher<String> upload(@Body Flow.Publisher<String> body);
+  }
+
+  /** Never emits, counting down as it is subscribed to and canceled. */
+  static final class StalledPublisher implements Flow.Publisher<String> {
+    final CountDownLatch subscribed = new CountDownLatch(1);
+    final CountDownLatch canceled = new CountDownLatch(1);
+
+    @Override public void subscribe(Flow.Subscriber<? super String> subscriber) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override public void request(long n) {
+        }
+
+        @Override public void cancel() {
+          canceled.countDown();
+        }
+      });
+      subscribed.countDown();
+    }
+  }
+
+  /** Publishes its elements in order, recording the largest outstanding demand it saw. */
+  static final class ListPublisher implements Flow.Publisher<String> {
+    final List<String> elements;
+    final AtomicInteger maxDemand = new AtomicInteger();
+    final Throwable error;
+
+    ListPublisher(Throwable error, String... elements) {
+      this.error = error;
+      this.elements = Arrays.asList(elements);
+    }
+
+    @Override public void subscribe(final Flow.Subscriber<? super String> subscriber) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        int index;
+        long demand;
+        boolean done;
+
+        @Override public void request(long n) {
+          demand += n;
+          maxDemand.set(Math.max(maxDemand.get(), (int) demand));
+          while (!done && demand > 0 && index < elements.size()) {
+            demand--;
+            subscriber.onNext(elements.get(index++));
+          }
+          if (!done && index == elements.size()) {
+            done = true;
+            if (error != null) {
+              subscriber.onError(error);
+            } else {
+              subscriber.onComplete();
+            }
+          }
+        }
+
+        @Override public void cancel() {
+          done = true;
+        }
+      });
+    }
+  }
+
+  private Service service;
+
+  @Before public void setUp() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(PublisherConverterFactory.create())
+        .addConverterFactory(new StringConverterFactory())
+        .addCallAdapterFactory(FlowCallAdapterFactory.create())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void elementsAreNewlineDelimited() throws Exception {
+    server.enqueue(new MockResponse());
+
+    ListPublisher publisher = new ListPublisher(null, "{\"a\":1}", "{\"b\":2}");
+    service.send(publisher).execute();
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/x-ndjson");
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getBody().readUtf8()).isEqualTo("{\"a\":1}\n{\"b\":2}\n");
+    assertThat(publisher.maxDemand.get()).isEqualTo(1);
+  }
+
+  @Test public void emptyPublisher() throws Exception {
+    server.enqueue(new MockResponse());
+
+    service.send(new ListPublisher(null)).execute();
+    assertThat(server.takeRequest().getBodySize()).isEqualTo(0);
+  }
+
+  @Test public void publisherErrorFailsTheCall() {
+    server.enqueue(new MockResponse());
+
+    IOException error = new IOException("Broken");
+    try {
+      service.send(new ListPublisher(error, "a")).execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).isSameAs(error);
+    }
+  }
+
+  @Test public void publisherRuntimeErrorIsWrapped() {
+    server.enqueue(new MockResponse());
+
+    IllegalStateException error = new IllegalStateException("Broken");
+    try {
+      service.send(new ListPublisher(error)).execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Publisher failed");
+      assertThat(e.getCause()).isSameAs(error);
+    }
+  }
+
+  @Test public void stalledPublisherTimesOut() throws Exception {
+    server.enqueue(new MockResponse());
+
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .client(new OkHttpClient.Builder().writeTimeout(100, TimeUnit.MILLISECONDS).build())
+        .addConverterFactory(PublisherConverterFactory.create())
+        .addConverterFactory(new StringConverterFactory())
+        .build()
+        .create(Service.class);
+    StalledPublisher publisher = new StalledPublisher();
+    try {
+      service.send(publisher).execute();
+      fail();
+    } catch (InterruptedIOException e) {
+      assertThat(e).hasMessage("Timed out waiting for the publisher");
+    }
+    assertThat(publisher.canceled.getCount()).isEqualTo(0);
+  }
+
+  @Test public void cancelingStopsWaitingForThePublisher() throws Exception {
+    server.enqueue(new MockResponse());
+
+    StalledPublisher publisher = new StalledPublisher();
+    final CountDownLatch subscribed = new CountDownLatch(1);
+    final Flow.Subscription[] subscription = new Flow.Subscription[1];
+    service.upload(publisher).subscribe(new Flow.Subscriber<String>() {
+      @Override public void onSubscribe(Flow.Subscription s) {
+        subscription[0] = s;
+        subscribed.countDown();
+        s.request(1);
+      }
+
+      @Override public void onNext(String item) {
+      }
+
+      @Override public void onError(Throwable throwable) {
+      }
+
+      @Override public void onComplete() {
+      }
+    });
+    assertThat(subscribed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(publisher.subscribed.await(5, TimeUnit.SECONDS)).isTrue(); // The body is writing.
+
+    subscription[0].cancel();
+    // Sooner than OkHttp's default 10 second write timeout.
+    assertThat(publisher.canceled.await(2, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test public void binaryElementsAreRejected() {
+    server.enqueue(new MockResponse());
+
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(PublisherConverterFactory.create())
+        .addConverterFactory(new Converter.Factory() {
+          @Override public Converter<?, RequestBody> requestBodyConverter(Type type,
+              Annotation[] parameterAnnotations, Annotation[] methodAnnotations,
+              Retrofit retrofit) {
+            return new Converter<String, RequestBody>() {
+              @Override public RequestBody convert(String value) {
+                return RequestBody.create(MediaType.get("application/x-protobuf"),
+                    ByteString.encodeUtf8(value));
+              }
+            };
+          }
+        })
+        .build()
+        .create(Service.class);
+    try {
+      service.send(new ListPublisher(null, "a")).execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).isInstanceOf(ProtocolException.class)
+          .hasMessage("Newline-delimited elements must be JSON or text but were"
+              + " application/x-protobuf");
+    }
+  }
+
+  @Test public void elementsWithNewlinesAreRejected() {
+    server.enqueue(new MockResponse());
+
+    try {
+      service.send(new ListPublisher(null, "a\nb")).execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).isInstanceOf(ProtocolException.class)
+          .hasMessage("Element contains a newline, which would split it in two.");
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.flow;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** A test {@link Flow.Subscriber} which records its signals. */
+final class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+  private final long initialRequest;
+  private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+  private Flow.Subscription subscription;
+
+  RecordingSubscriber(long initialRequest) {
+    this.initialRequest = initialRequest;
+  }
+
+  @Override public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    if (initialRequest > 0) {
+      subscription.request(initialRequest);
+    }
+  }
+
+  @Override public void onNext(T value) {
+    events.add(new Value(value));
+  }
+
+  @Override public void onComplete() {
+    events.add("complete");
+  }
+
+  @Override public void onError(Throwable error) {
+    events.add(error);
+  }
+
+  void request(long n) {
+    subscription.request(n);
+  }
+
+  void cancel() {
+    subscription.cancel();
+  }
+
+  private Object take() throws InterruptedException {
+    Object event = events.poll(5, TimeUnit.SECONDS);
+    if (event == null) throw new AssertionError("Timed out waiting for an event");
+    return event;
+  }
+
+  RecordingSubscriber<T> assertValue(T value) throws InterruptedException {
+    Object event = take();
+    assertThat(event).isInstanceOf(Value.class);
+    assertThat(((Value) event).value).isEqualTo(value);
+    return this;
+  }
+
+  Object takeValue() throws InterruptedException {
+    Object event = take();
+    assertThat(event).isInstanceOf(Value.class);
+    return ((Value) event).value;
+  }
+
+  void assertComplete() throws InterruptedException {
+    assertThat(take()).isEqualTo("complete");
+  }
+
+  Throwable takeError() throws InterruptedException {
+    Object event = take();
+    assertThat(event).isInstanceOf(Throwable.class);
+    return (Throwable) event;
+  }
+
+  void assertNoEvents() throws InterruptedException {
+    assertThat(events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  private static final class Value {
+    final Object value;
+
+    Value(Object value) {
+      this.value = value;
+    }
+  }
+}
@@ -46,7 +46,12 @@ import retrofit2.Retrofit;
  * {@link Response} object for all HTTP responses and sets {@link IOException} for network
  * errors</li>
  * </ul>
+ *
+ * @deprecated Retrofit includes support for {@code CompletableFuture} and {@code CompletionStage}
+ * on Java 8 and completes them on the {@linkplain Retrofit.Builder#callbackExecutor callback
+ * executor}. This no longer needs to be added to the {@link Retrofit} instance explicitly.
  */
+@Deprecated
 public final class Java8CallAdapterFactory extends CallAdapter.Factory {
   public static Java8CallAdapterFactory create() {
     return new Java8CallAdapterFactory();
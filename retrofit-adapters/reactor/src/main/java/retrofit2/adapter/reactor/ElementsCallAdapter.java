@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.reactor;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
+import retrofit2.ElementReader;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/** Adapts {@link retrofit2.http.Streaming @Streaming} methods returning {@code Flux<T>}. */
+final class ElementsCallAdapter<T> implements CallAdapter<ResponseBody, Flux<T>> {
+  private final Converter<ResponseBody, T> converter;
+  private final @Nullable Scheduler scheduler;
+
+  ElementsCallAdapter(Converter<ResponseBody, T> converter, @Nullable Scheduler scheduler) {
+    this.converter = converter;
+    this.scheduler = scheduler;
+  }
+
+  @Override public Type responseType() {
+    return ResponseBody.class;
+  }
+
+  @Override public Flux<T> adapt(final Call<ResponseBody> originalCall) {
+    Flux<T> flux = Flux.defer(new Supplier<Publisher<T>>() {
+      @Override public Publisher<T> get() {
+        // Since Call is a one-shot type, clone it for each new subscriber.
+        final Call<ResponseBody> call = originalCall.clone();
+        return ReactorCallAdapter.enqueue(call)
+            .flatMapMany(new Function<Response<ResponseBody>, Publisher<T>>() {
+              @Override public Publisher<T> apply(Response<ResponseBody> response) {
+                if (!response.isSuccessful()) {
+                  return Flux.error(new HttpException(response));
+                }
+                //noinspection ConstantConditions Successful responses have a body.
+                return elements(call, ElementReader.create(response.body(), converter));
+              }
+            });
+      }
+    });
+    if (scheduler != null) {
+      flux = flux.publishOn(scheduler);
+    }
+    return flux;
+  }
+
+  private static <T> Flux<T> elements(final Call<ResponseBody> call,
+      final ElementReader<T> reader) {
+    return Flux.generate(new Callable<ElementReader<T>>() {
+      @Override public ElementReader<T> call() {
+        return reader;
+      }
+    }, new BiFunction<ElementReader<T>, SynchronousSink<T>, ElementReader<T>>() {
+      @Override public ElementReader<T> apply(ElementReader<T> reader, SynchronousSink<T> sink) {
+        try {
+          T element = reader.read();
+          if (element != null) {
+            sink.next(element);
+          } else {
+            sink.complete();
+          }
+        } catch (IOException e) {
+          if (call.isCanceled()) {
+            // Canceling the call to stop a blocked read fails the read. Nobody is listening.
+            sink.complete();
+          } else {
+            sink.error(e);
+          }
+        }
+        return reader;
+      }
+    }, new Consumer<ElementReader<T>>() {
+      @Override public void accept(ElementReader<T> reader) {
+        reader.close();
+      }
+    }).doOnCancel(new Runnable() {
+      @Override public void run() {
+        call.cancel();
+      }
+    }).subscribeOn(Schedulers.elastic()); // Requests move to the worker, so reads happen there.
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.reactor;
+
+import java.lang.reflect.Type;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+final class ReactorCallAdapter<R> implements CallAdapter<R, Object> {
+  private final Type responseType;
+  private final @Nullable Scheduler scheduler;
+  private final boolean isResult;
+  private final boolean isBody;
+  private final boolean isFlux;
+
+  ReactorCallAdapter(Type responseType, @Nullable Scheduler scheduler, boolean isResult,
+      boolean isBody, boolean isFlux) {
+    this.responseType = responseType;
+    this.scheduler = scheduler;
+    this.isResult = isResult;
+    this.isBody = isBody;
+    this.isFlux = isFlux;
+  }
+
+  @Override public Type responseType() {
+    return responseType;
+  }
+
+  @Override public Object adapt(final Call<R> call) {
+    Mono<Response<R>> responseMono = Mono.defer(new Supplier<Mono<Response<R>>>() {
+      @Override public Mono<Response<R>> get() {
+        // Since Call is a one-shot type, clone it for each new subscriber.
+        return enqueue(call.clone());
+      }
+    });
+
+    Mono<?> mono;
+    if (isResult) {
+      mono = responseMono.map(new Function<Response<R>, Result<R>>() {
+        @Override public Result<R> apply(Response<R> response) {
+          return Result.response(response);
+        }
+      }).onErrorResume(new Function<Throwable, Mono<Result<R>>>() {
+        @Override public Mono<Result<R>> apply(Throwable t) {
+          return Mono.just(Result.<R>error(t));
+        }
+      });
+    } else if (isBody) {
+      mono = responseMono.flatMap(new Function<Response<R>, Mono<R>>() {
+        @Override public Mono<R> apply(Response<R> response) {
+          if (response.isSuccessful()) {
+            return Mono.justOrEmpty(response.body());
+          }
+          return Mono.error(new HttpException(response));
+        }
+      });
+    } else {
+      mono = responseMono;
+    }
+
+    if (scheduler != null) {
+      mono = mono.publishOn(scheduler);
+    }
+
+    return isFlux ? mono.flux() : mono;
+  }
+
+  /**
+   * Returns a mono which enqueues {@code call} and cancels it when the subscription is canceled.
+   * Callers clone the call for each subscriber, so that they can refer to the call which runs.
+   */
+  static <T> Mono<Response<T>> enqueue(final Call<T> call) {
+    return Mono.create(new Consumer<MonoSink<Response<T>>>() {
+      @Override public void accept(final MonoSink<Response<T>> sink) {
+        sink.onCancel(new Disposable() {
+          @Override public void dispose() {
+            call.cancel();
+          }
+        });
+        call.enqueue(new Callback<T>() {
+          @Override public void onResponse(Call<T> call, Response<T> response) {
+            sink.success(response);
+          }
+
+          @Override public void onFailure(Call<T> call, Throwable t) {
+            // Only canceling the subscription cancels the call. Its error has nowhere to go.
+            if (!call.isCanceled()) {
+              sink.error(t);
+            }
+          }
+        });
+      }
+    });
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.reactor;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.Streaming;
+
+/**
+ * A {@linkplain CallAdapter.Factory call adapter} which uses Reactor for creating publishers.
+ * <p>
+ * Adding this class to {@link Retrofit} allows you to return a {@link Mono} or {@link Flux} from
+ * service methods.
+ * <pre><code>
+ * interface MyService {
+ *   &#64;GET("user/me")
+ *   Mono&lt;User&gt; getUser()
+ * }
+ * </code></pre>
+ * There are three configurations supported for the {@code Mono} and {@code Flux} type parameter:
+ * <ul>
+ * <li>Direct body (e.g., {@code Mono<User>}) emits the deserialized body for 2XX responses and
+ * signals {@link HttpException} for non-2XX responses and {@link IOException} for network
+ * errors. A 2XX response without a body completes empty.</li>
+ * <li>Response wrapped body (e.g., {@code Mono<Response<User>>}) emits a {@link Response} object
+ * for all HTTP responses and signals {@link IOException} for network errors</li>
+ * <li>Result wrapped body (e.g., {@code Mono<Result<User>>}) emits a {@link Result} object for
+ * all HTTP responses and errors.</li>
+ * </ul>
+ * Calls are {@linkplain retrofit2.Call#enqueue enqueued} when a subscriber subscribes, so no
+ * thread waits for the response. Each subscription makes its own call, and canceling the
+ * subscription cancels the call.
+ * <p>
+ * A direct body {@code Flux} of a {@link Streaming @Streaming} method (e.g.,
+ * {@code Flux<Event>}) emits each element of a {@code text/event-stream} or
+ * {@code application/x-ndjson} response as described by {@link retrofit2.ElementReader}. Elements
+ * are read and converted only as they are requested, on a
+ * {@linkplain reactor.core.scheduler.Schedulers#elastic() elastic} worker because reading them
+ * blocks.
+ */
+public final class ReactorCallAdapterFactory extends CallAdapter.Factory {
+  /** Returns an instance which signals on the HTTP client's threads. */
+  public static ReactorCallAdapterFactory create() {
+    return new ReactorCallAdapterFactory(null);
+  }
+
+  /**
+   * Returns an instance which {@linkplain Mono#publishOn(Scheduler) publishes on}
+   * {@code scheduler}.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static ReactorCallAdapterFactory createWithScheduler(Scheduler scheduler) {
+    if (scheduler == null) throw new NullPointerException("scheduler == null");
+    return new ReactorCallAdapterFactory(scheduler);
+  }
+
+  private final @Nullable Scheduler scheduler;
+
+  private ReactorCallAdapterFactory(@Nullable Scheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+    Class<?> rawType = getRawType(returnType);
+    boolean isFlux = rawType == Flux.class;
+    if (rawType != Mono.class && !isFlux) {
+      return null;
+    }
+
+    String name = isFlux ? "Flux" : "Mono";
+    if (!(returnType instanceof ParameterizedType)) {
+      throw new IllegalStateException(name + " return type must be parameterized"
+          + " as " + name + "<Foo> or " + name + "<? extends Foo>");
+    }
+
+    boolean isResult = false;
+    boolean isBody = false;
+    Type responseType;
+    Type publisherType = getParameterUpperBound(0, (ParameterizedType) returnType);
+    Class<?> rawPublisherType = getRawType(publisherType);
+    if (rawPublisherType == Response.class) {
+      if (!(publisherType instanceof ParameterizedType)) {
+        throw new IllegalStateException("Response must be parameterized"
+            + " as Response<Foo> or Response<? extends Foo>");
+      }
+      responseType = getParameterUpperBound(0, (ParameterizedType) publisherType);
+    } else if (rawPublisherType == Result.class) {
+      if (!(publisherType instanceof ParameterizedType)) {
+        throw new IllegalStateException("Result must be parameterized"
+            + " as Result<Foo> or Result<? extends Foo>");
+      }
+      responseType = getParameterUpperBound(0, (ParameterizedType) publisherType);
+      isResult = true;
+    } else {
+      responseType = publisherType;
+      isBody = true;
+
+      if (isFlux && rawPublisherType != ResponseBody.class && isStreaming(annotations)) {
+        Converter<ResponseBody, ?> converter =
+            retrofit.responseBodyConverter(responseType, annotations);
+        return new ElementsCallAdapter<>(converter, scheduler);
+      }
+    }
+
+    return new ReactorCallAdapter<>(responseType, scheduler, isResult, isBody, isFlux);
+  }
+
+  private static boolean isStreaming(Annotation[] annotations) {
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof Streaming) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
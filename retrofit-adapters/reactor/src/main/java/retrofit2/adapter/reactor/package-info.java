@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package retrofit2.adapter.reactor;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.reactor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import retrofit2.HttpException;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class FluxTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @GET("/") Flux<String> body();
+    @Streaming @GET("/") Flux<String> elements();
+  }
+
+  private Service service;
+
+  @Before public void setUp() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new StringConverterFactory())
+        .addCallAdapterFactory(ReactorCallAdapterFactory.create())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void bodyIsOneElement() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("1\n2\n"));
+
+    assertThat(service.body().collectList().block()).containsExactly("1\n2\n");
+  }
+
+  @Test public void ndjsonElements() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("1\n2\n3\n"));
+
+    assertThat(service.elements().collectList().block()).isEqualTo(Arrays.asList("1", "2", "3"));
+  }
+
+  @Test public void eventStreamElements() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "text/event-stream")
+        .setBody("data: one\n\n: comment\n\ndata: two\n\n"));
+
+    assertThat(service.elements().collectList().block()).isEqualTo(Arrays.asList("one", "two"));
+  }
+
+  @Test public void elementsAreLimitedByDemand() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("1\n2\n3\n"));
+
+    assertThat(service.elements().take(2).collectList().block())
+        .isEqualTo(Arrays.asList("1", "2"));
+  }
+
+  @Test public void cancelingElementsCancelsBlockedRead() throws InterruptedException {
+    final List<okhttp3.Call> rawCalls = new CopyOnWriteArrayList<>();
+    final OkHttpClient client = new OkHttpClient();
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .callFactory(new okhttp3.Call.Factory() {
+          @Override public okhttp3.Call newCall(Request request) {
+            okhttp3.Call call = client.newCall(request);
+            rawCalls.add(call);
+            return call;
+          }
+        })
+        .addConverterFactory(new StringConverterFactory())
+        .addCallAdapterFactory(ReactorCallAdapterFactory.create())
+        .build()
+        .create(Service.class);
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("1\n2\n")
+        .throttleBody(2, 1, SECONDS)); // The second element arrives a second later.
+
+    final CountDownLatch first = new CountDownLatch(1);
+    Disposable disposable = service.elements().subscribe(new Consumer<String>() {
+      @Override public void accept(String element) {
+        first.countDown();
+      }
+    });
+    assertThat(first.await(5, SECONDS)).isTrue();
+    disposable.dispose(); // While the worker is blocked reading the second element.
+
+    assertThat(rawCalls).hasSize(1);
+    assertThat(rawCalls.get(0).isCanceled()).isTrue();
+  }
+
+  @Test public void elementsHttpError() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    try {
+      service.elements().collectList().block();
+      fail();
+    } catch (HttpException e) {
+      assertThat(e).hasMessage("HTTP 404 Client Error");
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.reactor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import static okhttp3.mockwebserver.SocketPolicy.DISCONNECT_AFTER_REQUEST;
+import static okhttp3.mockwebserver.SocketPolicy.NO_RESPONSE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class MonoTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @GET("/") Mono<String> body();
+    @GET("/") Mono<Response<String>> response();
+    @GET("/") Mono<Result<String>> result();
+  }
+
+  private final List<okhttp3.Call> rawCalls = new ArrayList<>();
+  private Service service;
+
+  @Before public void setUp() {
+    final OkHttpClient client = new OkHttpClient();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .callFactory(new okhttp3.Call.Factory() {
+          @Override public okhttp3.Call newCall(Request request) {
+            okhttp3.Call call = client.newCall(request);
+            rawCalls.add(call);
+            return call;
+          }
+        })
+        .addConverterFactory(new StringConverterFactory())
+        .addCallAdapterFactory(ReactorCallAdapterFactory.create())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void bodySuccess200() {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    assertThat(service.body().block()).isEqualTo("Hi");
+  }
+
+  @Test public void bodySuccess204IsEmpty() {
+    server.enqueue(new MockResponse().setResponseCode(204));
+
+    assertThat(service.body().block()).isNull();
+  }
+
+  @Test public void bodySuccess404() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    try {
+      service.body().block();
+      fail();
+    } catch (HttpException e) {
+      assertThat(e).hasMessage("HTTP 404 Client Error");
+    }
+  }
+
+  @Test public void bodyFailure() {
+    server.enqueue(new MockResponse().setSocketPolicy(DISCONNECT_AFTER_REQUEST));
+
+    try {
+      service.body().block();
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(Exceptions.unwrap(e)).isInstanceOf(IOException.class);
+    }
+  }
+
+  @Test public void responseSuccess404() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    Response<String> response = service.response().block();
+    assertThat(response.isSuccessful()).isFalse();
+  }
+
+  @Test public void resultSuccess200() {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    Result<String> result = service.result().block();
+    assertThat(result.isError()).isFalse();
+    assertThat(result.response().body()).isEqualTo("Hi");
+  }
+
+  @Test public void resultFailure() {
+    server.enqueue(new MockResponse().setSocketPolicy(DISCONNECT_AFTER_REQUEST));
+
+    Result<String> result = service.result().block();
+    assertThat(result.isError()).isTrue();
+    assertThat(result.error()).isInstanceOf(IOException.class);
+  }
+
+  @Test public void nothingHappensUntilSubscribed() {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    Mono<String> mono = service.body();
+    assertThat(rawCalls).isEmpty();
+    assertThat(mono.block()).isEqualTo("Hi");
+    assertThat(rawCalls).hasSize(1);
+  }
+
+  @Test public void eachSubscriptionMakesACall() {
+    server.enqueue(new MockResponse().setBody("Hi"));
+    server.enqueue(new MockResponse().setBody("Hello"));
+
+    Mono<String> mono = service.body();
+    assertThat(mono.block()).isEqualTo("Hi");
+    assertThat(mono.block()).isEqualTo("Hello");
+    assertThat(server.getRequestCount()).isEqualTo(2);
+  }
+
+  @Test public void cancelingTheSubscriptionCancelsTheCall() {
+    server.enqueue(new MockResponse().setSocketPolicy(NO_RESPONSE));
+
+    Disposable disposable = service.body().subscribe();
+    assertThat(rawCalls).hasSize(1);
+    assertThat(rawCalls.get(0).isCanceled()).isFalse();
+
+    disposable.dispose();
+    assertThat(rawCalls.get(0).isCanceled()).isTrue();
+  }
+}
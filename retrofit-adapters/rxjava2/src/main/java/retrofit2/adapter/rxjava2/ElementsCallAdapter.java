@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.rxjava2;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.plugins.RxJavaPlugins;
+import java.lang.reflect.Type;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
+
+/** Adapts {@link retrofit2.http.Streaming @Streaming} methods returning {@code Flowable<T>}. */
+final class ElementsCallAdapter<T> implements CallAdapter<ResponseBody, Flowable<T>> {
+  private final Converter<ResponseBody, T> converter;
+  private final @Nullable Scheduler scheduler;
+
+  ElementsCallAdapter(Converter<ResponseBody, T> converter, @Nullable Scheduler scheduler) {
+    this.converter = converter;
+    this.scheduler = scheduler;
+  }
+
+  @Override public Type responseType() {
+    return ResponseBody.class;
+  }
+
+  @Override public Flowable<T> adapt(Call<ResponseBody> call) {
+    Flowable<T> flowable = new ElementsFlowable<>(call, converter);
+    if (scheduler != null) {
+      // Requests are also moved to the scheduler, so elements are read there.
+      flowable = flowable.subscribeOn(scheduler);
+    }
+    return RxJavaPlugins.onAssembly(flowable);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.rxjava2;
+
+import io.reactivex.Emitter;
+import io.reactivex.Flowable;
+import io.reactivex.functions.Action;
+import io.reactivex.functions.BiConsumer;
+import io.reactivex.functions.Consumer;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
+import org.reactivestreams.Subscriber;
+import retrofit2.Call;
+import retrofit2.Converter;
+import retrofit2.ElementReader;
+import retrofit2.Response;
+
+/**
+ * Emits the elements of a streaming response body, reading and converting each one only when it
+ * is requested. The call is executed when the first element is requested.
+ */
+final class ElementsFlowable<T> extends Flowable<T> {
+  private final Call<ResponseBody> originalCall;
+  private final Converter<ResponseBody, T> converter;
+
+  ElementsFlowable(Call<ResponseBody> originalCall, Converter<ResponseBody, T> converter) {
+    this.originalCall = originalCall;
+    this.converter = converter;
+  }
+
+  @Override protected void subscribeActual(Subscriber<? super T> subscriber) {
+    // Since Call is a one-shot type, clone it for each new subscriber.
+    CallElements<T> elements = new CallElements<>(originalCall.clone(), converter);
+    Flowable.generate(elements, elements, elements)
+        .doOnCancel(elements)
+        .subscribe(subscriber);
+  }
+
+  /** The state, generator, disposer, and cancel action of one subscription. */
+  private static final class CallElements<T> implements Callable<CallElements<T>>,
+      BiConsumer<CallElements<T>, Emitter<T>>, Consumer<CallElements<T>>, Action {
+    private final Call<ResponseBody> call;
+    private final Converter<ResponseBody, T> converter;
+    // Only used from the generator and the disposer, which never run concurrently.
+    private @Nullable ElementReader<T> reader;
+
+    CallElements(Call<ResponseBody> call, Converter<ResponseBody, T> converter) {
+      this.call = call;
+      this.converter = converter;
+    }
+
+    @Override public CallElements<T> call() {
+      return this;
+    }
+
+    @Override public void accept(CallElements<T> state, Emitter<T> emitter) throws Exception {
+      try {
+        ElementReader<T> reader = this.reader;
+        if (reader == null) {
+          Response<ResponseBody> response = call.execute();
+          if (!response.isSuccessful()) {
+            // Required for backwards compatibility.
+            emitter.onError(new HttpException(response));
+            return;
+          }
+          //noinspection ConstantConditions Successful responses have a body.
+          reader = this.reader = ElementReader.create(response.body(), converter);
+        }
+
+        T element = reader.read();
+        if (element != null) {
+          emitter.onNext(element);
+        } else {
+          emitter.onComplete();
+        }
+      } catch (IOException e) {
+        // Canceling the call to stop a blocked read fails the read. Nobody is listening for it.
+        if (call.isCanceled()) return;
+        throw e;
+      }
+    }
+
+    @Override public void accept(CallElements<T> state) {
+      ElementReader<T> reader = this.reader;
+      if (reader != null) {
+        reader.close();
+      }
+    }
+
+    @Override public void run() {
+      call.cancel();
+    }
+  }
+}
@@ -21,15 +21,19 @@ import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Scheduler;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
 import retrofit2.CallAdapter;
+import retrofit2.Converter;
 import retrofit2.HttpException;
 import retrofit2.Response;
 import retrofit2.Retrofit;
+import retrofit2.http.Streaming;
 
 /**
  * A {@linkplain CallAdapter.Factory call adapter} which uses RxJava 2 for creating observables.
@@ -54,6 +58,11 @@ import retrofit2.Retrofit;
  * <li>Result wrapped body (e.g., {@code Observable<Result<User>>}) calls {@code onNext} with a
  * {@link Result} object for all HTTP responses and errors.</li>
  * </ul>
+ * A direct body {@code Flowable} of a {@link Streaming @Streaming} method (e.g.,
+ * {@code Flowable<Event>}) emits each element of a {@code text/event-stream} or
+ * {@code application/x-ndjson} response as described by {@link retrofit2.ElementReader}. Elements
+ * are read and converted only as they are requested. Streams from {@link #createAsync()} are read
+ * on {@link Schedulers#io()}.
  */
 public final class RxJava2CallAdapterFactory extends CallAdapter.Factory {
   /**
@@ -137,9 +146,28 @@ public final class RxJava2CallAdapterFactory extends CallAdapter.Factory {
     } else {
       responseType = observableType;
       isBody = true;
+
+      if (isFlowable && rawObservableType != ResponseBody.class && isStreaming(annotations)) {
+        Converter<ResponseBody, ?> converter =
+            retrofit.responseBodyConverter(responseType, annotations);
+        Scheduler elementScheduler = scheduler;
+        if (elementScheduler == null && isAsync) {
+          elementScheduler = Schedulers.io();
+        }
+        return new ElementsCallAdapter<>(converter, elementScheduler);
+      }
     }
 
     return new RxJava2CallAdapter(responseType, scheduler, isAsync, isResult, isBody, isFlowable,
         isSingle, isMaybe, false);
   }
+
+  private static boolean isStreaming(Annotation[] annotations) {
+    for (Annotation annotation : annotations) {
+      if (annotation instanceof Streaming) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.adapter.rxjava2;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+import static okhttp3.mockwebserver.SocketPolicy.DISCONNECT_AFTER_REQUEST;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FlowableElementsTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final RecordingSubscriber.Rule subscriberRule = new RecordingSubscriber.Rule();
+
+  interface Service {
+    @Streaming @GET("/") Flowable<String> elements();
+  }
+
+  private Service service;
+
+  @Before public void setUp() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new StringConverterFactory())
+        .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void eventStream() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "text/event-stream")
+        .setBody(": hello\n\ndata: one\n\nevent: two\ndata: two\n\n"));
+
+    RecordingSubscriber<String> subscriber = subscriberRule.create();
+    service.elements().subscribe(subscriber);
+    subscriber.assertValue("one").assertValue("two").assertComplete();
+  }
+
+  @Test public void ndjson() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("{\"a\":1}\n{\"b\":2}\n"));
+
+    RecordingSubscriber<String> subscriber = subscriberRule.create();
+    service.elements().subscribe(subscriber);
+    subscriber.assertValue("{\"a\":1}").assertValue("{\"b\":2}").assertComplete();
+  }
+
+  @Test public void otherContentTypeIsOneElement() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/json")
+        .setBody("{\"a\":1}\n{\"b\":2}\n"));
+
+    RecordingSubscriber<String> subscriber = subscriberRule.create();
+    service.elements().subscribe(subscriber);
+    subscriber.assertValue("{\"a\":1}\n{\"b\":2}\n").assertComplete();
+  }
+
+  @Test public void elementsRespectBackpressure() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("1\n2\n3\n"));
+
+    RecordingSubscriber<String> subscriber = subscriberRule.createWithInitialRequest(0);
+    service.elements().subscribe(subscriber);
+    subscriber.assertNoEvents();
+
+    subscriber.request(1);
+    subscriber.assertValue("1");
+    subscriber.assertNoEvents();
+
+    subscriber.request(2);
+    subscriber.assertValue("2").assertValue("3");
+    subscriber.assertNoEvents();
+
+    subscriber.request(1);
+    subscriber.assertComplete();
+    assertThat(server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test public void httpError() {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    RecordingSubscriber<String> subscriber = subscriberRule.create();
+    service.elements().subscribe(subscriber);
+    subscriber.assertError(HttpException.class, "HTTP 404 Client Error");
+  }
+
+  @Test public void failure() {
+    server.enqueue(new MockResponse().setSocketPolicy(DISCONNECT_AFTER_REQUEST));
+
+    RecordingSubscriber<String> subscriber = subscriberRule.create();
+    service.elements().subscribe(subscriber);
+    subscriber.assertError(IOException.class);
+  }
+
+  @Test public void eachSubscriberExecutesTheCall() {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("1\n"));
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-ndjson")
+        .setBody("2\n"));
+
+    Flowable<String> elements = service.elements();
+    RecordingSubscriber<String> first = subscriberRule.create();
+    elements.subscribe(first);
+    first.assertValue("1").assertComplete();
+    RecordingSubscriber<String> second = subscriberRule.create();
+    elements.subscribe(second);
+    second.assertValue("2").assertComplete();
+  }
+}
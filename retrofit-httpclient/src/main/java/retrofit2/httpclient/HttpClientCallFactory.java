@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.httpclient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Pipe;
+
+/**
+ * A {@link okhttp3.Call.Factory} which sends requests with the JDK's {@link HttpClient}.
+ * <pre><code>
+ * Retrofit retrofit = new Retrofit.Builder()
+ *     .baseUrl("https://example.com/")
+ *     .callFactory(HttpClientCallFactory.create())
+ *     .build();
+ * </code></pre>
+ * OkHttp's dispatcher holds a thread for each {@linkplain okhttp3.Call#enqueue asynchronous call}
+ * in flight. {@code HttpClient} multiplexes them over HTTP/2 and reads responses with non-blocking
+ * I/O instead, so many thousands of asynchronous calls can be in flight on a handful of threads.
+ * <p>
+ * To do so, an asynchronous call reads its whole response body before its callback is invoked.
+ * A synchronous call returns as soon as the response headers arrive and reads the body as it is
+ * consumed, so use {@link okhttp3.Call#execute() execute()}, or an adapter which does, for
+ * {@code @Streaming} responses. Request bodies are written on a background thread as the client
+ * sends them, so they are never held in memory whole.
+ * <p>
+ * {@code HttpClient} does not expose reason phrases, so each response's
+ * {@linkplain Response#message() message} is empty. Compression, caching, cookies, redirects,
+ * and connect timeouts are whatever the {@code HttpClient} is configured to do; OkHttp
+ * interceptors are not run. {@code HttpClient} has no read timeout of its own, so each call fails
+ * with an {@link java.net.http.HttpTimeoutException HttpTimeoutException} if its response headers
+ * have not arrived within the factory's {@linkplain #create(HttpClient, Duration) timeout}.
+ * <p>
+ * Calls with headers which the client refuses to send fail. On Java 11 these include
+ * {@code Date}, {@code From}, {@code Origin}, {@code Referer}, {@code Via}, and {@code Warning}.
+ */
+public final class HttpClientCallFactory implements okhttp3.Call.Factory {
+  /** Like OkHttp's default read timeout. */
+  static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+  /** How much of a request body is buffered ahead of the client. */
+  static final long BODY_BUFFER_SIZE = 64 * 1024;
+
+  /** Writes request bodies into the pipes which the client reads them from. */
+  private static final Executor BODY_WRITERS = Executors.newCachedThreadPool(new ThreadFactory() {
+    @Override public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "HttpClientCallFactory body writer");
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  /**
+   * Returns an instance which uses a {@linkplain HttpClient#newHttpClient() default client} and
+   * waits 10 seconds for each response.
+   */
+  public static HttpClientCallFactory create() {
+    return create(HttpClient.newHttpClient());
+  }
+
+  /** Returns an instance which uses {@code client} and waits 10 seconds for each response. */
+  public static HttpClientCallFactory create(HttpClient client) {
+    return create(client, DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * Returns an instance which uses {@code client} and waits up to {@code timeout} for the headers
+   * of each response. The body of a {@code @Streaming} response may take longer to read.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static HttpClientCallFactory create(HttpClient client, Duration timeout) {
+    if (client == null) throw new NullPointerException("client == null");
+    if (timeout == null) throw new NullPointerException("timeout == null");
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("timeout <= 0: " + timeout);
+    }
+    return new HttpClientCallFactory(client, timeout);
+  }
+
+  private final HttpClient client;
+  private final Duration timeout;
+
+  private HttpClientCallFactory(HttpClient client, Duration timeout) {
+    this.client = client;
+    this.timeout = timeout;
+  }
+
+  @Override public okhttp3.Call newCall(Request request) {
+    return new HttpClientCall(request);
+  }
+
+  final class HttpClientCall implements okhttp3.Call {
+    private final Request request;
+    private volatile boolean canceled;
+    @GuardedBy("this")
+    private boolean executed;
+    @GuardedBy("this")
+    private @Nullable CompletableFuture<?> future;
+    @GuardedBy("this")
+    private final List<Closeable> bodies = new ArrayList<>();
+
+    HttpClientCall(Request request) {
+      this.request = request;
+    }
+
+    @Override public Request request() {
+      return request;
+    }
+
+    @Override public Response execute() throws IOException {
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      long sentRequestAtMillis = System.currentTimeMillis();
+      CompletableFuture<HttpResponse<InputStream>> future =
+          send(toHttpRequest(), HttpResponse.BodyHandlers.ofInputStream());
+      HttpResponse<InputStream> httpResponse;
+      try {
+        httpResponse = future.get();
+      } catch (InterruptedException e) {
+        future.cancel(true);
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      } catch (CancellationException e) {
+        throw new IOException("Canceled");
+      } catch (ExecutionException e) {
+        throw failure(e.getCause());
+      }
+      Response response = toResponse(request, httpResponse, sentRequestAtMillis,
+          Okio.buffer(Okio.source(httpResponse.body())), -1L);
+      if (canceled) {
+        response.close();
+        throw new IOException("Canceled");
+      }
+      return response;
+    }
+
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    @Override public void enqueue(final Callback responseCallback) {
+      if (responseCallback == null) throw new NullPointerException("responseCallback == null");
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      final long sentRequestAtMillis = System.currentTimeMillis();
+      CompletableFuture<HttpResponse<byte[]>> future;
+      try {
+        future = send(toHttpRequest(), HttpResponse.BodyHandlers.ofByteArray());
+      } catch (IOException e) {
+        responseCallback.onFailure(this, e);
+        return;
+      } catch (RuntimeException e) {
+        responseCallback.onFailure(this, new IOException(e));
+        return;
+      }
+      future.whenComplete(new BiConsumer<HttpResponse<byte[]>, Throwable>() {
+        @Override public void accept(@Nullable HttpResponse<byte[]> httpResponse,
+            @Nullable Throwable t) {
+          if (t != null) {
+            responseCallback.onFailure(HttpClientCall.this, failure(t));
+            return;
+          }
+          //noinspection ConstantConditions Non-null when there is no failure.
+          byte[] body = httpResponse.body();
+          Response response = toResponse(request, httpResponse, sentRequestAtMillis,
+              new Buffer().write(body), body.length);
+          if (canceled) {
+            responseCallback.onFailure(HttpClientCall.this, new IOException("Canceled"));
+            return;
+          }
+          try {
+            responseCallback.onResponse(HttpClientCall.this, response);
+          } catch (IOException e) {
+            response.close();
+          }
+        }
+      });
+    }
+
+    private synchronized <T> CompletableFuture<HttpResponse<T>> send(HttpRequest httpRequest,
+        HttpResponse.BodyHandler<T> bodyHandler) throws IOException {
+      if (canceled) throw new IOException("Canceled");
+      CompletableFuture<HttpResponse<T>> future = client.sendAsync(httpRequest, bodyHandler);
+      this.future = future;
+      future.whenComplete(new BiConsumer<HttpResponse<T>, Throwable>() {
+        @Override public void accept(@Nullable HttpResponse<T> response, @Nullable Throwable t) {
+          closeBodies(); // Stops a writer whose body the server did not wait for.
+        }
+      });
+      return future;
+    }
+
+    private HttpRequest toHttpRequest() throws IOException {
+      try {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.url().uri()).timeout(timeout);
+        Headers headers = request.headers();
+        for (int i = 0, size = headers.size(); i < size; i++) {
+          String name = headers.name(i);
+          if (!isManagedByClient(name)) {
+            builder.header(name, headers.value(i));
+          }
+        }
+
+        RequestBody body = request.body();
+        if (body == null) {
+          return builder.method(request.method(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        MediaType contentType = body.contentType();
+        if (contentType != null && headers.get("Content-Type") == null) {
+          builder.header("Content-Type", contentType.toString());
+        }
+        return builder.method(request.method(), bodyPublisher(body)).build();
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        // HttpClient rejects some requests which OkHttp accepts, such as restricted headers.
+        throw new IOException("HttpClient rejected the request: " + e.getMessage(), e);
+      }
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(final RequestBody body) throws IOException {
+      HttpRequest.BodyPublisher publisher =
+          HttpRequest.BodyPublishers.ofInputStream(new Supplier<InputStream>() {
+            @Override public InputStream get() {
+              return openBody(body);
+            }
+          });
+      long contentLength = body.contentLength();
+      return contentLength != -1L
+          ? HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength)
+          : publisher;
+    }
+
+    /**
+     * Returns a stream of {@code body} as it is written by a background thread. The client calls
+     * this each time it sends the body, which can be more than once when following redirects.
+     */
+    InputStream openBody(final RequestBody body) {
+      final Pipe pipe = new Pipe(BODY_BUFFER_SIZE);
+      final AtomicReference<IOException> failure = new AtomicReference<>();
+      synchronized (this) {
+        bodies.add(pipe.source());
+      }
+      if (canceled) closeQuietly(pipe.source());
+      BODY_WRITERS.execute(new Runnable() {
+        @Override public void run() {
+          BufferedSink sink = Okio.buffer(pipe.sink());
+          try {
+            body.writeTo(sink);
+          } catch (IOException e) {
+            failure.set(e);
+          } catch (RuntimeException e) {
+            failure.set(new IOException(e));
+          } finally {
+            closeQuietly(sink);
+          }
+        }
+      });
+      return Okio.buffer(new ForwardingSource(pipe.source()) {
+        @Override public long read(Buffer sink, long byteCount) throws IOException {
+          long read;
+          try {
+            read = super.read(sink, byteCount);
+          } catch (IllegalStateException e) {
+            throw new IOException("Canceled"); // The pipe was closed by cancel().
+          }
+          IOException e = failure.get();
+          if (read == -1L && e != null) throw e; // Don't let a failed body look complete.
+          return read;
+        }
+      }).inputStream();
+    }
+
+    private void closeBodies() {
+      List<Closeable> bodies;
+      synchronized (this) {
+        bodies = new ArrayList<>(this.bodies);
+        this.bodies.clear();
+      }
+      for (Closeable body : bodies) {
+        closeQuietly(body);
+      }
+    }
+
+    private IOException failure(Throwable t) {
+      if (canceled || t instanceof CancellationException) {
+        return new IOException("Canceled");
+      }
+      if (t instanceof CompletionException && t.getCause() != null) {
+        t = t.getCause();
+      }
+      return t instanceof IOException ? (IOException) t : new IOException(t);
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+      CompletableFuture<?> future;
+      synchronized (this) {
+        future = this.future;
+      }
+      if (future != null) {
+        future.cancel(true);
+      }
+      closeBodies();
+    }
+
+    @Override public synchronized boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      return canceled;
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new HttpClientCall(request);
+    }
+  }
+
+  /** {@code HttpClient} sets these itself and rejects requests which try to. */
+  private static boolean isManagedByClient(String name) {
+    return name.equalsIgnoreCase("Connection")
+        || name.equalsIgnoreCase("Content-Length")
+        || name.equalsIgnoreCase("Expect")
+        || name.equalsIgnoreCase("Host")
+        || name.equalsIgnoreCase("Upgrade");
+  }
+
+  static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException | RuntimeException ignored) {
+    }
+  }
+
+  private static Response toResponse(Request request, HttpResponse<?> httpResponse,
+      long sentRequestAtMillis, BufferedSource body, long contentLength) {
+    Headers.Builder headers = new Headers.Builder();
+    for (Map.Entry<String, List<String>> entry : httpResponse.headers().map().entrySet()) {
+      String name = entry.getKey();
+      if (name.startsWith(":")) continue; // HTTP/2 pseudo-headers.
+      for (String value : entry.getValue()) {
+        headers.add(name, value);
+      }
+    }
+    Headers responseHeaders = headers.build();
+
+    if (contentLength == -1L) {
+      String length = responseHeaders.get("Content-Length");
+      if (length != null) {
+        try {
+          contentLength = Long.parseLong(length);
+        } catch (NumberFormatException ignored) {
+        }
+      }
+    }
+    String contentType = responseHeaders.get("Content-Type");
+    MediaType mediaType = contentType != null ? MediaType.parse(contentType) : null;
+
+    if (!httpResponse.uri().equals(request.url().uri())) {
+      // The client followed a redirect.
+      HttpUrl url = HttpUrl.get(httpResponse.uri());
+      if (url != null) {
+        request = request.newBuilder().url(url).build();
+      }
+    }
+
+    return new Response.Builder()
+        .request(request)
+        .protocol(httpResponse.version() == HttpClient.Version.HTTP_2
+            ? Protocol.HTTP_2
+            : Protocol.HTTP_1_1)
+        .code(httpResponse.statusCode())
+        .message("")
+        .headers(responseHeaders)
+        .body(ResponseBody.create(mediaType, contentLength, body))
+        .sentRequestAtMillis(sentRequestAtMillis)
+        .receivedResponseAtMillis(System.currentTimeMillis())
+        .build();
+  }
+}
@@ -0,0 +1,4 @@
+@ParametersAreNonnullByDefault
+package retrofit2.httpclient;
+
+import javax.annotation.ParametersAreNonnullByDefault;
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.httpclient;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.BufferedSink;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.POST;
+
+import static okhttp3.mockwebserver.SocketPolicy.DISCONNECT_AT_START;
+import static okhttp3.mockwebserver.SocketPolicy.NO_RESPONSE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class HttpClientCallFactoryTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @GET("/") Call<ResponseBody> get(@Header("X-Greeting") String greeting);
+    @POST("/") Call<ResponseBody> post(@Body RequestBody body);
+  }
+
+  private Service service;
+
+  @Before public void setUp() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .callFactory(HttpClientCallFactory.create())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void execute() throws Exception {
+    server.enqueue(new MockResponse().setBody("Hi").addHeader("X-Reply", "Hey"));
+
+    Response<ResponseBody> response = service.get("Hello").execute();
+    assertThat(response.code()).isEqualTo(200);
+    assertThat(response.headers().get("X-Reply")).isEqualTo("Hey");
+    assertThat(response.body().contentLength()).isEqualTo(2);
+    assertThat(response.body().string()).isEqualTo("Hi");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getMethod()).isEqualTo("GET");
+    assertThat(request.getHeader("X-Greeting")).isEqualTo("Hello");
+  }
+
+  @Test public void executeBody() throws Exception {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    RequestBody body = RequestBody.create(MediaType.get("text/plain; charset=utf-8"), "Hello");
+    Response<ResponseBody> response = service.post(body).execute();
+    assertThat(response.body().string()).isEqualTo("Hi");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getMethod()).isEqualTo("POST");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("text/plain; charset=utf-8");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("5");
+    assertThat(request.getBody().readUtf8()).isEqualTo("Hello");
+  }
+
+  @Test public void executeStreamingBody() throws Exception {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    RequestBody body = new RequestBody() {
+      @Override public MediaType contentType() {
+        return MediaType.get("text/plain; charset=utf-8");
+      }
+
+      @Override public void writeTo(BufferedSink sink) throws IOException {
+        for (int i = 0; i < 3; i++) {
+          sink.writeUtf8("Hello ").flush();
+        }
+      }
+    };
+    Response<ResponseBody> response = service.post(body).execute();
+    assertThat(response.body().string()).isEqualTo("Hi");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getHeader("Content-Length")).isNull();
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getBody().readUtf8()).isEqualTo("Hello Hello Hello ");
+  }
+
+  @Test public void executeFailingBody() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(NO_RESPONSE));
+
+    RequestBody body = new RequestBody() {
+      @Override public MediaType contentType() {
+        return null;
+      }
+
+      @Override public void writeTo(BufferedSink sink) throws IOException {
+        sink.writeUtf8("Hello").flush();
+        throw new IOException("Broken body");
+      }
+    };
+    try {
+      service.post(body).execute();
+      fail();
+    } catch (IOException expected) {
+    }
+  }
+
+  @Test public void executeHttpError() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(404).setBody("Nope"));
+
+    Response<ResponseBody> response = service.get("Hello").execute();
+    assertThat(response.isSuccessful()).isFalse();
+    assertThat(response.code()).isEqualTo(404);
+    assertThat(response.errorBody().string()).isEqualTo("Nope");
+  }
+
+  @Test public void executeTimeout() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(NO_RESPONSE));
+
+    okhttp3.Call call = HttpClientCallFactory.create(HttpClient.newHttpClient(),
+        Duration.ofMillis(500)).newCall(new okhttp3.Request.Builder().url(server.url("/")).build());
+    try {
+      call.execute();
+      fail();
+    } catch (HttpTimeoutException expected) {
+    }
+  }
+
+  @Test public void executeTwiceThrows() throws Exception {
+    server.enqueue(new MockResponse());
+
+    okhttp3.Call call = HttpClientCallFactory.create()
+        .newCall(new okhttp3.Request.Builder().url(server.url("/")).build());
+    call.execute().close();
+    assertThat(call.isExecuted()).isTrue();
+    try {
+      call.execute();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Already Executed");
+    }
+    assertThat(call.clone().isExecuted()).isFalse();
+  }
+
+  @Test public void enqueue() throws Exception {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    final AtomicReference<Response<ResponseBody>> responseRef = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    service.get("Hello").enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        responseRef.set(response);
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        t.printStackTrace();
+      }
+    });
+    assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+
+    Response<ResponseBody> response = responseRef.get();
+    assertThat(response.code()).isEqualTo(200);
+    assertThat(response.body().string()).isEqualTo("Hi");
+  }
+
+  @Test public void enqueueFailure() throws Exception {
+    // HttpClient retries an idempotent request once when the connection fails.
+    server.enqueue(new MockResponse().setSocketPolicy(DISCONNECT_AT_START));
+    server.enqueue(new MockResponse().setSocketPolicy(DISCONNECT_AT_START));
+
+    final AtomicReference<Throwable> failureRef = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    service.get("Hello").enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        throw new AssertionError();
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        failureRef.set(t);
+        latch.countDown();
+      }
+    });
+    assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(failureRef.get()).isInstanceOf(IOException.class);
+  }
+
+  @Test public void enqueueRejectedHeader() throws Exception {
+    // OkHttp allows any visible ASCII in header names but HttpClient only allows tokens.
+    okhttp3.Call call = HttpClientCallFactory.create().newCall(new okhttp3.Request.Builder()
+        .url(server.url("/"))
+        .header("X(Greeting)", "Hello")
+        .build());
+    final AtomicReference<IOException> failureRef = new AtomicReference<>();
+    call.enqueue(new okhttp3.Callback() {
+      @Override public void onResponse(okhttp3.Call call, okhttp3.Response response) {
+        throw new AssertionError();
+      }
+
+      @Override public void onFailure(okhttp3.Call call, IOException e) {
+        failureRef.set(e);
+      }
+    });
+    assertThat(failureRef.get()).hasCauseInstanceOf(IllegalArgumentException.class);
+    assertThat(server.getRequestCount()).isEqualTo(0);
+  }
+
+  @Test public void cancelExecute() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(NO_RESPONSE));
+
+    final Call<ResponseBody> call = service.get("Hello");
+    new Thread(new Runnable() {
+      @Override public void run() {
+        try {
+          server.takeRequest();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        call.cancel();
+      }
+    }).start();
+    try {
+      call.execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Canceled");
+    }
+    assertThat(call.isCanceled()).isTrue();
+  }
+
+  @Test public void cancelBeforeEnqueue() throws Exception {
+    final AtomicReference<Throwable> failureRef = new AtomicReference<>();
+    Call<ResponseBody> call = service.get("Hello");
+    call.cancel();
+    call.enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        throw new AssertionError();
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        failureRef.set(t);
+      }
+    });
+    assertThat(failureRef.get()).isInstanceOf(IOException.class).hasMessage("Canceled");
+    assertThat(server.getRequestCount()).isEqualTo(0);
+  }
+}
@@ -16,37 +16,56 @@
 package retrofit2.mock;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
+import okhttp3.MediaType;
 import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 final class BehaviorCall<T> implements Call<T> {
   final NetworkBehavior behavior;
   final ExecutorService backgroundExecutor;
+  final Scheduler scheduler;
   final Call<T> delegate;
 
-  private volatile Future<?> task;
+  @GuardedBy("this")
+  private Future<?> task;
+  private volatile Runnable canceledDelivery;
   volatile boolean canceled;
   @GuardedBy("this")
   private boolean executed;
+  @GuardedBy("this")
+  private boolean deliveryScheduled;
+  @GuardedBy("this")
+  private long deliveryNanos;
 
-  BehaviorCall(NetworkBehavior behavior, ExecutorService backgroundExecutor, Call<T> delegate) {
+  BehaviorCall(NetworkBehavior behavior, ExecutorService backgroundExecutor,
+      Scheduler scheduler, Call<T> delegate) {
     this.behavior = behavior;
     this.backgroundExecutor = backgroundExecutor;
+    this.scheduler = scheduler;
     this.delegate = delegate;
   }
 
   @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type & this saves clearing state.
   @Override public Call<T> clone() {
-    return new BehaviorCall<>(behavior, backgroundExecutor, delegate.clone());
+    return new BehaviorCall<>(behavior, backgroundExecutor, scheduler, delegate.clone());
   }
 
   @Override public Request request() {
@@ -54,56 +73,199 @@ final class BehaviorCall<T> implements Call<T> {
   }
 
   @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
-  @Override public void enqueue(final Callback<T> callback) {
-    if (callback == null) throw new NullPointerException("callback == null");
+  @Override public void enqueue(Callback<T> userCallback) {
+    if (userCallback == null) throw new NullPointerException("callback == null");
 
     synchronized (this) {
       if (executed) throw new IllegalStateException("Already executed");
       executed = true;
     }
-    task = backgroundExecutor.submit(new Runnable() {
-      boolean delaySleep() {
-        long sleepMs = behavior.calculateDelay(MILLISECONDS);
-        if (sleepMs > 0) {
-          try {
-            Thread.sleep(sleepMs);
-          } catch (InterruptedException e) {
-            callback.onFailure(BehaviorCall.this, new IOException("canceled"));
-            return false;
+    final Callback<T> callback = new DeliverOnceCallback<>(userCallback);
+    final Runnable canceledDelivery = new Runnable() {
+      @Override public void run() {
+        callback.onFailure(BehaviorCall.this, new IOException("canceled"));
+      }
+    };
+    this.canceledDelivery = canceledDelivery;
+    Future<?> submitted = backgroundExecutor.submit(new Runnable() {
+      /**
+       * Deliver the result after the network delay. No thread is held while waiting: the delay is
+       * a scheduled task which hands the callback back to the background executor.
+       */
+      void deliverAfterDelay(final Runnable delivery) {
+        long dueNanos = scheduler.nanoTime()
+            + MILLISECONDS.toNanos(behavior.calculateDelay(MILLISECONDS));
+        Future<?> scheduled = scheduler.scheduleAt(new Runnable() {
+          @Override public void run() {
+            backgroundExecutor.execute(canceled ? canceledDelivery : delivery);
           }
+        }, dueNanos);
+        synchronized (BehaviorCall.this) {
+          task = scheduled;
+          deliveryScheduled = true;
+          deliveryNanos = dueNanos;
+          BehaviorCall.this.notifyAll();
+        }
+        if (canceled && scheduled.cancel(false)) {
+          backgroundExecutor.execute(canceledDelivery); // Canceled before the task was visible.
         }
-        return true;
+      }
+
+      void deliverErrorResponse() {
+        //noinspection unchecked An error response has no body.
+        final Response<T> response = throttle((Response<T>) behavior.createErrorResponse());
+        deliverAfterDelay(new Runnable() {
+          @Override public void run() {
+            callback.onResponse(BehaviorCall.this, response);
+          }
+        });
       }
 
       @Override public void run() {
         if (canceled) {
-          callback.onFailure(BehaviorCall.this, new IOException("canceled"));
+          canceledDelivery.run();
+        } else if (behavior.calculateIsOutage(scheduler.nanoTime(), NANOSECONDS)) {
+          deliverErrorResponse();
         } else if (behavior.calculateIsFailure()) {
-          if (delaySleep()) {
-            callback.onFailure(BehaviorCall.this, behavior.failureException());
-          }
+          deliverAfterDelay(new Runnable() {
+            @Override public void run() {
+              callback.onFailure(BehaviorCall.this, behavior.failureException());
+            }
+          });
         } else if (behavior.calculateIsError()) {
-          if (delaySleep()) {
-            //noinspection unchecked An error response has no body.
-            callback.onResponse(BehaviorCall.this, (Response<T>) behavior.createErrorResponse());
-          }
+          deliverErrorResponse();
         } else {
           delegate.enqueue(new Callback<T>() {
-            @Override public void onResponse(Call<T> call, Response<T> response) {
-              if (delaySleep()) {
-                callback.onResponse(call, response);
-              }
+            @Override public void onResponse(final Call<T> call, Response<T> response) {
+              final Response<T> throttled = throttle(response);
+              deliverAfterDelay(new Runnable() {
+                @Override public void run() {
+                  callback.onResponse(call, throttled);
+                }
+              });
             }
 
-            @Override public void onFailure(Call<T> call, Throwable t) {
-              if (delaySleep()) {
-                callback.onFailure(call, t);
-              }
+            @Override public void onFailure(final Call<T> call, final Throwable t) {
+              deliverAfterDelay(new Runnable() {
+                @Override public void run() {
+                  callback.onFailure(call, t);
+                }
+              });
             }
           });
         }
       }
     });
+    synchronized (this) {
+      if (task == null) task = submitted; // The delay may already have been scheduled.
+    }
+  }
+
+  /**
+   * Cancellation races the delivery it replaces, and both sides may decide to deliver. Only the
+   * first one reaches the user's callback.
+   */
+  static final class DeliverOnceCallback<T> implements Callback<T> {
+    private final Callback<T> delegate;
+    private final AtomicBoolean delivered = new AtomicBoolean();
+
+    DeliverOnceCallback(Callback<T> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override public void onResponse(Call<T> call, Response<T> response) {
+      if (delivered.compareAndSet(false, true)) {
+        delegate.onResponse(call, response);
+      }
+    }
+
+    @Override public void onFailure(Call<T> call, Throwable t) {
+      if (delivered.compareAndSet(false, true)) {
+        delegate.onFailure(call, t);
+      }
+    }
+  }
+
+  /**
+   * Limit a raw body to the behavior's bandwidth. Converted bodies are already in memory, so they
+   * have no bytes to throttle.
+   */
+  Response<T> throttle(Response<T> response) {
+    if (behavior.bandwidth() == 0) return response;
+    if (!response.isSuccessful()) {
+      ResponseBody errorBody = response.errorBody();
+      if (errorBody == null) return response;
+      return Response.error(new ThrottledResponseBody(errorBody, behavior, scheduler),
+          response.raw());
+    }
+    Object body = response.body();
+    if (!(body instanceof ResponseBody)) return response;
+    @SuppressWarnings("unchecked") // T is ResponseBody, or a supertype of it.
+    T throttled = (T) new ThrottledResponseBody((ResponseBody) body, behavior, scheduler);
+    return Response.success(throttled, response.raw());
+  }
+
+  /**
+   * A body whose bytes arrive no faster than the bandwidth allows. Each read waits on the scheduler
+   * until the bytes read so far would have been transferred, so bodies of unknown length are
+   * throttled too.
+   */
+  static final class ThrottledResponseBody extends ResponseBody {
+    static final long SLICES_PER_SECOND = 10;
+
+    private final ResponseBody delegate;
+    private final NetworkBehavior behavior;
+    private final Scheduler scheduler;
+    @GuardedBy("this")
+    private @Nullable BufferedSource source;
+
+    ThrottledResponseBody(ResponseBody delegate, NetworkBehavior behavior, Scheduler scheduler) {
+      this.delegate = delegate;
+      this.behavior = behavior;
+      this.scheduler = scheduler;
+    }
+
+    @Override public @Nullable MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override public synchronized BufferedSource source() {
+      if (source == null) {
+        source = Okio.buffer(new ForwardingSource(delegate.source()) {
+          private long startNanos;
+          private long transferred;
+
+          @Override public long read(Buffer sink, long byteCount) throws IOException {
+            // Bytes trickle in as they would from a socket rather than all after one wait.
+            long bandwidth = behavior.bandwidth();
+            if (bandwidth != 0) {
+              byteCount = Math.min(byteCount, Math.max(bandwidth / SLICES_PER_SECOND, 1L));
+            }
+            long read = super.read(sink, byteCount);
+            if (read == -1) return -1;
+            if (transferred == 0) startNanos = scheduler.nanoTime();
+            transferred += read;
+            try {
+              scheduler.sleepUntil(
+                  startNanos + behavior.calculateTransferDelay(transferred, NANOSECONDS));
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new InterruptedIOException("interrupted");
+            }
+            return read;
+          }
+        });
+      }
+      return source;
+    }
+
+    @Override public void close() {
+      delegate.close();
+    }
   }
 
   @Override public synchronized boolean isExecuted() {
@@ -117,15 +279,31 @@ final class BehaviorCall<T> implements Call<T> {
     enqueue(new Callback<T>() {
       @Override public void onResponse(Call<T> call, Response<T> response) {
         responseRef.set(response);
-        latch.countDown();
+        delivered();
       }
 
       @Override public void onFailure(Call<T> call, Throwable t) {
         failureRef.set(t);
+        delivered();
+      }
+
+      private void delivered() {
         latch.countDown();
+        synchronized (BehaviorCall.this) {
+          BehaviorCall.this.notifyAll(); // Wake awaitDelivery if nothing was scheduled.
+        }
       }
     });
     try {
+      // Time only passes for a virtual clock when it is advanced. Advance it to when this call's
+      // result is due, and no further: later timers belong to other calls.
+      if (scheduler.controlsTime() && awaitDelivery(latch)) {
+        long dueNanos;
+        synchronized (this) {
+          dueNanos = deliveryNanos;
+        }
+        scheduler.sleepUntil(dueNanos);
+      }
       latch.await();
     } catch (InterruptedException e) {
       throw new IOException("canceled");
@@ -138,11 +316,28 @@ final class BehaviorCall<T> implements Call<T> {
     throw new RuntimeException(failure);
   }
 
+  /**
+   * Wait until this call's result is either scheduled or delivered. Returns true if it was
+   * scheduled and is yet to be delivered.
+   */
+  private synchronized boolean awaitDelivery(CountDownLatch delivered)
+      throws InterruptedException {
+    while (!deliveryScheduled && delivered.getCount() != 0) {
+      wait();
+    }
+    return delivered.getCount() != 0;
+  }
+
   @Override public void cancel() {
     canceled = true;
-    Future<?> task = this.task;
-    if (task != null) {
-      task.cancel(true);
+    Future<?> task;
+    synchronized (this) {
+      task = this.task;
+    }
+    // A task which has not run yet will never deliver, so deliver the cancellation instead. A task
+    // which is running may still deliver; the callback only accepts whichever delivery is first.
+    if (task != null && task.cancel(false)) {
+      backgroundExecutor.execute(canceledDelivery);
     }
   }
 
@@ -20,7 +20,6 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
-import java.util.concurrent.ExecutorService;
 import javax.annotation.Nullable;
 import retrofit2.Call;
 import retrofit2.CallAdapter;
@@ -35,15 +34,12 @@ import retrofit2.Retrofit;
  */
 public final class BehaviorDelegate<T> {
   final Retrofit retrofit;
-  private final NetworkBehavior behavior;
-  private final ExecutorService executor;
+  private final MockRetrofit mockRetrofit;
   private final Class<T> service;
 
-  BehaviorDelegate(Retrofit retrofit, NetworkBehavior behavior, ExecutorService executor,
-      Class<T> service) {
-    this.retrofit = retrofit;
-    this.behavior = behavior;
-    this.executor = executor;
+  BehaviorDelegate(MockRetrofit mockRetrofit, Class<T> service) {
+    this.retrofit = mockRetrofit.retrofit();
+    this.mockRetrofit = mockRetrofit;
     this.service = service;
   }
 
@@ -51,9 +47,14 @@ public final class BehaviorDelegate<T> {
     return returning(Calls.response(response));
   }
 
+  /**
+   * Returns an implementation of the service whose methods return {@code call} with the
+   * {@linkplain MockRetrofit#networkBehavior(Method) behavior of the invoked method} applied. Each
+   * invocation returns a {@linkplain Call#clone() clone} of {@code call}, so methods can be invoked
+   * more than once.
+   */
   @SuppressWarnings("unchecked") // Single-interface proxy creation guarded by parameter safety.
-  public <R> T returning(Call<R> call) {
-    final Call<R> behaviorCall = new BehaviorCall<>(behavior, executor, call);
+  public <R> T returning(final Call<R> call) {
     return (T) Proxy.newProxyInstance(service.getClassLoader(), new Class[] { service },
         new InvocationHandler() {
           @Override
@@ -62,6 +63,9 @@ public final class BehaviorDelegate<T> {
             Annotation[] methodAnnotations = method.getAnnotations();
             CallAdapter<R, T> callAdapter =
                 (CallAdapter<R, T>) retrofit.callAdapter(returnType, methodAnnotations);
+            NetworkBehavior behavior = mockRetrofit.networkBehavior(method);
+            Call<R> behaviorCall = new BehaviorCall<>(behavior, mockRetrofit.executor,
+                mockRetrofit.scheduler, call.clone());
             return callAdapter.adapt(behaviorCall);
           }
         });
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * A {@link okhttp3.Call.Factory} which hands each request straight to a {@link Handler} in the
+ * same process. There are no sockets, no TLS, and no dispatcher threads, so the cost of a call is
+ * Retrofit's own: building the request, parsing the response, and running the converters.
+ * <pre><code>
+ * Retrofit retrofit = new Retrofit.Builder()
+ *     .baseUrl("http://example.com/")
+ *     .callFactory(new InProcessCallFactory(handler))
+ *     .build();
+ * </code></pre>
+ * {@linkplain okhttp3.Call#enqueue Asynchronous calls} run on the thread which enqueues them
+ * unless an {@link Executor} is supplied.
+ */
+public final class InProcessCallFactory implements okhttp3.Call.Factory {
+  /** Produces the response to a request. */
+  public interface Handler {
+    /**
+     * Respond to {@code request}. The returned response must have a body.
+     * <pre><code>
+     * return new Response.Builder()
+     *     .request(request)
+     *     .protocol(Protocol.HTTP_1_1)
+     *     .code(200)
+     *     .message("OK")
+     *     .body(ResponseBody.create(json, "{\"name\":\"Jake\"}"))
+     *     .build();
+     * </code></pre>
+     */
+    Response handle(Request request) throws IOException;
+  }
+
+  private final Handler handler;
+  private final @Nullable Executor executor;
+
+  public InProcessCallFactory(Handler handler) {
+    this(handler, null);
+  }
+
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public InProcessCallFactory(Handler handler, @Nullable Executor executor) {
+    if (handler == null) throw new NullPointerException("handler == null");
+    this.handler = handler;
+    this.executor = executor;
+  }
+
+  @Override public okhttp3.Call newCall(Request request) {
+    return new InProcessCall(request);
+  }
+
+  final class InProcessCall implements okhttp3.Call {
+    private final Request request;
+    private volatile boolean canceled;
+    @GuardedBy("this")
+    private boolean executed;
+
+    InProcessCall(Request request) {
+      this.request = request;
+    }
+
+    @Override public Request request() {
+      return request;
+    }
+
+    @Override public Response execute() throws IOException {
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      return respond();
+    }
+
+    @Override public void enqueue(final Callback responseCallback) {
+      if (responseCallback == null) throw new NullPointerException("responseCallback == null");
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      Runnable runnable = new Runnable() {
+        @Override public void run() {
+          Response response;
+          try {
+            response = respond();
+          } catch (IOException e) {
+            responseCallback.onFailure(InProcessCall.this, e);
+            return;
+          }
+          try {
+            responseCallback.onResponse(InProcessCall.this, response);
+          } catch (IOException e) {
+            response.close();
+          }
+        }
+      };
+      if (executor != null) {
+        executor.execute(runnable);
+      } else {
+        runnable.run();
+      }
+    }
+
+    private Response respond() throws IOException {
+      if (canceled) throw new IOException("Canceled");
+      Response response = handler.handle(request);
+      if (response == null) {
+        throw new IllegalStateException("Handler returned null for " + request);
+      }
+      if (response.body() == null) {
+        throw new IllegalStateException("Handler returned a response without a body for "
+            + request);
+      }
+      if (canceled) {
+        response.close();
+        throw new IOException("Canceled");
+      }
+      return response;
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+    }
+
+    @Override public synchronized boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      return canceled;
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new InProcessCall(request);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The shape of network round trip delays. Real backends rarely answer within a fixed band around
+ * their typical latency: most calls are fast and a few are very slow. Set one of these with
+ * {@link NetworkBehavior#setLatencyDistribution} to reproduce that tail.
+ */
+public abstract class LatencyDistribution {
+  /**
+   * Latencies whose logarithm is normally distributed. Half of the calls are faster than
+   * {@code median}. A {@code sigma} of 0.5 puts the 99th percentile at about 3.2 times the median
+   * and 1.0 at about 10 times.
+   */
+  public static LatencyDistribution logNormal(long median, final double sigma, TimeUnit unit) {
+    if (median <= 0) throw new IllegalArgumentException("median <= 0: " + median);
+    if (sigma < 0) throw new IllegalArgumentException("sigma < 0: " + sigma);
+    final long medianNanos = unit.toNanos(median);
+    return new LatencyDistribution() {
+      @Override protected long sampleNanos(Random random) {
+        return (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+      }
+    };
+  }
+
+  /**
+   * Heavy-tailed latencies of at least {@code minimum}. Smaller {@code shape} values give longer
+   * tails: with a shape of 1.16 a fifth of the calls account for four fifths of the waiting.
+   */
+  public static LatencyDistribution pareto(long minimum, double shape, TimeUnit unit) {
+    if (minimum <= 0) throw new IllegalArgumentException("minimum <= 0: " + minimum);
+    if (shape <= 0) throw new IllegalArgumentException("shape <= 0: " + shape);
+    final long minimumNanos = unit.toNanos(minimum);
+    final double inverseShape = 1 / shape;
+    return new LatencyDistribution() {
+      @Override protected long sampleNanos(Random random) {
+        double uniform = 1 - random.nextDouble(); // (0, 1] so that the power stays finite.
+        return (long) (minimumNanos / Math.pow(uniform, inverseShape));
+      }
+    };
+  }
+
+  /**
+   * Latencies following a recorded histogram. Bucket {@code i} holds {@code counts[i]} calls which
+   * took longer than {@code upperBounds[i - 1]} (or zero) and at most {@code upperBounds[i]}.
+   * Samples are spread uniformly within their bucket.
+   */
+  public static LatencyDistribution histogram(long[] upperBounds, long[] counts, TimeUnit unit) {
+    if (upperBounds.length != counts.length) {
+      throw new IllegalArgumentException("upperBounds and counts must have the same length.");
+    }
+    if (upperBounds.length == 0) throw new IllegalArgumentException("Histogram is empty.");
+
+    final long[] boundNanos = new long[upperBounds.length];
+    final long[] cumulative = new long[counts.length];
+    long total = 0;
+    for (int i = 0; i < upperBounds.length; i++) {
+      if (upperBounds[i] < 0 || (i > 0 && upperBounds[i] <= upperBounds[i - 1])) {
+        throw new IllegalArgumentException(
+            "upperBounds must be non-negative and increasing: " + Arrays.toString(upperBounds));
+      }
+      if (counts[i] < 0) {
+        throw new IllegalArgumentException("counts[" + i + "] < 0: " + counts[i]);
+      }
+      boundNanos[i] = unit.toNanos(upperBounds[i]);
+      total += counts[i];
+      cumulative[i] = total;
+    }
+    if (total == 0) throw new IllegalArgumentException("Histogram is empty.");
+
+    final long totalCount = total;
+    return new LatencyDistribution() {
+      @Override protected long sampleNanos(Random random) {
+        long target = (long) (random.nextDouble() * totalCount); // [0, totalCount)
+        // Find the first bucket whose cumulative count exceeds target. Empty buckets repeat the
+        // count before them, so they are never chosen.
+        int bucket = 0;
+        int high = cumulative.length - 1;
+        while (bucket < high) {
+          int middle = (bucket + high) >>> 1;
+          if (cumulative[middle] > target) {
+            high = middle;
+          } else {
+            bucket = middle + 1;
+          }
+        }
+        long lower = bucket > 0 ? boundNanos[bucket - 1] : 0L;
+        return lower + (long) (random.nextDouble() * (boundNanos[bucket] - lower));
+      }
+    };
+  }
+
+  /**
+   * Read a {@linkplain #histogram histogram} with one bucket per line: its upper bound and its
+   * count separated by whitespace. Blank lines and lines starting with {@code #} are ignored.
+   * <pre>
+   * # latency count
+   * 50 9120
+   * 200 760
+   * 2000 120
+   * </pre>
+   */
+  public static LatencyDistribution readHistogram(Reader reader, TimeUnit unit)
+      throws IOException {
+    List<long[]> buckets = new ArrayList<>();
+    BufferedReader lines = new BufferedReader(reader);
+    int lineNumber = 0;
+    for (String line; (line = lines.readLine()) != null; ) {
+      lineNumber++;
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) continue;
+      String[] parts = line.split("\\s+");
+      try {
+        if (parts.length != 2) throw new NumberFormatException();
+        buckets.add(new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) });
+      } catch (NumberFormatException e) {
+        throw new IOException("Malformed histogram line " + lineNumber + ": " + line);
+      }
+    }
+
+    long[] upperBounds = new long[buckets.size()];
+    long[] counts = new long[buckets.size()];
+    for (int i = 0; i < buckets.size(); i++) {
+      upperBounds[i] = buckets.get(i)[0];
+      counts[i] = buckets.get(i)[1];
+    }
+    return histogram(upperBounds, counts, unit);
+  }
+
+  /** Read a {@linkplain #readHistogram(Reader, TimeUnit) histogram} from a UTF-8 file. */
+  public static LatencyDistribution readHistogram(File file, TimeUnit unit) throws IOException {
+    Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+    try {
+      return readHistogram(reader, unit);
+    } finally {
+      reader.close();
+    }
+  }
+
+  /** Draw one latency using {@code random} as the only source of randomness. */
+  public final long sample(Random random, TimeUnit unit) {
+    return unit.convert(Math.max(sampleNanos(random), 0L), NANOSECONDS);
+  }
+
+  /** Draw one latency in nanoseconds. Custom distributions implement this. */
+  protected abstract long sampleNanos(Random random);
+}
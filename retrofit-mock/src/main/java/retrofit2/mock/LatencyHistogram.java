@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Counts latencies in buckets whose width grows with their magnitude, in the manner of
+ * HdrHistogram. Values are kept to within 1% of what was recorded over the whole range of
+ * {@code long}, in a fixed amount of memory, so percentiles of the tail are as accurate as those of
+ * the median.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 8;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; // Exact below this.
+  private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+  @GuardedBy("this")
+  private final long[] counts = new long[indexOf(Long.MAX_VALUE) + 1];
+  @GuardedBy("this")
+  private long count;
+  @GuardedBy("this")
+  private long totalNanos;
+  @GuardedBy("this")
+  private long minNanos = Long.MAX_VALUE;
+  @GuardedBy("this")
+  private long maxNanos;
+
+  public synchronized void record(long latency, TimeUnit unit) {
+    long nanos = unit.toNanos(latency);
+    if (nanos < 0) throw new IllegalArgumentException("latency < 0: " + latency);
+    counts[indexOf(nanos)]++;
+    count++;
+    totalNanos += nanos;
+    if (nanos < minNanos) minNanos = nanos;
+    if (nanos > maxNanos) maxNanos = nanos;
+  }
+
+  /** The number of recorded latencies. */
+  public synchronized long count() {
+    return count;
+  }
+
+  public synchronized long min(TimeUnit unit) {
+    return count == 0 ? 0 : unit.convert(minNanos, NANOSECONDS);
+  }
+
+  public synchronized long max(TimeUnit unit) {
+    return unit.convert(maxNanos, NANOSECONDS);
+  }
+
+  public synchronized long mean(TimeUnit unit) {
+    return count == 0 ? 0 : unit.convert(totalNanos / count, NANOSECONDS);
+  }
+
+  /**
+   * The latency which {@code percentile} percent of recorded latencies are less than or equal to,
+   * such as 99.9 for the 99.9th percentile. Returns 0 if nothing was recorded.
+   */
+  public synchronized long valueAtPercentile(double percentile, TimeUnit unit) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+    }
+    if (count == 0) return 0;
+    long rank = Math.max(1L, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        long nanos = Math.min(highestEquivalentValue(i), maxNanos);
+        return unit.convert(Math.max(nanos, minNanos), NANOSECONDS);
+      }
+    }
+    throw new AssertionError();
+  }
+
+  /** Add the latencies recorded by {@code other} to this histogram. */
+  public void add(LatencyHistogram other) {
+    long[] otherCounts;
+    long otherCount;
+    long otherTotal;
+    long otherMin;
+    long otherMax;
+    synchronized (other) {
+      otherCounts = other.counts.clone();
+      otherCount = other.count;
+      otherTotal = other.totalNanos;
+      otherMin = other.minNanos;
+      otherMax = other.maxNanos;
+    }
+    synchronized (this) {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] += otherCounts[i];
+      }
+      count += otherCount;
+      totalNanos += otherTotal;
+      minNanos = Math.min(minNanos, otherMin);
+      maxNanos = Math.max(maxNanos, otherMax);
+    }
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) return (int) value;
+    // Shift so that the value lands in the upper half of the sub-buckets.
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_COUNT) return index;
+    int shift = index / SUB_BUCKET_HALF - 1;
+    long subBucket = index - shift * SUB_BUCKET_HALF;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Drives the methods of a service at a fixed rate and reports latency percentiles, throughput,
+ * and errors for each method. The service can be a {@link BehaviorDelegate}-backed mock or a real
+ * client pointed at a local server.
+ * <pre><code>
+ * LoadGenerator&lt;GitHub&gt; generator = new LoadGenerator.Builder&lt;&gt;(GitHub.class, gitHub)
+ *     .rate(500, TimeUnit.SECONDS)
+ *     .duration(30, TimeUnit.SECONDS)
+ *     .arguments(argumentSupplier)
+ *     .build();
+ * System.out.println(generator.run());
+ * </code></pre>
+ * The load is open-loop: call {@code n} is due at {@code n / rate} after the start whether or not
+ * earlier calls have completed, and its latency is measured from that due time. A slow response
+ * therefore shows up in the latency of every call it held back, instead of silently lowering the
+ * rate (coordinated omission). When {@linkplain Builder#maxConcurrency concurrency} is limited,
+ * calls which wait for a free slot are charged for that wait in the same way.
+ * <p>
+ * Only methods returning {@link Call} are driven. Latencies are measured in real time.
+ */
+public final class LoadGenerator<S> {
+  /** Supplies the arguments of each invocation of a service method. */
+  public interface ArgumentSupplier {
+    /** Arguments for the next invocation of {@code method}, or null if it has no parameters. */
+    @Nullable Object[] arguments(Method method);
+  }
+
+  private static final ArgumentSupplier NO_ARGUMENTS = new ArgumentSupplier() {
+    @Override public @Nullable Object[] arguments(Method method) {
+      return null;
+    }
+  };
+
+  private final S service;
+  private final List<Method> methods;
+  private final ArgumentSupplier arguments;
+  private final long intervalNanos;
+  private final long durationNanos;
+  private final int maxConcurrency;
+
+  LoadGenerator(Builder<S> builder, List<Method> methods) {
+    this.service = builder.service;
+    this.methods = methods;
+    this.arguments = builder.arguments;
+    this.intervalNanos = builder.intervalNanos;
+    this.durationNanos = builder.durationNanos;
+    this.maxConcurrency = builder.maxConcurrency;
+  }
+
+  /** Generate load for the configured duration and wait for all calls to complete. */
+  public Report run() throws InterruptedException {
+    Map<Method, Stats> stats = new LinkedHashMap<>();
+    for (Method method : methods) {
+      stats.put(method, new Stats());
+    }
+    Semaphore slots = new Semaphore(maxConcurrency);
+
+    long callCount = durationNanos / intervalNanos;
+    long startNanos = System.nanoTime();
+    for (long i = 0; i < callCount; i++) {
+      long dueNanos = startNanos + i * intervalNanos;
+      long waitNanos = dueNanos - System.nanoTime();
+      if (waitNanos > 0) {
+        NANOSECONDS.sleep(waitNanos);
+      }
+      slots.acquire();
+
+      Method method = methods.get((int) (i % methods.size()));
+      Stats methodStats = stats.get(method);
+      try {
+        call(method).enqueue(new RecordingCallback(methodStats, dueNanos, slots));
+      } catch (RuntimeException e) {
+        slots.release();
+        throw e;
+      }
+    }
+    slots.acquire(maxConcurrency); // Wait for the calls still in flight.
+    long elapsedNanos = System.nanoTime() - startNanos;
+
+    Map<Method, MethodReport> reports = new LinkedHashMap<>();
+    for (Map.Entry<Method, Stats> entry : stats.entrySet()) {
+      Stats methodStats = entry.getValue();
+      reports.put(entry.getKey(), new MethodReport(entry.getKey(), methodStats.latencies,
+          methodStats.errors.get(), elapsedNanos));
+    }
+    return new Report(unmodifiableMap(reports), elapsedNanos);
+  }
+
+  @SuppressWarnings("unchecked") // Only the outcome is observed, not the body type.
+  private Call<Object> call(Method method) {
+    try {
+      Call<Object> call = (Call<Object>) method.invoke(service, arguments.arguments(method));
+      if (call == null) {
+        throw new IllegalStateException(method.getName() + " returned null.");
+      }
+      return call;
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  static final class Stats {
+    final LatencyHistogram latencies = new LatencyHistogram();
+    final AtomicLong errors = new AtomicLong();
+  }
+
+  static final class RecordingCallback implements Callback<Object> {
+    private final Stats stats;
+    private final long dueNanos;
+    private final Semaphore slots;
+
+    RecordingCallback(Stats stats, long dueNanos, Semaphore slots) {
+      this.stats = stats;
+      this.dueNanos = dueNanos;
+      this.slots = slots;
+    }
+
+    @Override public void onResponse(Call<Object> call, Response<Object> response) {
+      finished(!response.isSuccessful());
+    }
+
+    @Override public void onFailure(Call<Object> call, Throwable t) {
+      finished(true);
+    }
+
+    private void finished(boolean error) {
+      stats.latencies.record(System.nanoTime() - dueNanos, NANOSECONDS);
+      if (error) stats.errors.incrementAndGet();
+      slots.release();
+    }
+  }
+
+  /** The outcome of a {@linkplain #run() run}. */
+  public static final class Report {
+    private final Map<Method, MethodReport> methods;
+    private final long elapsedNanos;
+
+    Report(Map<Method, MethodReport> methods, long elapsedNanos) {
+      this.methods = methods;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Results by service method, in the order the methods were driven. */
+    public Map<Method, MethodReport> methods() {
+      return methods;
+    }
+
+    /** The results of {@code method}, or null if it was not driven. */
+    public @Nullable MethodReport method(Method method) {
+      return methods.get(method);
+    }
+
+    /** The time from the first call being due until the last call completed. */
+    public long elapsed(TimeUnit unit) {
+      return unit.convert(elapsedNanos, NANOSECONDS);
+    }
+
+    /** The latencies of all methods combined. */
+    public LatencyHistogram latencies() {
+      LatencyHistogram all = new LatencyHistogram();
+      for (MethodReport report : methods.values()) {
+        all.add(report.latencies());
+      }
+      return all;
+    }
+
+    @Override public String toString() {
+      StringBuilder result = new StringBuilder();
+      result.append(String.format("%-24s %8s %8s %10s %9s %9s %9s %9s %9s%n",
+          "method", "calls", "errors", "calls/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+          "max ms"));
+      for (MethodReport report : methods.values()) {
+        LatencyHistogram latencies = report.latencies();
+        result.append(String.format("%-24s %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            report.method().getName(), latencies.count(), report.errors(), report.throughput(),
+            millis(latencies.valueAtPercentile(50, NANOSECONDS)),
+            millis(latencies.valueAtPercentile(90, NANOSECONDS)),
+            millis(latencies.valueAtPercentile(99, NANOSECONDS)),
+            millis(latencies.valueAtPercentile(99.9, NANOSECONDS)),
+            millis(latencies.max(NANOSECONDS))));
+      }
+      return result.toString();
+    }
+
+    private static double millis(long nanos) {
+      return nanos / (double) MILLISECONDS.toNanos(1);
+    }
+  }
+
+  /** The outcome of a {@linkplain #run() run} for one service method. */
+  public static final class MethodReport {
+    private final Method method;
+    private final LatencyHistogram latencies;
+    private final long errors;
+    private final long elapsedNanos;
+
+    MethodReport(Method method, LatencyHistogram latencies, long errors, long elapsedNanos) {
+      this.method = method;
+      this.latencies = latencies;
+      this.errors = errors;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    public Method method() {
+      return method;
+    }
+
+    /** The latency of every completed call, successful or not. */
+    public LatencyHistogram latencies() {
+      return latencies;
+    }
+
+    /** The number of calls which failed or received an unsuccessful HTTP response. */
+    public long errors() {
+      return errors;
+    }
+
+    /** Completed calls per second over the whole run. */
+    public double throughput() {
+      return latencies.count() / (elapsedNanos / (double) SECONDS.toNanos(1));
+    }
+  }
+
+  public static final class Builder<S> {
+    private final Class<S> type;
+    final S service;
+    private final List<Method> methods = new ArrayList<>();
+    ArgumentSupplier arguments = NO_ARGUMENTS;
+    long intervalNanos;
+    long durationNanos;
+    int maxConcurrency = Integer.MAX_VALUE;
+
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder(Class<S> type, S service) {
+      if (type == null) throw new NullPointerException("type == null");
+      if (service == null) throw new NullPointerException("service == null");
+      if (!type.isInterface()) {
+        throw new IllegalArgumentException("API declarations must be interfaces.");
+      }
+      this.type = type;
+      this.service = service;
+    }
+
+    /** Issue {@code calls} calls per {@code unit}, such as 500 per second. */
+    public Builder<S> rate(long calls, TimeUnit unit) {
+      if (calls <= 0) throw new IllegalArgumentException("calls <= 0: " + calls);
+      long intervalNanos = unit.toNanos(1) / calls;
+      if (intervalNanos == 0) throw new IllegalArgumentException("Rate is too high.");
+      this.intervalNanos = intervalNanos;
+      return this;
+    }
+
+    /** How long to issue calls for. */
+    public Builder<S> duration(long duration, TimeUnit unit) {
+      if (duration <= 0) throw new IllegalArgumentException("duration <= 0: " + duration);
+      this.durationNanos = unit.toNanos(duration);
+      return this;
+    }
+
+    /** The maximum number of calls in flight at once. Unlimited by default. */
+    public Builder<S> maxConcurrency(int maxConcurrency) {
+      if (maxConcurrency <= 0) {
+        throw new IllegalArgumentException("maxConcurrency <= 0: " + maxConcurrency);
+      }
+      this.maxConcurrency = maxConcurrency;
+      return this;
+    }
+
+    /** Supplies arguments for methods with parameters. By default methods get no arguments. */
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder<S> arguments(ArgumentSupplier arguments) {
+      if (arguments == null) throw new NullPointerException("arguments == null");
+      this.arguments = arguments;
+      return this;
+    }
+
+    /**
+     * Drive {@code method}. Calls rotate through the added methods in order. By default every
+     * abstract method of the service which returns {@link Call} is driven.
+     */
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder<S> method(Method method) {
+      if (method == null) throw new NullPointerException("method == null");
+      if (!method.getDeclaringClass().isAssignableFrom(type)) {
+        throw new IllegalArgumentException(method + " is not a method of " + type.getName());
+      }
+      if (method.getReturnType() != Call.class) {
+        throw new IllegalArgumentException(method + " does not return Call.");
+      }
+      methods.add(method);
+      return this;
+    }
+
+    public LoadGenerator<S> build() {
+      if (intervalNanos == 0) throw new IllegalStateException("rate is required.");
+      if (durationNanos == 0) throw new IllegalStateException("duration is required.");
+
+      List<Method> methods = new ArrayList<>(this.methods);
+      if (methods.isEmpty()) {
+        for (Method method : type.getMethods()) {
+          if (method.getReturnType() == Call.class
+              && Modifier.isAbstract(method.getModifiers())) {
+            methods.add(method);
+          }
+        }
+        // getMethods() has no defined order. Sort to make runs repeatable.
+        Collections.sort(methods, new Comparator<Method>() {
+          @Override public int compare(Method a, Method b) {
+            return a.toGenericString().compareTo(b.toGenericString());
+          }
+        });
+      }
+      if (methods.isEmpty()) {
+        throw new IllegalStateException(type.getName() + " has no methods returning Call.");
+      }
+      return new LoadGenerator<>(this, Collections.unmodifiableList(methods));
+    }
+  }
+}
@@ -15,20 +15,45 @@
  */
 package retrofit2.mock;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import retrofit2.Retrofit;
 
+import static java.util.Collections.unmodifiableMap;
+
 public final class MockRetrofit {
   private final Retrofit retrofit;
   private final NetworkBehavior behavior;
-  private final ExecutorService executor;
+  private final Map<Method, NetworkBehavior> methodBehaviors;
+  private final Map<Class<? extends Annotation>, NetworkBehavior> annotationBehaviors;
+  final ExecutorService executor;
+  private final ScheduledExecutorService delayScheduler;
+  private final @Nullable VirtualClock clock;
+  final Scheduler scheduler;
 
-  MockRetrofit(Retrofit retrofit, NetworkBehavior behavior, ExecutorService executor) {
+  MockRetrofit(Retrofit retrofit, NetworkBehavior behavior,
+      Map<Method, NetworkBehavior> methodBehaviors,
+      Map<Class<? extends Annotation>, NetworkBehavior> annotationBehaviors,
+      ExecutorService executor, ScheduledExecutorService delayScheduler,
+      @Nullable VirtualClock clock) {
     this.retrofit = retrofit;
     this.behavior = behavior;
+    this.methodBehaviors = methodBehaviors; // Copy+unmodifiable at call site.
+    this.annotationBehaviors = annotationBehaviors; // Copy+unmodifiable at call site.
     this.executor = executor;
+    this.delayScheduler = delayScheduler;
+    this.clock = clock;
+    this.scheduler = clock != null ? clock.scheduler : Scheduler.of(delayScheduler);
   }
 
   public Retrofit retrofit() {
@@ -39,19 +64,54 @@ public final class MockRetrofit {
     return behavior;
   }
 
+  /**
+   * The behavior applied to calls of {@code method}. This is the behavior registered for the
+   * method itself, else the one registered for the first of its annotations which has one, else
+   * the {@linkplain #networkBehavior() default}.
+   */
+  public NetworkBehavior networkBehavior(Method method) {
+    NetworkBehavior methodBehavior = methodBehaviors.get(method);
+    if (methodBehavior != null) return methodBehavior;
+    for (Map.Entry<Class<? extends Annotation>, NetworkBehavior> entry
+        : annotationBehaviors.entrySet()) {
+      if (method.isAnnotationPresent(entry.getKey())) return entry.getValue();
+    }
+    return behavior;
+  }
+
   public Executor backgroundExecutor() {
     return executor;
   }
 
+  /**
+   * The scheduler which times {@linkplain NetworkBehavior#delay network delays} unless a
+   * {@linkplain #clock() clock} is set. Results are delivered on the
+   * {@linkplain #backgroundExecutor() background executor} once a delay has elapsed so no thread
+   * is blocked while a call is in flight.
+   */
+  public ScheduledExecutorService delayScheduler() {
+    return delayScheduler;
+  }
+
+  /** The clock network delays elapse on, or null if they elapse in real time. */
+  public @Nullable VirtualClock clock() {
+    return clock;
+  }
+
   @SuppressWarnings("unchecked") // Single-interface proxy creation guarded by parameter safety.
   public <T> BehaviorDelegate<T> create(Class<T> service) {
-    return new BehaviorDelegate<>(retrofit, behavior, executor, service);
+    return new BehaviorDelegate<>(this, service);
   }
 
   public static final class Builder {
     private final Retrofit retrofit;
     private NetworkBehavior behavior;
+    private final Map<Method, NetworkBehavior> methodBehaviors = new LinkedHashMap<>();
+    private final Map<Class<? extends Annotation>, NetworkBehavior> annotationBehaviors =
+        new LinkedHashMap<>();
     private ExecutorService executor;
+    private ScheduledExecutorService delayScheduler;
+    private @Nullable VirtualClock clock;
 
     @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
     public Builder(Retrofit retrofit) {
@@ -66,6 +126,29 @@ public final class MockRetrofit {
       return this;
     }
 
+    /** Apply {@code behavior} to calls of {@code method} instead of the default behavior. */
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder networkBehavior(Method method, NetworkBehavior behavior) {
+      if (method == null) throw new NullPointerException("method == null");
+      if (behavior == null) throw new NullPointerException("behavior == null");
+      methodBehaviors.put(method, behavior);
+      return this;
+    }
+
+    /**
+     * Apply {@code behavior} to calls of methods carrying {@code annotation}, such as
+     * {@code GET.class} or an annotation of your own, instead of the default behavior. It must be
+     * retained at runtime.
+     */
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder networkBehavior(Class<? extends Annotation> annotation,
+        NetworkBehavior behavior) {
+      if (annotation == null) throw new NullPointerException("annotation == null");
+      if (behavior == null) throw new NullPointerException("behavior == null");
+      annotationBehaviors.put(annotation, behavior);
+      return this;
+    }
+
     @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
     public Builder backgroundExecutor(ExecutorService executor) {
       if (executor == null) throw new NullPointerException("executor == null");
@@ -73,10 +156,50 @@ public final class MockRetrofit {
       return this;
     }
 
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder delayScheduler(ScheduledExecutorService delayScheduler) {
+      if (delayScheduler == null) throw new NullPointerException("delayScheduler == null");
+      this.delayScheduler = delayScheduler;
+      return this;
+    }
+
+    /**
+     * Let network delays elapse on {@code clock} instead of in real time. Unless a
+     * {@linkplain #backgroundExecutor background executor} is also set, calls then run on the
+     * thread which enqueues them or advances the clock, which makes them fully deterministic.
+     */
+    @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+    public Builder clock(VirtualClock clock) {
+      if (clock == null) throw new NullPointerException("clock == null");
+      this.clock = clock;
+      return this;
+    }
+
     public MockRetrofit build() {
       if (behavior == null) behavior = NetworkBehavior.create();
-      if (executor == null) executor = Executors.newCachedThreadPool();
-      return new MockRetrofit(retrofit, behavior, executor);
+      if (executor == null) {
+        executor = clock != null ? VirtualClock.directExecutor() : Executors.newCachedThreadPool();
+      }
+      if (delayScheduler == null) delayScheduler = defaultDelayScheduler();
+      return new MockRetrofit(retrofit, behavior,
+          unmodifiableMap(new LinkedHashMap<>(methodBehaviors)),
+          unmodifiableMap(new LinkedHashMap<>(annotationBehaviors)), executor, delayScheduler,
+          clock);
+    }
+
+    /** A single daemon thread which is released after a minute without work. */
+    private static ScheduledExecutorService defaultDelayScheduler() {
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+          new ThreadFactory() {
+            @Override public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "MockRetrofit Delay Scheduler");
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+      scheduler.setKeepAliveTime(60, TimeUnit.SECONDS);
+      scheduler.allowCoreThreadTimeOut(true);
+      return scheduler;
     }
   }
 }
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import okhttp3.ResponseBody;
 import retrofit2.Response;
 
@@ -32,7 +33,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * <li>Delay – the time it takes before a response is received (successful or otherwise).</li>
  * <li>Variance – the amount of fluctuation of the delay to be faster or slower.</li>
  * <li>Failure - the percentage of operations which fail (such as {@link IOException}).</li>
+ * <li>Bandwidth - the rate at which response bodies are transferred.</li>
+ * <li>Outages – recurring windows of time in which every call returns an HTTP error.</li>
+ * <li>Latency spikes – the percentage of calls which take several times longer.</li>
  * </ul>
+ * Instead of delay and variance a {@link LatencyDistribution} can describe the delay.
  * Behavior can be applied to a Retrofit interface with {@link MockRetrofit}. Behavior can also
  * be applied elsewhere using {@link #calculateDelay(TimeUnit)} and {@link #calculateIsFailure()}.
  * <p>
@@ -45,9 +50,12 @@ public final class NetworkBehavior {
   private static final int DEFAULT_FAILURE_PERCENT = 3; // 3% of network calls will fail.
   private static final int DEFAULT_ERROR_PERCENT = 0; // 0% of network calls will return errors.
 
-  /** Create an instance with default behavior. */
+  /**
+   * Create an instance with default behavior. Randomness comes from a separate source for each
+   * thread so that concurrent calls do not contend on a shared seed.
+   */
   public static NetworkBehavior create() {
-    return new NetworkBehavior(new Random());
+    return new NetworkBehavior(new PerThreadRandom());
   }
 
   /**
@@ -64,6 +72,12 @@ public final class NetworkBehavior {
 
   private volatile long delayMs = DEFAULT_DELAY_MS;
   private volatile int variancePercent = DEFAULT_VARIANCE_PERCENT;
+  private volatile @Nullable LatencyDistribution latencyDistribution;
+  private volatile long bytesPerSecond; // Zero for unlimited.
+  private volatile long outagePeriodNanos; // Zero for no outages.
+  private volatile long outageDurationNanos;
+  private volatile int spikePercent;
+  private volatile float spikeMultiplier = 1f;
   private volatile int failurePercent = DEFAULT_FAILURE_PERCENT;
   private volatile Throwable failureException;
   private volatile int errorPercent = DEFAULT_ERROR_PERCENT;
@@ -104,6 +118,95 @@ public final class NetworkBehavior {
     return variancePercent;
   }
 
+  /**
+   * Draw network round trip delays from {@code distribution} instead of applying the
+   * {@linkplain #setVariancePercent variance} to the {@linkplain #setDelay delay}. Pass null to
+   * go back to the fixed delay.
+   */
+  public void setLatencyDistribution(@Nullable LatencyDistribution distribution) {
+    this.latencyDistribution = distribution;
+  }
+
+  /** The distribution of network round trip delays, or null if the fixed delay is used. */
+  public @Nullable LatencyDistribution latencyDistribution() {
+    return latencyDistribution;
+  }
+
+  /**
+   * Set the rate at which response bodies are received. Reading a body blocks until its bytes
+   * would have arrived at this rate, timed from the first read. Zero means unlimited, which is the
+   * default.
+   * <p>
+   * Only bodies of type {@link okhttp3.ResponseBody} have bytes to throttle. Bodies which are
+   * already converted, such as those passed to {@link BehaviorDelegate#returningResponse}, arrive
+   * after the {@linkplain #calculateDelay delay} alone.
+   */
+  public void setBandwidth(long bytesPerSecond) {
+    if (bytesPerSecond < 0) {
+      throw new IllegalArgumentException("Bandwidth must be positive value.");
+    }
+    this.bytesPerSecond = bytesPerSecond;
+  }
+
+  /** The rate at which response bodies are received in bytes per second, or zero if unlimited. */
+  public long bandwidth() {
+    return bytesPerSecond;
+  }
+
+  /**
+   * Schedule recurring outages: for {@code duration} out of every {@code period} every call
+   * returns an HTTP error from the {@linkplain #setErrorFactory error factory}. The first outage
+   * starts when the mock is created, or at time zero of its {@link VirtualClock}. A period of zero
+   * disables outages.
+   * <p>
+   * For example, with an error factory creating 503 responses, a 30 second outage every 5 minutes:
+   * <pre><code>
+   * behavior.setOutage(5, TimeUnit.MINUTES, 30, TimeUnit.SECONDS);
+   * </code></pre>
+   */
+  public void setOutage(long period, TimeUnit periodUnit, long duration, TimeUnit durationUnit) {
+    long periodNanos = periodUnit.toNanos(period);
+    long durationNanos = durationUnit.toNanos(duration);
+    if (periodNanos < 0 || durationNanos < 0 || durationNanos > periodNanos) {
+      throw new IllegalArgumentException("Outage duration must be between 0 and its period.");
+    }
+    this.outagePeriodNanos = periodNanos;
+    this.outageDurationNanos = durationNanos;
+  }
+
+  /** The interval at which outages recur, or zero if there are none. */
+  public long outagePeriod(TimeUnit unit) {
+    return unit.convert(outagePeriodNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** The length of each outage. */
+  public long outageDuration(TimeUnit unit) {
+    return unit.convert(outageDurationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Make {@code percent} of calls take {@code multiplier} times their
+   * {@linkplain #calculateDelay calculated delay}.
+   */
+  public void setLatencySpike(int percent, float multiplier) {
+    checkPercentageValidity(percent, "Latency spike percentage must be between 0 and 100.");
+    if (multiplier < 1f) {
+      throw new IllegalArgumentException("Latency spike multiplier must be at least 1.");
+    }
+    this.spikePercent = percent;
+    this.spikeMultiplier = multiplier;
+  }
+
+  /** The percentage of calls whose delay is multiplied by {@link #latencySpikeMultiplier()}. */
+  public int latencySpikePercent() {
+    return spikePercent;
+  }
+
+  /** The factor by which the delay of spiking calls is multiplied. */
+  public float latencySpikeMultiplier() {
+    return spikeMultiplier;
+  }
+
   /** Set the percentage of calls to {@link #calculateIsFailure()} that return {@code true}. */
   public void setFailurePercent(int failurePercent) {
     checkPercentageValidity(failurePercent, "Failure percentage must be between 0 and 100.");
@@ -195,6 +298,19 @@ public final class NetworkBehavior {
    * behavior.
    */
   public long calculateDelay(TimeUnit unit) {
+    long delay = calculateBaseDelay(unit);
+    if (spikePercent > 0 && random.nextInt(100) < spikePercent) {
+      delay = (long) (delay * (double) spikeMultiplier);
+    }
+    return delay;
+  }
+
+  private long calculateBaseDelay(TimeUnit unit) {
+    LatencyDistribution latencyDistribution = this.latencyDistribution;
+    if (latencyDistribution != null) {
+      return latencyDistribution.sample(random, unit);
+    }
+
     float delta = variancePercent / 100f; // e.g., 20 / 100f == 0.2f
     float lowerBound = 1f - delta; // 0.2f --> 0.8f
     float upperBound = 1f + delta; // 0.2f --> 1.2f
@@ -204,9 +320,49 @@ public final class NetworkBehavior {
     return MILLISECONDS.convert(callDelayMs, unit);
   }
 
+  /**
+   * Determine whether a call made {@code elapsed} after the start of the mock falls into a
+   * scheduled outage. When true, {@link #createErrorResponse()} should be returned.
+   */
+  public boolean calculateIsOutage(long elapsed, TimeUnit unit) {
+    long periodNanos = outagePeriodNanos;
+    if (periodNanos == 0) return false;
+    return unit.toNanos(elapsed) % periodNanos < outageDurationNanos;
+  }
+
+  /**
+   * Get the additional delay for transferring a body of {@code byteCount} bytes in accordance with
+   * the configured bandwidth.
+   */
+  public long calculateTransferDelay(long byteCount, TimeUnit unit) {
+    long bytesPerSecond = this.bytesPerSecond;
+    if (bytesPerSecond == 0 || byteCount <= 0) return 0;
+    double seconds = (double) byteCount / bytesPerSecond;
+    return unit.convert((long) (seconds * TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+  }
+
   private static void checkPercentageValidity(int percentage, String message) {
     if (percentage < 0 || percentage > 100) {
       throw new IllegalArgumentException(message);
     }
   }
+
+  /** Delegates to a {@link Random} confined to the calling thread. */
+  static final class PerThreadRandom extends Random {
+    private static final long serialVersionUID = 0L;
+
+    private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+      @Override protected Random initialValue() {
+        return new Random();
+      }
+    };
+
+    @Override protected int next(int bits) {
+      return RANDOM.get().nextInt() >>> (32 - bits);
+    }
+
+    @Override public double nextGaussian() {
+      return RANDOM.get().nextGaussian(); // Random's own implementation is synchronized.
+    }
+  }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * A {@link okhttp3.Call.Factory} which records every response received through {@code delegate}
+ * to a file, together with how long it took. Serve the recording back with
+ * {@link ReplayCallFactory} to benchmark against real payloads without the real server.
+ * <p>
+ * Response bodies are read completely before they are returned so that they can be recorded.
+ * Calls which fail are not recorded. {@linkplain #close() Close} this factory when done.
+ */
+public final class RecordingCallFactory implements okhttp3.Call.Factory, Closeable {
+  private final okhttp3.Call.Factory delegate;
+  @GuardedBy("this")
+  private final BufferedSink sink;
+
+  /** Record to {@code file}, replacing its contents. */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public RecordingCallFactory(okhttp3.Call.Factory delegate, File file) throws IOException {
+    if (delegate == null) throw new NullPointerException("delegate == null");
+    if (file == null) throw new NullPointerException("file == null");
+    this.delegate = delegate;
+    this.sink = Okio.buffer(Okio.sink(file));
+    Recordings.writeHeader(sink);
+    sink.flush();
+  }
+
+  @Override public okhttp3.Call newCall(Request request) {
+    return new RecordingCall(delegate.newCall(request));
+  }
+
+  @Override public synchronized void close() throws IOException {
+    sink.close();
+  }
+
+  Response record(okhttp3.Call call, Response response, long startNanos) throws IOException {
+    ResponseBody body = response.body();
+    MediaType contentType = body.contentType();
+    byte[] bytes = body.bytes(); // Also closes the body.
+    long latencyNanos = System.nanoTime() - startNanos;
+    synchronized (this) {
+      Recordings.writeRecord(sink, Recordings.key(call.request()), latencyNanos, response,
+          contentType, bytes);
+      sink.flush(); // Keep what was recorded so far if the process dies.
+    }
+    return response.newBuilder()
+        .body(ResponseBody.create(contentType, bytes))
+        .build();
+  }
+
+  final class RecordingCall implements okhttp3.Call {
+    private final okhttp3.Call delegate;
+
+    RecordingCall(okhttp3.Call delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override public Request request() {
+      return delegate.request();
+    }
+
+    @Override public Response execute() throws IOException {
+      long startNanos = System.nanoTime();
+      return record(delegate, delegate.execute(), startNanos);
+    }
+
+    @Override public void enqueue(final Callback responseCallback) {
+      final long startNanos = System.nanoTime();
+      delegate.enqueue(new Callback() {
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          responseCallback.onFailure(RecordingCall.this, e);
+        }
+
+        @Override public void onResponse(okhttp3.Call call, Response response) throws IOException {
+          Response recorded;
+          try {
+            recorded = record(call, response, startNanos);
+          } catch (IOException e) {
+            responseCallback.onFailure(RecordingCall.this, e);
+            return;
+          }
+          responseCallback.onResponse(RecordingCall.this, recorded);
+        }
+      });
+    }
+
+    @Override public void cancel() {
+      delegate.cancel();
+    }
+
+    @Override public boolean isExecuted() {
+      return delegate.isExecuted();
+    }
+
+    @Override public boolean isCanceled() {
+      return delegate.isCanceled();
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new RecordingCall(delegate.clone());
+    }
+  }
+}
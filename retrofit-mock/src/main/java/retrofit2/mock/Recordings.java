@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.IOException;
+import javax.annotation.Nullable;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okio.BufferedSink;
+import okio.ByteString;
+
+/**
+ * The file format shared by {@link RecordingCallFactory} and {@link ReplayCallFactory}. A file
+ * starts with {@link #MAGIC} and {@link #VERSION} and holds one record per exchange:
+ * <pre>
+ * key          string   request method and URL
+ * latency      int64    nanoseconds from sending the request to receiving the whole body
+ * code         int32
+ * message      string
+ * headers      int32 count, then a name string and value string for each
+ * content type string   empty if the body has none
+ * body         int32 length, then the bytes
+ * </pre>
+ * Strings are an int32 byte count followed by UTF-8. Integers are big-endian.
+ */
+final class Recordings {
+  static final int MAGIC = 0x52545246; // "RTRF"
+  static final int VERSION = 1;
+
+  static String key(Request request) {
+    return request.method() + ' ' + request.url();
+  }
+
+  static void writeHeader(BufferedSink sink) throws IOException {
+    sink.writeInt(MAGIC);
+    sink.writeInt(VERSION);
+  }
+
+  static void writeRecord(BufferedSink sink, String key, long latencyNanos,
+      okhttp3.Response response, @Nullable MediaType contentType, byte[] body)
+      throws IOException {
+    writeString(sink, key);
+    sink.writeLong(latencyNanos);
+    sink.writeInt(response.code());
+    writeString(sink, response.message());
+    Headers headers = response.headers();
+    sink.writeInt(headers.size());
+    for (int i = 0, size = headers.size(); i < size; i++) {
+      writeString(sink, headers.name(i));
+      writeString(sink, headers.value(i));
+    }
+    writeString(sink, contentType != null ? contentType.toString() : "");
+    sink.writeInt(body.length);
+    sink.write(body);
+  }
+
+  private static void writeString(BufferedSink sink, String value) throws IOException {
+    ByteString bytes = ByteString.encodeUtf8(value);
+    sink.writeInt(bytes.size());
+    sink.write(bytes);
+  }
+
+  private Recordings() {
+    throw new AssertionError("No instances.");
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A {@link okhttp3.Call.Factory} which serves responses captured by {@link RecordingCallFactory}.
+ * Requests are matched by method and URL. When the same request was recorded several times its
+ * responses are served in turn. A request which was never recorded fails with an
+ * {@link IOException}.
+ * <p>
+ * The recording is memory-mapped rather than loaded onto the heap, and response bodies are read
+ * straight from the mapping, so replay stays cheap even for large recordings. Recordings must be
+ * smaller than 2 GiB.
+ */
+public final class ReplayCallFactory implements okhttp3.Call.Factory {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final ByteBuffer recording;
+  private final Map<String, Entry> entries;
+  private final @Nullable ScheduledExecutorService latencyScheduler;
+
+  /** Replay the responses of {@code file} immediately, on the calling thread. */
+  public ReplayCallFactory(File file) throws IOException {
+    this(file, null);
+  }
+
+  /**
+   * Replay the responses of {@code file} with their original latencies. Asynchronous calls are
+   * completed by {@code latencyScheduler} once their latency has elapsed.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public ReplayCallFactory(File file, @Nullable ScheduledExecutorService latencyScheduler)
+      throws IOException {
+    if (file == null) throw new NullPointerException("file == null");
+    this.recording = map(file);
+    this.entries = index(recording);
+    this.latencyScheduler = latencyScheduler;
+  }
+
+  private static MappedByteBuffer map(File file) throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Recording is too large: " + file);
+      }
+      // The mapping stays valid after the channel is closed.
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  private static Map<String, Entry> index(ByteBuffer recording) throws IOException {
+    ByteBuffer buffer = recording.duplicate();
+    if (buffer.remaining() < 8
+        || buffer.getInt() != Recordings.MAGIC
+        || buffer.getInt() != Recordings.VERSION) {
+      throw new IOException("Not a recording.");
+    }
+
+    Map<String, List<Integer>> positions = new HashMap<>();
+    try {
+      while (buffer.hasRemaining()) {
+        int position = buffer.position();
+        String key = readString(buffer);
+        List<Integer> keyPositions = positions.get(key);
+        if (keyPositions == null) {
+          keyPositions = new ArrayList<>();
+          positions.put(key, keyPositions);
+        }
+        keyPositions.add(position);
+
+        buffer.position(buffer.position() + 8 + 4); // Latency and code.
+        skipString(buffer); // Message.
+        for (int i = 0, count = buffer.getInt(); i < count; i++) {
+          skipString(buffer);
+          skipString(buffer);
+        }
+        skipString(buffer); // Content type.
+        int bodyLength = buffer.getInt();
+        buffer.position(buffer.position() + bodyLength);
+      }
+    } catch (RuntimeException e) { // BufferUnderflowException or IllegalArgumentException.
+      throw new IOException("Truncated recording.", e);
+    }
+
+    Map<String, Entry> entries = new HashMap<>();
+    for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+      List<Integer> keyPositions = entry.getValue();
+      int[] array = new int[keyPositions.size()];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = keyPositions.get(i);
+      }
+      entries.put(entry.getKey(), new Entry(array));
+    }
+    return entries;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static void skipString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    buffer.position(buffer.position() + length);
+  }
+
+  /** The number of distinct requests in the recording. */
+  public int requestCount() {
+    return entries.size();
+  }
+
+  @Override public okhttp3.Call newCall(Request request) {
+    return new ReplayCall(request);
+  }
+
+  /** Decode the next recorded exchange for {@code request}, or return null if there is none. */
+  @Nullable Replay replay(Request request) {
+    Entry entry = entries.get(Recordings.key(request));
+    if (entry == null) return null;
+
+    ByteBuffer buffer = recording.duplicate();
+    buffer.position(entry.next());
+    skipString(buffer); // Key.
+    long latencyNanos = buffer.getLong();
+    int code = buffer.getInt();
+    String message = readString(buffer);
+    Headers.Builder headers = new Headers.Builder();
+    for (int i = 0, count = buffer.getInt(); i < count; i++) {
+      headers.add(readString(buffer), readString(buffer));
+    }
+    String contentType = readString(buffer);
+    int bodyLength = buffer.getInt();
+    ByteBuffer body = buffer.slice();
+    body.limit(bodyLength);
+
+    Response response = new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message(message)
+        .headers(headers.build())
+        .body(ResponseBody.create(MediaType.parse(contentType),
+            bodyLength, Okio.buffer(new ByteBufferSource(body))))
+        .build();
+    return new Replay(response, latencyNanos);
+  }
+
+  static final class Entry {
+    final int[] positions;
+    final AtomicInteger next = new AtomicInteger();
+
+    Entry(int[] positions) {
+      this.positions = positions;
+    }
+
+    int next() {
+      return positions[(next.getAndIncrement() & Integer.MAX_VALUE) % positions.length];
+    }
+  }
+
+  static final class Replay {
+    final Response response;
+    final long latencyNanos;
+
+    Replay(Response response, long latencyNanos) {
+      this.response = response;
+      this.latencyNanos = latencyNanos;
+    }
+  }
+
+  /** Reads a region of the mapped recording without copying it onto the heap first. */
+  static final class ByteBufferSource implements Source {
+    private final ByteBuffer buffer;
+
+    ByteBufferSource(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override public long read(Buffer sink, long byteCount) throws IOException {
+      int remaining = buffer.remaining();
+      if (remaining == 0) return -1;
+      int count = (int) Math.min(byteCount, remaining);
+      ByteBuffer chunk = buffer.duplicate();
+      chunk.limit(chunk.position() + count);
+      sink.write(chunk);
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override public Timeout timeout() {
+      return Timeout.NONE;
+    }
+
+    @Override public void close() {
+    }
+  }
+
+  final class ReplayCall implements okhttp3.Call {
+    private final Request request;
+    private volatile boolean canceled;
+    @GuardedBy("this")
+    private boolean executed;
+
+    ReplayCall(Request request) {
+      this.request = request;
+    }
+
+    @Override public Request request() {
+      return request;
+    }
+
+    @Override public Response execute() throws IOException {
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      Replay replay = replayOrThrow();
+      if (latencyScheduler != null) {
+        try {
+          NANOSECONDS.sleep(replay.latencyNanos);
+        } catch (InterruptedException e) {
+          throw new IOException("Canceled");
+        }
+      }
+      return deliverable(replay.response);
+    }
+
+    @Override public void enqueue(final Callback responseCallback) {
+      if (responseCallback == null) throw new NullPointerException("responseCallback == null");
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      final Replay replay;
+      try {
+        replay = replayOrThrow();
+      } catch (IOException e) {
+        responseCallback.onFailure(this, e);
+        return;
+      }
+      Runnable delivery = new Runnable() {
+        @Override public void run() {
+          Response response;
+          try {
+            response = deliverable(replay.response);
+          } catch (IOException e) {
+            responseCallback.onFailure(ReplayCall.this, e);
+            return;
+          }
+          try {
+            responseCallback.onResponse(ReplayCall.this, response);
+          } catch (IOException e) {
+            response.close();
+          }
+        }
+      };
+      if (latencyScheduler != null) {
+        latencyScheduler.schedule(delivery, replay.latencyNanos, NANOSECONDS);
+      } else {
+        delivery.run();
+      }
+    }
+
+    private Replay replayOrThrow() throws IOException {
+      if (canceled) throw new IOException("Canceled");
+      Replay replay = replay(request);
+      if (replay == null) {
+        throw new IOException("No recorded response for " + Recordings.key(request));
+      }
+      return replay;
+    }
+
+    private Response deliverable(Response response) throws IOException {
+      if (canceled) {
+        response.close();
+        throw new IOException("Canceled");
+      }
+      return response;
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+    }
+
+    @Override public synchronized boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      return canceled;
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new ReplayCall(request);
+    }
+  }
+}
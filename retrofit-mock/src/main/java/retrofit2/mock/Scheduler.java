@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/** The source of time for simulated network delays. */
+abstract class Scheduler {
+  static Scheduler of(final ScheduledExecutorService executor) {
+    final long originNanos = System.nanoTime();
+    return new Scheduler() {
+      @Override long nanoTime() {
+        return System.nanoTime() - originNanos;
+      }
+
+      @Override Future<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return executor.schedule(task, delay, unit);
+      }
+    };
+  }
+
+  /** The time elapsed since this scheduler was created. */
+  abstract long nanoTime();
+
+  abstract Future<?> schedule(Runnable task, long delay, TimeUnit unit);
+
+  /** Run {@code task} once {@link #nanoTime()} reaches {@code deadlineNanos}. */
+  Future<?> scheduleAt(Runnable task, long deadlineNanos) {
+    return schedule(task, deadlineNanos - nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Wait until {@link #nanoTime()} reaches {@code deadlineNanos}. A scheduler which controls time
+   * moves it forward instead, running the tasks which fall due on the way.
+   */
+  void sleepUntil(long deadlineNanos) throws InterruptedException {
+    long remainingNanos;
+    while ((remainingNanos = deadlineNanos - nanoTime()) > 0) {
+      TimeUnit.NANOSECONDS.sleep(remainingNanos);
+    }
+  }
+
+  /** True if time only passes when {@link #sleepUntil} moves it forward. */
+  boolean controlsTime() {
+    return false;
+  }
+}
@@ -0,0 +1,655 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Call;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.DELETE;
+import retrofit2.http.Field;
+import retrofit2.http.FieldMap;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.HTTP;
+import retrofit2.http.Header;
+import retrofit2.http.HeaderMap;
+import retrofit2.http.OPTIONS;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+import retrofit2.http.Path;
+import retrofit2.http.Priority;
+import retrofit2.http.Query;
+import retrofit2.http.QueryMap;
+
+/**
+ * Serves an implementation of a service interface: the reverse of
+ * {@link Retrofit#create(Class)}. Each request is matched to a service method by its HTTP method
+ * and path, the method's parameters are decoded from the path, query, headers, and body, and the
+ * value it returns is encoded as the response. Bodies go through {@code retrofit}'s converters in
+ * the opposite direction to the client's, so both sides exchange the same bytes a real server
+ * would.
+ * <pre><code>
+ * ServiceHandler handler = ServiceHandler.create(retrofit, GitHub.class, new FakeGitHub());
+ * GitHub client = new Retrofit.Builder()
+ *     .baseUrl(retrofit.baseUrl())
+ *     .addConverterFactory(GsonConverterFactory.create())
+ *     .callFactory(new InProcessCallFactory(handler))
+ *     .build()
+ *     .create(GitHub.class);
+ * </code></pre>
+ * The handler can also be put behind any HTTP server to serve clients in other processes.
+ * <p>
+ * Service methods should return {@link Call}, whose {@link Response} supplies the status code,
+ * headers, and body. Methods returning any other type respond 200 with the returned value as the
+ * body. Requests which match no method get a 404, or a 405 if only the HTTP method differs.
+ * Parameters which cannot be decoded get a 400.
+ * <p>
+ * {@link Path @Path}, {@link Query @Query}, {@link Header @Header}, and {@link Field @Field}
+ * parameters may be strings, primitives, boxed primitives, enums, or arrays and lists of those.
+ * Multipart methods and methods with a dynamic {@link retrofit2.http.Url @Url} are not
+ * supported.
+ */
+public final class ServiceHandler implements InProcessCallFactory.Handler {
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final Pattern PARAM_URL_REGEX = Pattern.compile("\\{([a-zA-Z][a-zA-Z0-9_-]*)\\}");
+  // Path parameters are carried through URL resolution between NULs, which cannot otherwise
+  // appear in a decoded path segment.
+  private static final Pattern PLACEHOLDER = Pattern.compile("\u0000([^\u0000]+)\u0000");
+
+  /**
+   * Create a handler which serves {@code implementation} using the base URL and converters of
+   * {@code retrofit}.
+   *
+   * @throws IllegalArgumentException if a method of {@code service} cannot be served.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static <T> ServiceHandler create(Retrofit retrofit, Class<T> service, T implementation) {
+    if (retrofit == null) throw new NullPointerException("retrofit == null");
+    if (service == null) throw new NullPointerException("service == null");
+    if (implementation == null) throw new NullPointerException("implementation == null");
+    if (!service.isInterface()) {
+      throw new IllegalArgumentException("API declarations must be interfaces.");
+    }
+
+    List<Route> routes = new ArrayList<>();
+    for (Method method : service.getMethods()) {
+      Route route = Route.parse(retrofit, method);
+      if (route != null) routes.add(route);
+    }
+    // Prefer literal path segments over parameters, so that "users/self" wins over "users/{id}".
+    Collections.sort(routes, new Comparator<Route>() {
+      @Override public int compare(Route a, Route b) {
+        return a.parameterCount - b.parameterCount;
+      }
+    });
+    return new ServiceHandler(implementation, routes);
+  }
+
+  private final Object implementation;
+  private final List<Route> routes;
+
+  private ServiceHandler(Object implementation, List<Route> routes) {
+    this.implementation = implementation;
+    this.routes = routes;
+  }
+
+  @Override public okhttp3.Response handle(Request request) throws IOException {
+    boolean pathMatched = false;
+    for (int i = 0, size = routes.size(); i < size; i++) {
+      Route route = routes.get(i);
+      Map<String, String> pathValues = route.match(request.url());
+      if (pathValues == null) continue;
+      pathMatched = true;
+      if (route.httpMethod.equals(request.method())) {
+        return route.handle(implementation, request, pathValues);
+      }
+    }
+    return pathMatched
+        ? emptyResponse(request, 405, "Method Not Allowed")
+        : emptyResponse(request, 404, "Not Found");
+  }
+
+  static okhttp3.Response emptyResponse(Request request, int code, String message) {
+    return new okhttp3.Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message(message)
+        .body(ResponseBody.create(null, new byte[0]))
+        .build();
+  }
+
+  static RuntimeException methodError(Method method, String message, Object... args) {
+    return new IllegalArgumentException(String.format(message, args)
+        + "\n    for method "
+        + method.getDeclaringClass().getSimpleName()
+        + "."
+        + method.getName());
+  }
+
+  static final class Route {
+    final Method method;
+    final String httpMethod;
+    final int parameterCount;
+    private final Pattern[] segments;
+    private final String[][] segmentNames;
+    private final ParameterSource[] parameters;
+    private final boolean returnsCall;
+    private final @Nullable Converter<Object, RequestBody> bodyConverter;
+
+    Route(Method method, String httpMethod, int parameterCount, Pattern[] segments,
+        String[][] segmentNames, ParameterSource[] parameters, boolean returnsCall,
+        @Nullable Converter<Object, RequestBody> bodyConverter) {
+      this.method = method;
+      this.httpMethod = httpMethod;
+      this.parameterCount = parameterCount;
+      this.segments = segments;
+      this.segmentNames = segmentNames;
+      this.parameters = parameters;
+      this.returnsCall = returnsCall;
+      this.bodyConverter = bodyConverter;
+    }
+
+    /** Returns null if {@code method} is not an HTTP method, such as a default method. */
+    static @Nullable Route parse(Retrofit retrofit, Method method) {
+      String httpMethod = null;
+      String relativeUrl = null;
+      boolean formEncoded = false;
+      for (Annotation annotation : method.getAnnotations()) {
+        if (annotation instanceof DELETE) {
+          httpMethod = "DELETE";
+          relativeUrl = ((DELETE) annotation).value();
+        } else if (annotation instanceof GET) {
+          httpMethod = "GET";
+          relativeUrl = ((GET) annotation).value();
+        } else if (annotation instanceof HEAD) {
+          httpMethod = "HEAD";
+          relativeUrl = ((HEAD) annotation).value();
+        } else if (annotation instanceof PATCH) {
+          httpMethod = "PATCH";
+          relativeUrl = ((PATCH) annotation).value();
+        } else if (annotation instanceof POST) {
+          httpMethod = "POST";
+          relativeUrl = ((POST) annotation).value();
+        } else if (annotation instanceof PUT) {
+          httpMethod = "PUT";
+          relativeUrl = ((PUT) annotation).value();
+        } else if (annotation instanceof OPTIONS) {
+          httpMethod = "OPTIONS";
+          relativeUrl = ((OPTIONS) annotation).value();
+        } else if (annotation instanceof HTTP) {
+          httpMethod = ((HTTP) annotation).method();
+          relativeUrl = ((HTTP) annotation).path();
+        } else if (annotation instanceof retrofit2.http.FormUrlEncoded) {
+          formEncoded = true;
+        } else if (annotation instanceof retrofit2.http.Multipart) {
+          throw methodError(method, "Multipart methods cannot be served.");
+        }
+      }
+      if (httpMethod == null) return null;
+      if (relativeUrl.isEmpty()) {
+        throw methodError(method, "Methods with a dynamic @Url cannot be served.");
+      }
+      method.setAccessible(true); // Services are often package-private interfaces.
+
+      // Resolve the path against the base URL the same way the client does, then match the
+      // decoded segments of each request against it.
+      int question = relativeUrl.indexOf('?');
+      String path = question != -1 ? relativeUrl.substring(0, question) : relativeUrl;
+      HttpUrl resolved = retrofit.baseUrl().resolve(
+          PARAM_URL_REGEX.matcher(path).replaceAll("\u0000$1\u0000"));
+      if (resolved == null) {
+        throw methodError(method, "Malformed URL. Base: %s, Relative: %s", retrofit.baseUrl(),
+            relativeUrl);
+      }
+      List<String> pathSegments = resolved.pathSegments();
+      Pattern[] segments = new Pattern[pathSegments.size()];
+      String[][] segmentNames = new String[segments.length][];
+      int parameterCount = 0;
+      for (int i = 0; i < segments.length; i++) {
+        String segment = pathSegments.get(i);
+        StringBuilder regex = new StringBuilder();
+        List<String> names = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(segment);
+        int literalStart = 0;
+        while (matcher.find()) {
+          regex.append(Pattern.quote(segment.substring(literalStart, matcher.start())));
+          regex.append("(.*?)");
+          names.add(matcher.group(1));
+          literalStart = matcher.end();
+        }
+        regex.append(Pattern.quote(segment.substring(literalStart)));
+        segments[i] = Pattern.compile(regex.toString());
+        segmentNames[i] = names.toArray(new String[names.size()]);
+        parameterCount += names.size();
+      }
+
+      Type[] parameterTypes = method.getGenericParameterTypes();
+      Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+      ParameterSource[] parameters = new ParameterSource[parameterTypes.length];
+      for (int p = 0; p < parameters.length; p++) {
+        parameters[p] = ParameterSource.parse(retrofit, method, p, parameterTypes[p],
+            parameterAnnotations[p], formEncoded);
+      }
+
+      Type returnType = method.getGenericReturnType();
+      boolean returnsCall = getRawType(returnType) == Call.class;
+      Type bodyType = returnsCall ? callResponseType(method, returnType) : returnType;
+      Converter<Object, RequestBody> bodyConverter = null;
+      if (bodyType != void.class && bodyType != Void.class && bodyType != ResponseBody.class) {
+        bodyConverter = retrofit.requestBodyConverter(bodyType, new Annotation[0],
+            method.getAnnotations());
+      }
+      return new Route(method, httpMethod, parameterCount, segments, segmentNames, parameters,
+          returnsCall, bodyConverter);
+    }
+
+    private static Type callResponseType(Method method, Type returnType) {
+      if (!(returnType instanceof ParameterizedType)) {
+        throw methodError(method, "Call return type must be parameterized as Call<Foo>.");
+      }
+      Type type = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+      if (type instanceof WildcardType) {
+        type = ((WildcardType) type).getUpperBounds()[0];
+      }
+      return type;
+    }
+
+    /** Returns the decoded path parameters if {@code url} matches this route, or null. */
+    @Nullable Map<String, String> match(HttpUrl url) {
+      List<String> pathSegments = url.pathSegments();
+      if (pathSegments.size() != segments.length) return null;
+      Map<String, String> values = null;
+      for (int i = 0; i < segments.length; i++) {
+        Matcher matcher = segments[i].matcher(pathSegments.get(i));
+        if (!matcher.matches()) return null;
+        String[] names = segmentNames[i];
+        for (int j = 0; j < names.length; j++) {
+          if (values == null) values = new LinkedHashMap<>();
+          values.put(names[j], matcher.group(j + 1));
+        }
+      }
+      return values != null ? values : Collections.<String, String>emptyMap();
+    }
+
+    okhttp3.Response handle(Object implementation, Request request,
+        Map<String, String> pathValues) throws IOException {
+      Exchange exchange = new Exchange(request, pathValues);
+      Object[] args = new Object[parameters.length];
+      try {
+        for (int p = 0; p < args.length; p++) {
+          args[p] = parameters[p].extract(exchange);
+        }
+      } catch (IllegalArgumentException e) { // Including NumberFormatException.
+        return emptyResponse(request, 400, "Bad Request");
+      }
+
+      Object result;
+      try {
+        result = method.invoke(implementation, args);
+      } catch (InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) throw (IOException) cause;
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        throw new RuntimeException(cause);
+      } catch (IllegalAccessException e) {
+        throw new AssertionError(e);
+      }
+
+      if (!returnsCall) {
+        return new okhttp3.Response.Builder()
+            .request(request)
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .body(encode(result))
+            .build();
+      }
+      if (result == null) {
+        throw new NullPointerException(method.getDeclaringClass().getSimpleName() + "."
+            + method.getName() + " returned null.");
+      }
+      Response<?> response = ((Call<?>) result).execute();
+      ResponseBody body = response.isSuccessful() ? encode(response.body()) : response.errorBody();
+      if (body == null) body = ResponseBody.create(null, new byte[0]);
+      Headers.Builder headers = response.headers().newBuilder();
+      MediaType contentType = body.contentType();
+      if (contentType != null && headers.get("Content-Type") == null) {
+        headers.set("Content-Type", contentType.toString());
+      }
+      return new okhttp3.Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(response.code())
+          .message(response.message())
+          .headers(headers.build())
+          .body(body)
+          .build();
+    }
+
+    private ResponseBody encode(@Nullable Object value) throws IOException {
+      if (value == null || bodyConverter == null) {
+        if (value instanceof ResponseBody) return (ResponseBody) value;
+        return ResponseBody.create(null, new byte[0]);
+      }
+      RequestBody requestBody = bodyConverter.convert(value);
+      Buffer buffer = new Buffer();
+      requestBody.writeTo(buffer);
+      return ResponseBody.create(requestBody.contentType(), buffer.size(), buffer);
+    }
+  }
+
+  /** The parts of a request that parameters are decoded from. */
+  static final class Exchange {
+    final Request request;
+    final Map<String, String> pathValues;
+    private @Nullable byte[] body;
+    private @Nullable HttpUrl form;
+
+    Exchange(Request request, Map<String, String> pathValues) {
+      this.request = request;
+      this.pathValues = pathValues;
+    }
+
+    byte[] body() throws IOException {
+      if (body == null) {
+        Buffer buffer = new Buffer();
+        RequestBody requestBody = request.body();
+        if (requestBody != null) requestBody.writeTo(buffer);
+        body = buffer.readByteArray();
+      }
+      return body;
+    }
+
+    /** The form-encoded body as the query of a URL, which has the same encoding. */
+    HttpUrl form() throws IOException {
+      if (form == null) {
+        form = HttpUrl.get("http://localhost/?" + new String(body(), UTF_8));
+      }
+      return form;
+    }
+  }
+
+  abstract static class ParameterSource {
+    abstract @Nullable Object extract(Exchange exchange) throws IOException;
+
+    static ParameterSource parse(Retrofit retrofit, Method method, int p, Type type,
+        Annotation[] annotations, boolean formEncoded) {
+      for (Annotation annotation : annotations) {
+        if (annotation instanceof Path) {
+          final String name = ((Path) annotation).value();
+          final ValueParser parser = parser(method, p, type);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) {
+              String value = exchange.pathValues.get(name);
+              return parser.parse(value != null
+                  ? Collections.singletonList(value)
+                  : Collections.<String>emptyList());
+            }
+          };
+        } else if (annotation instanceof Query) {
+          final String name = ((Query) annotation).value();
+          final ValueParser parser = parser(method, p, type);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) {
+              return parser.parse(exchange.request.url().queryParameterValues(name));
+            }
+          };
+        } else if (annotation instanceof Header) {
+          final String name = ((Header) annotation).value();
+          final ValueParser parser = parser(method, p, type);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) {
+              return parser.parse(exchange.request.headers(name));
+            }
+          };
+        } else if (annotation instanceof Field) {
+          if (!formEncoded) {
+            throw parameterError(method, p,
+                "@Field parameters can only be used with form encoding.");
+          }
+          final String name = ((Field) annotation).value();
+          final ValueParser parser = parser(method, p, type);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) throws IOException {
+              return parser.parse(exchange.form().queryParameterValues(name));
+            }
+          };
+        } else if (annotation instanceof QueryMap) {
+          final ValueParser parser = mapValueParser(method, p, type);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) {
+              HttpUrl url = exchange.request.url();
+              Map<String, Object> map = new LinkedHashMap<>();
+              for (String name : url.queryParameterNames()) {
+                map.put(name, parser.parse(url.queryParameterValues(name)));
+              }
+              return map;
+            }
+          };
+        } else if (annotation instanceof HeaderMap) {
+          final ValueParser parser = mapValueParser(method, p, type);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) {
+              Headers headers = exchange.request.headers();
+              Map<String, Object> map = new LinkedHashMap<>();
+              for (String name : headers.names()) {
+                map.put(name, parser.parse(headers.values(name)));
+              }
+              return map;
+            }
+          };
+        } else if (annotation instanceof FieldMap) {
+          if (!formEncoded) {
+            throw parameterError(method, p,
+                "@FieldMap parameters can only be used with form encoding.");
+          }
+          final ValueParser parser = mapValueParser(method, p, type);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) throws IOException {
+              HttpUrl form = exchange.form();
+              Map<String, Object> map = new LinkedHashMap<>();
+              for (String name : form.queryParameterNames()) {
+                map.put(name, parser.parse(form.queryParameterValues(name)));
+              }
+              return map;
+            }
+          };
+        } else if (annotation instanceof Body) {
+          final Converter<ResponseBody, ?> converter =
+              retrofit.responseBodyConverter(type, annotations);
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) throws IOException {
+              RequestBody requestBody = exchange.request.body();
+              MediaType contentType = requestBody != null ? requestBody.contentType() : null;
+              return converter.convert(ResponseBody.create(contentType, exchange.body()));
+            }
+          };
+        } else if (annotation instanceof Priority) {
+          // Scheduling is the client's concern. Hand the method the default priority.
+          final Object value = type == int.class ? (Object) 0 : null;
+          return new ParameterSource() {
+            @Override Object extract(Exchange exchange) {
+              return value;
+            }
+          };
+        } else if (annotation.annotationType().getPackage() == Path.class.getPackage()) {
+          throw parameterError(method, p, "@%s parameters cannot be served.",
+              annotation.annotationType().getSimpleName());
+        }
+      }
+      throw parameterError(method, p, "No Retrofit annotation found.");
+    }
+
+    private static ValueParser parser(Method method, int p, Type type) {
+      ValueParser parser = ValueParser.forType(type);
+      if (parser == null) {
+        throw parameterError(method, p, "Values of type %s cannot be decoded.", type);
+      }
+      return parser;
+    }
+
+    private static ValueParser mapValueParser(Method method, int p, Type type) {
+      if (getRawType(type) != Map.class || !(type instanceof ParameterizedType)) {
+        throw parameterError(method, p, "Map parameters must be declared as Map<String, V>.");
+      }
+      return parser(method, p, ((ParameterizedType) type).getActualTypeArguments()[1]);
+    }
+
+    private static RuntimeException parameterError(Method method, int p, String message,
+        Object... args) {
+      return methodError(method, message + " (parameter #" + (p + 1) + ")", args);
+    }
+  }
+
+  /** Decodes the string values of a parameter into its declared type. */
+  abstract static class ValueParser {
+    abstract @Nullable Object parse(List<String> values);
+
+    static @Nullable ValueParser forType(Type type) {
+      if (type instanceof WildcardType) {
+        type = ((WildcardType) type).getUpperBounds()[0];
+      }
+      if (type instanceof Class<?> && ((Class<?>) type).isArray()) {
+        final Class<?> componentType = ((Class<?>) type).getComponentType();
+        if (!isScalar(componentType)) return null;
+        return new ValueParser() {
+          @Override Object parse(List<String> values) {
+            Object array = Array.newInstance(componentType, values.size());
+            for (int i = 0, size = values.size(); i < size; i++) {
+              Array.set(array, i, parseScalar(values.get(i), componentType));
+            }
+            return array;
+          }
+        };
+      }
+      if (type instanceof GenericArrayType) return null;
+      Class<?> rawType = getRawType(type);
+      if (rawType == List.class || rawType == Collection.class || rawType == Iterable.class) {
+        if (!(type instanceof ParameterizedType)) return null;
+        Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+        if (elementType instanceof WildcardType) {
+          elementType = ((WildcardType) elementType).getUpperBounds()[0];
+        }
+        if (!(elementType instanceof Class<?>) || !isScalar((Class<?>) elementType)) return null;
+        final Class<?> elementClass = (Class<?>) elementType;
+        return new ValueParser() {
+          @Override Object parse(List<String> values) {
+            List<Object> list = new ArrayList<>(values.size());
+            for (int i = 0, size = values.size(); i < size; i++) {
+              list.add(parseScalar(values.get(i), elementClass));
+            }
+            return list;
+          }
+        };
+      }
+      if (!(type instanceof Class<?>) || !isScalar(rawType)) return null;
+      final Class<?> scalarType = rawType;
+      return new ValueParser() {
+        @Override @Nullable Object parse(List<String> values) {
+          return parseScalar(values.isEmpty() ? null : values.get(0), scalarType);
+        }
+      };
+    }
+
+    static boolean isScalar(Class<?> type) {
+      return type.isPrimitive()
+          || type.isEnum()
+          || type == String.class
+          || type == Object.class
+          || type == CharSequence.class
+          || type == Boolean.class
+          || type == Byte.class
+          || type == Character.class
+          || type == Short.class
+          || type == Integer.class
+          || type == Long.class
+          || type == Float.class
+          || type == Double.class;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Enum.valueOf needs a raw enum type.
+    static @Nullable Object parseScalar(@Nullable String value, Class<?> type) {
+      if (value == null) {
+        if (type.isPrimitive()) throw new IllegalArgumentException("Missing " + type + " value");
+        return null;
+      }
+      if (type == String.class || type == Object.class || type == CharSequence.class) {
+        return value;
+      }
+      if (type.isEnum()) return Enum.valueOf((Class) type, value);
+      if (type == int.class || type == Integer.class) return Integer.valueOf(value);
+      if (type == long.class || type == Long.class) return Long.valueOf(value);
+      if (type == short.class || type == Short.class) return Short.valueOf(value);
+      if (type == byte.class || type == Byte.class) return Byte.valueOf(value);
+      if (type == double.class || type == Double.class) return Double.valueOf(value);
+      if (type == float.class || type == Float.class) return Float.valueOf(value);
+      if (type == boolean.class || type == Boolean.class) {
+        if (value.equals("true")) return Boolean.TRUE;
+        if (value.equals("false")) return Boolean.FALSE;
+        throw new IllegalArgumentException("Not a boolean: " + value);
+      }
+      if (type == char.class || type == Character.class) {
+        if (value.length() != 1) throw new IllegalArgumentException("Not a char: " + value);
+        return value.charAt(0);
+      }
+      throw new AssertionError(type);
+    }
+  }
+
+  static Class<?> getRawType(Type type) {
+    if (type instanceof Class<?>) return (Class<?>) type;
+    if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    }
+    if (type instanceof WildcardType) {
+      return getRawType(((WildcardType) type).getUpperBounds()[0]);
+    }
+    return Object.class;
+  }
+}
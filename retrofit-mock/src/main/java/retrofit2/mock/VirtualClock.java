@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A clock which only moves when told to. Give it to {@link MockRetrofit.Builder#clock} and
+ * {@linkplain NetworkBehavior#setDelay network delays} elapse in virtual time: a call completes
+ * once the clock has been {@linkplain #advance advanced} past its delay, no matter how much real
+ * time has passed. Hours of simulated traffic run as fast as the callbacks do.
+ * <pre><code>
+ * VirtualClock clock = new VirtualClock();
+ * MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit).clock(clock).build();
+ * // ...
+ * call.enqueue(callback);
+ * clock.advance(2, SECONDS); // callback is invoked here.
+ * </code></pre>
+ * Due tasks run on the thread which advances the clock, in order of their due time. Synchronous
+ * {@link retrofit2.Call#execute() execute()} calls advance the clock themselves to when their
+ * result is due, and so does reading a response body which is {@linkplain NetworkBehavior#setBandwidth
+ * throttled}.
+ */
+public final class VirtualClock {
+  @GuardedBy("this")
+  private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+  @GuardedBy("this")
+  private long nowNanos;
+  @GuardedBy("this")
+  private long sequence;
+
+  final Scheduler scheduler = new Scheduler() {
+    @Override long nanoTime() {
+      return now(NANOSECONDS);
+    }
+
+    @Override Future<?> schedule(Runnable task, long delay, TimeUnit unit) {
+      return VirtualClock.this.schedule(task, unit.toNanos(delay));
+    }
+
+    @Override void sleepUntil(long deadlineNanos) {
+      advanceTo(deadlineNanos);
+    }
+
+    @Override Future<?> scheduleAt(Runnable task, long deadlineNanos) {
+      return VirtualClock.this.scheduleAt(task, deadlineNanos);
+    }
+
+    @Override boolean controlsTime() {
+      return true;
+    }
+  };
+
+  /** The time elapsed since this clock was created. */
+  public synchronized long now(TimeUnit unit) {
+    return unit.convert(nowNanos, NANOSECONDS);
+  }
+
+  /** The number of tasks which will run when the clock is advanced far enough. */
+  public synchronized int pendingTaskCount() {
+    int count = 0;
+    for (Task task : tasks) {
+      if (!task.future.isCancelled()) count++;
+    }
+    return count;
+  }
+
+  /**
+   * Move time forward by {@code amount}, running each task which becomes due at the time it was
+   * scheduled for. Tasks scheduled by those tasks also run if they become due.
+   */
+  public void advance(long amount, TimeUnit unit) {
+    if (amount < 0) throw new IllegalArgumentException("amount < 0: " + amount);
+    long targetNanos;
+    synchronized (this) {
+      targetNanos = nowNanos + unit.toNanos(amount);
+    }
+    advanceTo(targetNanos);
+  }
+
+  /** Move time forward to {@code targetNanos}, unless it is already later. */
+  void advanceTo(long targetNanos) {
+    while (runNext(targetNanos)) {
+      // Each task may schedule more work which is also due.
+    }
+    synchronized (this) {
+      if (nowNanos < targetNanos) nowNanos = targetNanos;
+    }
+  }
+
+  /**
+   * Move time forward to the next pending task and run it. Returns false if there was nothing to
+   * run.
+   */
+  public boolean advanceToNextTask() {
+    return runNext(Long.MAX_VALUE);
+  }
+
+  synchronized Future<?> schedule(Runnable runnable, long delayNanos) {
+    return scheduleAt(runnable, nowNanos + Math.max(delayNanos, 0L));
+  }
+
+  /**
+   * Schedule {@code runnable} for exactly {@code dueNanos}, even if that has passed. Whoever
+   * advances the clock to that time is then sure to run it.
+   */
+  synchronized Future<?> scheduleAt(Runnable runnable, long dueNanos) {
+    Task task = new Task(runnable, dueNanos, sequence++);
+    tasks.add(task);
+    return task.future;
+  }
+
+  private boolean runNext(long limitNanos) {
+    Task task;
+    synchronized (this) {
+      while (true) {
+        task = tasks.peek();
+        if (task == null || task.dueNanos > limitNanos) return false;
+        tasks.poll();
+        if (!task.future.isCancelled()) break;
+      }
+      if (nowNanos < task.dueNanos) nowNanos = task.dueNanos;
+    }
+    task.future.run(); // Outside the lock so the task can schedule more work.
+    try {
+      task.future.get();
+    } catch (CancellationException ignored) {
+    } catch (InterruptedException e) {
+      throw new AssertionError(e); // The task is done so this cannot happen.
+    } catch (ExecutionException e) {
+      // Surface failures of callbacks to whoever advanced the clock.
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+      if (cause instanceof Error) throw (Error) cause;
+      throw new RuntimeException(cause);
+    }
+    return true;
+  }
+
+  /** An executor which runs tasks immediately on the calling thread. */
+  static ExecutorService directExecutor() {
+    return new AbstractExecutorService() {
+      private volatile boolean shutdown;
+
+      @Override public void execute(Runnable command) {
+        command.run();
+      }
+
+      @Override public void shutdown() {
+        shutdown = true;
+      }
+
+      @Override public List<Runnable> shutdownNow() {
+        shutdown = true;
+        return new ArrayList<>();
+      }
+
+      @Override public boolean isShutdown() {
+        return shutdown;
+      }
+
+      @Override public boolean isTerminated() {
+        return shutdown;
+      }
+
+      @Override public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return shutdown;
+      }
+    };
+  }
+
+  private static final class Task implements Comparable<Task> {
+    final FutureTask<Void> future;
+    final long dueNanos;
+    final long sequence;
+
+    Task(Runnable runnable, long dueNanos, long sequence) {
+      this.future = new FutureTask<>(runnable, null);
+      this.dueNanos = dueNanos;
+      this.sequence = sequence;
+    }
+
+    @Override public int compareTo(Task other) {
+      if (dueNanos != other.dueNanos) return dueNanos < other.dueNanos ? -1 : 1;
+      return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+    }
+  }
+}
@@ -18,8 +18,12 @@ package retrofit2.mock;
 
 import java.io.IOException;
 import java.util.Random;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
@@ -202,6 +206,24 @@ public final class BehaviorDelegateTest {
     assertThat(failureRef.get()).isSameAs(mockFailure);
   }
 
+  @Test public void returnedServiceCanBeInvokedMoreThanOnce() throws IOException {
+    behavior.setDelay(0, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .build();
+    DoWorkService service = mockRetrofit.create(DoWorkService.class)
+        .returning(Calls.response("Response!"));
+
+    assertThat(service.response().execute().body()).isEqualTo("Response!");
+    assertThat(service.response().execute().body()).isEqualTo("Response!");
+  }
+
   @Test public void syncCanBeCanceled() throws IOException {
     behavior.setDelay(10, SECONDS);
     behavior.setVariancePercent(0);
@@ -295,4 +317,90 @@ public final class BehaviorDelegateTest {
     assertTrue(latch.await(1, SECONDS));
     assertThat(failureRef.get()).isExactlyInstanceOf(IOException.class).hasMessage("canceled");
   }
+
+  @Test public void asyncCanceledWhileStartingDeliversOnce() throws InterruptedException {
+    behavior.setDelay(50, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Call<String> call = delegate.returning(Calls.defer(new Callable<Call<String>>() {
+      @Override public Call<String> call() throws Exception {
+        started.countDown();
+        release.await();
+        return Calls.response("Response!");
+      }
+    })).response();
+
+    final AtomicInteger deliveries = new AtomicInteger();
+    final CountDownLatch latch = new CountDownLatch(1);
+    call.enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        deliveries.incrementAndGet();
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        deliveries.incrementAndGet();
+        latch.countDown();
+      }
+    });
+
+    assertTrue(started.await(1, SECONDS));
+    call.cancel(); // While the background task is running.
+    release.countDown();
+
+    assertTrue(latch.await(1, SECONDS));
+    Thread.sleep(200); // Past the delay of the response which is still delivered.
+    assertThat(deliveries.get()).isEqualTo(1);
+  }
+
+  @Test public void delayedCallsDoNotHoldThreads() throws InterruptedException {
+    behavior.setDelay(200, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .backgroundExecutor(executor)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    int callCount = 50;
+    final AtomicInteger responses = new AtomicInteger();
+    final CountDownLatch latch = new CountDownLatch(callCount);
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < callCount; i++) {
+      delegate.returning(Calls.response("Response!")).response().enqueue(new Callback<String>() {
+        @Override public void onResponse(Call<String> call, Response<String> response) {
+          responses.incrementAndGet();
+          latch.countDown();
+        }
+
+        @Override public void onFailure(Call<String> call, Throwable t) {
+          latch.countDown();
+        }
+      });
+    }
+
+    // Sleeping on the only background thread would take callCount * 200ms.
+    assertTrue(latch.await(2, SECONDS));
+    long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    assertThat(responses.get()).isEqualTo(callCount);
+    assertThat(tookMs).isGreaterThanOrEqualTo(200);
+    executor.shutdown();
+  }
 }
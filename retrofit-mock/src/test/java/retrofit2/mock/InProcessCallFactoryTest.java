@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class InProcessCallFactoryTest {
+  interface Service {
+    @GET("/users/{name}") Call<ResponseBody> user(@Path("name") String name);
+  }
+
+  private final AtomicReference<Request> lastRequest = new AtomicReference<>();
+  private final InProcessCallFactory.Handler handler = new InProcessCallFactory.Handler() {
+    @Override public okhttp3.Response handle(Request request) throws IOException {
+      lastRequest.set(request);
+      String name = request.url().pathSegments().get(1);
+      if (name.equals("broken")) throw new IOException("Broken");
+      return new okhttp3.Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(name.equals("missing") ? 404 : 200)
+          .message("OK")
+          .body(ResponseBody.create(MediaType.get("text/plain"), "Hello " + name))
+          .build();
+    }
+  };
+  private final Service service = new Retrofit.Builder()
+      .baseUrl("http://example.com/")
+      .callFactory(new InProcessCallFactory(handler))
+      .build()
+      .create(Service.class);
+
+  @Test public void execute() throws IOException {
+    Response<ResponseBody> response = service.user("jake").execute();
+    assertThat(response.body().string()).isEqualTo("Hello jake");
+    assertThat(lastRequest.get().url().toString()).isEqualTo("http://example.com/users/jake");
+  }
+
+  @Test public void errorResponse() throws IOException {
+    Response<ResponseBody> response = service.user("missing").execute();
+    assertThat(response.code()).isEqualTo(404);
+    assertThat(response.errorBody().string()).isEqualTo("Hello missing");
+  }
+
+  @Test public void enqueueRunsOnCallingThread() {
+    final AtomicReference<Thread> thread = new AtomicReference<>();
+    final AtomicReference<String> body = new AtomicReference<>();
+    service.user("jake").enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        thread.set(Thread.currentThread());
+        try {
+          body.set(response.body().string());
+        } catch (IOException e) {
+          throw new AssertionError(e);
+        }
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        throw new AssertionError(t);
+      }
+    });
+    assertThat(thread.get()).isSameAs(Thread.currentThread());
+    assertThat(body.get()).isEqualTo("Hello jake");
+  }
+
+  @Test public void handlerFailure() {
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    service.user("broken").enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        throw new AssertionError();
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        failure.set(t);
+      }
+    });
+    assertThat(failure.get()).hasMessage("Broken");
+  }
+
+  @Test public void canceledCallFails() {
+    Call<ResponseBody> call = service.user("jake");
+    call.cancel();
+    try {
+      call.execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Canceled");
+    }
+    assertThat(lastRequest.get()).isNull();
+  }
+
+  @Test public void executeTwiceThrows() throws IOException {
+    okhttp3.Call call = new InProcessCallFactory(handler)
+        .newCall(new Request.Builder().url("http://example.com/users/jake").build());
+    call.execute();
+    try {
+      call.execute();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Already Executed");
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class LatencyDistributionTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Random random = new Random(2847);
+
+  @Test public void logNormalMedian() {
+    LatencyDistribution distribution = LatencyDistribution.logNormal(100, 0.5, MILLISECONDS);
+    long[] samples = sample(distribution, 10001);
+    assertThat(samples[5000]).isBetween(95L, 105L);
+    assertThat(samples[9900]).isBetween(280L, 360L); // Median * e^(2.326 * 0.5) = 320.
+  }
+
+  @Test public void paretoNeverBelowMinimum() {
+    LatencyDistribution distribution = LatencyDistribution.pareto(50, 1.5, MILLISECONDS);
+    long[] samples = sample(distribution, 10000);
+    assertThat(samples[0]).isGreaterThanOrEqualTo(50L);
+    assertThat(samples[4999]).isBetween(72L, 88L); // Minimum * 2^(1 / 1.5) = 79.
+    assertThat(samples[9999]).isGreaterThan(500L);
+  }
+
+  @Test public void histogramStaysWithinBuckets() {
+    LatencyDistribution distribution = LatencyDistribution.histogram(
+        new long[] { 10, 100, 1000 }, new long[] { 90, 0, 10 }, MILLISECONDS);
+    long[] samples = sample(distribution, 10000);
+    assertThat(samples[0]).isGreaterThanOrEqualTo(0L);
+    assertThat(samples[8800]).isLessThanOrEqualTo(10L);
+    assertThat(samples[9200]).isGreaterThan(100L);
+    assertThat(samples[9999]).isLessThanOrEqualTo(1000L);
+  }
+
+  @Test public void histogramNeverSamplesEmptyBuckets() {
+    LatencyDistribution distribution = LatencyDistribution.histogram(
+        new long[] { 10, 20, 30, 40, 50 }, new long[] { 1, 0, 0, 0, 1 }, MILLISECONDS);
+    for (long sample : sample(distribution, 10000)) {
+      if (sample > 10 && sample < 40) {
+        fail("Sampled empty bucket: " + sample);
+      }
+    }
+  }
+
+  @Test public void histogramRejectsDecreasingBounds() {
+    try {
+      LatencyDistribution.histogram(new long[] { 10, 5 }, new long[] { 1, 1 }, MILLISECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("upperBounds must be non-negative and increasing: [10, 5]");
+    }
+  }
+
+  @Test public void histogramRejectsEmpty() {
+    try {
+      LatencyDistribution.histogram(new long[] { 10 }, new long[] { 0 }, MILLISECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Histogram is empty.");
+    }
+  }
+
+  @Test public void readHistogram() throws IOException {
+    LatencyDistribution distribution = LatencyDistribution.readHistogram(
+        new StringReader("# latency count\n\n20 1\n  40\t1\n"), MILLISECONDS);
+    long[] samples = sample(distribution, 1000);
+    assertThat(samples[0]).isGreaterThanOrEqualTo(0L);
+    assertThat(samples[999]).isBetween(20L, 40L);
+  }
+
+  @Test public void readHistogramFromFile() throws IOException {
+    File file = temporaryFolder.newFile();
+    FileOutputStream out = new FileOutputStream(file);
+    out.write("5 1\n".getBytes("UTF-8"));
+    out.close();
+
+    LatencyDistribution distribution = LatencyDistribution.readHistogram(file, MILLISECONDS);
+    assertThat(distribution.sample(random, MILLISECONDS)).isBetween(0L, 5L);
+  }
+
+  @Test public void readMalformedHistogramThrows() {
+    try {
+      LatencyDistribution.readHistogram(new StringReader("10 1\n20\n"), MILLISECONDS);
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Malformed histogram line 2: 20");
+    }
+  }
+
+  private long[] sample(LatencyDistribution distribution, int count) {
+    long[] samples = new long[count];
+    for (int i = 0; i < count; i++) {
+      samples[i] = distribution.sample(random, MILLISECONDS);
+    }
+    Arrays.sort(samples);
+    return samples;
+  }
+}
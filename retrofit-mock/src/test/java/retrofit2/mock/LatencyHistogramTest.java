@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class LatencyHistogramTest {
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test public void empty() {
+    assertThat(histogram.count()).isEqualTo(0);
+    assertThat(histogram.valueAtPercentile(99, MILLISECONDS)).isEqualTo(0);
+    assertThat(histogram.min(MILLISECONDS)).isEqualTo(0);
+    assertThat(histogram.mean(MILLISECONDS)).isEqualTo(0);
+  }
+
+  @Test public void percentiles() {
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i, MILLISECONDS);
+    }
+    assertThat(histogram.count()).isEqualTo(1000);
+    assertThat(histogram.min(MILLISECONDS)).isEqualTo(1);
+    assertThat(histogram.max(MILLISECONDS)).isEqualTo(1000);
+    assertThat(histogram.mean(MICROSECONDS)).isEqualTo(500500);
+    assertWithinOnePercent(histogram.valueAtPercentile(50, MICROSECONDS), 500000);
+    assertWithinOnePercent(histogram.valueAtPercentile(99, MICROSECONDS), 990000);
+    assertWithinOnePercent(histogram.valueAtPercentile(99.9, MICROSECONDS), 999000);
+    assertThat(histogram.valueAtPercentile(100, MILLISECONDS)).isEqualTo(1000);
+  }
+
+  @Test public void smallValuesAreExact() {
+    histogram.record(3, NANOSECONDS);
+    histogram.record(200, NANOSECONDS);
+    assertThat(histogram.valueAtPercentile(50, NANOSECONDS)).isEqualTo(3);
+    assertThat(histogram.valueAtPercentile(100, NANOSECONDS)).isEqualTo(200);
+  }
+
+  @Test public void bucketsCoverEveryValue() {
+    long[] values = { 255, 256, 257, 511, 512, 1000003, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+    for (long value : values) {
+      long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexOf(value));
+      assertThat(highest).isGreaterThanOrEqualTo(value);
+      assertThat(highest - value).isLessThanOrEqualTo(value / 100);
+    }
+  }
+
+  @Test public void add() {
+    LatencyHistogram other = new LatencyHistogram();
+    histogram.record(10, MILLISECONDS);
+    other.record(30, MILLISECONDS);
+    histogram.add(other);
+    assertThat(histogram.count()).isEqualTo(2);
+    assertThat(histogram.min(MILLISECONDS)).isEqualTo(10);
+    assertThat(histogram.max(MILLISECONDS)).isEqualTo(30);
+  }
+
+  @Test public void negativeLatencyThrows() {
+    try {
+      histogram.record(-1, MILLISECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("latency < 0: -1");
+    }
+  }
+
+  private static void assertWithinOnePercent(long actual, long expected) {
+    assertThat(Math.abs(actual - expected)).isLessThanOrEqualTo(expected / 100);
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Random;
+import javax.annotation.Nullable;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class LoadGeneratorTest {
+  interface Service {
+    Call<String> fast();
+    Call<String> failing();
+    Call<String> echo(String value);
+  }
+
+  private final NetworkBehavior behavior = NetworkBehavior.create(new Random(2847));
+  private final Retrofit retrofit = new Retrofit.Builder()
+      .baseUrl("http://example.com")
+      .build();
+  private final MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+      .networkBehavior(behavior)
+      .build();
+  private final BehaviorDelegate<Service> delegate = mockRetrofit.create(Service.class);
+  private final Service service = new Service() {
+    @Override public Call<String> fast() {
+      return delegate.returningResponse("fast").fast();
+    }
+
+    @Override public Call<String> failing() {
+      return delegate.returning(Calls.<String>failure(new IOException("Broken"))).failing();
+    }
+
+    @Override public Call<String> echo(String value) {
+      return delegate.returningResponse(value).echo(value);
+    }
+  };
+
+  @Test public void reportsLatencyAndErrorsPerMethod() throws Exception {
+    behavior.setDelay(20, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    final Method echo = Service.class.getMethod("echo", String.class);
+    LoadGenerator<Service> generator = new LoadGenerator.Builder<>(Service.class, service)
+        .rate(200, SECONDS)
+        .duration(500, MILLISECONDS)
+        .arguments(new LoadGenerator.ArgumentSupplier() {
+          @Override public @Nullable Object[] arguments(Method method) {
+            return method.equals(echo) ? new Object[] { "hi" } : null;
+          }
+        })
+        .build();
+    LoadGenerator.Report report = generator.run();
+
+    assertThat(report.methods()).hasSize(3);
+    assertThat(report.latencies().count()).isEqualTo(100);
+    assertThat(report.latencies().min(MILLISECONDS)).isGreaterThanOrEqualTo(20);
+
+    LoadGenerator.MethodReport failing = report.method(Service.class.getMethod("failing"));
+    assertThat(failing.latencies().count()).isEqualTo(failing.errors());
+    LoadGenerator.MethodReport fast = report.method(Service.class.getMethod("fast"));
+    assertThat(fast.errors()).isEqualTo(0);
+    assertThat(fast.throughput()).isGreaterThan(0);
+    assertThat(report.toString()).contains("fast", "failing", "echo");
+  }
+
+  @Test public void latencyIncludesTimeWaitingForConcurrency() throws Exception {
+    behavior.setDelay(50, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    LoadGenerator.Report report = new LoadGenerator.Builder<>(Service.class, service)
+        .method(Service.class.getMethod("fast"))
+        .rate(100, SECONDS)
+        .duration(200, MILLISECONDS)
+        .maxConcurrency(1)
+        .build()
+        .run();
+
+    // Twenty calls due 10ms apart but served one at a time take 50ms each. The last one is due
+    // at 190ms and completes at about 1000ms.
+    LatencyHistogram latencies = report.latencies();
+    assertThat(latencies.count()).isEqualTo(20);
+    assertThat(latencies.max(MILLISECONDS)).isGreaterThanOrEqualTo(750);
+  }
+
+  @Test public void methodMustReturnCall() throws Exception {
+    LoadGenerator.Builder<Runnable> builder =
+        new LoadGenerator.Builder<>(Runnable.class, new Runnable() {
+          @Override public void run() {
+          }
+        });
+    try {
+      builder.method(Runnable.class.getMethod("run"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e)
+          .hasMessage("public abstract void java.lang.Runnable.run() does not return Call.");
+    }
+  }
+
+  @Test public void rateRequired() {
+    try {
+      new LoadGenerator.Builder<>(Service.class, service).duration(1, SECONDS).build();
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("rate is required.");
+    }
+  }
+}
@@ -1,14 +1,25 @@
 package retrofit2.mock;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import org.junit.Test;
+import retrofit2.Call;
 import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
 
 public final class MockRetrofitTest {
+  interface Service {
+    @GET("/user") Call<String> user();
+    @GET("/download") Call<String> download();
+    @POST("/upload") Call<String> upload();
+  }
+
   private final Retrofit retrofit = new Retrofit.Builder().baseUrl("http://example.com").build();
   private final NetworkBehavior behavior = NetworkBehavior.create();
   private final ExecutorService executor = Executors.newSingleThreadExecutor();
@@ -70,4 +81,84 @@ public final class MockRetrofitTest {
         .build();
     assertThat(mockRetrofit.backgroundExecutor()).isSameAs(executor);
   }
+
+  @Test public void delaySchedulerNullThrows() {
+    MockRetrofit.Builder builder = new MockRetrofit.Builder(retrofit);
+    try {
+      builder.delayScheduler(null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e).hasMessage("delayScheduler == null");
+    }
+  }
+
+  @Test public void delaySchedulerDefault() {
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit).build();
+    assertThat(mockRetrofit.delayScheduler()).isNotNull();
+  }
+
+  @Test public void delaySchedulerPropagated() {
+    ScheduledExecutorService delayScheduler = Executors.newSingleThreadScheduledExecutor();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .delayScheduler(delayScheduler)
+        .build();
+    assertThat(mockRetrofit.delayScheduler()).isSameAs(delayScheduler);
+    delayScheduler.shutdown();
+  }
+
+  @Test public void clockNullThrows() {
+    MockRetrofit.Builder builder = new MockRetrofit.Builder(retrofit);
+    try {
+      builder.clock(null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e).hasMessage("clock == null");
+    }
+  }
+
+  @Test public void clockDefault() {
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit).build();
+    assertThat(mockRetrofit.clock()).isNull();
+  }
+
+  @Test public void clockPropagated() {
+    VirtualClock clock = new VirtualClock();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .clock(clock)
+        .build();
+    assertThat(mockRetrofit.clock()).isSameAs(clock);
+  }
+
+  @Test public void networkBehaviorForMethodAndAnnotation() throws NoSuchMethodException {
+    NetworkBehavior slow = NetworkBehavior.create();
+    NetworkBehavior uploads = NetworkBehavior.create();
+    Method download = Service.class.getMethod("download");
+    Method upload = Service.class.getMethod("upload");
+    Method user = Service.class.getMethod("user");
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .networkBehavior(POST.class, uploads)
+        .networkBehavior(download, slow)
+        .build();
+
+    assertThat(mockRetrofit.networkBehavior(download)).isSameAs(slow);
+    assertThat(mockRetrofit.networkBehavior(upload)).isSameAs(uploads);
+    assertThat(mockRetrofit.networkBehavior(user)).isSameAs(behavior);
+  }
+
+  @Test public void networkBehaviorForMethodNullThrows() throws NoSuchMethodException {
+    MockRetrofit.Builder builder = new MockRetrofit.Builder(retrofit);
+    try {
+      builder.networkBehavior((Method) null, behavior);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e).hasMessage("method == null");
+    }
+    try {
+      builder.networkBehavior(Service.class.getMethod("user"), null);
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e).hasMessage("behavior == null");
+    }
+  }
 }
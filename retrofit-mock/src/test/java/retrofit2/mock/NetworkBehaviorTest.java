@@ -23,6 +23,7 @@ import org.junit.Test;
 import retrofit2.Response;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
@@ -223,4 +224,82 @@ public final class NetworkBehaviorTest {
     assertThat(upperBound).isEqualTo(2799); // ~40% above 2000
     assertThat(lowerBound).isEqualTo(1200); // ~40% below 2000
   }
+
+  @Test public void latencyDistributionReplacesDelayAndVariance() {
+    behavior.setDelay(2, SECONDS);
+    behavior.setLatencyDistribution(new LatencyDistribution() {
+      @Override protected long sampleNanos(Random random) {
+        return MILLISECONDS.toNanos(7);
+      }
+    });
+    assertThat(behavior.calculateDelay(MILLISECONDS)).isEqualTo(7);
+
+    behavior.setLatencyDistribution(null);
+    behavior.setVariancePercent(0);
+    assertThat(behavior.calculateDelay(MILLISECONDS)).isEqualTo(2000);
+  }
+
+  @Test public void bandwidthMustBePositive() {
+    try {
+      behavior.setBandwidth(-1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Bandwidth must be positive value.");
+    }
+  }
+
+  @Test public void transferDelayScalesWithBodySize() {
+    assertThat(behavior.calculateTransferDelay(1000, MILLISECONDS)).isEqualTo(0);
+
+    behavior.setBandwidth(1000);
+    assertThat(behavior.bandwidth()).isEqualTo(1000);
+    assertThat(behavior.calculateTransferDelay(0, MILLISECONDS)).isEqualTo(0);
+    assertThat(behavior.calculateTransferDelay(500, MILLISECONDS)).isEqualTo(500);
+    assertThat(behavior.calculateTransferDelay(3000, MILLISECONDS)).isEqualTo(3000);
+  }
+
+  @Test public void outageWindowsRecur() {
+    assertThat(behavior.calculateIsOutage(0, SECONDS)).isFalse();
+
+    behavior.setOutage(5, MINUTES, 30, SECONDS);
+    assertThat(behavior.outagePeriod(SECONDS)).isEqualTo(300);
+    assertThat(behavior.outageDuration(SECONDS)).isEqualTo(30);
+    assertThat(behavior.calculateIsOutage(0, SECONDS)).isTrue();
+    assertThat(behavior.calculateIsOutage(29, SECONDS)).isTrue();
+    assertThat(behavior.calculateIsOutage(30, SECONDS)).isFalse();
+    assertThat(behavior.calculateIsOutage(299, SECONDS)).isFalse();
+    assertThat(behavior.calculateIsOutage(301, SECONDS)).isTrue();
+  }
+
+  @Test public void outageLongerThanPeriodThrows() {
+    try {
+      behavior.setOutage(1, SECONDS, 2, SECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Outage duration must be between 0 and its period.");
+    }
+  }
+
+  @Test public void latencySpikeMultipliesDelay() {
+    behavior.setDelay(100, MILLISECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setLatencySpike(100, 10f);
+    assertThat(behavior.calculateDelay(MILLISECONDS)).isEqualTo(1000);
+
+    behavior.setLatencySpike(20, 10f);
+    int spikes = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (behavior.calculateDelay(MILLISECONDS) == 1000) spikes++;
+    }
+    assertThat(spikes).isBetween(1800, 2200);
+  }
+
+  @Test public void latencySpikeMultiplierBelowOneThrows() {
+    try {
+      behavior.setLatencySpike(10, 0.5f);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Latency spike multiplier must be at least 1.");
+    }
+  }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class RecordingCallFactoryTest {
+  interface Service {
+    @GET("/users/{name}") Call<ResponseBody> user(@Path("name") String name);
+  }
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final AtomicInteger served = new AtomicInteger();
+  private final InProcessCallFactory server = new InProcessCallFactory(
+      new InProcessCallFactory.Handler() {
+        @Override public okhttp3.Response handle(Request request) throws IOException {
+          String name = request.url().pathSegments().get(1);
+          if (name.equals("broken")) throw new IOException("Broken");
+          return new okhttp3.Response.Builder()
+              .request(request)
+              .protocol(Protocol.HTTP_1_1)
+              .code(name.equals("missing") ? 404 : 200)
+              .message("OK")
+              .header("X-Served", String.valueOf(served.incrementAndGet()))
+              .body(ResponseBody.create(MediaType.get("text/plain"), "Hello " + name))
+              .build();
+        }
+      });
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  @After public void tearDown() {
+    scheduler.shutdown();
+  }
+
+  private static Service service(okhttp3.Call.Factory callFactory) {
+    return new Retrofit.Builder()
+        .baseUrl("http://example.com/")
+        .callFactory(callFactory)
+        .build()
+        .create(Service.class);
+  }
+
+  private File record() throws IOException {
+    File file = temporaryFolder.newFile();
+    RecordingCallFactory recording = new RecordingCallFactory(server, file);
+    Service service = service(recording);
+    assertThat(service.user("jake").execute().body().string()).isEqualTo("Hello jake");
+    assertThat(service.user("jake").execute().body().string()).isEqualTo("Hello jake");
+    assertThat(service.user("missing").execute().errorBody().string())
+        .isEqualTo("Hello missing");
+    try {
+      service.user("broken").execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Broken");
+    }
+    recording.close();
+    return file;
+  }
+
+  @Test public void replay() throws IOException {
+    ReplayCallFactory replay = new ReplayCallFactory(record());
+    assertThat(replay.requestCount()).isEqualTo(2);
+    Service service = service(replay);
+
+    Response<ResponseBody> first = service.user("jake").execute();
+    assertThat(first.code()).isEqualTo(200);
+    assertThat(first.headers().get("X-Served")).isEqualTo("1");
+    assertThat(first.body().contentType()).isEqualTo(MediaType.get("text/plain; charset=utf-8"));
+    assertThat(first.body().string()).isEqualTo("Hello jake");
+
+    // Repeated requests are served their recorded responses in turn.
+    assertThat(service.user("jake").execute().headers().get("X-Served")).isEqualTo("2");
+    assertThat(service.user("jake").execute().headers().get("X-Served")).isEqualTo("1");
+
+    Response<ResponseBody> missing = service.user("missing").execute();
+    assertThat(missing.code()).isEqualTo(404);
+    assertThat(missing.errorBody().string()).isEqualTo("Hello missing");
+    assertThat(served.get()).isEqualTo(3); // The server is never consulted during replay.
+  }
+
+  @Test public void failedCallsAreNotRecorded() throws IOException {
+    Service service = service(new ReplayCallFactory(record()));
+    try {
+      service.user("broken").execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("No recorded response for GET http://example.com/users/broken");
+    }
+  }
+
+  @Test public void replayAsynchronouslyWithLatency() throws Exception {
+    Service service = service(new ReplayCallFactory(record(), scheduler));
+    final AtomicReference<String> body = new AtomicReference<>();
+    final CountDownLatch latch = new CountDownLatch(1);
+    service.user("jake").enqueue(new Callback<ResponseBody>() {
+      @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+        try {
+          body.set(response.body().string());
+        } catch (IOException e) {
+          throw new AssertionError(e);
+        }
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+        throw new AssertionError(t);
+      }
+    });
+    assertTrue(latch.await(10, SECONDS));
+    assertThat(body.get()).isEqualTo("Hello jake");
+  }
+
+  @Test public void canceledReplay() throws Exception {
+    Service service = service(new ReplayCallFactory(record(), scheduler));
+    Call<ResponseBody> call = service.user("jake");
+    call.cancel();
+    try {
+      call.execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Canceled");
+    }
+  }
+
+  @Test public void truncatedRecordingFails() throws IOException {
+    File file = record();
+    File truncated = temporaryFolder.newFile();
+    Okio.buffer(Okio.sink(truncated)).write(Okio.buffer(Okio.source(file)).readByteArray(
+        file.length() - 3)).close();
+    try {
+      new ReplayCallFactory(truncated);
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Truncated recording.");
+    }
+  }
+
+  @Test public void notARecording() throws IOException {
+    File file = temporaryFolder.newFile();
+    try {
+      new ReplayCallFactory(file);
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Not a recording.");
+    }
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Converter;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.DELETE;
+import retrofit2.http.Field;
+import retrofit2.http.FormUrlEncoded;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class ServiceHandlerTest {
+  enum Sort { ASC, DESC }
+
+  interface Service {
+    @GET("users/{name}")
+    Call<String> user(@Path("name") String name, @Query("verbose") boolean verbose);
+    @GET("users/self") Call<String> self(@Header("Auth") String auth);
+    @DELETE("users/{name}") Call<Void> delete(@Path("name") String name);
+    @GET("repos/{owner}/{repo}.git")
+    Call<String> repo(@Path("owner") String owner, @Path("repo") String repo,
+        @Query("tag") List<String> tags, @Query("sort") Sort sort);
+    @GET("count/{n}") Call<String> count(@Path("n") int n);
+    @POST("echo") Call<String> echo(@Body String body);
+    @FormUrlEncoded @POST("login")
+    Call<String> login(@Field("user") String user, @Field("pass") String pass);
+  }
+
+  static final class RealService implements Service {
+    @Override public Call<String> user(String name, boolean verbose) {
+      if (name.equals("missing")) {
+        return Calls.response(Response.<String>error(404,
+            ResponseBody.create(MediaType.get("text/plain"), "No such user")));
+      }
+      return Calls.response(verbose ? "User " + name + " (verbose)" : "User " + name);
+    }
+
+    @Override public Call<String> self(String auth) {
+      return Calls.response("Self " + auth);
+    }
+
+    @Override public Call<Void> delete(String name) {
+      return Calls.response(Response.<Void>success(null, okhttp3.Headers.of("Deleted", name)));
+    }
+
+    @Override public Call<String> repo(String owner, String repo, List<String> tags, Sort sort) {
+      return Calls.response(owner + "/" + repo + " " + tags + " " + sort);
+    }
+
+    @Override public Call<String> count(int n) {
+      return Calls.response("Count " + (n + 1));
+    }
+
+    @Override public Call<String> echo(String body) {
+      return Calls.response(body);
+    }
+
+    @Override public Call<String> login(String user, String pass) {
+      return Calls.response(user + ":" + pass);
+    }
+  }
+
+  /** Strings are sent and received as plain text. */
+  static final class StringConverterFactory extends Converter.Factory {
+    @Override public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+        Annotation[] annotations, Retrofit retrofit) {
+      if (type != String.class) return null;
+      return new Converter<ResponseBody, String>() {
+        @Override public String convert(ResponseBody value) throws IOException {
+          return value.string();
+        }
+      };
+    }
+
+    @Override public Converter<?, RequestBody> requestBodyConverter(Type type,
+        Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
+      if (type != String.class) return null;
+      return new Converter<String, RequestBody>() {
+        @Override public RequestBody convert(String value) {
+          return RequestBody.create(MediaType.get("text/plain"), value);
+        }
+      };
+    }
+  }
+
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  private final Retrofit serverRetrofit = new Retrofit.Builder()
+      .baseUrl("http://example.com/api/")
+      .addConverterFactory(new StringConverterFactory())
+      .build();
+  private final ServiceHandler handler =
+      ServiceHandler.create(serverRetrofit, Service.class, new RealService());
+  private final InProcessCallFactory callFactory = new InProcessCallFactory(handler);
+  private final Service service = serverRetrofit.newBuilder()
+      .callFactory(callFactory)
+      .build()
+      .create(Service.class);
+
+  @Test public void pathAndQuery() throws IOException {
+    assertThat(service.user("jake", false).execute().body()).isEqualTo("User jake");
+    assertThat(service.user("jake", true).execute().body()).isEqualTo("User jake (verbose)");
+    assertThat(service.user("j a/k?e", false).execute().body()).isEqualTo("User j a/k?e");
+  }
+
+  @Test public void literalSegmentsWinOverParameters() throws IOException {
+    assertThat(service.self("secret").execute().body()).isEqualTo("Self secret");
+  }
+
+  @Test public void httpMethodSelectsRoute() throws IOException {
+    Response<Void> response = service.delete("jake").execute();
+    assertThat(response.code()).isEqualTo(200);
+    assertThat(response.headers().get("Deleted")).isEqualTo("jake");
+  }
+
+  @Test public void partialSegmentsListsAndEnums() throws IOException {
+    Response<String> response =
+        service.repo("square", "retrofit", Arrays.asList("a", "b"), Sort.DESC).execute();
+    assertThat(response.body()).isEqualTo("square/retrofit [a, b] DESC");
+  }
+
+  @Test public void primitivePathParameter() throws IOException {
+    assertThat(service.count(41).execute().body()).isEqualTo("Count 42");
+  }
+
+  @Test public void undecodableParameterIsBadRequest() throws IOException {
+    okhttp3.Response response = callFactory.newCall(new Request.Builder()
+        .url("http://example.com/api/count/many")
+        .build()).execute();
+    assertThat(response.code()).isEqualTo(400);
+  }
+
+  @Test public void body() throws IOException {
+    Response<String> response = service.echo("Hello").execute();
+    assertThat(response.body()).isEqualTo("Hello");
+    assertThat(response.headers().get("Content-Type")).isEqualTo("text/plain; charset=utf-8");
+  }
+
+  @Test public void formFields() throws IOException {
+    assertThat(service.login("jake", "p&ss word").execute().body()).isEqualTo("jake:p&ss word");
+  }
+
+  @Test public void errorResponse() throws IOException {
+    Response<String> response = service.user("missing", false).execute();
+    assertThat(response.code()).isEqualTo(404);
+    assertThat(response.errorBody().string()).isEqualTo("No such user");
+  }
+
+  @Test public void unknownPathIsNotFound() throws IOException {
+    okhttp3.Response response = callFactory.newCall(new Request.Builder()
+        .url("http://example.com/api/unknown")
+        .build()).execute();
+    assertThat(response.code()).isEqualTo(404);
+  }
+
+  @Test public void unknownMethodIsNotAllowed() throws IOException {
+    okhttp3.Response response = callFactory.newCall(new Request.Builder()
+        .url("http://example.com/api/echo")
+        .build()).execute();
+    assertThat(response.code()).isEqualTo(405);
+  }
+
+  interface MultipartService {
+    @Multipart @POST("upload") Call<String> upload(@Part MultipartBody.Part part);
+  }
+
+  @Test public void multipartCannotBeServed() {
+    try {
+      ServiceHandler.create(serverRetrofit, MultipartService.class, new MultipartService() {
+        @Override public Call<String> upload(MultipartBody.Part part) {
+          throw new AssertionError();
+        }
+      });
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Multipart methods cannot be served.\n"
+          + "    for method MultipartService.upload");
+    }
+  }
+
+  @Test public void overHttp() throws IOException {
+    server.setDispatcher(new Dispatcher() {
+      @Override public MockResponse dispatch(RecordedRequest recorded) {
+        String contentType = recorded.getHeader("Content-Type");
+        RequestBody body = recorded.getBodySize() > 0
+            ? RequestBody.create(contentType != null ? MediaType.parse(contentType) : null,
+                recorded.getBody().readByteArray())
+            : null;
+        Request request = new Request.Builder()
+            .url(serverRetrofit.baseUrl().resolve(recorded.getPath()))
+            .headers(recorded.getHeaders())
+            .method(recorded.getMethod(), body)
+            .build();
+        try {
+          okhttp3.Response response = handler.handle(request);
+          return new MockResponse()
+              .setResponseCode(response.code())
+              .setHeaders(response.headers())
+              .setBody(new Buffer().write(response.body().bytes()));
+        } catch (IOException e) {
+          throw new AssertionError(e);
+        }
+      }
+    });
+    Service client = serverRetrofit.newBuilder()
+        .baseUrl(server.url("/api/"))
+        .build()
+        .create(Service.class);
+
+    assertThat(client.user("jake", true).execute().body()).isEqualTo("User jake (verbose)");
+    assertThat(client.echo("Hello").execute().body()).isEqualTo("Hello");
+    assertThat(client.user("missing", false).execute().code()).isEqualTo(404);
+  }
+}
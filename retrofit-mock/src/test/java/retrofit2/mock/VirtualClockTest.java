@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.mock;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class VirtualClockTest {
+  interface DoWorkService {
+    Call<String> response();
+    Call<ResponseBody> body();
+  }
+
+  private final VirtualClock clock = new VirtualClock();
+  private final NetworkBehavior behavior = NetworkBehavior.create(new Random(2847));
+  private BehaviorDelegate<DoWorkService> delegate;
+
+  @Before public void setUp() {
+    behavior.setDelay(2, SECONDS);
+    behavior.setVariancePercent(0);
+    behavior.setFailurePercent(0);
+
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .clock(clock)
+        .build();
+    delegate = mockRetrofit.create(DoWorkService.class);
+  }
+
+  @Test public void tasksRunInDueOrder() {
+    final List<String> ran = new ArrayList<>();
+    clock.schedule(recording(ran, "b"), MILLISECONDS.toNanos(200));
+    clock.schedule(recording(ran, "a"), MILLISECONDS.toNanos(100));
+    clock.schedule(recording(ran, "c"), MILLISECONDS.toNanos(200));
+
+    clock.advance(150, MILLISECONDS);
+    assertThat(ran).containsExactly("a");
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(150);
+
+    clock.advance(50, MILLISECONDS);
+    assertThat(ran).containsExactly("a", "b", "c");
+    assertThat(clock.pendingTaskCount()).isEqualTo(0);
+  }
+
+  @Test public void tasksObserveTheirDueTime() {
+    final AtomicReference<Long> observed = new AtomicReference<>();
+    clock.schedule(new Runnable() {
+      @Override public void run() {
+        observed.set(clock.now(MILLISECONDS));
+      }
+    }, MILLISECONDS.toNanos(300));
+
+    clock.advance(1, SECONDS);
+    assertThat(observed.get()).isEqualTo(300L);
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(1000);
+  }
+
+  @Test public void advanceToNextTask() {
+    List<String> ran = new ArrayList<>();
+    clock.schedule(recording(ran, "a"), SECONDS.toNanos(5));
+
+    assertThat(clock.advanceToNextTask()).isTrue();
+    assertThat(ran).containsExactly("a");
+    assertThat(clock.now(SECONDS)).isEqualTo(5);
+    assertThat(clock.advanceToNextTask()).isFalse();
+  }
+
+  @Test public void canceledTasksDoNotRun() {
+    List<String> ran = new ArrayList<>();
+    Future<?> future = clock.schedule(recording(ran, "a"), 10);
+    assertThat(clock.pendingTaskCount()).isEqualTo(1);
+
+    future.cancel(false);
+    assertThat(clock.pendingTaskCount()).isEqualTo(0);
+    clock.advance(1, SECONDS);
+    assertThat(ran).isEmpty();
+  }
+
+  @Test public void taskFailurePropagatesToCaller() {
+    clock.schedule(new Runnable() {
+      @Override public void run() {
+        throw new IllegalStateException("broken");
+      }
+    }, 0);
+    try {
+      clock.advance(1, MILLISECONDS);
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("broken");
+    }
+  }
+
+  @Test public void negativeAdvanceThrows() {
+    try {
+      clock.advance(-1, SECONDS);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("amount < 0: -1");
+    }
+  }
+
+  @Test public void asyncCallCompletesWhenClockPassesDelay() {
+    final AtomicReference<String> actual = new AtomicReference<>();
+    delegate.returningResponse("Response!").response().enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        actual.set(response.body());
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        throw new AssertionError(t);
+      }
+    });
+
+    clock.advance(1999, MILLISECONDS);
+    assertThat(actual.get()).isNull();
+    clock.advance(1, MILLISECONDS);
+    assertThat(actual.get()).isEqualTo("Response!");
+  }
+
+  @Test public void syncCallAdvancesClock() throws IOException {
+    long startNanos = System.nanoTime();
+    Response<String> response = delegate.returningResponse("Response!").response().execute();
+
+    assertThat(response.body()).isEqualTo("Response!");
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(2000);
+    assertThat(System.nanoTime() - startNanos).isLessThan(SECONDS.toNanos(1));
+  }
+
+  @Test public void syncCallAdvancesClockOnlyToItsOwnDelay() throws IOException {
+    final List<String> ran = new ArrayList<>();
+    clock.schedule(recording(ran, "later"), SECONDS.toNanos(5));
+
+    delegate.returningResponse("Response!").response().execute();
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(2000);
+    assertThat(ran).isEmpty();
+    assertThat(clock.pendingTaskCount()).isEqualTo(1);
+  }
+
+  @Test public void canceledCallFailsWithoutAdvancing() {
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    Call<String> call = delegate.returningResponse("Response!").response();
+    call.enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        throw new AssertionError();
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        failure.set(t);
+      }
+    });
+
+    call.cancel();
+    assertThat(failure.get()).isExactlyInstanceOf(IOException.class).hasMessage("canceled");
+    assertThat(clock.pendingTaskCount()).isEqualTo(0);
+  }
+
+  @Test public void bandwidthThrottlesRawBodiesAsTheyAreRead() throws IOException {
+    behavior.setBandwidth(1000);
+    ResponseBody body = ResponseBody.create(null, new byte[1500]);
+    Response<ResponseBody> response = delegate.returning(Calls.response(body)).body().execute();
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(2000);
+
+    BufferedSource source = response.body().source();
+    source.require(1000);
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(3000);
+    source.readByteString();
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(3500);
+  }
+
+  @Test public void bandwidthThrottlesBodiesOfUnknownLength() throws IOException {
+    behavior.setBandwidth(1000);
+    Buffer buffer = new Buffer().write(new byte[500]);
+    ResponseBody body = ResponseBody.create(null, -1, buffer);
+    Response<ResponseBody> response = delegate.returning(Calls.response(body)).body().execute();
+    assertThat(response.body().bytes()).hasSize(500);
+    assertThat(clock.now(MILLISECONDS)).isEqualTo(2500);
+  }
+
+  private static Runnable recording(final List<String> ran, final String name) {
+    return new Runnable() {
+      @Override public void run() {
+        ran.add(name);
+      }
+    };
+  }
+
+  @Test public void outageReturnsErrorsDuringWindow() throws IOException {
+    behavior.setOutage(5, MINUTES, 30, SECONDS);
+
+    Response<String> during = delegate.returningResponse("Response!").response().execute();
+    assertThat(during.code()).isEqualTo(500);
+
+    clock.advance(1, MINUTES);
+    Response<String> after = delegate.returningResponse("Response!").response().execute();
+    assertThat(after.body()).isEqualTo("Response!");
+
+    clock.advance(4, MINUTES);
+    Response<String> next = delegate.returningResponse("Response!").response().execute();
+    assertThat(next.code()).isEqualTo(500);
+  }
+
+  @Test public void methodBehaviorAppliedByDelegate() throws Exception {
+    NetworkBehavior slow = NetworkBehavior.create(new Random(2847));
+    slow.setDelay(10, SECONDS);
+    slow.setVariancePercent(0);
+    slow.setFailurePercent(0);
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com")
+        .build();
+    MockRetrofit mockRetrofit = new MockRetrofit.Builder(retrofit)
+        .networkBehavior(behavior)
+        .networkBehavior(DoWorkService.class.getMethod("body"), slow)
+        .clock(clock)
+        .build();
+    BehaviorDelegate<DoWorkService> delegate = mockRetrofit.create(DoWorkService.class);
+
+    delegate.returningResponse("Response!").response().execute();
+    assertThat(clock.now(SECONDS)).isEqualTo(2);
+    delegate.returning(Calls.response(ResponseBody.create(null, ""))).body().execute();
+    assertThat(clock.now(SECONDS)).isEqualTo(12);
+  }
+}
@@ -15,18 +15,39 @@
  */
 package retrofit2;
 
+import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
+import javax.annotation.Nullable;
+
+import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
 import retrofit2.http.Streaming;
 
 // 말 그대로 빌트인으로 제공하는 Converters.
 // "기본" Converter 로써 사용된다.
 // Retrofit.Builder#build를 보면 다른 converter들보다 먼저 list에 넣는 것을 볼 수 있음.
 final class BuiltInConverters extends Converter.Factory {
+  static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+  /** How much of a file is mapped at once when uploading it. */
+  static final long MAP_WINDOW_SIZE = 8 * 1024 * 1024;
+
   @Override
   public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
       Retrofit retrofit) {
@@ -38,15 +59,34 @@ final class BuiltInConverters extends Converter.Factory {
     if (type == Void.class) {
       return VoidResponseBodyConverter.INSTANCE;
     }
+    if (type == File.class) {
+      return FileResponseBodyConverter.INSTANCE;
+    }
+    if (type instanceof Class && "java.nio.file.Path".equals(((Class<?>) type).getName())) {
+      return PathResponseBodyConverter.INSTANCE;
+    }
     return null;
   }
 
   @Override
   public Converter<?, RequestBody> requestBodyConverter(Type type,
       Annotation[] parameterAnnotations, Annotation[] methodAnnotations, Retrofit retrofit) {
-    if (RequestBody.class.isAssignableFrom(Utils.getRawType(type))) {
+    Class<?> rawType = Utils.getRawType(type);
+    if (RequestBody.class.isAssignableFrom(rawType)) {
       return RequestBodyConverter.INSTANCE;
     }
+    if (rawType == File.class) {
+      return FileRequestBodyConverter.INSTANCE;
+    }
+    if ("java.nio.file.Path".equals(rawType.getName())) {
+      return PathRequestBodyConverter.INSTANCE;
+    }
+    if (FileChannel.class.isAssignableFrom(rawType)) {
+      return FileChannelRequestBodyConverter.INSTANCE;
+    }
+    if (ByteBuffer.class.isAssignableFrom(rawType)) {
+      return ByteBufferRequestBodyConverter.INSTANCE;
+    }
     return null;
   }
 
@@ -67,6 +107,154 @@ final class BuiltInConverters extends Converter.Factory {
     }
   }
 
+  static final class FileRequestBodyConverter implements Converter<File, RequestBody> {
+    static final FileRequestBodyConverter INSTANCE = new FileRequestBodyConverter();
+
+    @Override public RequestBody convert(File value) {
+      return new FileRequestBody(value, 0, value.length());
+    }
+  }
+
+  /** Sends {@code count} bytes of a file from {@code position}, opening it for each write. */
+  static final class FileRequestBody extends RequestBody {
+    private final File file;
+    private final long position;
+    private final long count;
+
+    FileRequestBody(File file, long position, long count) {
+      this.file = file;
+      this.position = position;
+      this.count = count;
+    }
+
+    @Override public MediaType contentType() {
+      return OCTET_STREAM;
+    }
+
+    @Override public long contentLength() {
+      return count;
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+      try {
+        transfer(randomAccessFile.getChannel(), position, count, sink);
+      } finally {
+        randomAccessFile.close();
+      }
+    }
+  }
+
+  @IgnoreJRERequirement // Only classloaded and used when a method declares java.nio.file.Path.
+  static final class PathRequestBodyConverter implements Converter<Path, RequestBody> {
+    static final PathRequestBodyConverter INSTANCE = new PathRequestBodyConverter();
+
+    @Override public RequestBody convert(final Path value) throws IOException {
+      final long length = Files.size(value);
+      return new RequestBody() {
+        @Override public MediaType contentType() {
+          return OCTET_STREAM;
+        }
+
+        @Override public long contentLength() {
+          return length;
+        }
+
+        @Override public void writeTo(BufferedSink sink) throws IOException {
+          FileChannel channel = FileChannel.open(value, StandardOpenOption.READ);
+          try {
+            transfer(channel, 0, length, sink);
+          } finally {
+            channel.close();
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Sends a channel from its current position to its end. The channel's position is not changed,
+   * so the body can be written again for retries and redirects. The caller owns the channel.
+   */
+  static final class FileChannelRequestBodyConverter
+      implements Converter<FileChannel, RequestBody> {
+    static final FileChannelRequestBodyConverter INSTANCE = new FileChannelRequestBodyConverter();
+
+    @Override public RequestBody convert(final FileChannel value) throws IOException {
+      final long position = value.position();
+      final long length = Math.max(value.size() - position, 0);
+      return new RequestBody() {
+        @Override public MediaType contentType() {
+          return OCTET_STREAM;
+        }
+
+        @Override public long contentLength() {
+          return length;
+        }
+
+        @Override public void writeTo(BufferedSink sink) throws IOException {
+          transfer(value, position, length, sink);
+        }
+      };
+    }
+  }
+
+  /**
+   * Sends the remaining bytes of a buffer, such as a {@link java.nio.MappedByteBuffer}. The
+   * buffer's position is not changed, so the body can be written again.
+   */
+  static final class ByteBufferRequestBodyConverter
+      implements Converter<ByteBuffer, RequestBody> {
+    static final ByteBufferRequestBodyConverter INSTANCE = new ByteBufferRequestBodyConverter();
+
+    @Override public RequestBody convert(ByteBuffer value) {
+      final ByteBuffer buffer = value.slice().asReadOnlyBuffer();
+      return new RequestBody() {
+        @Override public MediaType contentType() {
+          return OCTET_STREAM;
+        }
+
+        @Override public long contentLength() {
+          return buffer.remaining();
+        }
+
+        @Override public void writeTo(BufferedSink sink) throws IOException {
+          ByteBuffer source = buffer.duplicate();
+          while (source.hasRemaining()) {
+            sink.write(source);
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Writes {@code count} bytes of {@code channel} starting at {@code position} to {@code sink}.
+   * The file is mapped a window at a time and copied once, straight from the page cache into the
+   * sink's segments. Each window is unmapped once copied. Positional access leaves the channel
+   * itself untouched.
+   */
+  static void transfer(FileChannel channel, long position, long count, BufferedSink sink)
+      throws IOException {
+    long end = position + count;
+    if (channel.size() < end) {
+      throw new EOFException("Expected " + count + " bytes but the file ended after "
+          + Math.max(channel.size() - position, 0));
+    }
+    while (position < end) {
+      long size = Math.min(MAP_WINDOW_SIZE, end - position);
+      MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+      try {
+        while (window.hasRemaining()) {
+          sink.write(window); // Copies into the sink's segments.
+        }
+      } finally {
+        Utils.unmap(window); // Rather than hold the mapping until the buffer is collected.
+      }
+      position += size;
+    }
+  }
+
   static final class StreamingResponseBodyConverter
       implements Converter<ResponseBody, ResponseBody> {
     static final StreamingResponseBodyConverter INSTANCE = new StreamingResponseBodyConverter();
@@ -90,6 +278,128 @@ final class BuiltInConverters extends Converter.Factory {
     }
   }
 
+  /** Request tag carrying the {@link retrofit2.http.Destination} of a download. */
+  static final class DestinationTag {
+    final Object target; // A File or a java.nio.file.Path.
+
+    DestinationTag(Object target) {
+      this.target = target;
+    }
+  }
+
+  /**
+   * A response converter which can save the body to a {@link retrofit2.http.Destination}. Calls
+   * of methods with a destination parameter pass it along rather than through the body.
+   */
+  interface DestinationConverter<T> extends Converter<ResponseBody, T> {
+    /**
+     * @param destination a File or a java.nio.file.Path, or null for a temporary file.
+     * @param downloaded true if {@code value} is already saved to {@code destination}.
+     */
+    T convert(ResponseBody value, @Nullable Object destination, boolean downloaded)
+        throws IOException;
+  }
+
+  /**
+   * Moves the body to {@code sink} segment by segment. Nothing is copied through an intermediate
+   * heap array, so large downloads don't churn the young generation.
+   */
+  static void writeBody(ResponseBody body, Sink sink) throws IOException {
+    BufferedSink bufferedSink = Okio.buffer(sink);
+    try {
+      bufferedSink.writeAll(body.source());
+    } finally {
+      bufferedSink.close();
+    }
+  }
+
+  static final class FileResponseBodyConverter implements DestinationConverter<File> {
+    static final FileResponseBodyConverter INSTANCE = new FileResponseBodyConverter();
+
+    @Override public File convert(ResponseBody value) throws IOException {
+      return convert(value, null, false);
+    }
+
+    @Override public File convert(ResponseBody value, @Nullable Object target, boolean downloaded)
+        throws IOException {
+      if (target != null && !(target instanceof File)) {
+        return PathResponseBodyConverter.convertToFile(value, target, downloaded);
+      }
+      try {
+        File destination = (File) target;
+        if (destination != null && downloaded) {
+          return destination;
+        }
+        // Write next to the destination so that the final rename stays on one file system.
+        File file = destination != null
+            ? File.createTempFile("retrofit", ".part",
+                destination.getAbsoluteFile().getParentFile())
+            : File.createTempFile("retrofit", ".download");
+        boolean success = false;
+        try {
+          writeBody(value, Okio.sink(file));
+          if (destination != null && !file.renameTo(destination)) {
+            // Some platforms refuse to rename over an existing file.
+            if (!destination.delete() || !file.renameTo(destination)) {
+              throw new IOException("Failed to rename " + file + " to " + destination);
+            }
+          }
+          success = true;
+          return destination != null ? destination : file;
+        } finally {
+          if (!success) file.delete();
+        }
+      } finally {
+        value.close();
+      }
+    }
+  }
+
+  @IgnoreJRERequirement // Only classloaded and used when a method declares java.nio.file.Path.
+  static final class PathResponseBodyConverter implements DestinationConverter<Path> {
+    static final PathResponseBodyConverter INSTANCE = new PathResponseBodyConverter();
+
+    static File convertToFile(ResponseBody value, Object target, boolean downloaded)
+        throws IOException {
+      return INSTANCE.convert(value, target, downloaded).toFile();
+    }
+
+    static File toFile(Object path) {
+      return ((Path) path).toFile();
+    }
+
+    @Override public Path convert(ResponseBody value) throws IOException {
+      return convert(value, null, false);
+    }
+
+    @Override public Path convert(ResponseBody value, @Nullable Object target, boolean downloaded)
+        throws IOException {
+      try {
+        Path destination = target instanceof File ? ((File) target).toPath() : (Path) target;
+        if (destination != null && downloaded) {
+          return destination;
+        }
+        // Write next to the destination so that the final move can be atomic.
+        Path file = destination != null
+            ? Files.createTempFile(destination.toAbsolutePath().getParent(), "retrofit", ".part")
+            : Files.createTempFile("retrofit", ".download");
+        boolean success = false;
+        try {
+          writeBody(value, Okio.sink(file));
+          if (destination != null) {
+            Files.move(file, destination, StandardCopyOption.ATOMIC_MOVE);
+          }
+          success = true;
+          return destination != null ? destination : file;
+        } finally {
+          if (!success) Files.deleteIfExists(file);
+        }
+      } finally {
+        value.close();
+      }
+    }
+  }
+
   // Object를 String으로 바꾸는 Converter.
   static final class ToStringConverter implements Converter<Object, String> {
     static final ToStringConverter INSTANCE = new ToStringConverter();
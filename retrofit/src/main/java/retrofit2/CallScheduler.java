@@ -0,0 +1,279 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import okhttp3.Request;
+import retrofit2.http.Priority;
+
+import static retrofit2.Utils.checkNotNull;
+
+/**
+ * Limits the number of {@linkplain Call#enqueue asynchronous calls} in flight and releases
+ * waiting calls to the underlying {@link okhttp3.Call.Factory} by {@linkplain Priority priority}
+ * rather than in arrival order.
+ * <p>
+ * Waiting calls are released earliest-deadline-first. A call's deadline is the time it was
+ * enqueued, moved earlier by {@code priorityStep} for each point of priority. A call with priority
+ * 10 and a step of 100ms therefore goes ahead of priority 0 calls enqueued up to one second after
+ * it, but never ahead of ones enqueued before that. Low priority calls cannot starve.
+ * <p>
+ * Synchronous calls made with {@link Call#execute()} bypass the queue and are not counted.
+ *
+ * @see Retrofit.Builder#callScheduler(CallScheduler)
+ */
+public final class CallScheduler {
+  private final int maxRequests;
+  private final long priorityStepNanos;
+
+  @GuardedBy("this")
+  private final PriorityQueue<ScheduledCall> readyCalls = new PriorityQueue<>();
+  @GuardedBy("this")
+  private int runningCalls;
+  @GuardedBy("this")
+  private long sequence;
+  @GuardedBy("this")
+  private long dispatchedCalls;
+  @GuardedBy("this")
+  private long totalQueueNanos;
+
+  /** Create a scheduler which moves a call ahead by 100ms for each point of priority. */
+  public CallScheduler(int maxRequests) {
+    this(maxRequests, 100, TimeUnit.MILLISECONDS);
+  }
+
+  public CallScheduler(int maxRequests, long priorityStep, TimeUnit unit) {
+    if (maxRequests < 1) {
+      throw new IllegalArgumentException("maxRequests < 1: " + maxRequests);
+    }
+    if (priorityStep < 0) {
+      throw new IllegalArgumentException("priorityStep < 0: " + priorityStep);
+    }
+    checkNotNull(unit, "unit == null");
+    this.maxRequests = maxRequests;
+    this.priorityStepNanos = unit.toNanos(priorityStep);
+  }
+
+  /** The maximum number of asynchronous calls released to the call factory at once. */
+  public int maxRequests() {
+    return maxRequests;
+  }
+
+  /** The number of asynchronous calls waiting to be released. */
+  public synchronized int queuedCallsCount() {
+    return readyCalls.size();
+  }
+
+  /** The number of asynchronous calls released to the call factory and not yet completed. */
+  public synchronized int runningCallsCount() {
+    return runningCalls;
+  }
+
+  /** The total number of asynchronous calls released to the call factory. */
+  public synchronized long dispatchedCallsCount() {
+    return dispatchedCalls;
+  }
+
+  /** The total time released calls spent waiting in the queue. */
+  public synchronized long totalQueueTime(TimeUnit unit) {
+    return unit.convert(totalQueueNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Returns a call factory whose calls are scheduled by this instance. */
+  okhttp3.Call.Factory wrap(final okhttp3.Call.Factory delegate) {
+    return new okhttp3.Call.Factory() {
+      @Override public okhttp3.Call newCall(Request request) {
+        okhttp3.Call call = delegate.newCall(request);
+        if (call == null) {
+          throw new NullPointerException("Call.Factory returned null.");
+        }
+        PriorityTag priority = request.tag(PriorityTag.class);
+        return new ScheduledCall(call, priority != null ? priority.value : 0);
+      }
+    };
+  }
+
+  void enqueue(ScheduledCall call, okhttp3.Callback callback) {
+    synchronized (this) {
+      call.callback = callback;
+      call.enqueuedAtNanos = System.nanoTime();
+      call.deadlineNanos = call.enqueuedAtNanos - call.priority * priorityStepNanos;
+      call.sequence = sequence++;
+      readyCalls.add(call);
+    }
+    promoteCalls();
+  }
+
+  /** Returns true if {@code call} was still waiting and has been removed from the queue. */
+  synchronized boolean remove(ScheduledCall call) {
+    return readyCalls.remove(call);
+  }
+
+  void finished() {
+    synchronized (this) {
+      runningCalls--;
+    }
+    promoteCalls();
+  }
+
+  private void promoteCalls() {
+    List<ScheduledCall> toDispatch = null;
+    synchronized (this) {
+      long now = System.nanoTime();
+      while (runningCalls < maxRequests && !readyCalls.isEmpty()) {
+        ScheduledCall call = readyCalls.poll();
+        runningCalls++;
+        dispatchedCalls++;
+        totalQueueNanos += now - call.enqueuedAtNanos;
+        if (toDispatch == null) toDispatch = new ArrayList<>();
+        toDispatch.add(call);
+      }
+    }
+    if (toDispatch != null) {
+      for (int i = 0, size = toDispatch.size(); i < size; i++) {
+        toDispatch.get(i).dispatch();
+      }
+    }
+  }
+
+  /** Request tag carrying the {@link Priority} of a call. */
+  static final class PriorityTag {
+    final int value;
+
+    PriorityTag(int value) {
+      this.value = value;
+    }
+  }
+
+  final class ScheduledCall implements okhttp3.Call, Comparable<ScheduledCall> {
+    private final okhttp3.Call delegate;
+    final int priority;
+
+    // Guarded by the enclosing CallScheduler.
+    @Nullable okhttp3.Callback callback;
+    long enqueuedAtNanos;
+    long deadlineNanos;
+    long sequence;
+
+    @GuardedBy("this")
+    private boolean executed;
+
+    ScheduledCall(okhttp3.Call delegate, int priority) {
+      this.delegate = delegate;
+      this.priority = priority;
+    }
+
+    @Override public Request request() {
+      return delegate.request();
+    }
+
+    @Override public okhttp3.Response execute() throws IOException {
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      return delegate.execute();
+    }
+
+    @Override public void enqueue(okhttp3.Callback responseCallback) {
+      checkNotNull(responseCallback, "responseCallback == null");
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      CallScheduler.this.enqueue(this, responseCallback);
+    }
+
+    void dispatch() {
+      okhttp3.Callback callback;
+      synchronized (CallScheduler.this) {
+        callback = this.callback;
+      }
+      final okhttp3.Callback responseCallback = callback;
+      try {
+        enqueueDelegate(responseCallback);
+      } catch (RuntimeException e) {
+        // Such as a shut-down dispatcher rejecting the call. Free its slot for the calls behind it.
+        try {
+          //noinspection ConstantConditions Set before the call is queued.
+          responseCallback.onFailure(this, new IOException(e));
+        } finally {
+          finished();
+        }
+      }
+    }
+
+    private void enqueueDelegate(final okhttp3.Callback responseCallback) {
+      delegate.enqueue(new okhttp3.Callback() {
+        @Override public void onResponse(okhttp3.Call call, okhttp3.Response response)
+            throws IOException {
+          try {
+            responseCallback.onResponse(ScheduledCall.this, response);
+          } finally {
+            finished();
+          }
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          try {
+            responseCallback.onFailure(ScheduledCall.this, e);
+          } finally {
+            finished();
+          }
+        }
+      });
+    }
+
+    @Override public void cancel() {
+      delegate.cancel();
+      if (remove(this)) {
+        okhttp3.Callback callback;
+        synchronized (CallScheduler.this) {
+          callback = this.callback;
+        }
+        //noinspection ConstantConditions Set before the call is queued.
+        callback.onFailure(this, new IOException("Canceled"));
+      }
+    }
+
+    @Override public synchronized boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      return delegate.isCanceled();
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new ScheduledCall(delegate.clone(), priority);
+    }
+
+    @Override public int compareTo(ScheduledCall other) {
+      long deadline = deadlineNanos - other.deadlineNanos;
+      if (deadline != 0) return deadline < 0 ? -1 : 1;
+      return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+    }
+  }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import retrofit2.http.Chunked;
+
+import static retrofit2.Utils.checkNotNull;
+
+/**
+ * Uploads the bodies of {@link Chunked @Chunked} methods as concurrent chunk requests built by the
+ * method's {@link RequestFactory}, followed by the method's own request to complete the upload.
+ * Each chunk reads its slice of the file straight from the page cache, and completed chunks are
+ * recorded in a memory-mapped state file so that a later call can resume.
+ */
+final class ChunkedUploadCallFactory implements okhttp3.Call.Factory {
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+  static final int STATE_MAGIC = 0x5243484b; // "RCHK"
+
+  private final okhttp3.Call.Factory delegate;
+
+  ChunkedUploadCallFactory(okhttp3.Call.Factory delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override public okhttp3.Call newCall(Request request) {
+    UploadTag upload = request.tag(UploadTag.class);
+    return upload != null ? new ChunkedCall(request, upload) : delegate.newCall(request);
+  }
+
+  static File stateFile(File file) {
+    return new File(file.getPath() + ".upload");
+  }
+
+  /** Request tag with what is needed to build the chunk requests of a call. */
+  static final class UploadTag {
+    final RequestFactory requestFactory;
+    final Object[] args;
+    final File file;
+
+    UploadTag(RequestFactory requestFactory, Object[] args, File file) {
+      this.requestFactory = requestFactory;
+      this.args = args;
+      this.file = file;
+    }
+  }
+
+  final class ChunkedCall implements okhttp3.Call {
+    private final Request request;
+    private final UploadTag upload;
+    private volatile boolean canceled;
+    @GuardedBy("this")
+    private boolean executed;
+    @GuardedBy("this")
+    private final List<okhttp3.Call> calls = new ArrayList<>();
+
+    ChunkedCall(Request request, UploadTag upload) {
+      this.request = request;
+      this.upload = upload;
+    }
+
+    @Override public Request request() {
+      return request;
+    }
+
+    @Override public Response execute() throws IOException {
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      final CountDownLatch latch = new CountDownLatch(1);
+      final AtomicReference<Response> response = new AtomicReference<>();
+      final AtomicReference<IOException> failure = new AtomicReference<>();
+      start(new Callback() {
+        @Override public void onResponse(okhttp3.Call call, Response value) {
+          response.set(value);
+          latch.countDown();
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          failure.set(e);
+          latch.countDown();
+        }
+      });
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        cancel();
+        throw new InterruptedIOException("Interrupted");
+      }
+      if (failure.get() != null) throw failure.get();
+      return response.get();
+    }
+
+    @Override public void enqueue(Callback responseCallback) {
+      checkNotNull(responseCallback, "responseCallback == null");
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      start(responseCallback);
+    }
+
+    private void start(Callback callback) {
+      Upload chunks;
+      try {
+        chunks = Upload.open(this, callback);
+      } catch (IOException e) {
+        callback.onFailure(this, e);
+        return;
+      }
+      chunks.launch();
+    }
+
+    okhttp3.Call newDelegateCall(Request request) {
+      okhttp3.Call call = delegate.newCall(request);
+      synchronized (this) {
+        calls.add(call);
+      }
+      if (canceled) call.cancel();
+      return call;
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+      List<okhttp3.Call> calls;
+      synchronized (this) {
+        calls = new ArrayList<>(this.calls);
+      }
+      for (okhttp3.Call call : calls) {
+        call.cancel();
+      }
+    }
+
+    @Override public synchronized boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      return canceled;
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new ChunkedCall(request, upload);
+    }
+  }
+
+  /**
+   * One attempt at uploading a file. The state file holds a header identifying the upload and a
+   * byte for each chunk which is 1 once the server has accepted it:
+   * <pre>
+   * magic          int32
+   * length         int64
+   * last modified  int64
+   * chunk size     int64
+   * URL            int32 length, then UTF-8
+   * chunks         int8 for each chunk
+   * </pre>
+   */
+  static final class Upload {
+    private final ChunkedCall call;
+    private final Callback callback;
+    private final Chunked chunked;
+    private final File file;
+    private final long length;
+    private final @Nullable File stateFile;
+    private final ByteBuffer completed;
+    private final int[] pending;
+
+    @GuardedBy("this")
+    private int next;
+    @GuardedBy("this")
+    private int inFlight;
+    @GuardedBy("this")
+    private @Nullable IOException failure;
+    @GuardedBy("this")
+    private boolean finished;
+
+    Upload(ChunkedCall call, Callback callback, Chunked chunked, File file, long length,
+        @Nullable File stateFile, ByteBuffer completed) {
+      this.call = call;
+      this.callback = callback;
+      this.chunked = chunked;
+      this.file = file;
+      this.length = length;
+      this.stateFile = stateFile;
+      this.completed = completed;
+
+      int count = 0;
+      int[] pending = new int[completed.capacity()];
+      for (int i = 0; i < pending.length; i++) {
+        if (completed.get(i) == 0) pending[count++] = i;
+      }
+      this.pending = new int[count];
+      System.arraycopy(pending, 0, this.pending, 0, count);
+    }
+
+    static Upload open(ChunkedCall call, Callback callback) throws IOException {
+      UploadTag upload = call.upload;
+      //noinspection ConstantConditions Only @Chunked methods are tagged.
+      Chunked chunked = upload.requestFactory.chunked;
+      File file = upload.file;
+      if (!file.isFile()) throw new IOException("Not a file: " + file);
+      long length = file.length();
+      long chunkCount = (length + chunked.size() - 1) / chunked.size();
+      if (chunkCount > Integer.MAX_VALUE) {
+        throw new IOException(
+            "Too many chunks: " + chunkCount + " of " + chunked.size() + " bytes");
+      }
+
+      byte[] urlBytes = call.request().url().toString().getBytes(UTF_8);
+      int headerSize = 4 + 8 + 8 + 8 + 4 + urlBytes.length;
+      File stateFile = stateFile(file);
+      RandomAccessFile state;
+      try {
+        state = new RandomAccessFile(stateFile, "rw");
+      } catch (IOException e) {
+        // The file's directory is read-only. Upload without being able to resume.
+        return new Upload(call, callback, chunked, file, length, null,
+            ByteBuffer.allocate((int) chunkCount));
+      }
+      try {
+        boolean resume = state.length() == headerSize + chunkCount
+            && state.readInt() == STATE_MAGIC
+            && state.readLong() == length
+            && state.readLong() == file.lastModified()
+            && state.readLong() == chunked.size()
+            && state.readInt() == urlBytes.length
+            && readAndCompare(state, urlBytes);
+        if (!resume) {
+          state.setLength(0);
+          state.writeInt(STATE_MAGIC);
+          state.writeLong(length);
+          state.writeLong(file.lastModified());
+          state.writeLong(chunked.size());
+          state.writeInt(urlBytes.length);
+          state.write(urlBytes);
+          state.setLength(headerSize + chunkCount); // No chunks completed.
+        }
+        // Mappings remain valid after their file is closed.
+        ByteBuffer completed =
+            state.getChannel().map(FileChannel.MapMode.READ_WRITE, headerSize, chunkCount);
+        return new Upload(call, callback, chunked, file, length, stateFile, completed);
+      } finally {
+        state.close();
+      }
+    }
+
+    private static boolean readAndCompare(RandomAccessFile file, byte[] expected)
+        throws IOException {
+      byte[] bytes = new byte[expected.length];
+      file.readFully(bytes);
+      return Arrays.equals(bytes, expected);
+    }
+
+    /** Start as many chunks as concurrency allows, or complete the upload if none are left. */
+    void launch() {
+      List<Integer> toStart = null;
+      boolean done = false;
+      synchronized (this) {
+        while (failure == null && !call.isCanceled() && inFlight < chunked.concurrency()
+            && next < pending.length) {
+          if (toStart == null) toStart = new ArrayList<>();
+          toStart.add(pending[next++]);
+          inFlight++;
+        }
+        if (inFlight == 0 && !finished) {
+          finished = true;
+          done = true;
+        }
+      }
+      if (toStart != null) {
+        for (int i = 0, size = toStart.size(); i < size; i++) {
+          uploadChunk(toStart.get(i));
+        }
+      }
+      if (done) finish();
+    }
+
+    private void uploadChunk(final int chunk) {
+      long position = chunk * chunked.size();
+      long count = Math.min(chunked.size(), length - position);
+      Request request;
+      try {
+        request = call.upload.requestFactory.createChunk(call.upload.args, chunk,
+            new BuiltInConverters.FileRequestBody(file, position, count))
+            .newBuilder()
+            .header("Content-Range",
+                "bytes " + position + "-" + (position + count - 1) + "/" + length)
+            .build();
+      } catch (IOException e) {
+        chunkFinished(chunk, e);
+        return;
+      } catch (RuntimeException e) {
+        chunkFinished(chunk, new IOException(e));
+        return;
+      }
+      call.newDelegateCall(request).enqueue(new Callback() {
+        @Override public void onResponse(okhttp3.Call rawCall, Response response) {
+          response.close();
+          chunkFinished(chunk, response.isSuccessful()
+              ? null
+              : new IOException("Chunk " + chunk + " failed with HTTP " + response.code()));
+        }
+
+        @Override public void onFailure(okhttp3.Call rawCall, IOException e) {
+          chunkFinished(chunk, e);
+        }
+      });
+    }
+
+    void chunkFinished(int chunk, @Nullable IOException e) {
+      synchronized (this) {
+        inFlight--;
+        if (e == null) {
+          completed.put(chunk, (byte) 1);
+        } else if (failure == null) {
+          failure = e;
+        }
+      }
+      launch();
+    }
+
+    private void finish() {
+      IOException failure;
+      synchronized (this) {
+        failure = this.failure;
+      }
+      // Every chunk is done, so the state is no longer written. Release the mapping now: it would
+      // otherwise last until collected, and some platforms refuse to delete a mapped file.
+      if (completed instanceof MappedByteBuffer) {
+        Utils.unmap((MappedByteBuffer) completed);
+      }
+      if (failure == null && call.isCanceled()) failure = new IOException("Canceled");
+      if (failure != null) {
+        callback.onFailure(call, failure);
+        return;
+      }
+
+      Request request = call.request();
+      Request complete = request.newBuilder()
+          .method(request.method(), RequestBody.create(null, new byte[0]))
+          .build();
+      call.newDelegateCall(complete).enqueue(new Callback() {
+        @Override public void onResponse(okhttp3.Call rawCall, Response response)
+            throws IOException {
+          if (response.isSuccessful() && stateFile != null) {
+            stateFile.delete();
+          }
+          callback.onResponse(call, response);
+        }
+
+        @Override public void onFailure(okhttp3.Call rawCall, IOException e) {
+          callback.onFailure(call, e);
+        }
+      });
+    }
+  }
+}
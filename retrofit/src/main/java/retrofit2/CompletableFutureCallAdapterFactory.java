@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+/**
+ * Adapts calls to {@link CompletableFuture} or {@link CompletionStage}. Calls are enqueued when
+ * adapted. The future is completed on the callback executor, if there is one, so that dependent
+ * stages do not run on the HTTP client's threads. Canceling the future cancels the call.
+ */
+@IgnoreJRERequirement // Only added by Platform.Java8.
+final class CompletableFutureCallAdapterFactory extends CallAdapter.Factory {
+  private final @Nullable Executor callbackExecutor;
+
+  CompletableFutureCallAdapterFactory(@Nullable Executor callbackExecutor) {
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  @Override public @Nullable CallAdapter<?, ?> get(
+      Type returnType, Annotation[] annotations, Retrofit retrofit) {
+    Class<?> rawType = getRawType(returnType);
+    if (rawType != CompletableFuture.class && rawType != CompletionStage.class) {
+      return null;
+    }
+    if (!(returnType instanceof ParameterizedType)) {
+      throw new IllegalStateException(rawType.getSimpleName() + " return type must be"
+          + " parameterized as " + rawType.getSimpleName() + "<Foo> or "
+          + rawType.getSimpleName() + "<? extends Foo>");
+    }
+    Type innerType = getParameterUpperBound(0, (ParameterizedType) returnType);
+
+    if (getRawType(innerType) != Response.class) {
+      // Generic type is not Response<T>. Use it for body-only adapter.
+      return new BodyCallAdapter<>(innerType, callbackExecutor);
+    }
+
+    // Generic type is Response<T>. Extract T and create the Response version of the adapter.
+    if (!(innerType instanceof ParameterizedType)) {
+      throw new IllegalStateException("Response must be parameterized"
+          + " as Response<Foo> or Response<? extends Foo>");
+    }
+    Type responseType = getParameterUpperBound(0, (ParameterizedType) innerType);
+    return new ResponseCallAdapter<>(responseType, callbackExecutor);
+  }
+
+  @IgnoreJRERequirement
+  private static final class BodyCallAdapter<R> implements CallAdapter<R, CompletableFuture<R>> {
+    private final Type responseType;
+    private final @Nullable Executor callbackExecutor;
+
+    BodyCallAdapter(Type responseType, @Nullable Executor callbackExecutor) {
+      this.responseType = responseType;
+      this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override public Type responseType() {
+      return responseType;
+    }
+
+    @Override public CompletableFuture<R> adapt(Call<R> call) {
+      BodyFuture<R> future = new BodyFuture<>(call, callbackExecutor);
+      call.enqueue(future);
+      return future;
+    }
+  }
+
+  @IgnoreJRERequirement
+  private static final class ResponseCallAdapter<R>
+      implements CallAdapter<R, CompletableFuture<Response<R>>> {
+    private final Type responseType;
+    private final @Nullable Executor callbackExecutor;
+
+    ResponseCallAdapter(Type responseType, @Nullable Executor callbackExecutor) {
+      this.responseType = responseType;
+      this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override public Type responseType() {
+      return responseType;
+    }
+
+    @Override public CompletableFuture<Response<R>> adapt(Call<R> call) {
+      ResponseFuture<R> future = new ResponseFuture<>(call, callbackExecutor);
+      call.enqueue(future);
+      return future;
+    }
+  }
+
+  /**
+   * A future which is also the callback of its call, and the task which completes it on the
+   * callback executor, so that adapting a call allocates nothing else.
+   */
+  @IgnoreJRERequirement
+  private abstract static class CallFuture<R, T> extends CompletableFuture<T>
+      implements Callback<R>, Runnable {
+    private final Call<R> call;
+    private final @Nullable Executor callbackExecutor;
+    // Written before the executor is handed this future, which publishes them to run().
+    private @Nullable Response<R> response;
+    private @Nullable Throwable failure;
+
+    CallFuture(Call<R> call, @Nullable Executor callbackExecutor) {
+      this.call = call;
+      this.callbackExecutor = callbackExecutor;
+    }
+
+    /** Completes this future with {@code response}. */
+    abstract void completeWith(Response<R> response);
+
+    @Override public final void onResponse(Call<R> call, Response<R> response) {
+      this.response = response;
+      dispatch();
+    }
+
+    @Override public final void onFailure(Call<R> call, Throwable t) {
+      failure = t;
+      dispatch();
+    }
+
+    private void dispatch() {
+      if (callbackExecutor != null) {
+        callbackExecutor.execute(this);
+      } else {
+        run();
+      }
+    }
+
+    @Override public final void run() {
+      Throwable failure = this.failure;
+      if (failure != null) {
+        completeExceptionally(failure);
+      } else {
+        //noinspection ConstantConditions Set by onResponse when there is no failure.
+        completeWith(response);
+      }
+    }
+
+    @Override public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean canceled = super.cancel(mayInterruptIfRunning);
+      if (canceled) {
+        // Regardless of mayInterruptIfRunning, there is nothing left to wait for.
+        call.cancel();
+      }
+      return canceled;
+    }
+  }
+
+  @IgnoreJRERequirement
+  private static final class BodyFuture<R> extends CallFuture<R, R> {
+    BodyFuture(Call<R> call, @Nullable Executor callbackExecutor) {
+      super(call, callbackExecutor);
+    }
+
+    @Override void completeWith(Response<R> response) {
+      if (response.isSuccessful()) {
+        complete(response.body());
+      } else {
+        completeExceptionally(new HttpException(response));
+      }
+    }
+  }
+
+  @IgnoreJRERequirement
+  private static final class ResponseFuture<R> extends CallFuture<R, Response<R>> {
+    ResponseFuture(Call<R> call, @Nullable Executor callbackExecutor) {
+      super(call, callbackExecutor);
+    }
+
+    @Override void completeWith(Response<R> response) {
+      complete(response);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+
+import okio.Sink;
+import okio.Source;
+
+/**
+ * An HTTP {@code Content-Encoding} such as {@code gzip}. Codecs compress request bodies of
+ * methods annotated with {@link retrofit2.http.Compress @Compress}. Codecs other than the built-in
+ * ones also decode response bodies with their {@code Content-Encoding}. {@code gzip} responses are
+ * never decoded: OkHttp decodes those it requested, and passes on those the caller requested.
+ * <p>
+ * {@code gzip} and {@code deflate} are built in. Other codecs are found with
+ * {@link java.util.ServiceLoader} from {@code META-INF/services/retrofit2.ContentCodec} or
+ * {@linkplain Retrofit.Builder#addContentCodec(ContentCodec) added} to a {@link Retrofit} instance.
+ * Instances are shared between calls and must be thread-safe.
+ */
+public interface ContentCodec {
+  /** The {@code Content-Encoding} token of this codec, like {@code gzip}. Matched ignoring case. */
+  String encoding();
+
+  /**
+   * Returns a sink which writes the encoded form of the data written to it to {@code sink}.
+   * Closing the returned sink must finish the encoded stream and close {@code sink}.
+   */
+  Sink encode(Sink sink) throws IOException;
+
+  /** Returns a source which reads the decoded form of {@code source}. */
+  Source decode(Source source) throws IOException;
+}
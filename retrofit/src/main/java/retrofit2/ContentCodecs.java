@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.annotation.Nullable;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.DeflaterSink;
+import okio.ForwardingSink;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.InflaterSource;
+import okio.Okio;
+import okio.Sink;
+import okio.Source;
+
+/** The built-in {@link ContentCodec} instances and the request and response bodies using them. */
+final class ContentCodecs {
+  private ContentCodecs() {
+    // No instances.
+  }
+
+  static final ContentCodec GZIP = new ContentCodec() {
+    @Override public String encoding() {
+      return "gzip";
+    }
+
+    @Override public Sink encode(Sink sink) {
+      return new GzipSink(sink);
+    }
+
+    @Override public Source decode(Source source) {
+      return new GzipSource(source);
+    }
+  };
+
+  /** The zlib format, which is what HTTP calls {@code deflate}. */
+  static final ContentCodec DEFLATE = new ContentCodec() {
+    @Override public String encoding() {
+      return "deflate";
+    }
+
+    @Override public Sink encode(Sink sink) {
+      return new DeflaterSink(sink, new Deflater());
+    }
+
+    @Override public Source decode(Source source) {
+      return new InflaterSource(Okio.buffer(source), new Inflater());
+    }
+  };
+
+  /**
+   * Returns the built-in codecs and those found with {@link ServiceLoader}, keyed by lowercase
+   * encoding. Loaded once so that instances built from one another have equal codecs.
+   */
+  static Map<String, ContentCodec> defaults() {
+    return DefaultsHolder.CODECS;
+  }
+
+  static String key(String encoding) {
+    return encoding.trim().toLowerCase(Locale.US);
+  }
+
+  static void put(Map<String, ContentCodec> codecs, ContentCodec codec) {
+    String encoding = codec.encoding();
+    if (encoding == null || key(encoding).isEmpty()) {
+      throw new IllegalArgumentException("Content codec has no encoding: " + codec);
+    }
+    codecs.put(key(encoding), codec);
+  }
+
+  /**
+   * Returns a body decoded with the codec for {@code encoding}, or null if there is none. The
+   * {@code identity} encoding, lists of several encodings, and empty bodies are not decoded.
+   * <p>
+   * Only codecs for encodings which OkHttp does not handle are used. OkHttp decodes {@code gzip}
+   * when it requested it, and a caller who requested it themselves wants the encoded bytes. The
+   * built-in {@code deflate} codec is for requests only, so that responses only change when a
+   * codec was registered to decode them.
+   */
+  static @Nullable ResponseBody decode(Map<String, ContentCodec> codecs, ResponseBody body,
+      @Nullable String encoding) throws IOException {
+    if (encoding == null || body.contentLength() == 0) return null;
+    String key = key(encoding);
+    if (key.equals("gzip")) return null;
+    ContentCodec codec = codecs.get(key);
+    if (codec == null || codec == DEFLATE) return null;
+    return ResponseBody.create(body.contentType(), -1L,
+        Okio.buffer(codec.decode(body.source())));
+  }
+
+  private static final class DefaultsHolder {
+    static final Map<String, ContentCodec> CODECS;
+
+    static {
+      Map<String, ContentCodec> codecs = new LinkedHashMap<>();
+      put(codecs, GZIP);
+      put(codecs, DEFLATE);
+      for (ContentCodec codec
+          : ServiceLoader.load(ContentCodec.class, ContentCodec.class.getClassLoader())) {
+        put(codecs, codec);
+      }
+      CODECS = Collections.unmodifiableMap(codecs);
+    }
+  }
+
+  /** Encodes a body while it is written. The length of the encoded body is unknown. */
+  static final class EncodedRequestBody extends RequestBody {
+    private final RequestBody delegate;
+    private final ContentCodec codec;
+
+    EncodedRequestBody(RequestBody delegate, ContentCodec codec) {
+      this.delegate = delegate;
+      this.codec = codec;
+    }
+
+    @Override public @Nullable MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      // Closing the codec's sink finishes the encoded stream. It must not close the caller's sink.
+      Sink unclosable = new ForwardingSink(sink) {
+        @Override public void close() throws IOException {
+          delegate().flush();
+        }
+      };
+      BufferedSink encoded = Okio.buffer(codec.encode(unclosable));
+      delegate.writeTo(encoded);
+      encoded.close();
+    }
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ProtocolException;
+
+import javax.annotation.Nullable;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import static retrofit2.Utils.checkNotNull;
+
+/**
+ * Reads a streaming response body as a sequence of elements, converting each one only when it is
+ * {@linkplain #read() read}. This lets call adapters emit elements as their subscribers request
+ * them rather than converting the whole body at once.
+ * <ul>
+ * <li>{@code text/event-stream} bodies are read as
+ * <a href="https://html.spec.whatwg.org/multipage/server-sent-events.html">server-sent events</a>.
+ * The {@code data} of each event is an element. Comments and the {@code event}, {@code id}, and
+ * {@code retry} fields are skipped.
+ * <li>{@code application/x-ndjson} bodies are read as newline-delimited JSON. Each non-blank line
+ * is an element.
+ * <li>{@code application/x-length-prefixed} bodies are read as length-prefixed messages, framed
+ * like gRPC's: a zero byte, the message's length as a big-endian 32-bit integer, then the
+ * message. Each message is an element. This suits binary formats such as protocol buffers.
+ * Messages larger than 4 MiB, gRPC's default limit, are rejected rather than buffered.
+ * <li>Any other body is a single element.
+ * </ul>
+ * Each element is converted as a body of its own. The body must be read with
+ * {@link retrofit2.http.Streaming @Streaming} for elements to be available before the whole
+ * response has arrived.
+ */
+public final class ElementReader<T> implements Closeable {
+  private static final MediaType EVENT_ELEMENT = MediaType.get("text/plain; charset=utf-8");
+  private static final MediaType JSON_ELEMENT = MediaType.get("application/json; charset=utf-8");
+  private static final MediaType BINARY_ELEMENT = MediaType.get("application/octet-stream");
+  static final MediaType LENGTH_PREFIXED = MediaType.get("application/x-length-prefixed");
+  /** The largest length-prefixed message which is read or sent. */
+  static final long MAX_MESSAGE_SIZE = 4 * 1024 * 1024;
+
+  /**
+   * Create a reader of the elements in {@code body}, which are converted with {@code converter}.
+   */
+  @SuppressWarnings("ConstantConditions") // Guarding public API nullability.
+  public static <T> ElementReader<T> create(ResponseBody body,
+      Converter<ResponseBody, T> converter) {
+    checkNotNull(body, "body == null");
+    checkNotNull(converter, "converter == null");
+    return new ElementReader<>(body, converter, framing(body.contentType()));
+  }
+
+  /**
+   * Returns true if bodies of {@code contentType} hold a stream of elements rather than a single
+   * one.
+   */
+  public static boolean isElementStream(@Nullable MediaType contentType) {
+    return framing(contentType) != Framing.SINGLE;
+  }
+
+  private static Framing framing(@Nullable MediaType contentType) {
+    if (contentType == null) return Framing.SINGLE;
+    String type = contentType.type() + "/" + contentType.subtype();
+    if ("text/event-stream".equalsIgnoreCase(type)) return Framing.EVENT_STREAM;
+    if ("application/x-ndjson".equalsIgnoreCase(type)
+        || "application/ndjson".equalsIgnoreCase(type)) {
+      return Framing.NDJSON;
+    }
+    if ("application/x-length-prefixed".equalsIgnoreCase(type)) return Framing.LENGTH_PREFIXED;
+    return Framing.SINGLE;
+  }
+
+  private enum Framing { SINGLE, EVENT_STREAM, NDJSON, LENGTH_PREFIXED }
+
+  private final ResponseBody body;
+  private final Converter<ResponseBody, T> converter;
+  private final Framing framing;
+  private @Nullable BufferedSource source;
+  private boolean exhausted;
+
+  private ElementReader(ResponseBody body, Converter<ResponseBody, T> converter,
+      Framing framing) {
+    this.body = body;
+    this.converter = converter;
+    this.framing = framing;
+  }
+
+  /**
+   * Returns the next element, or null once the body is exhausted. This blocks until an element
+   * has arrived.
+   */
+  public @Nullable T read() throws IOException {
+    if (exhausted) return null;
+    switch (framing) {
+      case EVENT_STREAM:
+        String data = readEventData(source());
+        if (data == null) break;
+        return convert(ResponseBody.create(EVENT_ELEMENT, data));
+
+      case NDJSON:
+        String line = readNonBlankLine(source());
+        if (line == null) break;
+        return convert(ResponseBody.create(JSON_ELEMENT, line));
+
+      case LENGTH_PREFIXED:
+        Buffer message = readLengthPrefixed(source());
+        if (message == null) break;
+        return convert(ResponseBody.create(BINARY_ELEMENT, message.size(), message));
+
+      default:
+        exhausted = true;
+        return convert(body);
+    }
+    exhausted = true;
+    body.close();
+    return null;
+  }
+
+  /** Bodies may return a new buffer from each call to source(), which would drop read-ahead. */
+  private BufferedSource source() {
+    BufferedSource source = this.source;
+    if (source == null) {
+      source = this.source = body.source();
+    }
+    return source;
+  }
+
+  private T convert(ResponseBody element) throws IOException {
+    T value = converter.convert(element);
+    if (value == null) {
+      throw new NullPointerException("Converter " + converter + " returned null for an element.");
+    }
+    return value;
+  }
+
+  /** Returns the data of the next event which has any, or null at the end of the stream. */
+  private static @Nullable String readEventData(BufferedSource source) throws IOException {
+    StringBuilder data = null;
+    for (String line; (line = source.readUtf8Line()) != null; ) {
+      if (line.isEmpty()) {
+        // A blank line dispatches the event. Events without data are ignored.
+        if (data != null) return data.toString();
+        continue;
+      }
+      if (line.charAt(0) == ':') continue; // Comment.
+
+      int colon = line.indexOf(':');
+      String field = colon != -1 ? line.substring(0, colon) : line;
+      if (!field.equals("data")) continue;
+
+      String value = "";
+      if (colon != -1) {
+        int start = colon + 1;
+        if (start < line.length() && line.charAt(start) == ' ') start++;
+        value = line.substring(start);
+      }
+      if (data == null) {
+        data = new StringBuilder(value);
+      } else {
+        data.append('\n').append(value);
+      }
+    }
+    return null; // An event which is not followed by a blank line is discarded.
+  }
+
+  private static @Nullable String readNonBlankLine(BufferedSource source) throws IOException {
+    for (String line; (line = source.readUtf8Line()) != null; ) {
+      if (!line.trim().isEmpty()) return line;
+    }
+    return null;
+  }
+
+  /** Returns the next message, or null at the end of the stream. */
+  private static @Nullable Buffer readLengthPrefixed(BufferedSource source) throws IOException {
+    if (source.exhausted()) return null;
+    byte flags = source.readByte();
+    if (flags != 0) {
+      throw new ProtocolException("Unsupported message flags: " + flags);
+    }
+    long length = source.readInt() & 0xffffffffL;
+    if (length > MAX_MESSAGE_SIZE) {
+      throw new ProtocolException(
+          "Message of " + length + " bytes exceeds the maximum of " + MAX_MESSAGE_SIZE);
+    }
+    Buffer message = new Buffer();
+    source.readFully(message, length);
+    return message;
+  }
+
+  /** Close the body, abandoning any unread elements. */
+  @Override public void close() {
+    exhausted = true;
+    body.close();
+  }
+}
@@ -15,6 +15,7 @@
  */
 package retrofit2;
 
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
@@ -22,6 +23,8 @@ import java.lang.reflect.Type;
 import javax.annotation.Nullable;
 
 import okhttp3.ResponseBody;
+import retrofit2.http.Client;
+import retrofit2.http.Segmented;
 
 import static retrofit2.Utils.methodError;
 
@@ -44,7 +47,7 @@ final class HttpServiceMethod<ResponseT, ReturnT> extends ServiceMethod<ReturnT>
 
   HttpServiceMethod(Builder<ResponseT, ReturnT> builder) {
     requestFactory = builder.requestFactory;
-    callFactory = builder.retrofit.callFactory();
+    callFactory = builder.callFactory;
     callAdapter = builder.callAdapter;
     responseConverter = builder.responseConverter;
   }
@@ -64,6 +67,7 @@ final class HttpServiceMethod<ResponseT, ReturnT> extends ServiceMethod<ReturnT>
     final Method method;
 
     RequestFactory requestFactory;
+    okhttp3.Call.Factory callFactory;
     Type responseType;
     Converter<ResponseBody, ResponseT> responseConverter;
     CallAdapter<ResponseT, ReturnT> callAdapter;
@@ -74,7 +78,12 @@ final class HttpServiceMethod<ResponseT, ReturnT> extends ServiceMethod<ReturnT>
     }
 
     HttpServiceMethod<ResponseT, ReturnT> build() {
-      requestFactory = RequestFactory.parseAnnotations(retrofit, method);
+      ParsedMethod parsed = retrofit.parsedMethodCache.get(method);
+      requestFactory = parsed != null
+          ? parsed.requestFactory
+          : RequestFactory.parseAnnotations(retrofit, method);
+
+      callFactory = callFactory(retrofit, method, requestFactory);
 
       // call adapter retrofit에서 가져오고
       callAdapter = createCallAdapter();
@@ -86,16 +95,60 @@ final class HttpServiceMethod<ResponseT, ReturnT> extends ServiceMethod<ReturnT>
       }
       
       // response converter retrofit에서 가져오고
-      responseConverter = createResponseConverter();
+      if (parsed != null && Utils.equals(parsed.responseType, responseType)) {
+        @SuppressWarnings("unchecked") // Converter was created for this exact response type.
+        Converter<ResponseBody, ResponseT> cached =
+            (Converter<ResponseBody, ResponseT>) parsed.responseConverter;
+        responseConverter = cached;
+      } else {
+        responseConverter = createResponseConverter();
+        retrofit.parsedMethodCache.put(method,
+            new ParsedMethod(requestFactory, responseType, responseConverter));
+      }
 
       if (requestFactory.httpMethod.equals("HEAD") && !Void.class.equals(responseType)) {
         throw methodError(method, "HEAD method must use Void as response type.");
       }
 
+      if (requestFactory.chunked != null) {
+        callFactory = new ChunkedUploadCallFactory(callFactory);
+      }
+      Segmented segmented = method.getAnnotation(Segmented.class);
+      if (segmented != null) {
+        callFactory = createSegmentedCallFactory(segmented);
+      }
+      if (requestFactory.hasDestinationParameter && !isFileType(responseType)) {
+        throw methodError(method,
+            "@Destination requires java.io.File or java.nio.file.Path as response type. Found: %s",
+            responseType);
+      }
+      if (requestFactory.hasDestinationParameter
+          && !(responseConverter instanceof BuiltInConverters.DestinationConverter)) {
+        throw methodError(method, "@Destination requires the built-in %s converter. Found: %s",
+            Utils.getRawType(responseType).getSimpleName(), responseConverter.getClass().getName());
+      }
+
       // 생성!
       return new HttpServiceMethod<>(this);
     }
 
+    private okhttp3.Call.Factory createSegmentedCallFactory(Segmented segmented) {
+      if (segmented.value() < 1) {
+        throw methodError(method, "@Segmented value must be at least 1: %s", segmented.value());
+      }
+      if (!requestFactory.httpMethod.equals("GET")) {
+        throw methodError(method, "@Segmented can only be used with GET.");
+      }
+      if (!isFileType(responseType)) {
+        throw methodError(method,
+            "@Segmented methods must return java.io.File or java.nio.file.Path.");
+      }
+      if (!requestFactory.hasDestinationParameter) {
+        throw methodError(method, "@Segmented methods require a @Destination parameter.");
+      }
+      return new SegmentedDownloadCallFactory(callFactory, segmented.value());
+    }
+
     private CallAdapter<ResponseT, ReturnT> createCallAdapter() {
       Type returnType = method.getGenericReturnType();
       Annotation[] annotations = method.getAnnotations();
@@ -116,4 +169,60 @@ final class HttpServiceMethod<ResponseT, ReturnT> extends ServiceMethod<ReturnT>
       }
     }
   }
+
+  static boolean isFileType(Type type) {
+    Class<?> rawType = Utils.getRawType(type);
+    return rawType == File.class || "java.nio.file.Path".equals(rawType.getName());
+  }
+
+  /**
+   * Returns the call factory for requests created by {@code requestFactory}: the
+   * {@linkplain #clientCallFactory client's}, balanced across base URLs and scheduled.
+   */
+  static okhttp3.Call.Factory callFactory(Retrofit retrofit, Method method,
+      RequestFactory requestFactory) {
+    okhttp3.Call.Factory callFactory = clientCallFactory(retrofit, method);
+    // An explicit @BaseUrl or @Url argument always wins over balancing. Balancing beneath the
+    // scheduler selects each endpoint when the call is released, not when it is queued.
+    LoadBalancer loadBalancer = retrofit.loadBalancer;
+    if (loadBalancer != null
+        && !requestFactory.hasBaseUrlParameter
+        && !requestFactory.hasUrlParameter) {
+      callFactory = loadBalancer.wrap(callFactory);
+    }
+    CallScheduler callScheduler = retrofit.callScheduler();
+    return callScheduler != null ? callScheduler.wrap(callFactory) : callFactory;
+  }
+
+  /** Returns the call factory selected by {@code method}'s {@link Client @Client}, if any. */
+  static okhttp3.Call.Factory clientCallFactory(Retrofit retrofit, Method method) {
+    Client client = method.getAnnotation(Client.class);
+    if (client == null) {
+      return retrofit.callFactory();
+    }
+    okhttp3.Call.Factory callFactory = retrofit.callFactory(client.value());
+    if (callFactory == null) {
+      throw methodError(method, "No call factory registered for @Client(\"%s\").",
+          client.value());
+    }
+    return callFactory;
+  }
+
+  /**
+   * The parts of a service method which do not depend on the call factory or the call adapter.
+   * These can be shared between {@link Retrofit} instances which have the same base URL and
+   * converters.
+   */
+  static final class ParsedMethod {
+    final RequestFactory requestFactory;
+    final Type responseType;
+    final Converter<ResponseBody, ?> responseConverter;
+
+    ParsedMethod(RequestFactory requestFactory, Type responseType,
+        Converter<ResponseBody, ?> responseConverter) {
+      this.requestFactory = requestFactory;
+      this.responseType = responseType;
+      this.responseConverter = responseConverter;
+    }
+  }
 }
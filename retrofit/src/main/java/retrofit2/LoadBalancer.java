@@ -0,0 +1,421 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+import static retrofit2.Utils.checkNotNull;
+
+/**
+ * Picks one of several equivalent base URLs for each call using power-of-two-choices: two random
+ * endpoints are compared and the one with the lower expected cost wins. The cost of an endpoint
+ * is its number of in-flight calls weighted by its moving average latency.
+ * <p>
+ * Endpoints whose calls fail with an {@link java.io.IOException} several times in a row are
+ * ejected for a while and then tried again. Selection never takes a lock.
+ * <p>
+ * An endpoint is selected when a call is executed or enqueued on the {@linkplain #wrap wrapped}
+ * call factory, not when the request is created. Calls held back by a {@link CallScheduler} are
+ * therefore balanced, and timed, from when they are released rather than from when they were
+ * queued.
+ * <p>
+ * Web sockets are {@linkplain #wrapWebSockets balanced} when they are opened. Only the handshake
+ * is timed: an open socket no longer counts as in flight.
+ */
+final class LoadBalancer {
+  static final int EJECTION_THRESHOLD = 3; // Consecutive failures before an endpoint is ejected.
+  static final long EJECTION_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+    @Override protected Random initialValue() {
+      return new Random();
+    }
+  };
+
+  final Endpoint[] endpoints;
+
+  LoadBalancer(List<HttpUrl> baseUrls) {
+    endpoints = new Endpoint[baseUrls.size()];
+    for (int i = 0; i < endpoints.length; i++) {
+      endpoints[i] = new Endpoint(baseUrls.get(i));
+    }
+  }
+
+  /**
+   * Returns a call factory whose calls are sent to the endpoint selected when they are executed or
+   * enqueued. Requests must be built against the first base URL.
+   */
+  okhttp3.Call.Factory wrap(final okhttp3.Call.Factory delegate) {
+    return new okhttp3.Call.Factory() {
+      @Override public okhttp3.Call newCall(Request request) {
+        return new BalancedCall(delegate, request);
+      }
+    };
+  }
+
+  /**
+   * Returns a web socket factory whose sockets connect to the endpoint selected when they are
+   * created. Requests must be built against the first base URL.
+   */
+  okhttp3.WebSocket.Factory wrapWebSockets(final okhttp3.WebSocket.Factory delegate) {
+    return new okhttp3.WebSocket.Factory() {
+      @Override public okhttp3.WebSocket newWebSocket(Request request,
+          WebSocketListener listener) {
+        BalancedWebSocket webSocket = new BalancedWebSocket(select(), listener);
+        webSocket.connect(delegate, request);
+        return webSocket;
+      }
+    };
+  }
+
+  Endpoint select() {
+    return select(System.nanoTime());
+  }
+
+  Endpoint select(long nowNanos) {
+    Endpoint[] endpoints = this.endpoints;
+    int count = endpoints.length;
+    if (count == 1) return endpoints[0];
+
+    Random random = RANDOM.get();
+    int i = random.nextInt(count);
+    int j = random.nextInt(count - 1);
+    if (j >= i) j++; // Two distinct endpoints.
+    Endpoint a = endpoints[i];
+    Endpoint b = endpoints[j];
+
+    boolean aAvailable = a.isAvailable(nowNanos);
+    boolean bAvailable = b.isAvailable(nowNanos);
+    if (aAvailable && bAvailable) {
+      return a.cost() <= b.cost() ? a : b;
+    }
+    if (aAvailable) return a;
+    if (bAvailable) return b;
+
+    // Both choices are ejected. Fall back to any available endpoint, or to the one which will be
+    // retried soonest when every endpoint is ejected.
+    Endpoint soonest = a;
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.isAvailable(nowNanos)) return endpoint;
+      if (endpoint.ejectedUntilNanos - soonest.ejectedUntilNanos < 0) soonest = endpoint;
+    }
+    return soonest;
+  }
+
+  static final class Endpoint {
+    final HttpUrl baseUrl;
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Updates race benignly: a lost sample only delays convergence of the average.
+    volatile long ewmaNanos; // Zero until the first successful call.
+    volatile boolean ejected;
+    volatile long ejectedUntilNanos;
+
+    Endpoint(HttpUrl baseUrl) {
+      this.baseUrl = baseUrl;
+    }
+
+    boolean isAvailable(long nowNanos) {
+      return !ejected || nowNanos - ejectedUntilNanos >= 0;
+    }
+
+    long cost() {
+      // Endpoints without a latency sample yet look cheap so that they get probed.
+      return (inFlight.get() + 1) * Math.max(ewmaNanos, 1L);
+    }
+
+    /** Returns the start time to pass to {@link #callSucceeded}. */
+    long callStarted() {
+      inFlight.incrementAndGet();
+      return System.nanoTime();
+    }
+
+    void callSucceeded(long startNanos) {
+      callSucceeded(startNanos, System.nanoTime());
+    }
+
+    void callSucceeded(long startNanos, long nowNanos) {
+      inFlight.decrementAndGet();
+      consecutiveFailures.set(0);
+      ejected = false;
+
+      long sample = nowNanos - startNanos;
+      long ewma = ewmaNanos;
+      ewmaNanos = ewma == 0 ? sample : ewma + (sample - ewma) / 4;
+    }
+
+    /**
+     * @param unhealthy false if the call failed for reasons unrelated to this endpoint, such as
+     * being canceled.
+     */
+    void callFailed(boolean unhealthy) {
+      callFailed(unhealthy, System.nanoTime());
+    }
+
+    void callFailed(boolean unhealthy, long nowNanos) {
+      inFlight.decrementAndGet();
+      if (unhealthy && consecutiveFailures.incrementAndGet() >= EJECTION_THRESHOLD) {
+        ejectedUntilNanos = nowNanos + EJECTION_NANOS;
+        ejected = true;
+      }
+    }
+  }
+
+  final class BalancedCall implements okhttp3.Call {
+    private final okhttp3.Call.Factory delegateFactory;
+    private final Request request;
+
+    private volatile boolean canceled;
+
+    @GuardedBy("this")
+    private boolean executed;
+    @GuardedBy("this")
+    private @Nullable okhttp3.Call delegate;
+
+    BalancedCall(okhttp3.Call.Factory delegateFactory, Request request) {
+      this.delegateFactory = delegateFactory;
+      this.request = request;
+    }
+
+    /** The request as sent once an endpoint is selected, or as built until then. */
+    @Override public synchronized Request request() {
+      return delegate != null ? delegate.request() : request;
+    }
+
+    @Override public okhttp3.Response execute() throws IOException {
+      Endpoint endpoint = select();
+      okhttp3.Call call = newDelegate(endpoint);
+
+      long startNanos = endpoint.callStarted();
+      okhttp3.Response response;
+      try {
+        response = call.execute();
+      } catch (IOException | RuntimeException | Error e) {
+        endpoint.callFailed(e instanceof IOException && !call.isCanceled());
+        throw e;
+      }
+      endpoint.callSucceeded(startNanos);
+      return response;
+    }
+
+    @Override public void enqueue(final okhttp3.Callback responseCallback) {
+      checkNotNull(responseCallback, "responseCallback == null");
+      final Endpoint endpoint = select();
+      okhttp3.Call call = newDelegate(endpoint);
+
+      final long startNanos = endpoint.callStarted();
+      call.enqueue(new okhttp3.Callback() {
+        @Override public void onResponse(okhttp3.Call call, okhttp3.Response response)
+            throws IOException {
+          endpoint.callSucceeded(startNanos);
+          responseCallback.onResponse(BalancedCall.this, response);
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          endpoint.callFailed(!call.isCanceled());
+          responseCallback.onFailure(BalancedCall.this, e);
+        }
+      });
+    }
+
+    private okhttp3.Call newDelegate(Endpoint endpoint) {
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      okhttp3.Call call = delegateFactory.newCall(rebase(request, endpoint.baseUrl));
+      if (call == null) {
+        throw new NullPointerException("Call.Factory returned null.");
+      }
+      synchronized (this) {
+        delegate = call;
+      }
+      if (canceled) {
+        call.cancel();
+      }
+      return call;
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+      okhttp3.Call call;
+      synchronized (this) {
+        call = delegate;
+      }
+      if (call != null) {
+        call.cancel();
+      }
+    }
+
+    @Override public synchronized boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      if (canceled) {
+        return true;
+      }
+      synchronized (this) {
+        return delegate != null && delegate.isCanceled();
+      }
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new BalancedCall(delegateFactory, request);
+    }
+  }
+
+  /**
+   * Forwards to the socket connected to its endpoint, and reports the handshake's outcome to that
+   * endpoint. Events are forwarded with this socket so that listeners only ever see one instance.
+   */
+  static final class BalancedWebSocket extends WebSocketListener implements okhttp3.WebSocket {
+    private final Endpoint endpoint;
+    private final WebSocketListener listener;
+    private final AtomicBoolean handshakeDone = new AtomicBoolean();
+    private volatile boolean canceled;
+    private long startNanos;
+    private @Nullable okhttp3.WebSocket delegate;
+
+    BalancedWebSocket(Endpoint endpoint, WebSocketListener listener) {
+      this.endpoint = endpoint;
+      this.listener = listener;
+    }
+
+    void connect(okhttp3.WebSocket.Factory factory, Request request) {
+      startNanos = endpoint.callStarted();
+      okhttp3.WebSocket webSocket;
+      try {
+        webSocket = factory.newWebSocket(rebase(request, endpoint.baseUrl), this);
+      } catch (RuntimeException | Error e) {
+        if (handshakeDone.compareAndSet(false, true)) {
+          endpoint.callFailed(false);
+        }
+        throw e;
+      }
+      if (webSocket == null) {
+        throw new NullPointerException("WebSocket.Factory returned null.");
+      }
+      setDelegate(webSocket);
+    }
+
+    private synchronized void setDelegate(okhttp3.WebSocket webSocket) {
+      // Listeners may be called before newWebSocket returns.
+      if (delegate == null) {
+        delegate = webSocket;
+      }
+    }
+
+    private synchronized okhttp3.WebSocket delegate() {
+      // Set by connect or by an event, either of which precedes any use of this socket.
+      //noinspection ConstantConditions
+      return delegate;
+    }
+
+    @Override public Request request() {
+      return delegate().request();
+    }
+
+    @Override public long queueSize() {
+      return delegate().queueSize();
+    }
+
+    @Override public boolean send(String text) {
+      return delegate().send(text);
+    }
+
+    @Override public boolean send(ByteString bytes) {
+      return delegate().send(bytes);
+    }
+
+    @Override public boolean close(int code, @Nullable String reason) {
+      return delegate().close(code, reason);
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+      delegate().cancel();
+    }
+
+    @Override public void onOpen(okhttp3.WebSocket webSocket, okhttp3.Response response) {
+      setDelegate(webSocket);
+      if (handshakeDone.compareAndSet(false, true)) {
+        endpoint.callSucceeded(startNanos);
+      }
+      listener.onOpen(this, response);
+    }
+
+    @Override public void onMessage(okhttp3.WebSocket webSocket, String text) {
+      setDelegate(webSocket);
+      listener.onMessage(this, text);
+    }
+
+    @Override public void onMessage(okhttp3.WebSocket webSocket, ByteString bytes) {
+      setDelegate(webSocket);
+      listener.onMessage(this, bytes);
+    }
+
+    @Override public void onClosing(okhttp3.WebSocket webSocket, int code, String reason) {
+      setDelegate(webSocket);
+      listener.onClosing(this, code, reason);
+    }
+
+    @Override public void onClosed(okhttp3.WebSocket webSocket, int code, String reason) {
+      setDelegate(webSocket);
+      listener.onClosed(this, code, reason);
+    }
+
+    @Override public void onFailure(okhttp3.WebSocket webSocket, Throwable t,
+        @Nullable okhttp3.Response response) {
+      setDelegate(webSocket);
+      if (handshakeDone.compareAndSet(false, true)) {
+        endpoint.callFailed(t instanceof IOException && !canceled);
+      }
+      listener.onFailure(this, t, response);
+    }
+  }
+
+  /** Base URLs share their path, so only the scheme, host, and port need to be swapped. */
+  static Request rebase(Request request, HttpUrl baseUrl) {
+    HttpUrl url = request.url();
+    if (url.scheme().equals(baseUrl.scheme())
+        && url.host().equals(baseUrl.host())
+        && url.port() == baseUrl.port()) {
+      return request;
+    }
+    return request.newBuilder()
+        .url(url.newBuilder()
+            .scheme(baseUrl.scheme())
+            .host(baseUrl.host())
+            .port(baseUrl.port())
+            .build())
+        .build();
+  }
+}
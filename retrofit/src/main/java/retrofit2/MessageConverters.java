@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.http.Chunked;
+import retrofit2.http.Compress;
+import retrofit2.http.Destination;
+import retrofit2.http.Segmented;
+
+import static retrofit2.Utils.methodError;
+
+/**
+ * The converters of a method which exchanges messages rather than making a single call, like one
+ * returning {@link StreamingCall} or {@link WebSocketChannel}.
+ */
+final class MessageConverters<S, R> {
+  private static final List<Class<? extends Annotation>> UNSUPPORTED_METHOD_ANNOTATIONS =
+      Arrays.asList(Chunked.class, Compress.class, Segmented.class);
+
+  /**
+   * Returns the converters for the send and receive type arguments of {@code returnType}.
+   * Annotations which only apply to a single call's request or response body are rejected.
+   */
+  static MessageConverters<Object, Object> create(Retrofit retrofit, Method method,
+      ParameterizedType returnType) {
+    String returnTypeName = Utils.getRawType(returnType).getSimpleName();
+    for (Class<? extends Annotation> unsupported : UNSUPPORTED_METHOD_ANNOTATIONS) {
+      if (method.isAnnotationPresent(unsupported)) {
+        throw methodError(method, "%s methods cannot use @%s.", returnTypeName,
+            unsupported.getSimpleName());
+      }
+    }
+    for (Annotation[] parameterAnnotations : method.getParameterAnnotations()) {
+      for (Annotation annotation : parameterAnnotations) {
+        if (annotation instanceof Compress || annotation instanceof Destination) {
+          throw methodError(method, "%s methods cannot use @%s.", returnTypeName,
+              annotation.annotationType().getSimpleName());
+        }
+      }
+    }
+
+    Type sendType = Utils.getParameterUpperBound(0, returnType);
+    Type receiveType = Utils.getParameterUpperBound(1, returnType);
+    Annotation[] annotations = method.getAnnotations();
+    Converter<Object, RequestBody> sendConverter;
+    try {
+      sendConverter = retrofit.requestBodyConverter(sendType, new Annotation[0], annotations);
+    } catch (RuntimeException e) { // Wide exception range because factories are user code.
+      throw methodError(method, e, "Unable to create converter for %s", sendType);
+    }
+    Converter<ResponseBody, Object> receiveConverter;
+    try {
+      receiveConverter = retrofit.responseBodyConverter(receiveType, annotations);
+    } catch (RuntimeException e) { // Wide exception range because factories are user code.
+      throw methodError(method, e, "Unable to create converter for %s", receiveType);
+    }
+    return new MessageConverters<>(sendConverter, receiveConverter);
+  }
+
+  final Converter<S, RequestBody> send;
+  final Converter<ResponseBody, R> receive;
+
+  private MessageConverters(Converter<S, RequestBody> send, Converter<ResponseBody, R> receive) {
+    this.send = send;
+    this.receive = receive;
+  }
+}
@@ -200,6 +200,18 @@ final class OkHttpCall<T> implements Call<T> {
 
   Response<T> parseResponse(okhttp3.Response rawResponse) throws IOException {
     ResponseBody rawBody = rawResponse.body();
+    boolean downloaded = SegmentedDownloadCallFactory.isDownloaded(rawBody);
+
+    // Decode encodings which the client does not handle, as it does the gzip it requests itself.
+    ResponseBody decodedBody = ContentCodecs.decode(requestFactory.contentCodecs, rawBody,
+        rawResponse.header("Content-Encoding"));
+    if (decodedBody != null) {
+      rawBody = decodedBody;
+      rawResponse = rawResponse.newBuilder()
+          .removeHeader("Content-Encoding")
+          .removeHeader("Content-Length")
+          .build();
+    }
 
     // Remove the body's source (the only stateful object) so we can pass the response along.
     rawResponse = rawResponse.newBuilder()
@@ -224,7 +236,9 @@ final class OkHttpCall<T> implements Call<T> {
 
     ExceptionCatchingResponseBody catchingBody = new ExceptionCatchingResponseBody(rawBody);
     try {
-      T body = responseConverter.convert(catchingBody);
+      T body = requestFactory.hasDestinationParameter
+          ? convertToDestination(catchingBody, downloaded)
+          : responseConverter.convert(catchingBody);
       return Response.success(body, rawResponse);
     } catch (RuntimeException e) {
       // If the underlying source threw an exception, propagate that rather than indicating it was
@@ -234,6 +248,18 @@ final class OkHttpCall<T> implements Call<T> {
     }
   }
 
+  /**
+   * Saves {@code body} to this call's {@link retrofit2.http.Destination @Destination} argument.
+   * The destination comes from the arguments rather than the request so that interceptors and call
+   * factories which rebuild requests cannot lose it.
+   */
+  private T convertToDestination(ResponseBody body, boolean downloaded) throws IOException {
+    // Checked when the service method was parsed.
+    BuiltInConverters.DestinationConverter<T> converter =
+        (BuiltInConverters.DestinationConverter<T>) responseConverter;
+    return converter.convert(body, requestFactory.destination(args), downloaded);
+  }
+
   public void cancel() {
     canceled = true;
 
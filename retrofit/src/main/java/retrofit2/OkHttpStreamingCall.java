@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ProtocolException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+import static retrofit2.Utils.checkNotNull;
+import static retrofit2.Utils.throwIfFatal;
+
+/** A {@link StreamingCall} whose request body is written by an OkHttp call as messages arrive. */
+final class OkHttpStreamingCall<S, R> implements StreamingCall<S, R> {
+  /** Senders block once this many bytes of messages are waiting to be written. */
+  private static final long MAX_PENDING_BYTES = 64 * 1024;
+
+  private final RequestFactory requestFactory;
+  private final @Nullable Object[] args;
+  private final okhttp3.Call.Factory callFactory;
+  private final Converter<S, RequestBody> sendConverter;
+  private final Converter<ResponseBody, R> receiveConverter;
+  private final @Nullable Executor callbackExecutor;
+
+  private volatile boolean canceled;
+
+  @GuardedBy("this")
+  private @Nullable Request request;
+  @GuardedBy("this")
+  private @Nullable okhttp3.Call rawCall;
+  @GuardedBy("this")
+  private boolean started;
+  @GuardedBy("this") // Framed messages waiting to be written.
+  private final ArrayDeque<Buffer> pending = new ArrayDeque<>();
+  @GuardedBy("this")
+  private long pendingBytes;
+  @GuardedBy("this")
+  private boolean halfClosed;
+  @GuardedBy("this") // Set once the call fails so that senders stop waiting to be written.
+  private @Nullable Throwable failure;
+
+  OkHttpStreamingCall(RequestFactory requestFactory, @Nullable Object[] args,
+      okhttp3.Call.Factory callFactory, Converter<S, RequestBody> sendConverter,
+      Converter<ResponseBody, R> receiveConverter, @Nullable Executor callbackExecutor) {
+    this.requestFactory = requestFactory;
+    this.args = args;
+    this.callFactory = callFactory;
+    this.sendConverter = sendConverter;
+    this.receiveConverter = receiveConverter;
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type & this saves clearing state.
+  @Override public OkHttpStreamingCall<S, R> clone() {
+    return new OkHttpStreamingCall<>(requestFactory, args, callFactory, sendConverter,
+        receiveConverter, callbackExecutor);
+  }
+
+  @Override public synchronized Request request() {
+    Request request = this.request;
+    if (request == null) {
+      try {
+        request = this.request = requestFactory.create(args);
+      } catch (IOException e) {
+        throw new RuntimeException("Unable to create request.", e);
+      }
+    }
+    return request;
+  }
+
+  @Override public void start(final Listener<S, R> listener) {
+    checkNotNull(listener, "listener == null");
+    synchronized (this) {
+      if (started) throw new IllegalStateException("Already started.");
+      started = true;
+    }
+
+    okhttp3.Call call;
+    try {
+      Request request = request();
+      call = callFactory.newCall(
+          request.newBuilder().method(request.method(), new MessagesRequestBody()).build());
+    } catch (final Throwable t) {
+      throwIfFatal(t);
+      fail(listener, t);
+      return;
+    }
+    synchronized (this) {
+      rawCall = call;
+    }
+    if (canceled) {
+      call.cancel();
+    }
+
+    call.enqueue(new okhttp3.Callback() {
+      @Override public void onResponse(okhttp3.Call call, okhttp3.Response rawResponse) {
+        try {
+          receive(listener, rawResponse);
+        } catch (Throwable t) {
+          throwIfFatal(t);
+          fail(listener, t);
+        }
+      }
+
+      @Override public void onFailure(okhttp3.Call call, IOException e) {
+        fail(listener, e);
+      }
+    });
+  }
+
+  private void receive(final Listener<S, R> listener, okhttp3.Response rawResponse)
+      throws IOException {
+    ResponseBody rawBody = rawResponse.body();
+    if (!rawResponse.isSuccessful()) {
+      try {
+        ResponseBody errorBody = Utils.buffer(rawBody);
+        fail(listener, new HttpException(Response.error(errorBody, rawResponse)));
+        return;
+      } finally {
+        rawBody.close();
+      }
+    }
+
+    try (ElementReader<R> reader = ElementReader.create(rawBody, receiveConverter)) {
+      for (R message; (message = reader.read()) != null; ) {
+        final R delivered = message;
+        deliver(new Runnable() {
+          @Override public void run() {
+            listener.onMessage(OkHttpStreamingCall.this, delivered);
+          }
+        });
+      }
+    }
+    deliver(new Runnable() {
+      @Override public void run() {
+        listener.onComplete(OkHttpStreamingCall.this);
+      }
+    });
+  }
+
+  private void fail(final Listener<S, R> listener, final Throwable t) {
+    failed(t);
+    deliver(new Runnable() {
+      @Override public void run() {
+        listener.onFailure(OkHttpStreamingCall.this, t);
+      }
+    });
+  }
+
+  private void deliver(Runnable event) {
+    if (callbackExecutor != null) {
+      callbackExecutor.execute(event);
+    } else {
+      event.run();
+    }
+  }
+
+  @Override public void send(S message) throws IOException {
+    RequestBody body = sendConverter.convert(message);
+    Buffer encoded = new Buffer();
+    body.writeTo(encoded);
+    if (encoded.size() > ElementReader.MAX_MESSAGE_SIZE) {
+      throw new ProtocolException("Message of " + encoded.size()
+          + " bytes exceeds the maximum of " + ElementReader.MAX_MESSAGE_SIZE);
+    }
+    Buffer frame = new Buffer();
+    frame.writeByte(0);
+    frame.writeInt((int) encoded.size());
+    frame.writeAll(encoded);
+
+    synchronized (this) {
+      if (!started) throw new IllegalStateException("Not started.");
+      if (halfClosed) throw new IllegalStateException("Already half-closed.");
+      try {
+        while (pendingBytes >= MAX_PENDING_BYTES && !canceled && failure == null) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+      if (canceled) throw new IOException("Canceled");
+      if (failure != null) throw new IOException("Call failed", failure);
+      pending.add(frame);
+      pendingBytes += frame.size();
+      notifyAll();
+    }
+  }
+
+  @Override public synchronized void halfClose() {
+    halfClosed = true;
+    notifyAll();
+  }
+
+  @Override public void cancel() {
+    canceled = true;
+    okhttp3.Call call;
+    synchronized (this) {
+      call = rawCall;
+      notifyAll();
+    }
+    if (call != null) {
+      call.cancel();
+    }
+  }
+
+  @Override public synchronized boolean isStarted() {
+    return started;
+  }
+
+  @Override public boolean isCanceled() {
+    return canceled;
+  }
+
+  /** Takes the next message to write, or returns null once half-closed and drained. */
+  synchronized @Nullable Buffer takeMessage() throws IOException {
+    try {
+      while (pending.isEmpty() && !halfClosed && !canceled) {
+        wait();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+    if (canceled) throw new IOException("Canceled");
+    Buffer frame = pending.poll();
+    if (frame != null) {
+      pendingBytes -= frame.size();
+      notifyAll();
+    }
+    return frame;
+  }
+
+  synchronized void failed(Throwable t) {
+    if (failure == null) failure = t;
+    notifyAll();
+  }
+
+  /** Writes each sent message as it arrives, flushing so that it is not held back. */
+  final class MessagesRequestBody extends RequestBody {
+    private boolean written;
+
+    @Override public MediaType contentType() {
+      return ElementReader.LENGTH_PREFIXED;
+    }
+
+    @Override public void writeTo(BufferedSink sink) throws IOException {
+      // Messages are consumed as they are written, so there is nothing to write again if OkHttp
+      // retries the request.
+      if (written) throw new ProtocolException("Streaming request bodies cannot be retried.");
+      written = true;
+      try {
+        for (Buffer frame; (frame = takeMessage()) != null; ) {
+          sink.write(frame, frame.size());
+          sink.flush();
+        }
+      } catch (IOException e) {
+        failed(e);
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ByteString;
+
+import static retrofit2.Utils.checkNotNull;
+import static retrofit2.Utils.throwIfFatal;
+
+/** A {@link WebSocketChannel} backed by an OkHttp {@link okhttp3.WebSocket}. */
+final class OkHttpWebSocketChannel<S, R> implements WebSocketChannel<S, R> {
+  private static final MediaType TEXT = MediaType.get("text/plain; charset=utf-8");
+  private static final MediaType BINARY = MediaType.get("application/octet-stream");
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final RequestFactory requestFactory;
+  private final @Nullable Object[] args;
+  private final okhttp3.WebSocket.Factory socketFactory;
+  private final Converter<S, RequestBody> sendConverter;
+  private final Converter<ResponseBody, R> receiveConverter;
+  private final @Nullable Executor callbackExecutor;
+
+  private volatile boolean canceled;
+  /** Set once a failure has been delivered, after which OkHttp's events are dropped. */
+  private volatile boolean failed;
+
+  @GuardedBy("this")
+  private @Nullable Request request;
+  @GuardedBy("this")
+  private @Nullable okhttp3.WebSocket webSocket;
+  @GuardedBy("this")
+  private boolean opened;
+
+  OkHttpWebSocketChannel(RequestFactory requestFactory, @Nullable Object[] args,
+      okhttp3.WebSocket.Factory socketFactory, Converter<S, RequestBody> sendConverter,
+      Converter<ResponseBody, R> receiveConverter, @Nullable Executor callbackExecutor) {
+    this.requestFactory = requestFactory;
+    this.args = args;
+    this.socketFactory = socketFactory;
+    this.sendConverter = sendConverter;
+    this.receiveConverter = receiveConverter;
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type & this saves clearing state.
+  @Override public OkHttpWebSocketChannel<S, R> clone() {
+    return new OkHttpWebSocketChannel<>(requestFactory, args, socketFactory, sendConverter,
+        receiveConverter, callbackExecutor);
+  }
+
+  @Override public synchronized Request request() {
+    Request request = this.request;
+    if (request == null) {
+      try {
+        request = this.request = requestFactory.create(args);
+      } catch (IOException e) {
+        throw new RuntimeException("Unable to create request.", e);
+      }
+    }
+    return request;
+  }
+
+  @Override public void open(final Listener<S, R> listener) {
+    checkNotNull(listener, "listener == null");
+    synchronized (this) {
+      if (opened) throw new IllegalStateException("Already opened.");
+      opened = true;
+    }
+
+    Request request;
+    try {
+      request = request();
+    } catch (final Throwable t) {
+      throwIfFatal(t);
+      deliver(new Runnable() {
+        @Override public void run() {
+          listener.onFailure(OkHttpWebSocketChannel.this, t, null);
+        }
+      });
+      return;
+    }
+
+    okhttp3.WebSocket webSocket = socketFactory.newWebSocket(request, new Bridge(listener));
+    setWebSocket(webSocket);
+    if (canceled) {
+      webSocket.cancel();
+    }
+  }
+
+  private synchronized void setWebSocket(okhttp3.WebSocket webSocket) {
+    // The bridge may see the socket open before newWebSocket returns it.
+    if (this.webSocket == null) {
+      this.webSocket = webSocket;
+    }
+  }
+
+  private synchronized @Nullable okhttp3.WebSocket webSocket() {
+    return webSocket;
+  }
+
+  @Override public boolean send(S message) throws IOException {
+    okhttp3.WebSocket webSocket = webSocket();
+    if (webSocket == null || failed) return false;
+
+    RequestBody body = sendConverter.convert(message);
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    MediaType contentType = body.contentType();
+    if (isText(contentType)) {
+      //noinspection ConstantConditions Text types are non-null.
+      return webSocket.send(buffer.readString(contentType.charset(UTF_8)));
+    }
+    return webSocket.send(buffer.readByteString());
+  }
+
+  private static boolean isText(@Nullable MediaType contentType) {
+    return contentType != null
+        && ("text".equals(contentType.type()) || contentType.charset() != null);
+  }
+
+  @Override public boolean close(int code, @Nullable String reason) {
+    okhttp3.WebSocket webSocket = webSocket();
+    return webSocket != null && !failed && webSocket.close(code, reason);
+  }
+
+  @Override public void cancel() {
+    canceled = true;
+    okhttp3.WebSocket webSocket = webSocket();
+    if (webSocket != null) {
+      webSocket.cancel();
+    }
+  }
+
+  @Override public synchronized boolean isOpened() {
+    return opened;
+  }
+
+  @Override public boolean isCanceled() {
+    return canceled;
+  }
+
+  private void deliver(Runnable event) {
+    if (callbackExecutor != null) {
+      callbackExecutor.execute(event);
+    } else {
+      event.run();
+    }
+  }
+
+  /** Converts received frames and forwards OkHttp's events to the channel's listener. */
+  final class Bridge extends okhttp3.WebSocketListener {
+    private final Listener<S, R> listener;
+
+    Bridge(Listener<S, R> listener) {
+      this.listener = listener;
+    }
+
+    @Override public void onOpen(okhttp3.WebSocket webSocket, final okhttp3.Response response) {
+      setWebSocket(webSocket);
+      deliver(new Runnable() {
+        @Override public void run() {
+          listener.onOpen(OkHttpWebSocketChannel.this, response);
+        }
+      });
+    }
+
+    @Override public void onMessage(okhttp3.WebSocket webSocket, String text) {
+      receive(webSocket, ResponseBody.create(TEXT, text));
+    }
+
+    @Override public void onMessage(okhttp3.WebSocket webSocket, ByteString bytes) {
+      receive(webSocket, ResponseBody.create(BINARY, bytes));
+    }
+
+    private void receive(okhttp3.WebSocket webSocket, ResponseBody body) {
+      if (failed) return;
+      final R message;
+      try {
+        message = receiveConverter.convert(body);
+      } catch (Throwable t) {
+        throwIfFatal(t);
+        webSocket.cancel();
+        fail(t, null);
+        return;
+      }
+      deliver(new Runnable() {
+        @Override public void run() {
+          listener.onMessage(OkHttpWebSocketChannel.this, message);
+        }
+      });
+    }
+
+    @Override public void onClosing(okhttp3.WebSocket webSocket, final int code,
+        final String reason) {
+      if (failed) return;
+      deliver(new Runnable() {
+        @Override public void run() {
+          listener.onClosing(OkHttpWebSocketChannel.this, code, reason);
+        }
+      });
+    }
+
+    @Override public void onClosed(okhttp3.WebSocket webSocket, final int code,
+        final String reason) {
+      if (failed) return;
+      deliver(new Runnable() {
+        @Override public void run() {
+          listener.onClosed(OkHttpWebSocketChannel.this, code, reason);
+        }
+      });
+    }
+
+    @Override public void onFailure(okhttp3.WebSocket webSocket, Throwable t,
+        @Nullable okhttp3.Response response) {
+      fail(t, response);
+    }
+
+    private synchronized void fail(final Throwable t, final @Nullable okhttp3.Response response) {
+      if (failed) return;
+      failed = true;
+      deliver(new Runnable() {
+        @Override public void run() {
+          listener.onFailure(OkHttpWebSocketChannel.this, t, response);
+        }
+      });
+    }
+  }
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 import javax.annotation.Nullable;
 
 import okhttp3.Headers;
+import okhttp3.HttpUrl;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
 
@@ -80,6 +81,41 @@ abstract class ParameterHandler<T> {
     }
   }
   
+  /**
+   * RequestBuilder의 scheme, host, port 재지정
+   * @see retrofit2.http.BaseUrl
+   */
+  static final class BaseUrl extends ParameterHandler<Object> {
+    @Override void apply(RequestBuilder builder, @Nullable Object value) {
+      checkNotNull(value, "@BaseUrl parameter is null.");
+      builder.setBaseUrlOverride(value instanceof HttpUrl
+          ? (HttpUrl) value
+          : HttpUrl.get(value.toString()));
+    }
+  }
+
+  /**
+   * @see retrofit2.http.Priority
+   */
+  static final class Priority extends ParameterHandler<Integer> {
+    @Override void apply(RequestBuilder builder, @Nullable Integer value) {
+      if (value == null) return; // Keep the priority of the method.
+
+      builder.setPriority(new CallScheduler.PriorityTag(value));
+    }
+  }
+
+  /**
+   * @see retrofit2.http.Destination
+   */
+  static final class Destination extends ParameterHandler<Object> {
+    @Override void apply(RequestBuilder builder, @Nullable Object value) {
+      if (value == null) return; // Save to a temporary file.
+
+      builder.setDestination(new BuiltInConverters.DestinationTag(value));
+    }
+  }
+
   /**
    * @see retrofit2.http.Header
    */
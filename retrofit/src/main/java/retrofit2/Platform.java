@@ -24,6 +24,9 @@ import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import javax.annotation.Nullable;
@@ -69,11 +72,16 @@ class Platform {
   }
   
   // Platform에 따라서 달라질 수 있는, callback이 실행되어야 할 default call adapter를 정의함
-  CallAdapter.Factory defaultCallAdapterFactory(@Nullable Executor callbackExecutor) {
+  List<? extends CallAdapter.Factory> defaultCallAdapterFactories(
+      @Nullable Executor callbackExecutor) {
     if (callbackExecutor != null) {
-      return new ExecutorCallAdapterFactory(callbackExecutor);
+      return Collections.singletonList(new ExecutorCallAdapterFactory(callbackExecutor));
     }
-    return DefaultCallAdapterFactory.INSTANCE;
+    return Collections.singletonList(DefaultCallAdapterFactory.INSTANCE);
+  }
+
+  int defaultCallAdapterFactoriesSize() {
+    return 1;
   }
 
   // Default 메소드 지원하는지 체크
@@ -89,6 +97,17 @@ class Platform {
 
   @IgnoreJRERequirement // Only classloaded and used on Java 8.
   static class Java8 extends Platform {
+    @Override List<? extends CallAdapter.Factory> defaultCallAdapterFactories(
+        @Nullable Executor callbackExecutor) {
+      return Arrays.asList(
+          new CompletableFutureCallAdapterFactory(callbackExecutor),
+          super.defaultCallAdapterFactories(callbackExecutor).get(0));
+    }
+
+    @Override int defaultCallAdapterFactoriesSize() {
+      return 2;
+    }
+
     @Override boolean isDefaultMethod(Method method) {
       return method.isDefault();
     }
@@ -119,9 +138,10 @@ class Platform {
       return new MainThreadExecutor();
     }
 
-    @Override CallAdapter.Factory defaultCallAdapterFactory(@Nullable Executor callbackExecutor) {
+    @Override List<? extends CallAdapter.Factory> defaultCallAdapterFactories(
+        @Nullable Executor callbackExecutor) {
       if (callbackExecutor == null) throw new AssertionError();
-      return new ExecutorCallAdapterFactory(callbackExecutor);
+      return Collections.singletonList(new ExecutorCallAdapterFactory(callbackExecutor));
     }
 
     // 동작을 메인 쓰레드에서 수행하는 Executor.
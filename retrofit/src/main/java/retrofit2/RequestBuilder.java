@@ -39,6 +39,7 @@ final class RequestBuilder {
   private final HttpUrl baseUrl;
   private @Nullable String relativeUrl;
   private @Nullable HttpUrl.Builder urlBuilder;
+  private @Nullable HttpUrl baseUrlOverride;
 
   private final Request.Builder requestBuilder;
   private @Nullable MediaType contentType;
@@ -47,6 +48,8 @@ final class RequestBuilder {
   private @Nullable MultipartBody.Builder multipartBuilder;
   private @Nullable FormBody.Builder formBuilder;
   private @Nullable RequestBody body;
+  private @Nullable ContentCodec compressCodec;
+  private long compressThreshold;
 
   RequestBuilder(String method, HttpUrl baseUrl, @Nullable String relativeUrl,
       @Nullable Headers headers, @Nullable MediaType contentType, boolean hasBody,
@@ -76,6 +79,27 @@ final class RequestBuilder {
     this.relativeUrl = relativeUrl.toString();
   }
 
+  void setBaseUrlOverride(HttpUrl baseUrlOverride) {
+    this.baseUrlOverride = baseUrlOverride;
+  }
+
+  void setPriority(CallScheduler.PriorityTag priority) {
+    requestBuilder.tag(CallScheduler.PriorityTag.class, priority);
+  }
+
+  void setDestination(BuiltInConverters.DestinationTag destination) {
+    requestBuilder.tag(BuiltInConverters.DestinationTag.class, destination);
+  }
+
+  void setChunkedUpload(ChunkedUploadCallFactory.UploadTag upload) {
+    requestBuilder.tag(ChunkedUploadCallFactory.UploadTag.class, upload);
+  }
+
+  void setCompression(ContentCodec codec, long threshold) {
+    this.compressCodec = codec;
+    this.compressThreshold = threshold;
+  }
+
   void addHeader(String name, String value) {
     if ("Content-Type".equalsIgnoreCase(name)) {
       try {
@@ -195,7 +219,7 @@ final class RequestBuilder {
     this.body = body;
   }
 
-  Request build() {
+  Request build() throws IOException {
     HttpUrl url;
     HttpUrl.Builder urlBuilder = this.urlBuilder;
     if (urlBuilder != null) {
@@ -210,6 +234,19 @@ final class RequestBuilder {
       }
     }
 
+    // Only swap the host. The relative URL and query were already resolved against the base URL.
+    HttpUrl baseUrlOverride = this.baseUrlOverride;
+    if (baseUrlOverride != null
+        && (!url.scheme().equals(baseUrlOverride.scheme())
+        || !url.host().equals(baseUrlOverride.host())
+        || url.port() != baseUrlOverride.port())) {
+      url = url.newBuilder()
+          .scheme(baseUrlOverride.scheme())
+          .host(baseUrlOverride.host())
+          .port(baseUrlOverride.port())
+          .build();
+    }
+
     RequestBody body = this.body;
     if (body == null) {
       // Try to pull from one of the builders.
@@ -232,6 +269,15 @@ final class RequestBuilder {
       }
     }
 
+    ContentCodec compressCodec = this.compressCodec;
+    if (compressCodec != null && body != null) {
+      long contentLength = body.contentLength();
+      if (contentLength == -1 || contentLength >= compressThreshold) {
+        body = new ContentCodecs.EncodedRequestBody(body, compressCodec);
+        requestBuilder.header("Content-Encoding", compressCodec.encoding());
+      }
+    }
+
     return requestBuilder
         .url(url)
         .method(method, body)
@@ -15,6 +15,7 @@
  */
 package retrofit2;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
@@ -34,8 +35,12 @@ import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import retrofit2.http.BaseUrl;
 import retrofit2.http.Body;
+import retrofit2.http.Chunked;
+import retrofit2.http.Compress;
 import retrofit2.http.DELETE;
+import retrofit2.http.Destination;
 import retrofit2.http.Field;
 import retrofit2.http.FieldMap;
 import retrofit2.http.FormUrlEncoded;
@@ -52,10 +57,13 @@ import retrofit2.http.PUT;
 import retrofit2.http.Part;
 import retrofit2.http.PartMap;
 import retrofit2.http.Path;
+import retrofit2.http.Priority;
 import retrofit2.http.Query;
 import retrofit2.http.QueryMap;
 import retrofit2.http.QueryName;
+import retrofit2.http.Segmented;
 import retrofit2.http.Url;
+import retrofit2.http.WebSocket;
 
 import static retrofit2.Utils.methodError;
 import static retrofit2.Utils.parameterError;
@@ -78,10 +86,20 @@ final class RequestFactory {
   private final String relativeUrl;
   private final Headers headers;
   private final MediaType contentType;
-  private final boolean hasBody;
+  final boolean hasBody;
   private final boolean isFormEncoded;
   private final boolean isMultipart;
   private final ParameterHandler<?>[] parameterHandlers;
+  final boolean hasBaseUrlParameter;
+  final boolean hasUrlParameter;
+  final boolean hasDestinationParameter;
+  private final int destinationParameterIndex;
+  private final @Nullable CallScheduler.PriorityTag priority;
+  final @Nullable Chunked chunked;
+  private final int bodyParameterIndex;
+  private final @Nullable ContentCodec compressCodec;
+  private final long compressThreshold;
+  final Map<String, ContentCodec> contentCodecs;
 
   RequestFactory(Builder builder) {
     baseUrl = builder.retrofit.baseUrl;
@@ -93,11 +111,27 @@ final class RequestFactory {
     isFormEncoded = builder.isFormEncoded;
     isMultipart = builder.isMultipart;
     parameterHandlers = builder.parameterHandlers;
+    hasBaseUrlParameter = builder.gotBaseUrl;
+    hasUrlParameter = builder.gotUrl;
+    hasDestinationParameter = builder.gotDestination;
+    destinationParameterIndex = builder.destinationParameterIndex;
+    priority = builder.priority;
+    chunked = builder.chunked;
+    bodyParameterIndex = builder.bodyParameterIndex;
+    compressCodec = builder.compressCodec;
+    compressThreshold = builder.compress != null ? builder.compress.threshold() : 0;
+    contentCodecs = builder.retrofit.contentCodecs;
   }
 
   okhttp3.Request create(@Nullable Object[] args) throws IOException {
     RequestBuilder requestBuilder = new RequestBuilder(httpMethod, baseUrl, relativeUrl, headers,
         contentType, hasBody, isFormEncoded, isMultipart);
+    if (priority != null) {
+      requestBuilder.setPriority(priority);
+    }
+    if (compressCodec != null) {
+      requestBuilder.setCompression(compressCodec, compressThreshold);
+    }
 
     @SuppressWarnings("unchecked") // It is an error to invoke a method with the wrong arg types.
     ParameterHandler<Object>[] handlers = (ParameterHandler<Object>[]) parameterHandlers;
@@ -112,6 +146,45 @@ final class RequestFactory {
       handlers[p].apply(requestBuilder, args[p]);
     }
 
+    if (chunked != null) {
+      Object body = args[bodyParameterIndex]; // Not null, or the body handler would have thrown.
+      File file = body instanceof File
+          ? (File) body
+          : BuiltInConverters.PathResponseBodyConverter.toFile(body);
+      requestBuilder.setChunkedUpload(new ChunkedUploadCallFactory.UploadTag(this, args.clone(),
+          file));
+    }
+
+    return requestBuilder.build();
+  }
+
+  /** Returns true if the request body is built from parameters rather than left empty. */
+  boolean hasBodyParameters() {
+    return isFormEncoded || isMultipart || bodyParameterIndex != -1;
+  }
+
+  /** Returns the {@link Destination @Destination} argument, or null for a temporary file. */
+  @Nullable Object destination(@Nullable Object[] args) {
+    //noinspection ConstantConditions Methods with a parameter are invoked with arguments.
+    return destinationParameterIndex != -1 ? args[destinationParameterIndex] : null;
+  }
+
+  /** Create the request which uploads {@code body} as chunk number {@code chunk}. */
+  okhttp3.Request createChunk(Object[] args, int chunk, RequestBody body) throws IOException {
+    //noinspection ConstantConditions Only called for @Chunked methods.
+    RequestBuilder requestBuilder = new RequestBuilder(chunked.method(), baseUrl, chunked.path(),
+        headers, null, true, false, false);
+    // Before any query parameter fixes the URL.
+    requestBuilder.addPathParam("chunk", String.valueOf(chunk), false);
+
+    @SuppressWarnings("unchecked") // It is an error to invoke a method with the wrong arg types.
+    ParameterHandler<Object>[] handlers = (ParameterHandler<Object>[]) parameterHandlers;
+    for (int p = 0; p < handlers.length; p++) {
+      if (p != bodyParameterIndex) {
+        handlers[p].apply(requestBuilder, args[p]);
+      }
+    }
+    requestBuilder.setBody(body);
     return requestBuilder.build();
   }
 
@@ -146,6 +219,9 @@ final class RequestFactory {
     boolean gotQueryName;
     boolean gotQueryMap;
     boolean gotUrl;
+    boolean gotBaseUrl;
+    boolean gotPriority;
+    boolean gotDestination;
     
     String httpMethod;
     boolean hasBody;
@@ -157,6 +233,14 @@ final class RequestFactory {
     MediaType contentType;
     Set<String> relativeUrlParamNames;
     ParameterHandler<?>[] parameterHandlers;
+    @Nullable CallScheduler.PriorityTag priority;
+    @Nullable Chunked chunked;
+    boolean isWebSocket;
+    int bodyParameterIndex = -1;
+    @Nullable Compress compress;
+    int compressParameterIndex = -1;
+    int destinationParameterIndex = -1;
+    @Nullable ContentCodec compressCodec;
 
     Builder(Retrofit retrofit, Method method) {
       this.retrofit = retrofit;
@@ -219,6 +303,12 @@ final class RequestFactory {
       if (isMultipart && !gotPart) {
         throw methodError(method, "Multipart method must contain at least one @Part.");
       }
+      if (chunked != null) {
+        validateChunked();
+      }
+      if (compress != null) {
+        validateCompress();
+      }
 
       return new RequestFactory(this);
     }
@@ -240,6 +330,14 @@ final class RequestFactory {
         parseHttpMethodAndPath("PUT", ((PUT) annotation).value(), true);
       } else if (annotation instanceof OPTIONS) {
         parseHttpMethodAndPath("OPTIONS", ((OPTIONS) annotation).value(), false);
+      } else if (annotation instanceof WebSocket) {
+        if (httpMethod != null) {
+          throw methodError(method, "Only one HTTP method is allowed. Found: %s and WebSocket.",
+              httpMethod);
+        }
+        // The handshake is a GET request which asks to upgrade the connection.
+        parseHttpMethodAndPath("GET", ((WebSocket) annotation).value(), false);
+        isWebSocket = true;
       } else if (annotation instanceof HTTP) {
         HTTP http = (HTTP) annotation;
         parseHttpMethodAndPath(http.method(), http.path(), http.hasBody());
@@ -260,6 +358,12 @@ final class RequestFactory {
           throw methodError(method, "Only one encoding annotation is allowed.");
         }
         isFormEncoded = true;
+      } else if (annotation instanceof Priority) {
+        priority = new CallScheduler.PriorityTag(((Priority) annotation).value());
+      } else if (annotation instanceof Chunked) {
+        chunked = (Chunked) annotation;
+      } else if (annotation instanceof Compress) {
+        compress = (Compress) annotation;
       }
     }
   
@@ -271,7 +375,7 @@ final class RequestFactory {
       // HTTP method가 여러개인지 체크.
       if (this.httpMethod != null) {
         throw methodError(method, "Only one HTTP method is allowed. Found: %s and %s.",
-            this.httpMethod, httpMethod);
+            isWebSocket ? "WebSocket" : this.httpMethod, httpMethod);
       }
       this.httpMethod = httpMethod;
       this.hasBody = hasBody;
@@ -333,6 +437,16 @@ final class RequestFactory {
       // 유효한 하나의 annotation에 해당하는 ParameterHandler만 골라냄
       ParameterHandler<?> result = null;
       for (Annotation annotation : annotations) {
+        if (annotation instanceof Compress) {
+          // Not a handler of its own: it modifies the @Body on the same parameter.
+          if (compress != null) {
+            throw parameterError(method, p, "Only one @Compress annotation is allowed.");
+          }
+          compress = (Compress) annotation;
+          compressParameterIndex = p;
+          continue;
+        }
+
         ParameterHandler<?> annotationAction = parseParameterAnnotation(
             p, parameterType, annotations, annotation);
 
@@ -393,6 +507,45 @@ final class RequestFactory {
               "@Url must be okhttp3.HttpUrl, String, java.net.URI, or android.net.Uri type.");
         }
 
+      } else if (annotation instanceof BaseUrl) {
+        if (gotBaseUrl) {
+          throw parameterError(method, p, "Multiple @BaseUrl method annotations found.");
+        }
+        gotBaseUrl = true;
+
+        if (type == HttpUrl.class || type == String.class) {
+          return new ParameterHandler.BaseUrl();
+        } else {
+          throw parameterError(method, p, "@BaseUrl must be okhttp3.HttpUrl or String type.");
+        }
+
+      } else if (annotation instanceof Priority) {
+        if (gotPriority) {
+          throw parameterError(method, p, "Multiple @Priority parameters found.");
+        }
+        gotPriority = true;
+
+        if (type == int.class || type == Integer.class) {
+          return new ParameterHandler.Priority();
+        } else {
+          throw parameterError(method, p, "@Priority parameter must be int or Integer type.");
+        }
+
+      } else if (annotation instanceof Destination) {
+        if (gotDestination) {
+          throw parameterError(method, p, "Multiple @Destination parameters found.");
+        }
+        gotDestination = true;
+        destinationParameterIndex = p;
+
+        if (type == File.class || (type instanceof Class
+            && "java.nio.file.Path".equals(((Class<?>) type).getName()))) {
+          return new ParameterHandler.Destination();
+        } else {
+          throw parameterError(method, p,
+              "@Destination parameter must be java.io.File or java.nio.file.Path type.");
+        }
+
       } else if (annotation instanceof Path) {
         if (gotQuery) {
           throw parameterError(method, p, "A @Path parameter must not come after a @Query.");
@@ -753,12 +906,77 @@ final class RequestFactory {
           throw parameterError(method, e, p, "Unable to create @Body converter for %s", type);
         }
         gotBody = true;
+        bodyParameterIndex = p;
         return new ParameterHandler.Body<>(converter);
       }
 
       return null; // Not a Retrofit annotation.
     }
 
+    private void validateChunked() {
+      if (method.isAnnotationPresent(Segmented.class)) {
+        throw methodError(method, "@Chunked and @Segmented cannot be used together.");
+      }
+      if (gotUrl) {
+        // Chunks are sent to the @Chunked path, which a @Url would replace.
+        throw methodError(method, "@Chunked methods cannot have a @Url parameter.");
+      }
+      if (!gotBody) {
+        throw methodError(method, "@Chunked methods must have a @Body parameter.");
+      }
+      Type bodyType = parameterTypes[bodyParameterIndex];
+      if (bodyType != File.class && !(bodyType instanceof Class
+          && "java.nio.file.Path".equals(((Class<?>) bodyType).getName()))) {
+        throw methodError(method,
+            "@Chunked @Body must be java.io.File or java.nio.file.Path type.");
+      }
+      if (chunked.size() < 1) {
+        throw methodError(method, "@Chunked size must be at least 1: %s", chunked.size());
+      }
+      if (chunked.concurrency() < 1) {
+        throw methodError(method, "@Chunked concurrency must be at least 1: %s",
+            chunked.concurrency());
+      }
+      if (chunked.method().isEmpty()) {
+        throw methodError(method, "@Chunked method must not be empty.");
+      }
+      Set<String> chunkParamNames = parsePathParameters(chunked.path());
+      if (!chunkParamNames.contains("chunk")) {
+        throw methodError(method, "@Chunked path must contain {chunk}: %s", chunked.path());
+      }
+      for (String name : chunkParamNames) {
+        if (!name.equals("chunk")
+            && (relativeUrlParamNames == null || !relativeUrlParamNames.contains(name))) {
+          throw methodError(method, "@Chunked path \"%s\" uses {%s}, which is not a @Path of "
+              + "the method.", chunked.path(), name);
+        }
+      }
+    }
+
+    private void validateCompress() {
+      //noinspection ConstantConditions Only called when compress is set.
+      String encoding = compress.value();
+      if (compressParameterIndex != -1 && compressParameterIndex != bodyParameterIndex) {
+        throw parameterError(method, compressParameterIndex,
+            "@Compress parameters must also be annotated with @Body.");
+      }
+      if (!hasBody) {
+        throw methodError(method, "@Compress can only be specified on HTTP methods with request "
+            + "body (e.g., @POST).");
+      }
+      if (chunked != null) {
+        throw methodError(method, "@Compress cannot be used with @Chunked.");
+      }
+      if (compress.threshold() < 0) {
+        throw methodError(method, "@Compress threshold must not be negative: %s",
+            compress.threshold());
+      }
+      compressCodec = retrofit.contentCodec(encoding);
+      if (compressCodec == null) {
+        throw methodError(method, "No content codec found for @Compress(\"%s\").", encoding);
+      }
+    }
+
     // @Path의 value를 검증.
     private void validatePathName(int p, String name) {
       if (!PARAM_NAME_REGEX.matcher(name).matches()) {
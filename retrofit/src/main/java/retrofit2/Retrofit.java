@@ -21,6 +21,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -37,7 +38,9 @@ import retrofit2.http.HTTP;
 import retrofit2.http.Header;
 import retrofit2.http.Url;
 
+import static java.util.Collections.singletonList;
 import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
 import static retrofit2.Utils.checkNotNull;
 
 /**
@@ -62,11 +65,19 @@ import static retrofit2.Utils.checkNotNull;
 public final class Retrofit {
   // 간단한 in-memory cache임. ConcurrentHashMap을 사용한 이유는 아무래도 멀티쓰레드 환경을 감안한 것일듯.
   private final Map<Method, ServiceMethod<?>> serviceMethodCache = new ConcurrentHashMap<>();
+  // Parse results which do not depend on the call factory. Instances derived via newBuilder() share
+  // this map as long as they keep the same base URL and converter factories.
+  final Map<Method, HttpServiceMethod.ParsedMethod> parsedMethodCache;
 
   final okhttp3.Call.Factory callFactory;
+  final Map<String, okhttp3.Call.Factory> namedCallFactories;
+  final @Nullable CallScheduler callScheduler;
   final HttpUrl baseUrl;
+  final List<HttpUrl> baseUrls;
+  final @Nullable LoadBalancer loadBalancer;
   final List<Converter.Factory> converterFactories;
   final List<CallAdapter.Factory> callAdapterFactories;
+  final Map<String, ContentCodec> contentCodecs;
   
   
   final @Nullable Executor callbackExecutor;
@@ -79,15 +90,23 @@ public final class Retrofit {
    */
   final boolean validateEagerly;
 
-  Retrofit(okhttp3.Call.Factory callFactory, HttpUrl baseUrl,
+  Retrofit(okhttp3.Call.Factory callFactory, Map<String, okhttp3.Call.Factory> namedCallFactories,
+      @Nullable CallScheduler callScheduler, HttpUrl baseUrl, List<HttpUrl> baseUrls,
       List<Converter.Factory> converterFactories, List<CallAdapter.Factory> callAdapterFactories,
-      @Nullable Executor callbackExecutor, boolean validateEagerly) {
+      Map<String, ContentCodec> contentCodecs, @Nullable Executor callbackExecutor,
+      boolean validateEagerly, Map<Method, HttpServiceMethod.ParsedMethod> parsedMethodCache) {
     this.callFactory = callFactory;
+    this.namedCallFactories = namedCallFactories; // Copy+unmodifiable at call site.
+    this.callScheduler = callScheduler;
     this.baseUrl = baseUrl;
+    this.baseUrls = baseUrls; // Copy+unmodifiable at call site.
+    this.loadBalancer = baseUrls.size() > 1 ? new LoadBalancer(baseUrls) : null;
     this.converterFactories = converterFactories; // Copy+unmodifiable at call site.
     this.callAdapterFactories = callAdapterFactories; // Copy+unmodifiable at call site.
+    this.contentCodecs = contentCodecs; // Copy+unmodifiable at call site.
     this.callbackExecutor = callbackExecutor;
     this.validateEagerly = validateEagerly;
+    this.parsedMethodCache = parsedMethodCache;
   }
 
   /**
@@ -99,7 +118,8 @@ public final class Retrofit {
    * PATCH}, {@link retrofit2.http.HEAD HEAD}, {@link retrofit2.http.DELETE DELETE} and
    * {@link retrofit2.http.OPTIONS OPTIONS}. You can use a custom HTTP method with
    * {@link HTTP @HTTP}. For a dynamic URL, omit the path on the annotation and annotate the first
-   * parameter with {@link Url @Url}.
+   * parameter with {@link Url @Url}. To send a single call to a different host without
+   * re-parsing the method, annotate a parameter with {@link retrofit2.http.BaseUrl @BaseUrl}.
    * <p>
    * Method parameters can be used to replace parts of the URL by annotating them with
    * {@link retrofit2.http.Path @Path}. Replacement sections are denoted by an identifier
@@ -202,11 +222,36 @@ public final class Retrofit {
     return callFactory;
   }
 
-  /** The API base URL. */
+  /**
+   * The factory registered under {@code name} for methods annotated with
+   * {@link retrofit2.http.Client @Client}, or null if there is none.
+   */
+  public @Nullable okhttp3.Call.Factory callFactory(String name) {
+    checkNotNull(name, "name == null");
+    return namedCallFactories.get(name);
+  }
+
+  /**
+   * The scheduler which orders asynchronous calls of every call factory by priority, or null if
+   * calls are passed to the call factories directly.
+   */
+  public @Nullable CallScheduler callScheduler() {
+    return callScheduler;
+  }
+
+  /** The API base URL. When several were configured this is the first one. */
   public HttpUrl baseUrl() {
     return baseUrl;
   }
 
+  /**
+   * The equivalent API base URLs calls are balanced across. This contains only {@link #baseUrl()}
+   * unless {@link Builder#baseUrls(List)} was used.
+   */
+  public List<HttpUrl> baseUrls() {
+    return baseUrls;
+  }
+
   /**
    * Returns a list of the factories tried when creating a
    * {@linkplain #callAdapter(Type, Annotation[])} call adapter}.
@@ -395,6 +440,15 @@ public final class Retrofit {
     return (Converter<T, String>) BuiltInConverters.ToStringConverter.INSTANCE;
   }
 
+  /**
+   * Returns the {@link ContentCodec} for {@code encoding}, matched ignoring case, or null if there
+   * is none.
+   */
+  public @Nullable ContentCodec contentCodec(String encoding) {
+    checkNotNull(encoding, "encoding == null");
+    return contentCodecs.get(ContentCodecs.key(encoding));
+  }
+
   /**
    * The executor used for {@link Callback} methods on a {@link Call}. This may be {@code null},
    * in which case callbacks should be made synchronously on the background thread.
@@ -403,6 +457,11 @@ public final class Retrofit {
     return callbackExecutor;
   }
 
+  /**
+   * Create a builder populated with the configuration of this instance. Instances built from it
+   * which keep the same {@linkplain #baseUrl() base URL} and {@linkplain #converterFactories()
+   * converter factories} reuse the annotation parsing already done by this instance.
+   */
   public Builder newBuilder() {
     return new Builder(this);
   }
@@ -416,11 +475,16 @@ public final class Retrofit {
   public static final class Builder {
     private final Platform platform;
     private @Nullable okhttp3.Call.Factory callFactory;
+    private final Map<String, okhttp3.Call.Factory> namedCallFactories = new LinkedHashMap<>();
+    private @Nullable CallScheduler callScheduler;
     private HttpUrl baseUrl;
+    private @Nullable List<HttpUrl> baseUrls;
     private final List<Converter.Factory> converterFactories = new ArrayList<>();
     private final List<CallAdapter.Factory> callAdapterFactories = new ArrayList<>();
+    private final Map<String, ContentCodec> contentCodecs = new LinkedHashMap<>();
     private @Nullable Executor callbackExecutor;
     private boolean validateEagerly;
+    private @Nullable Retrofit source;
 
     Builder(Platform platform) {
       this.platform = platform;
@@ -433,18 +497,26 @@ public final class Retrofit {
     Builder(Retrofit retrofit) {
       platform = Platform.get();
       callFactory = retrofit.callFactory;
+      namedCallFactories.putAll(retrofit.namedCallFactories);
+      callScheduler = retrofit.callScheduler;
       baseUrl = retrofit.baseUrl;
+      if (retrofit.baseUrls.size() > 1) {
+        baseUrls = new ArrayList<>(retrofit.baseUrls);
+      }
 
       converterFactories.addAll(retrofit.converterFactories);
       // Remove the default BuiltInConverters instance added by build().
       converterFactories.remove(0);
 
-      callAdapterFactories.addAll(retrofit.callAdapterFactories);
-      // Remove the default, platform-aware call adapter added by build().
-      callAdapterFactories.remove(callAdapterFactories.size() - 1);
+      // Do not add the default, platform-aware call adapters added by build().
+      callAdapterFactories.addAll(retrofit.callAdapterFactories.subList(0,
+          retrofit.callAdapterFactories.size() - platform.defaultCallAdapterFactoriesSize()));
+
+      contentCodecs.putAll(retrofit.contentCodecs);
 
       callbackExecutor = retrofit.callbackExecutor;
       validateEagerly = retrofit.validateEagerly;
+      source = retrofit;
     }
 
     /**
@@ -466,6 +538,36 @@ public final class Retrofit {
       return this;
     }
 
+    /**
+     * The HTTP client used for requests of methods annotated with
+     * {@link retrofit2.http.Client @Client(name)}.
+     * <p>
+     * This is a convenience method for calling {@link #callFactory(String, okhttp3.Call.Factory)}.
+     */
+    public Builder client(String name, OkHttpClient client) {
+      return callFactory(name, checkNotNull(client, "client == null"));
+    }
+
+    /**
+     * Specify the call factory for creating {@link Call} instances of methods annotated with
+     * {@link retrofit2.http.Client @Client(name)}. All other methods use {@link #callFactory}.
+     */
+    public Builder callFactory(String name, okhttp3.Call.Factory factory) {
+      checkNotNull(name, "name == null");
+      namedCallFactories.put(name, checkNotNull(factory, "factory == null"));
+      return this;
+    }
+
+    /**
+     * Release {@linkplain Call#enqueue asynchronous calls} to the call factories through
+     * {@code scheduler}, ordered by {@link retrofit2.http.Priority @Priority} and limited in
+     * number.
+     */
+    public Builder callScheduler(CallScheduler scheduler) {
+      this.callScheduler = checkNotNull(scheduler, "scheduler == null");
+      return this;
+    }
+
     /**
      * Set the API base URL.
      *
@@ -533,6 +635,40 @@ public final class Retrofit {
         throw new IllegalArgumentException("baseUrl must end in /: " + baseUrl);
       }
       this.baseUrl = baseUrl;
+      this.baseUrls = null;
+      return this;
+    }
+
+    /**
+     * Set several equivalent API base URLs and balance calls across them.
+     * <p>
+     * Each call is sent to whichever of two randomly chosen base URLs has fewer calls in flight
+     * relative to its recent latency. A base URL whose calls fail with an I/O error several times
+     * in a row is skipped for 30 seconds before being tried again. Calls with a
+     * {@link retrofit2.http.BaseUrl @BaseUrl} or {@link retrofit2.http.Url @Url} parameter are not
+     * balanced. With a {@linkplain #callScheduler(CallScheduler) call scheduler}, the base URL is
+     * chosen when a call is released rather than when it is enqueued.
+     * <p>
+     * Base URLs may only differ in scheme, host, and port. Their paths must be identical and
+     * follow the same rules as {@link #baseUrl(HttpUrl)}. The first one is reported as
+     * {@link Retrofit#baseUrl()}.
+     */
+    public Builder baseUrls(List<HttpUrl> baseUrls) {
+      checkNotNull(baseUrls, "baseUrls == null");
+      if (baseUrls.isEmpty()) {
+        throw new IllegalArgumentException("baseUrls must not be empty.");
+      }
+      List<HttpUrl> copy = new ArrayList<>(baseUrls);
+      HttpUrl first = checkNotNull(copy.get(0), "baseUrls contains null");
+      baseUrl(first);
+      for (int i = 1, count = copy.size(); i < count; i++) {
+        HttpUrl baseUrl = checkNotNull(copy.get(i), "baseUrls contains null");
+        if (!first.encodedPath().equals(baseUrl.encodedPath())) {
+          throw new IllegalArgumentException(
+              "baseUrls must share the same path: " + first + ", " + baseUrl);
+        }
+      }
+      this.baseUrls = copy;
       return this;
     }
 
@@ -551,9 +687,21 @@ public final class Retrofit {
       return this;
     }
 
+    /**
+     * Add a codec for compressing {@link retrofit2.http.Compress @Compress} request bodies and
+     * decoding response bodies other than {@code gzip}. It replaces a built-in or
+     * {@link java.util.ServiceLoader}-provided codec with the same encoding.
+     */
+    public Builder addContentCodec(ContentCodec codec) {
+      ContentCodecs.put(contentCodecs, checkNotNull(codec, "codec == null"));
+      return this;
+    }
+
     /**
      * The executor on which {@link Callback} methods are invoked when returning {@link Call} from
-     * your service method.
+     * your service method. On Java 8 it is also the executor on which {@code CompletableFuture} and
+     * {@code CompletionStage} return values are completed, and so where stages that depend on
+     * them run by default.
      * <p>
      * Note: {@code executor} is not used for {@linkplain #addCallAdapterFactory custom method
      * return types}.
@@ -606,10 +754,10 @@ public final class Retrofit {
         callbackExecutor = platform.defaultCallbackExecutor();
       }
 
-      // Make a defensive copy of the adapters and add the default Call adapter.
+      // Make a defensive copy of the adapters and add the default Call adapters.
       // Defensive copy - 의도치 않게 this.callAdapterFactories를 수정하는 일을 막음
       List<CallAdapter.Factory> callAdapterFactories = new ArrayList<>(this.callAdapterFactories);
-      callAdapterFactories.add(platform.defaultCallAdapterFactory(callbackExecutor));
+      callAdapterFactories.addAll(platform.defaultCallAdapterFactories(callbackExecutor));
 
       // Make a defensive copy of the converters.
       List<Converter.Factory> converterFactories =
@@ -620,8 +768,32 @@ public final class Retrofit {
       converterFactories.add(new BuiltInConverters());
       converterFactories.addAll(this.converterFactories);
 
-      return new Retrofit(callFactory, baseUrl, unmodifiableList(converterFactories),
-          unmodifiableList(callAdapterFactories), callbackExecutor, validateEagerly);
+      Map<String, ContentCodec> contentCodecs = new LinkedHashMap<>(ContentCodecs.defaults());
+      contentCodecs.putAll(this.contentCodecs);
+
+      // Parsed request factories and response converters only depend on the base URL, the
+      // converters, and the codecs. Reuse them from the instance this builder was created from
+      // when those match.
+      Map<Method, HttpServiceMethod.ParsedMethod> parsedMethodCache;
+      Retrofit source = this.source;
+      if (source != null
+          && baseUrl.equals(source.baseUrl)
+          && this.converterFactories.equals(
+              source.converterFactories.subList(1, source.converterFactories.size()))
+          && contentCodecs.equals(source.contentCodecs)) {
+        parsedMethodCache = source.parsedMethodCache;
+      } else {
+        parsedMethodCache = new ConcurrentHashMap<>();
+      }
+
+      List<HttpUrl> baseUrls = this.baseUrls != null
+          ? unmodifiableList(new ArrayList<>(this.baseUrls))
+          : singletonList(baseUrl);
+
+      return new Retrofit(callFactory, unmodifiableMap(new LinkedHashMap<>(namedCallFactories)),
+          callScheduler, baseUrl, baseUrls, unmodifiableList(converterFactories),
+          unmodifiableList(callAdapterFactories), unmodifiableMap(contentCodecs), callbackExecutor,
+          validateEagerly, parsedMethodCache);
     }
   }
 }
@@ -0,0 +1,502 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.Okio;
+
+import static retrofit2.Utils.checkNotNull;
+
+/**
+ * Fetches the bodies of {@link retrofit2.http.Segmented @Segmented} methods as concurrent byte
+ * ranges written into a memory-mapped file. Calls are delivered as a 200 response whose body is
+ * the finished {@linkplain DownloadedBody file}, which the {@link File} and {@code Path}
+ * converters hand back without copying.
+ * <p>
+ * Range requests go through {@code delegate}, so they share its connection pool, interceptors,
+ * and dispatcher threads with every other call.
+ */
+final class SegmentedDownloadCallFactory implements okhttp3.Call.Factory {
+  static final Charset UTF_8 = Charset.forName("UTF-8");
+  static final int STATE_MAGIC = 0x52534547; // "RSEG"
+  /** How much of a range is mapped at once. Keeps mappings small for multi-gigabyte bodies. */
+  static final long WINDOW_SIZE = 8 * 1024 * 1024;
+
+  private final okhttp3.Call.Factory delegate;
+  private final int segments;
+
+  SegmentedDownloadCallFactory(okhttp3.Call.Factory delegate, int segments) {
+    this.delegate = delegate;
+    this.segments = segments;
+  }
+
+  @Override public okhttp3.Call newCall(Request request) {
+    return new SegmentedCall(request);
+  }
+
+  /**
+   * Returns true if {@code body}, as returned by a call of this factory, is a download which is
+   * already saved to its destination.
+   */
+  static boolean isDownloaded(@Nullable ResponseBody body) {
+    return body instanceof DownloadedBody;
+  }
+
+  static File partFile(File destination) {
+    return new File(destination.getPath() + ".part");
+  }
+
+  static File stateFile(File destination) {
+    return new File(destination.getPath() + ".segments");
+  }
+
+  /** The body of a completed download. */
+  static final class DownloadedBody extends ResponseBody {
+    private final @Nullable MediaType contentType;
+    private final File file;
+
+    DownloadedBody(@Nullable MediaType contentType, File file) {
+      this.contentType = contentType;
+      this.file = file;
+    }
+
+    @Override public @Nullable MediaType contentType() {
+      return contentType;
+    }
+
+    @Override public long contentLength() {
+      return file.length();
+    }
+
+    @Override public BufferedSource source() {
+      try {
+        return Okio.buffer(Okio.source(file));
+      } catch (FileNotFoundException e) {
+        throw new IllegalStateException("Download was moved: " + file, e);
+      }
+    }
+  }
+
+  final class SegmentedCall implements okhttp3.Call {
+    private final Request request;
+    private volatile boolean canceled;
+    @GuardedBy("this")
+    private boolean executed;
+    @GuardedBy("this")
+    private final List<okhttp3.Call> calls = new ArrayList<>();
+
+    SegmentedCall(Request request) {
+      this.request = request;
+    }
+
+    @Override public Request request() {
+      return request;
+    }
+
+    @Override public Response execute() throws IOException {
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      final CountDownLatch latch = new CountDownLatch(1);
+      final AtomicReference<Response> response = new AtomicReference<>();
+      final AtomicReference<IOException> failure = new AtomicReference<>();
+      start(new Callback() {
+        @Override public void onResponse(okhttp3.Call call, Response value) {
+          response.set(value);
+          latch.countDown();
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          failure.set(e);
+          latch.countDown();
+        }
+      });
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        cancel();
+        throw new InterruptedIOException("Interrupted");
+      }
+      if (failure.get() != null) throw failure.get();
+      return response.get();
+    }
+
+    @Override public void enqueue(Callback responseCallback) {
+      checkNotNull(responseCallback, "responseCallback == null");
+      synchronized (this) {
+        if (executed) throw new IllegalStateException("Already Executed");
+        executed = true;
+      }
+      start(responseCallback);
+    }
+
+    private void start(final Callback callback) {
+      BuiltInConverters.DestinationTag tag = request.tag(BuiltInConverters.DestinationTag.class);
+      if (tag == null) {
+        forward(callback);
+        return;
+      }
+      final File destination = tag.target instanceof File
+          ? (File) tag.target
+          : BuiltInConverters.PathResponseBodyConverter.toFile(tag.target);
+
+      // Ask for the identity encoding so that the probed length is the length of the ranges.
+      Request head = request.newBuilder()
+          .head()
+          .header("Accept-Encoding", "identity")
+          .build();
+      newDelegateCall(head).enqueue(new Callback() {
+        @Override public void onResponse(okhttp3.Call call, Response probe) {
+          probe.close();
+          long length = -1;
+          String contentLength = probe.header("Content-Length");
+          if (contentLength != null) {
+            try {
+              length = Long.parseLong(contentLength);
+            } catch (NumberFormatException ignored) {
+            }
+          }
+          String encoding = probe.header("Content-Encoding");
+          if (!probe.isSuccessful()
+              || !"bytes".equalsIgnoreCase(probe.header("Accept-Ranges"))
+              || (encoding != null && !"identity".equalsIgnoreCase(encoding))
+              || length <= 0) {
+            forward(callback);
+            return;
+          }
+
+          String validator = probe.header("ETag");
+          if (validator == null) validator = probe.header("Last-Modified");
+          if (validator == null) validator = "";
+          Download download;
+          try {
+            download = Download.open(destination, length, segments, validator);
+          } catch (IOException e) {
+            callback.onFailure(SegmentedCall.this, e);
+            return;
+          }
+          download.start(SegmentedCall.this, probe, callback);
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          callback.onFailure(SegmentedCall.this, e);
+        }
+      });
+    }
+
+    /** Download the body in one piece, as if this factory were not installed. */
+    private void forward(final Callback callback) {
+      newDelegateCall(request).enqueue(new Callback() {
+        @Override public void onResponse(okhttp3.Call call, Response response) throws IOException {
+          callback.onResponse(SegmentedCall.this, response);
+        }
+
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          callback.onFailure(SegmentedCall.this, e);
+        }
+      });
+    }
+
+    okhttp3.Call newDelegateCall(Request request) {
+      okhttp3.Call call = delegate.newCall(request);
+      synchronized (this) {
+        calls.add(call);
+      }
+      if (canceled) call.cancel();
+      return call;
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+      List<okhttp3.Call> calls;
+      synchronized (this) {
+        calls = new ArrayList<>(this.calls);
+      }
+      for (okhttp3.Call call : calls) {
+        call.cancel();
+      }
+    }
+
+    @Override public synchronized boolean isExecuted() {
+      return executed;
+    }
+
+    @Override public boolean isCanceled() {
+      return canceled;
+    }
+
+    @SuppressWarnings("CloneDoesntCallSuperClone") // We are a final type.
+    @Override public okhttp3.Call clone() {
+      return new SegmentedCall(request);
+    }
+  }
+
+  /**
+   * One attempt at downloading a body. The state file holds a header identifying the body and the
+   * number of bytes completed in each segment:
+   * <pre>
+   * magic      int32
+   * segments   int32
+   * length     int64
+   * validator  int32 length, then UTF-8
+   * progress   int64 for each segment
+   * </pre>
+   */
+  static final class Download {
+    private final File destination;
+    private final long length;
+    private final int segments;
+    private final String validator;
+    private final RandomAccessFile part;
+    private final MappedByteBuffer progress;
+    private final AtomicInteger remaining;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private volatile boolean stale;
+
+    Download(File destination, long length, int segments, String validator, RandomAccessFile part,
+        MappedByteBuffer progress) {
+      this.destination = destination;
+      this.length = length;
+      this.segments = segments;
+      this.validator = validator;
+      this.part = part;
+      this.progress = progress;
+      this.remaining = new AtomicInteger(segments);
+    }
+
+    /** Open the partial download of {@code destination}, resuming it if it is the same body. */
+    static Download open(File destination, long length, int segments, String validator)
+        throws IOException {
+      File partFile = partFile(destination);
+      byte[] validatorBytes = validator.getBytes(UTF_8);
+      int headerSize = 4 + 4 + 8 + 4 + validatorBytes.length;
+      long stateSize = headerSize + 8L * segments;
+
+      RandomAccessFile state = new RandomAccessFile(stateFile(destination), "rw");
+      try {
+        // Resuming needs a validator: without one there is no telling if the body has changed.
+        boolean resume = !validator.isEmpty()
+            && partFile.length() == length
+            && state.length() == stateSize
+            && state.readInt() == STATE_MAGIC
+            && state.readInt() == segments
+            && state.readLong() == length
+            && state.readInt() == validatorBytes.length
+            && validator.equals(readUtf8(state, validatorBytes.length));
+        if (!resume) {
+          state.setLength(0);
+          state.writeInt(STATE_MAGIC);
+          state.writeInt(segments);
+          state.writeLong(length);
+          state.writeInt(validatorBytes.length);
+          state.write(validatorBytes);
+          state.setLength(stateSize); // Zero progress for every segment.
+        }
+        // Mappings remain valid after their file is closed.
+        MappedByteBuffer progress =
+            state.getChannel().map(FileChannel.MapMode.READ_WRITE, headerSize, 8L * segments);
+
+        RandomAccessFile part = new RandomAccessFile(partFile, "rw");
+        if (!resume) part.setLength(0);
+        part.setLength(length);
+        return new Download(destination, length, segments, validator, part, progress);
+      } finally {
+        state.close();
+      }
+    }
+
+    private static String readUtf8(RandomAccessFile file, int byteCount) throws IOException {
+      byte[] bytes = new byte[byteCount];
+      file.readFully(bytes);
+      return new String(bytes, UTF_8);
+    }
+
+    long segmentStart(int segment) {
+      return segment * (length / segments);
+    }
+
+    long segmentEnd(int segment) {
+      return segment == segments - 1 ? length : segmentStart(segment + 1);
+    }
+
+    void start(SegmentedCall call, Response probe, Callback callback) {
+      for (int i = 0; i < segments; i++) {
+        long start = segmentStart(i);
+        long end = segmentEnd(i);
+        long position = start + progress.getLong(i * 8);
+        if (position >= end) {
+          segmentFinished(call, probe, callback, null);
+          continue;
+        }
+        Request.Builder range = call.request().newBuilder()
+            .header("Range", "bytes=" + position + "-" + (end - 1))
+            .header("Accept-Encoding", "identity");
+        if (!validator.isEmpty()) range.header("If-Range", validator);
+        call.newDelegateCall(range.build())
+            .enqueue(new SegmentCallback(call, probe, callback, i, position));
+      }
+    }
+
+    /** Copy {@code source} into the part file from {@code position} to the end of the segment. */
+    void write(SegmentedCall call, BufferedSource source, int segment, long position)
+        throws IOException {
+      FileChannel channel = part.getChannel();
+      long start = segmentStart(segment);
+      long end = segmentEnd(segment);
+      while (position < end) {
+        long size = Math.min(WINDOW_SIZE, end - position);
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        try {
+          while (window.hasRemaining()) {
+            if (call.isCanceled()) throw new IOException("Canceled");
+            if (source.read(window) == -1) {
+              throw new EOFException("Range of segment " + segment + " ended early.");
+            }
+            progress.putLong(segment * 8, position + window.position() - start);
+          }
+        } finally {
+          Utils.unmap(window);
+        }
+        position += size;
+      }
+    }
+
+    /** Returns true if {@code contentRange} is exactly the bytes from start to end. */
+    boolean isRange(@Nullable String contentRange, long start, long end) {
+      if (contentRange == null) return false;
+      String expected = "bytes " + start + "-" + (end - 1) + "/";
+      if (!contentRange.startsWith(expected)) return false;
+      String total = contentRange.substring(expected.length());
+      return total.equals("*") || total.equals(Long.toString(length));
+    }
+
+    void segmentFinished(SegmentedCall call, Response probe, Callback callback,
+        @Nullable IOException e) {
+      if (e != null) failure.compareAndSet(null, e);
+      if (remaining.decrementAndGet() != 0) return;
+
+      Utils.unmap(progress); // No segment uses it anymore.
+      try {
+        part.close();
+      } catch (IOException ignored) {
+      }
+      IOException failure = this.failure.get();
+      if (failure == null && call.isCanceled()) failure = new IOException("Canceled");
+      if (failure != null) {
+        if (stale) {
+          stateFile(destination).delete();
+          partFile(destination).delete();
+        }
+        callback.onFailure(call, failure);
+        return;
+      }
+
+      File partFile = partFile(destination);
+      if (!partFile.renameTo(destination)) {
+        // Some platforms refuse to rename over an existing file.
+        if (!destination.delete() || !partFile.renameTo(destination)) {
+          callback.onFailure(call,
+              new IOException("Failed to rename " + partFile + " to " + destination));
+          return;
+        }
+      }
+      stateFile(destination).delete();
+
+      String contentType = probe.header("Content-Type");
+      Response response = probe.newBuilder()
+          .request(call.request())
+          .body(new DownloadedBody(contentType != null ? MediaType.parse(contentType) : null,
+              destination))
+          .build();
+      try {
+        callback.onResponse(call, response);
+      } catch (IOException ignored) {
+      }
+    }
+
+    final class SegmentCallback implements Callback {
+      private final SegmentedCall call;
+      private final Response probe;
+      private final Callback callback;
+      private final int segment;
+      private final long position;
+
+      SegmentCallback(SegmentedCall call, Response probe, Callback callback, int segment,
+          long position) {
+        this.call = call;
+        this.probe = probe;
+        this.callback = callback;
+        this.segment = segment;
+        this.position = position;
+      }
+
+      @Override public void onResponse(okhttp3.Call rawCall, Response response) {
+        IOException failure = null;
+        try {
+          if (response.code() != 206) {
+            // A full response to If-Range means the body changed since the earlier segments.
+            if (response.isSuccessful()) stale = true;
+            throw new IOException(
+                "Expected a partial response for segment " + segment + " but was "
+                    + response.code());
+          }
+          String contentRange = response.header("Content-Range");
+          if (!isRange(contentRange, position, segmentEnd(segment))) {
+            throw new IOException("Expected Content-Range bytes " + position + "-"
+                + (segmentEnd(segment) - 1) + "/" + length + " for segment " + segment
+                + " but was " + contentRange);
+          }
+          write(call, response.body().source(), segment, position);
+        } catch (IOException e) {
+          failure = e;
+        } catch (RuntimeException e) {
+          failure = new IOException(e);
+        } finally {
+          response.close();
+        }
+        segmentFinished(call, probe, callback, failure);
+      }
+
+      @Override public void onFailure(okhttp3.Call rawCall, IOException e) {
+        segmentFinished(call, probe, callback, e);
+      }
+    }
+  }
+}
@@ -20,6 +20,8 @@ import java.lang.reflect.Type;
 
 import javax.annotation.Nullable;
 
+import retrofit2.http.WebSocket;
+
 import static retrofit2.Utils.methodError;
 
 // 이 녀셕은 뭘 하는 녀석일까?
@@ -41,6 +43,19 @@ abstract class ServiceMethod<T> {
       throw methodError(method, "Service methods cannot return void.");
     }
 
+    if (method.isAnnotationPresent(WebSocket.class)) {
+      @SuppressWarnings("unchecked") // The return type is checked to be WebSocketChannel.
+      ServiceMethod<T> webSocketMethod =
+          (ServiceMethod<T>) WebSocketServiceMethod.create(retrofit, method);
+      return webSocketMethod;
+    }
+    if (Utils.getRawType(returnType) == StreamingCall.class) {
+      @SuppressWarnings("unchecked") // The return type is StreamingCall.
+      ServiceMethod<T> streamingMethod =
+          (ServiceMethod<T>) StreamingServiceMethod.create(retrofit, method);
+      return streamingMethod;
+    }
+
     return new HttpServiceMethod.Builder<Object, T>(retrofit, method).build();
   }
 
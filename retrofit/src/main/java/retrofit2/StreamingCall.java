@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import okhttp3.Request;
+
+/**
+ * A call which streams messages to the server in its request body and receives a stream of
+ * messages in its response body. Return one from a service method with an HTTP method that has a
+ * request body, such as {@link retrofit2.http.POST @POST}, and no body parameters.
+ * <pre><code>
+ * &#64;POST("telemetry")
+ * StreamingCall&lt;Sample, Ack&gt; upload();
+ * </code></pre>
+ * Each sent {@code S} is converted with the {@linkplain Retrofit#requestBodyConverter request body
+ * converter} for {@code S} and written as a length-prefixed message of an
+ * {@code application/x-length-prefixed} request body as described by {@link ElementReader}. The
+ * response body is read with {@link ElementReader}, so a length-prefixed response is received as
+ * a stream of {@code R} and any other response as a single {@code R}.
+ * <p>
+ * The exchange is half-duplex: the request body is sent as a single stream of messages on one
+ * connection, but OkHttp only reads the response once the request body is complete. Call
+ * {@link #halfClose()} after the last message to receive the response. Streaming request bodies
+ * cannot be repeated, so the call fails rather than retrying if the connection does.
+ * <p>
+ * {@link Listener} methods are invoked on the {@linkplain Retrofit#callbackExecutor() callback
+ * executor} if there is one, and otherwise on the HTTP client's thread.
+ *
+ * @param <S> Sent message type.
+ * @param <R> Received message type.
+ */
+public interface StreamingCall<S, R> extends Cloneable {
+  /** The original HTTP request, without its streaming body. */
+  Request request();
+
+  /**
+   * Asynchronously send the request, whose body is the messages subsequently {@linkplain #send
+   * sent}, and notify {@code listener} of the response's messages.
+   *
+   * @throws IllegalStateException if the call has already been started.
+   */
+  void start(Listener<S, R> listener);
+
+  /**
+   * Converts {@code message} and enqueues it to be written after any previously sent messages.
+   * This blocks while earlier messages totaling 64 KiB or more have not yet been written.
+   *
+   * @throws IllegalStateException if the call has not been started or has been half-closed.
+   * @throws IOException if {@code message} could not be converted or is larger than 4 MiB once
+   * converted, or the call was canceled or failed.
+   */
+  void send(S message) throws IOException;
+
+  /** Complete the request body once enqueued messages have been written. */
+  void halfClose();
+
+  /** Cancel this call, abandoning any messages which have not been written. */
+  void cancel();
+
+  /** Returns true if this call has been {@linkplain #start started}. */
+  boolean isStarted();
+
+  /** True if {@link #cancel()} was called. */
+  boolean isCanceled();
+
+  /** Create a new, identical call which has not been started. */
+  StreamingCall<S, R> clone();
+
+  /** Receives the response messages of a {@link StreamingCall}. */
+  abstract class Listener<S, R> {
+    /** Invoked for each received message, in order. */
+    public void onMessage(StreamingCall<S, R> call, R message) {
+    }
+
+    /** Invoked after the last message of a successful response. No further methods are invoked. */
+    public void onComplete(StreamingCall<S, R> call) {
+    }
+
+    /**
+     * Invoked when the call fails, the response is not successful, or a received message could
+     * not be converted. Unsuccessful responses are reported as an {@link HttpException}. No further
+     * methods are invoked.
+     */
+    public void onFailure(StreamingCall<S, R> call, Throwable t) {
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+import static retrofit2.Utils.methodError;
+
+/** Adapts an invocation of a method returning {@link StreamingCall} into a streaming call. */
+final class StreamingServiceMethod<S, R> extends ServiceMethod<StreamingCall<S, R>> {
+  static StreamingServiceMethod<Object, Object> create(Retrofit retrofit, Method method) {
+    Type returnType = method.getGenericReturnType();
+    if (!(returnType instanceof ParameterizedType)) {
+      throw methodError(method, "StreamingCall return type must be parameterized"
+          + " as StreamingCall<Send, Receive>.");
+    }
+    MessageConverters<Object, Object> converters =
+        MessageConverters.create(retrofit, method, (ParameterizedType) returnType);
+
+    RequestFactory requestFactory = RequestFactory.parseAnnotations(retrofit, method);
+    if (!requestFactory.hasBody) {
+      throw methodError(method, "StreamingCall can only be returned from HTTP methods with request"
+          + " body (e.g., @POST).");
+    }
+    if (requestFactory.hasBodyParameters()) {
+      throw methodError(method, "StreamingCall methods cannot have @Body, @Field, or @Part"
+          + " parameters. Sent messages are the request body.");
+    }
+
+    return new StreamingServiceMethod<>(requestFactory,
+        HttpServiceMethod.callFactory(retrofit, method, requestFactory), converters.send,
+        converters.receive, retrofit.callbackExecutor());
+  }
+
+  private final RequestFactory requestFactory;
+  private final okhttp3.Call.Factory callFactory;
+  private final Converter<S, RequestBody> sendConverter;
+  private final Converter<ResponseBody, R> receiveConverter;
+  private final @Nullable Executor callbackExecutor;
+
+  private StreamingServiceMethod(RequestFactory requestFactory, okhttp3.Call.Factory callFactory,
+      Converter<S, RequestBody> sendConverter, Converter<ResponseBody, R> receiveConverter,
+      @Nullable Executor callbackExecutor) {
+    this.requestFactory = requestFactory;
+    this.callFactory = callFactory;
+    this.sendConverter = sendConverter;
+    this.receiveConverter = receiveConverter;
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  @Override StreamingCall<S, R> invoke(@Nullable Object[] args) {
+    return new OkHttpStreamingCall<>(requestFactory, args, callFactory, sendConverter,
+        receiveConverter, callbackExecutor);
+  }
+}
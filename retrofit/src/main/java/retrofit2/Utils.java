@@ -16,8 +16,11 @@
 package retrofit2;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Array;
+import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.GenericDeclaration;
 import java.lang.reflect.Method;
@@ -556,4 +559,32 @@ final class Utils {
       throw (LinkageError) t;
     }
   }
+
+  /**
+   * Release the mapping of {@code buffer} now rather than whenever it is garbage collected. The
+   * buffer must not be used afterwards, by any thread. Does nothing on runtimes which offer no way
+   * to do this.
+   */
+  static void unmap(MappedByteBuffer buffer) {
+    try {
+      // Java 9 and newer.
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      invokeCleaner.invoke(theUnsafe.get(null), buffer);
+      return;
+    } catch (Exception ignored) {
+    }
+    try {
+      // Java 8 and older.
+      Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buffer);
+      if (cleaner != null) {
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    } catch (Exception ignored) {
+    }
+  }
 }
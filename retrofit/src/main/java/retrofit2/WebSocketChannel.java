@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import javax.annotation.Nullable;
+import okhttp3.Request;
+
+/**
+ * A WebSocket whose messages are converted with Retrofit's converters. Each sent {@code S} is
+ * converted with the {@linkplain Retrofit#requestBodyConverter request body converter} for
+ * {@code S}, and each received message with the {@linkplain Retrofit#responseBodyConverter
+ * response body converter} for {@code R}. Declare one with {@link retrofit2.http.WebSocket
+ * @WebSocket}.
+ * <p>
+ * A converted message whose content type is {@code text/*} or specifies a charset, such as JSON,
+ * is sent in a text frame. Any other, such as a protocol buffer, is sent in a binary frame.
+ * Received text frames are converted from a {@code text/plain; charset=utf-8} body and binary
+ * frames from an {@code application/octet-stream} body.
+ * <p>
+ * Each channel can only be opened once. Use {@link #clone} to open another to the same endpoint.
+ * {@link Listener} methods are invoked on the {@linkplain Retrofit#callbackExecutor() callback
+ * executor} if there is one, and otherwise on the thread reading from the socket.
+ *
+ * @param <S> Sent message type.
+ * @param <R> Received message type.
+ */
+public interface WebSocketChannel<S, R> extends Cloneable {
+  /** The original handshake request. */
+  Request request();
+
+  /**
+   * Asynchronously connect, and notify {@code listener} of the connection's messages and of its
+   * closing or failure.
+   *
+   * @throws IllegalStateException if the channel has already been opened.
+   */
+  void open(Listener<S, R> listener);
+
+  /**
+   * Converts {@code message} and enqueues it to be sent after any previously sent messages.
+   * Returns false if the channel has not been opened, or is closing, closed, canceled, or failed.
+   *
+   * @throws IOException if {@code message} could not be converted.
+   */
+  boolean send(S message) throws IOException;
+
+  /**
+   * Gracefully close the channel after sending any enqueued messages. Returns false if the channel
+   * has not been opened, or is already closing or closed.
+   *
+   * @param code a status code as defined by <a
+   * href="http://tools.ietf.org/html/rfc6455#section-7.4">Section 7.4 of RFC 6455</a>.
+   * @param reason the reason for closing, or null.
+   */
+  boolean close(int code, @Nullable String reason);
+
+  /** Immediately release the channel's connection, discarding any enqueued messages. */
+  void cancel();
+
+  /** Returns true if this channel has been {@linkplain #open opened}. */
+  boolean isOpened();
+
+  /** True if {@link #cancel()} was called. */
+  boolean isCanceled();
+
+  /** Create a new, identical channel to the same endpoint which has not been opened. */
+  WebSocketChannel<S, R> clone();
+
+  /** Receives the messages and the lifecycle of a {@link WebSocketChannel}. */
+  abstract class Listener<S, R> {
+    /** Invoked when the handshake succeeds and messages may be exchanged. */
+    public void onOpen(WebSocketChannel<S, R> channel, okhttp3.Response response) {
+    }
+
+    /** Invoked for each received message, in order. */
+    public void onMessage(WebSocketChannel<S, R> channel, R message) {
+    }
+
+    /** Invoked when the peer has indicated that no more messages will be received. */
+    public void onClosing(WebSocketChannel<S, R> channel, int code, String reason) {
+    }
+
+    /** Invoked when both peers have indicated that no more messages will be exchanged. */
+    public void onClosed(WebSocketChannel<S, R> channel, int code, String reason) {
+    }
+
+    /**
+     * Invoked when the handshake fails, the connection fails, or a received message could not be
+     * converted. No further methods are invoked.
+     *
+     * @param response the handshake response if the server rejected the upgrade, or null.
+     */
+    public void onFailure(WebSocketChannel<S, R> channel, Throwable t,
+        @Nullable okhttp3.Response response) {
+    }
+  }
+}
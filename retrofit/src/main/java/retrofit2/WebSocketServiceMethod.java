@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+import static retrofit2.Utils.methodError;
+
+/** Adapts an invocation of a {@link retrofit2.http.WebSocket @WebSocket} method into a channel. */
+final class WebSocketServiceMethod<S, R> extends ServiceMethod<WebSocketChannel<S, R>> {
+  static WebSocketServiceMethod<Object, Object> create(Retrofit retrofit, Method method) {
+    Type returnType = method.getGenericReturnType();
+    if (Utils.getRawType(returnType) != WebSocketChannel.class) {
+      throw methodError(method, "@WebSocket methods must return WebSocketChannel.");
+    }
+    if (!(returnType instanceof ParameterizedType)) {
+      throw methodError(method, "WebSocketChannel return type must be parameterized"
+          + " as WebSocketChannel<Send, Receive>.");
+    }
+    MessageConverters<Object, Object> converters =
+        MessageConverters.create(retrofit, method, (ParameterizedType) returnType);
+    RequestFactory requestFactory = RequestFactory.parseAnnotations(retrofit, method);
+
+    okhttp3.Call.Factory callFactory = HttpServiceMethod.clientCallFactory(retrofit, method);
+    if (!(callFactory instanceof okhttp3.WebSocket.Factory)) {
+      throw methodError(method, "@WebSocket methods require a call factory which is also an"
+          + " okhttp3.WebSocket.Factory (e.g., OkHttpClient). Found: %s",
+          callFactory.getClass().getName());
+    }
+    // Sockets are long-lived, so they are balanced but never held back by the call scheduler.
+    okhttp3.WebSocket.Factory socketFactory = (okhttp3.WebSocket.Factory) callFactory;
+    LoadBalancer loadBalancer = retrofit.loadBalancer;
+    if (loadBalancer != null
+        && !requestFactory.hasBaseUrlParameter
+        && !requestFactory.hasUrlParameter) {
+      socketFactory = loadBalancer.wrapWebSockets(socketFactory);
+    }
+
+    return new WebSocketServiceMethod<>(requestFactory, socketFactory, converters.send,
+        converters.receive, retrofit.callbackExecutor());
+  }
+
+  private final RequestFactory requestFactory;
+  private final okhttp3.WebSocket.Factory socketFactory;
+  private final Converter<S, RequestBody> sendConverter;
+  private final Converter<ResponseBody, R> receiveConverter;
+  private final @Nullable Executor callbackExecutor;
+
+  private WebSocketServiceMethod(RequestFactory requestFactory,
+      okhttp3.WebSocket.Factory socketFactory, Converter<S, RequestBody> sendConverter,
+      Converter<ResponseBody, R> receiveConverter,
+      @Nullable Executor callbackExecutor) {
+    this.requestFactory = requestFactory;
+    this.socketFactory = socketFactory;
+    this.sendConverter = sendConverter;
+    this.receiveConverter = receiveConverter;
+    this.callbackExecutor = callbackExecutor;
+  }
+
+  @Override WebSocketChannel<S, R> invoke(@Nullable Object[] args) {
+    return new OkHttpWebSocketChannel<>(requestFactory, args, socketFactory, sendConverter,
+        receiveConverter, callbackExecutor);
+  }
+}
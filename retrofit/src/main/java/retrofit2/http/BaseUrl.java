@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import okhttp3.HttpUrl;
+import retrofit2.Retrofit;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Per-call replacement for the scheme, host, and port of the
+ * {@linkplain Retrofit#baseUrl() base URL}.
+ * <pre><code>
+ * &#64;GET("users/{id}")
+ * Call&lt;User&gt; user(@BaseUrl HttpUrl shard, @Path("id") String id);
+ * </code></pre>
+ * <p>
+ * The request URL is built from the relative URL and the parameters exactly as it would be
+ * without this annotation. Only its scheme, host, and port are then replaced with those of the
+ * parameter value. The path of the parameter value is ignored.
+ * <p>
+ * Values may be {@link HttpUrl} or {@link String}. Strings are parsed on every call, so prefer
+ * {@link HttpUrl} instances when the set of hosts is known ahead of time.
+ */
+@Documented
+@Target(PARAMETER)
+@Retention(RUNTIME)
+public @interface BaseUrl {
+}
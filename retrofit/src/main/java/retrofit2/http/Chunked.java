@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Upload the {@link Body @Body} in fixed-size chunks sent concurrently to {@link #path()}, rather
+ * than in a single request. The body must be a {@link java.io.File} or
+ * {@code java.nio.file.Path}.
+ * <pre><code>
+ * &#64;Chunked(path = "uploads/{id}/chunks/{chunk}")
+ * &#64;POST("uploads/{id}")
+ * Call&lt;Upload&gt; upload(@Path("id") String id, @Body File file);
+ * </code></pre>
+ * Each chunk is a {@link #method()} request to {@link #path()} with {@code {chunk}} replaced by
+ * the zero-based chunk index and a {@code Content-Range} header locating the chunk in the file.
+ * Other parameters apply to chunk requests as they do to the method's own request. Once every
+ * chunk is stored, the method's own request is sent with an empty body to complete the upload,
+ * and its response is the response of the call.
+ * <p>
+ * Completed chunks are recorded in a {@code .upload} file next to the body. If the upload fails
+ * or is canceled, calling the method again with the same file and URL sends only the missing
+ * chunks. Changing the file starts the upload over.
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Chunked {
+  /**
+   * A relative or absolute URL for each chunk. It must contain {@code {chunk}} and may use any of
+   * the method's {@link Path @Path} names.
+   */
+  String path();
+
+  /** The HTTP method used for chunks. */
+  String method() default "PUT";
+
+  /** The size of each chunk in bytes. The last chunk may be smaller. */
+  long size() default 8 * 1024 * 1024;
+
+  /** The number of chunks uploaded at the same time. */
+  int concurrency() default 4;
+}
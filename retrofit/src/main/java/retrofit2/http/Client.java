@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import retrofit2.Retrofit;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Send calls of this method with the call factory registered under {@link #value()} instead of
+ * the {@linkplain Retrofit#callFactory() default one}. This allows slow and latency-sensitive
+ * endpoints of the same interface to use separate dispatchers, connection pools, and timeouts.
+ * <pre><code>
+ * &#64;Client("bulk")
+ * &#64;GET("reports/export")
+ * Call&lt;ResponseBody&gt; export();
+ * </code></pre>
+ *
+ * @see Retrofit.Builder#client(String, okhttp3.OkHttpClient)
+ * @see Retrofit.Builder#callFactory(String, okhttp3.Call.Factory)
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Client {
+  /** The name the call factory was registered with on {@link Retrofit.Builder}. */
+  String value();
+}
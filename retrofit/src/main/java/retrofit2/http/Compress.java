@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Compress the request body with a {@linkplain retrofit2.ContentCodec content codec} and set its
+ * {@code Content-Encoding} header. The body is compressed while it is written, so it is never
+ * buffered in memory.
+ * <pre><code>
+ * &#64;Compress
+ * &#64;POST("events")
+ * Call&lt;ResponseBody&gt; send(@Body List&lt;Event&gt; events);
+ * </code></pre>
+ * On a method this applies to the whole body, including form and multipart bodies. It may instead
+ * annotate the {@link Body @Body} parameter.
+ * <p>
+ * Bodies whose length is known and smaller than {@link #threshold()} are sent uncompressed.
+ * Compressed bodies have an unknown length and are sent with chunked transfer encoding.
+ */
+@Documented
+@Target({ METHOD, PARAMETER })
+@Retention(RUNTIME)
+public @interface Compress {
+  /** The {@code Content-Encoding} of the codec, like {@code gzip} or {@code deflate}. */
+  String value() default "gzip";
+
+  /** The smallest body in bytes which is compressed. */
+  long threshold() default 1024;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Where to save the body of a method which returns {@link java.io.File} or
+ * {@code java.nio.file.Path}. The parameter must be a {@code File} or {@code Path}.
+ * <pre><code>
+ * &#64;GET("artifacts/{name}")
+ * Call&lt;File&gt; download(@Path("name") String name, @Destination File file);
+ * </code></pre>
+ * The body is streamed to a temporary file next to the destination and renamed over it once
+ * complete, so the destination never holds a partial download. A {@code null} argument, or
+ * omitting this parameter, saves the body to a new temporary file instead.
+ */
+@Documented
+@Target(PARAMETER)
+@Retention(RUNTIME)
+public @interface Destination {
+}
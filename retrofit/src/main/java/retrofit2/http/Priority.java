@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import retrofit2.CallScheduler;
+import retrofit2.Retrofit;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The priority of asynchronous calls of this method when a {@link CallScheduler} is
+ * {@linkplain Retrofit.Builder#callScheduler(CallScheduler) installed}. Higher values are released
+ * to the call factory sooner. Calls without a priority have priority 0.
+ * <pre><code>
+ * &#64;Priority(10)
+ * &#64;GET("users/{id}")
+ * Call&lt;User&gt; user(@Path("id") String id);
+ * </code></pre>
+ * When used on an {@code int} or {@link Integer} parameter the argument overrides the priority of
+ * the method for that call. A {@code null} argument keeps the method's priority.
+ * <pre><code>
+ * &#64;GET("images/{id}")
+ * Call&lt;ResponseBody&gt; image(@Path("id") String id, @Priority int priority);
+ * </code></pre>
+ */
+@Documented
+@Target({METHOD, PARAMETER})
+@Retention(RUNTIME)
+public @interface Priority {
+  /** The priority of the method. Ignored on parameters. */
+  int value() default 0;
+}
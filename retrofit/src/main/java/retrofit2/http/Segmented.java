@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Download the body in {@link #value()} byte ranges fetched concurrently, rather than over a
+ * single connection. Only {@link GET} methods which return {@link java.io.File} or
+ * {@code java.nio.file.Path} and have a {@link Destination @Destination} parameter may be
+ * segmented.
+ * <pre><code>
+ * &#64;Segmented(4)
+ * &#64;GET("artifacts/{name}")
+ * Call&lt;File&gt; download(@Path("name") String name, @Destination File file);
+ * </code></pre>
+ * Each range is written straight into its region of a memory-mapped {@code .part} file next to
+ * the destination. Progress is kept in a {@code .segments} file beside it, so a failed or
+ * canceled download picks up where each range stopped the next time the same destination is
+ * requested. The server's {@code ETag} or {@code Last-Modified} header is sent as
+ * {@code If-Range} to make sure the pieces belong to the same version of the body.
+ * <p>
+ * The download falls back to a single stream when the server does not advertise
+ * {@code Accept-Ranges: bytes} with a {@code Content-Length} in response to a {@code HEAD}
+ * request, or when the destination argument is {@code null}.
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Segmented {
+  /** The number of byte ranges to fetch concurrently. */
+  int value();
+}
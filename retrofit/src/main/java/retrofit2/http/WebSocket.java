@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import okhttp3.HttpUrl;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Open a WebSocket. The method must return {@link retrofit2.WebSocketChannel
+ * WebSocketChannel&lt;S, R&gt;} where {@code S} is the type of sent messages and {@code R} the
+ * type of received ones.
+ * <pre><code>
+ * &#64;WebSocket("rooms/{room}")
+ * WebSocketChannel&lt;ChatMessage, ChatEvent&gt; chat(@Path("room") String room);
+ * </code></pre>
+ * The handshake is a GET request, so {@link Path @Path}, {@link Query @Query}, {@link Header
+ * @Header}, and the other parameter annotations which apply to {@link GET @GET} apply here too.
+ * The Retrofit instance's call factory must also be an {@link okhttp3.WebSocket.Factory} such as
+ * {@link okhttp3.OkHttpClient}.
+ * <p>
+ * Sockets are balanced across {@linkplain retrofit2.Retrofit.Builder#baseUrls base URLs} when
+ * they are opened, but are never held back by a {@link retrofit2.CallScheduler}. Annotations which
+ * only apply to a single request or response body, like {@link Compress @Compress} and
+ * {@link Destination @Destination}, are not allowed.
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface WebSocket {
+  /**
+   * A relative or absolute path, or full URL of the endpoint. This value is optional if the first
+   * parameter of the method is annotated with {@link Url @Url}. Use an {@code http} or
+   * {@code https} URL; the handshake upgrades the connection.
+   * <p>
+   * See {@linkplain retrofit2.Retrofit.Builder#baseUrl(HttpUrl) base URL} for details of how
+   * this is resolved against a base URL to create the full endpoint URL.
+   */
+  String value() default "";
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import okhttp3.Callback;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.junit.Test;
+import retrofit2.http.GET;
+import retrofit2.http.Priority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class CallSchedulerTest {
+  interface Service {
+    @GET("/") Call<ResponseBody> normal();
+    @Priority(10) @GET("/") Call<ResponseBody> urgent();
+    @GET("/") Call<ResponseBody> custom(@Priority int priority);
+  }
+
+  private final RecordingCallFactory callFactory = new RecordingCallFactory();
+
+  @Test public void limitsCallsInFlight() {
+    CallScheduler scheduler = new CallScheduler(2);
+    okhttp3.Call.Factory factory = scheduler.wrap(callFactory);
+
+    for (int i = 0; i < 3; i++) {
+      factory.newCall(request(0)).enqueue(new NoopCallback());
+    }
+    assertThat(callFactory.dispatched).hasSize(2);
+    assertThat(scheduler.runningCallsCount()).isEqualTo(2);
+    assertThat(scheduler.queuedCallsCount()).isEqualTo(1);
+
+    callFactory.dispatched.get(0).complete();
+    assertThat(callFactory.dispatched).hasSize(3);
+    assertThat(scheduler.runningCallsCount()).isEqualTo(2);
+    assertThat(scheduler.queuedCallsCount()).isEqualTo(0);
+    assertThat(scheduler.dispatchedCallsCount()).isEqualTo(3);
+  }
+
+  @Test public void higherPriorityReleasedFirst() {
+    CallScheduler scheduler = new CallScheduler(1, 1, TimeUnit.HOURS);
+    okhttp3.Call.Factory factory = scheduler.wrap(callFactory);
+
+    factory.newCall(request(0)).enqueue(new NoopCallback()); // Occupies the only slot.
+    factory.newCall(request(0)).enqueue(new NoopCallback());
+    factory.newCall(request(5)).enqueue(new NoopCallback());
+    factory.newCall(request(1)).enqueue(new NoopCallback());
+
+    for (int i = 0; i < 3; i++) {
+      callFactory.dispatched.get(i).complete();
+    }
+    assertThat(callFactory.priorities()).containsExactly(0, 5, 1, 0);
+  }
+
+  @Test public void olderCallsAreNotStarved() throws InterruptedException {
+    CallScheduler scheduler = new CallScheduler(1, 1, TimeUnit.NANOSECONDS);
+    okhttp3.Call.Factory factory = scheduler.wrap(callFactory);
+
+    factory.newCall(request(0)).enqueue(new NoopCallback()); // Occupies the only slot.
+    factory.newCall(request(0)).enqueue(new NoopCallback());
+    Thread.sleep(10);
+    factory.newCall(request(1000)).enqueue(new NoopCallback());
+
+    callFactory.dispatched.get(0).complete();
+    callFactory.dispatched.get(1).complete();
+    assertThat(callFactory.priorities()).containsExactly(0, 0, 1000);
+  }
+
+  @Test public void equalPrioritiesReleasedInOrder() {
+    CallScheduler scheduler = new CallScheduler(1, 0, TimeUnit.NANOSECONDS);
+    okhttp3.Call.Factory factory = scheduler.wrap(callFactory);
+
+    factory.newCall(request(0)).enqueue(new NoopCallback());
+    for (int i = 1; i <= 3; i++) {
+      factory.newCall(request(0).newBuilder().header("Order", "" + i).build())
+          .enqueue(new NoopCallback());
+    }
+    for (int i = 0; i < 3; i++) {
+      callFactory.dispatched.get(i).complete();
+    }
+    assertThat(callFactory.dispatched.get(1).request.header("Order")).isEqualTo("1");
+    assertThat(callFactory.dispatched.get(2).request.header("Order")).isEqualTo("2");
+    assertThat(callFactory.dispatched.get(3).request.header("Order")).isEqualTo("3");
+  }
+
+  @Test public void cancelQueuedCallFailsWithoutDispatching() {
+    CallScheduler scheduler = new CallScheduler(1);
+    okhttp3.Call.Factory factory = scheduler.wrap(callFactory);
+
+    factory.newCall(request(0)).enqueue(new NoopCallback());
+    okhttp3.Call queued = factory.newCall(request(0));
+    final AtomicReference<IOException> failure = new AtomicReference<>();
+    queued.enqueue(new NoopCallback() {
+      @Override public void onFailure(okhttp3.Call call, IOException e) {
+        failure.set(e);
+      }
+    });
+
+    queued.cancel();
+    assertThat(queued.isCanceled()).isTrue();
+    assertThat(failure.get()).hasMessage("Canceled");
+    assertThat(scheduler.queuedCallsCount()).isEqualTo(0);
+
+    callFactory.dispatched.get(0).complete();
+    assertThat(callFactory.dispatched).hasSize(1);
+    assertThat(scheduler.runningCallsCount()).isEqualTo(0);
+  }
+
+  @Test public void rejectedCallsFailAndFreeTheirSlot() {
+    CallScheduler scheduler = new CallScheduler(1);
+    okhttp3.Call.Factory factory = scheduler.wrap(callFactory);
+    callFactory.enqueueFailure = new RejectedExecutionException("Dispatcher is shut down");
+
+    final List<IOException> failures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      factory.newCall(request(0)).enqueue(new NoopCallback() {
+        @Override public void onFailure(okhttp3.Call call, IOException e) {
+          failures.add(e);
+        }
+      });
+    }
+    assertThat(failures).hasSize(3);
+    assertThat(failures.get(0).getCause()).isInstanceOf(RejectedExecutionException.class);
+    assertThat(scheduler.runningCallsCount()).isEqualTo(0);
+    assertThat(scheduler.queuedCallsCount()).isEqualTo(0);
+  }
+
+  @Test public void executeBypassesQueue() throws IOException {
+    CallScheduler scheduler = new CallScheduler(1);
+    okhttp3.Call.Factory factory = scheduler.wrap(callFactory);
+
+    factory.newCall(request(0)).enqueue(new NoopCallback());
+    okhttp3.Response response = factory.newCall(request(0)).execute();
+    assertThat(response.code()).isEqualTo(200);
+    assertThat(scheduler.runningCallsCount()).isEqualTo(1);
+  }
+
+  @Test public void enqueueTwiceThrows() {
+    okhttp3.Call call = new CallScheduler(1).wrap(callFactory).newCall(request(0));
+    call.enqueue(new NoopCallback());
+    try {
+      call.enqueue(new NoopCallback());
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Already Executed");
+    }
+  }
+
+  @Test public void invalidMaxRequestsThrows() {
+    try {
+      new CallScheduler(0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("maxRequests < 1: 0");
+    }
+  }
+
+  @Test public void retrofitSchedulesCallsByPriority() {
+    CallScheduler scheduler = new CallScheduler(1, 1, TimeUnit.HOURS);
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl("http://example.com/")
+        .callFactory(callFactory)
+        .callScheduler(scheduler)
+        .build();
+    assertThat(retrofit.callScheduler()).isSameAs(scheduler);
+    Service service = retrofit.create(Service.class);
+
+    service.normal().enqueue(new NoopRetrofitCallback());
+    service.normal().enqueue(new NoopRetrofitCallback());
+    service.custom(3).enqueue(new NoopRetrofitCallback());
+    service.urgent().enqueue(new NoopRetrofitCallback());
+    assertThat(scheduler.queuedCallsCount()).isEqualTo(3);
+
+    for (int i = 0; i < 3; i++) {
+      callFactory.dispatched.get(i).complete();
+    }
+    assertThat(callFactory.priorities()).containsExactly(0, 10, 3, 0);
+  }
+
+  private static Request request(int priority) {
+    return new Request.Builder()
+        .url("http://example.com/")
+        .tag(CallScheduler.PriorityTag.class, new CallScheduler.PriorityTag(priority))
+        .build();
+  }
+
+  static final class RecordingCallFactory implements okhttp3.Call.Factory {
+    final List<RecordingCall> dispatched = new ArrayList<>();
+    @Nullable RuntimeException enqueueFailure;
+
+    @Override public okhttp3.Call newCall(Request request) {
+      return new RecordingCall(this, request);
+    }
+
+    List<Integer> priorities() {
+      List<Integer> priorities = new ArrayList<>();
+      for (RecordingCall call : dispatched) {
+        CallScheduler.PriorityTag tag = call.request.tag(CallScheduler.PriorityTag.class);
+        priorities.add(tag != null ? tag.value : 0);
+      }
+      return priorities;
+    }
+  }
+
+  static final class RecordingCall implements okhttp3.Call {
+    final RecordingCallFactory factory;
+    final Request request;
+    Callback callback;
+    boolean canceled;
+
+    RecordingCall(RecordingCallFactory factory, Request request) {
+      this.factory = factory;
+      this.request = request;
+    }
+
+    void complete() {
+      try {
+        callback.onResponse(this, response());
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    private okhttp3.Response response() {
+      return new okhttp3.Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(200)
+          .message("OK")
+          .body(ResponseBody.create(null, ""))
+          .build();
+    }
+
+    @Override public Request request() {
+      return request;
+    }
+
+    @Override public okhttp3.Response execute() {
+      return response();
+    }
+
+    @Override public void enqueue(Callback responseCallback) {
+      if (factory.enqueueFailure != null) throw factory.enqueueFailure;
+      callback = responseCallback;
+      factory.dispatched.add(this);
+    }
+
+    @Override public void cancel() {
+      canceled = true;
+    }
+
+    @Override public boolean isExecuted() {
+      return callback != null;
+    }
+
+    @Override public boolean isCanceled() {
+      return canceled;
+    }
+
+    @Override public okhttp3.Call clone() {
+      return new RecordingCall(factory, request);
+    }
+  }
+
+  static class NoopCallback implements Callback {
+    @Override public void onFailure(okhttp3.Call call, IOException e) {
+    }
+
+    @Override public void onResponse(okhttp3.Call call, okhttp3.Response response) {
+    }
+  }
+
+  static class NoopRetrofitCallback implements retrofit2.Callback<ResponseBody> {
+    @Override public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+    }
+
+    @Override public void onFailure(Call<ResponseBody> call, Throwable t) {
+    }
+  }
+}
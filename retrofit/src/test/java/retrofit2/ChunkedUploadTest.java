@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.Chunked;
+import retrofit2.http.HTTP;
+import retrofit2.http.Header;
+import retrofit2.http.POST;
+import retrofit2.http.Path;
+import retrofit2.http.Segmented;
+import retrofit2.http.Url;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class ChunkedUploadTest {
+  private static final Pattern CHUNK_PATH = Pattern.compile("/uploads/(\\w+)/chunks/(\\d+)");
+
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  interface Service {
+    @Chunked(path = "uploads/{id}/chunks/{chunk}", size = 10000, concurrency = 3)
+    @POST("uploads/{id}")
+    Call<String> upload(@Path("id") String id, @Header("Auth") String auth, @Body File file);
+  }
+
+  private final ByteString content = randomBytes(95000);
+  private final Map<Integer, ByteString> chunks = new ConcurrentHashMap<>();
+  private final Map<Integer, String> contentRanges = new ConcurrentHashMap<>();
+  private final AtomicInteger chunkRequests = new AtomicInteger();
+  private final AtomicInteger maxConcurrentChunks = new AtomicInteger();
+  private final AtomicInteger concurrentChunks = new AtomicInteger();
+  private volatile int failingChunk = -1;
+  private Service service;
+  private File file;
+
+  private static ByteString randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(0).nextBytes(bytes);
+    return ByteString.of(bytes);
+  }
+
+  @Before public void setUp() throws IOException {
+    server.setDispatcher(new Dispatcher() {
+      @Override public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        assertThat(request.getHeader("Auth")).isEqualTo("secret");
+        Matcher matcher = CHUNK_PATH.matcher(request.getPath());
+        if (matcher.matches()) {
+          assertThat(request.getMethod()).isEqualTo("PUT");
+          int running = concurrentChunks.incrementAndGet();
+          try {
+            while (true) {
+              int max = maxConcurrentChunks.get();
+              if (running <= max || maxConcurrentChunks.compareAndSet(max, running)) break;
+            }
+            Thread.sleep(10);
+            chunkRequests.incrementAndGet();
+            int chunk = Integer.parseInt(matcher.group(2));
+            if (chunk == failingChunk) return new MockResponse().setResponseCode(503);
+            chunks.put(chunk, request.getBody().readByteString());
+            contentRanges.put(chunk, request.getHeader("Content-Range"));
+            return new MockResponse().setResponseCode(204);
+          } finally {
+            concurrentChunks.decrementAndGet();
+          }
+        }
+        assertThat(request.getPath()).isEqualTo("/uploads/abc");
+        assertThat(request.getBodySize()).isEqualTo(0);
+        Buffer assembled = new Buffer();
+        for (int i = 0; i < chunks.size(); i++) {
+          assembled.write(chunks.get(i));
+        }
+        return new MockResponse().setBody(assembled.readByteString().md5().hex());
+      }
+    });
+    service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .build()
+        .create(Service.class);
+    file = temporaryFolder.newFile("upload.bin");
+    Okio.buffer(Okio.sink(file)).write(content).close();
+  }
+
+  @Test public void uploadsChunksConcurrentlyThenCompletes() throws IOException {
+    Response<String> response = service.upload("abc", "secret", file).execute();
+    assertThat(response.body()).isEqualTo(content.md5().hex());
+    assertThat(chunks).hasSize(10);
+    assertThat(chunks.get(9).size()).isEqualTo(5000);
+    assertThat(contentRanges.get(0)).isEqualTo("bytes 0-9999/95000");
+    assertThat(contentRanges.get(9)).isEqualTo("bytes 90000-94999/95000");
+    assertThat(maxConcurrentChunks.get()).isBetween(2, 3);
+    assertThat(temporaryFolder.getRoot().list()).containsOnly("upload.bin");
+  }
+
+  @Test public void resumesMissingChunks() throws IOException {
+    failingChunk = 4;
+    try {
+      service.upload("abc", "secret", file).execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Chunk 4 failed with HTTP 503");
+    }
+    assertThat(temporaryFolder.getRoot().list()).containsOnly("upload.bin", "upload.bin.upload");
+
+    failingChunk = -1;
+    int before = chunkRequests.get();
+    Response<String> response = service.upload("abc", "secret", file).execute();
+    assertThat(response.body()).isEqualTo(content.md5().hex());
+    // Chunk 4 and the chunks which weren't started when it failed.
+    assertThat(chunkRequests.get() - before).isLessThan(10);
+    assertThat(temporaryFolder.getRoot().list()).containsOnly("upload.bin");
+  }
+
+  @Test public void changedFileStartsOver() throws IOException {
+    failingChunk = 4;
+    try {
+      service.upload("abc", "secret", file).execute();
+      fail();
+    } catch (IOException expected) {
+    }
+
+    failingChunk = -1;
+    Okio.buffer(Okio.sink(file)).write(content).writeByte(0).close();
+    assertThat(file.setLastModified(file.lastModified() + 2000)).isTrue();
+    int before = chunkRequests.get();
+    service.upload("abc", "secret", file).execute();
+    assertThat(chunkRequests.get() - before).isEqualTo(10);
+  }
+
+  @Test public void asynchronous() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(1);
+    service.upload("abc", "secret", file).enqueue(new Callback<String>() {
+      @Override public void onResponse(Call<String> call, Response<String> response) {
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<String> call, Throwable t) {
+        t.printStackTrace();
+      }
+    });
+    assertThat(latch.await(10, SECONDS)).isTrue();
+    assertThat(chunks).hasSize(10);
+  }
+
+  interface NoBody {
+    @Chunked(path = "chunks/{chunk}")
+    @POST("/") Call<ResponseBody> upload();
+  }
+
+  @Test public void bodyRequired() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(NoBody.class).upload();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Chunked methods must have a @Body parameter.\n"
+          + "    for method NoBody.upload");
+    }
+  }
+
+  interface StringBody {
+    @Chunked(path = "chunks/{chunk}")
+    @POST("/") Call<ResponseBody> upload(@Body String body);
+  }
+
+  @Test public void fileBodyRequired() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    try {
+      retrofit.create(StringBody.class).upload("hey");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Chunked @Body must be java.io.File or java.nio.file.Path type.\n"
+          + "    for method StringBody.upload");
+    }
+  }
+
+  interface MissingChunk {
+    @Chunked(path = "chunks")
+    @POST("/") Call<ResponseBody> upload(@Body File file);
+  }
+
+  @Test public void chunkPathMustContainChunk() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(MissingChunk.class).upload(file);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Chunked path must contain {chunk}: chunks\n"
+          + "    for method MissingChunk.upload");
+    }
+  }
+
+  interface UnknownPath {
+    @Chunked(path = "uploads/{id}/{chunk}")
+    @POST("/") Call<ResponseBody> upload(@Body File file);
+  }
+
+  @Test public void chunkPathParametersMustBeMethodPathParameters() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(UnknownPath.class).upload(file);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Chunked path \"uploads/{id}/{chunk}\" uses {id}, which is not a "
+          + "@Path of the method.\n"
+          + "    for method UnknownPath.upload");
+    }
+  }
+
+  interface ChunkedAndSegmented {
+    @Chunked(path = "chunks/{chunk}") @Segmented(4)
+    @HTTP(method = "GET", path = "/", hasBody = true) Call<File> upload(@Body File file);
+  }
+
+  @Test public void segmentedNotAllowed() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(ChunkedAndSegmented.class).upload(file);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Chunked and @Segmented cannot be used together.\n"
+          + "    for method ChunkedAndSegmented.upload");
+    }
+  }
+
+  interface UrlParameter {
+    @Chunked(path = "chunks/{chunk}")
+    @POST Call<ResponseBody> upload(@Url String url, @Body File file);
+  }
+
+  @Test public void urlParameterNotAllowed() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(UrlParameter.class).upload("uploads", file);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Chunked methods cannot have a @Url parameter.\n"
+          + "    for method UrlParameter.upload");
+    }
+  }
+
+  interface NotChunked {
+    @POST("/") Call<ResponseBody> upload(@Body File file);
+  }
+
+  @Test public void unannotatedMethodsAreNotChunked() throws Exception {
+    MockWebServer plain = new MockWebServer();
+    plain.enqueue(new MockResponse());
+    try {
+      Retrofit retrofit = new Retrofit.Builder().baseUrl(plain.url("/")).build();
+      retrofit.create(NotChunked.class).upload(file).execute();
+      assertThat(plain.takeRequest().getBody().readByteString()).isEqualTo(content);
+    } finally {
+      plain.shutdown();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.GET;
+
+import static okhttp3.mockwebserver.SocketPolicy.DISCONNECT_AFTER_REQUEST;
+import static okhttp3.mockwebserver.SocketPolicy.NO_RESPONSE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class CompletableFutureTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @GET("/") CompletableFuture<String> body();
+    @GET("/") CompletableFuture<Response<String>> response();
+    @GET("/") CompletionStage<String> stage();
+    @GET("/") CompletableFuture unparameterized();
+  }
+
+  private final AtomicReference<okhttp3.Call> lastCall = new AtomicReference<>();
+  private Service service;
+
+  @Before public void setUp() {
+    final OkHttpClient client = new OkHttpClient();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .callFactory(new okhttp3.Call.Factory() {
+          @Override public okhttp3.Call newCall(Request request) {
+            okhttp3.Call call = client.newCall(request);
+            lastCall.set(call);
+            return call;
+          }
+        })
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void bodySuccess200() throws Exception {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    CompletableFuture<String> future = service.body();
+    assertThat(future.get()).isEqualTo("Hi");
+  }
+
+  @Test public void bodySuccess404() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    CompletableFuture<String> future = service.body();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause())
+          .isInstanceOf(HttpException.class)
+          .hasMessage("HTTP 404 Client Error");
+    }
+  }
+
+  @Test public void bodyFailure() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(DISCONNECT_AFTER_REQUEST));
+
+    CompletableFuture<String> future = service.body();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+  }
+
+  @Test public void responseSuccess404() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(404).setBody("Hi"));
+
+    CompletableFuture<Response<String>> future = service.response();
+    Response<String> response = future.get();
+    assertThat(response.isSuccessful()).isFalse();
+    assertThat(response.errorBody().string()).isEqualTo("Hi");
+  }
+
+  @Test public void completionStage() throws Exception {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    CompletionStage<String> stage = service.stage();
+    assertThat(stage.toCompletableFuture().get()).isEqualTo("Hi");
+  }
+
+  @Test public void unparameterizedThrows() {
+    try {
+      service.unparameterized();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Unable to create call adapter for class "
+          + "java.util.concurrent.CompletableFuture\n"
+          + "    for method Service.unparameterized");
+      assertThat(e.getCause()).hasMessage("CompletableFuture return type must be parameterized as "
+          + "CompletableFuture<Foo> or CompletableFuture<? extends Foo>");
+    }
+  }
+
+  @Test public void cancelCancelsCall() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(NO_RESPONSE));
+
+    CompletableFuture<String> future = service.body();
+    assertThat(server.takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+    // Cancellation propagates even when the caller does not ask to interrupt.
+    assertThat(future.cancel(false)).isTrue();
+    assertThat(future.isCancelled()).isTrue();
+    assertThat(lastCall.get().isCanceled()).isTrue();
+  }
+
+  @Test public void cancelAfterCompletionDoesNotCancelCall() throws Exception {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    CompletableFuture<String> future = service.body();
+    assertThat(future.get()).isEqualTo("Hi");
+    assertThat(future.cancel(true)).isFalse();
+    assertThat(lastCall.get().isCanceled()).isFalse();
+  }
+
+  @Test public void completedOnCallbackExecutor() throws Exception {
+    final AtomicInteger executions = new AtomicInteger();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .callbackExecutor(new Executor() {
+          @Override public void execute(Runnable command) {
+            executions.incrementAndGet();
+            new Thread(command, "completion").start();
+          }
+        })
+        .build();
+    Service service = retrofit.create(Service.class);
+    server.enqueue(new MockResponse().setBody("Hi").setBodyDelay(200, TimeUnit.MILLISECONDS));
+
+    final AtomicReference<String> thread = new AtomicReference<>();
+    CompletableFuture<String> future = service.body();
+    future.thenRun(new Runnable() {
+      @Override public void run() {
+        thread.set(Thread.currentThread().getName());
+      }
+    }).get();
+    assertThat(future.get()).isEqualTo("Hi");
+    assertThat(thread.get()).isEqualTo("completion");
+    assertThat(executions.get()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.util.zip.Deflater;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.DeflaterSink;
+import okio.ForwardingSink;
+import okio.ForwardingSource;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.InflaterSource;
+import okio.Okio;
+import okio.Sink;
+import okio.Source;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.Compress;
+import retrofit2.http.Field;
+import retrofit2.http.FormUrlEncoded;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.POST;
+import retrofit2.http.Streaming;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class CompressTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @Compress @POST("/") Call<String> gzip(@Body String body);
+    @POST("/") Call<String> deflate(@Compress(value = "deflate", threshold = 0) @Body String body);
+    @Compress(threshold = 0) @POST("/") Call<String> unknownLength(@Body RequestBody body);
+    @Compress(threshold = 0) @FormUrlEncoded @POST("/") Call<String> form(@Field("a") String a);
+    @Compress("x-upper") @POST("/") Call<String> custom(@Body String body);
+    @GET("/") Call<String> get();
+    @Streaming @GET("/") Call<ResponseBody> download(@Header("Accept-Encoding") String encoding);
+  }
+
+  /** Upper-cases ASCII on the way out and lower-cases it on the way in. */
+  static final ContentCodec UPPER = new ContentCodec() {
+    @Override public String encoding() {
+      return "X-Upper";
+    }
+
+    @Override public Sink encode(Sink sink) {
+      return new ForwardingSink(sink) {
+        @Override public void write(Buffer source, long byteCount) throws IOException {
+          Buffer upper = new Buffer().writeUtf8(source.readUtf8(byteCount).toUpperCase());
+          super.write(upper, upper.size());
+        }
+      };
+    }
+
+    @Override public Source decode(Source source) {
+      return new ForwardingSource(source) {
+        @Override public long read(Buffer sink, long byteCount) throws IOException {
+          Buffer buffer = new Buffer();
+          long read = super.read(buffer, byteCount);
+          if (read != -1) sink.writeUtf8(buffer.readUtf8().toLowerCase());
+          return read;
+        }
+      };
+    }
+  };
+
+  private final String text = repeat("Hello, compression! ", 100);
+  private Service service;
+
+  private static String repeat(String s, int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(s);
+    }
+    return builder.toString();
+  }
+
+  @Before public void setUp() {
+    service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .addContentCodec(UPPER)
+        .build()
+        .create(Service.class);
+  }
+
+  private RecordedRequest send(Call<String> call) throws Exception {
+    server.enqueue(new MockResponse());
+    call.execute();
+    return server.takeRequest();
+  }
+
+  @Test public void gzip() throws Exception {
+    RecordedRequest request = send(service.gzip(text));
+    assertThat(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("text/plain; charset=utf-8");
+    assertThat(request.getHeader("Content-Length")).isNull();
+    assertThat(request.getBodySize()).isLessThan(text.length());
+    assertThat(Okio.buffer(new GzipSource(request.getBody())).readUtf8()).isEqualTo(text);
+  }
+
+  @Test public void belowThresholdIsNotCompressed() throws Exception {
+    RecordedRequest request = send(service.gzip("Hi"));
+    assertThat(request.getHeader("Content-Encoding")).isNull();
+    assertThat(request.getHeader("Content-Length")).isEqualTo("2");
+    assertThat(request.getBody().readUtf8()).isEqualTo("Hi");
+  }
+
+  @Test public void deflateParameter() throws Exception {
+    RecordedRequest request = send(service.deflate(text));
+    assertThat(request.getHeader("Content-Encoding")).isEqualTo("deflate");
+    Buffer body = request.getBody();
+    assertThat(Okio.buffer(new InflaterSource(body, new java.util.zip.Inflater())).readUtf8())
+        .isEqualTo(text);
+  }
+
+  @Test public void unknownLengthIsCompressed() throws Exception {
+    RequestBody body = new RequestBody() {
+      @Override public okhttp3.MediaType contentType() {
+        return null;
+      }
+
+      @Override public void writeTo(BufferedSink sink) throws IOException {
+        sink.writeUtf8("Hi");
+      }
+    };
+    RecordedRequest request = send(service.unknownLength(body));
+    assertThat(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+    assertThat(Okio.buffer(new GzipSource(request.getBody())).readUtf8()).isEqualTo("Hi");
+  }
+
+  @Test public void formBody() throws Exception {
+    RecordedRequest request = send(service.form("b"));
+    assertThat(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+    assertThat(request.getHeader("Content-Type"))
+        .isEqualTo("application/x-www-form-urlencoded");
+    assertThat(Okio.buffer(new GzipSource(request.getBody())).readUtf8()).isEqualTo("a=b");
+  }
+
+  @Test public void customCodec() throws Exception {
+    RecordedRequest request = send(service.custom(text));
+    assertThat(request.getHeader("Content-Encoding")).isEqualTo("X-Upper");
+    assertThat(request.getBody().readUtf8()).isEqualTo(text.toUpperCase());
+  }
+
+  private Buffer deflate(String text) throws IOException {
+    Buffer deflated = new Buffer();
+    BufferedSink sink = Okio.buffer(new DeflaterSink(deflated, new Deflater()));
+    sink.writeUtf8(text).close();
+    return deflated;
+  }
+
+  @Test public void builtInDeflateResponseIsLeftAlone() throws Exception {
+    ByteString deflated = deflate(text).readByteString();
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Encoding", "deflate")
+        .setBody(new Buffer().write(deflated)));
+
+    Response<ResponseBody> response = service.download("deflate").execute();
+    assertThat(response.body().source().readByteString()).isEqualTo(deflated);
+    assertThat(response.headers().get("Content-Encoding")).isEqualTo("deflate");
+  }
+
+  @Test public void registeredResponseIsDecoded() throws Exception {
+    ContentCodec inflate = new ContentCodec() {
+      @Override public String encoding() {
+        return "deflate";
+      }
+
+      @Override public Sink encode(Sink sink) {
+        return new DeflaterSink(sink, new Deflater());
+      }
+
+      @Override public Source decode(Source source) {
+        return new InflaterSource(Okio.buffer(source), new java.util.zip.Inflater());
+      }
+    };
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .addContentCodec(inflate)
+        .build()
+        .create(Service.class);
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Encoding", "deflate")
+        .setBody(deflate(text)));
+
+    Response<String> response = service.get().execute();
+    assertThat(response.body()).isEqualTo(text);
+    assertThat(response.headers().get("Content-Encoding")).isNull();
+    assertThat(response.headers().get("Content-Length")).isNull();
+  }
+
+  @Test public void requestedGzipResponseIsLeftAlone() throws Exception {
+    Buffer gzipped = new Buffer();
+    BufferedSink sink = Okio.buffer(new GzipSink(gzipped));
+    sink.writeUtf8(text).close();
+    ByteString bytes = gzipped.readByteString();
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Encoding", "gzip")
+        .setBody(new Buffer().write(bytes)));
+
+    Response<ResponseBody> response = service.download("gzip").execute();
+    assertThat(response.body().source().readByteString()).isEqualTo(bytes);
+    assertThat(response.headers().get("Content-Encoding")).isEqualTo("gzip");
+    assertThat(response.headers().get("Content-Length")).isEqualTo(String.valueOf(bytes.size()));
+  }
+
+  @Test public void customResponseIsDecoded() throws Exception {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Encoding", "x-upper")
+        .setBody("HELLO"));
+    assertThat(service.get().execute().body()).isEqualTo("hello");
+  }
+
+  @Test public void errorResponseIsDecoded() throws Exception {
+    server.enqueue(new MockResponse()
+        .setResponseCode(400)
+        .setHeader("Content-Encoding", "x-upper")
+        .setBody("NOPE"));
+    Response<String> response = service.get().execute();
+    assertThat(response.errorBody().string()).isEqualTo("nope");
+  }
+
+  @Test public void unknownResponseEncodingIsLeftAlone() throws Exception {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Encoding", "br")
+        .setBody("raw"));
+    Response<String> response = service.get().execute();
+    assertThat(response.body()).isEqualTo("raw");
+    assertThat(response.headers().get("Content-Encoding")).isEqualTo("br");
+  }
+
+  @Test public void contentCodecLookupIgnoresCase() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+    assertThat(retrofit.contentCodec("GZIP")).isNotNull();
+    assertThat(retrofit.contentCodec("Deflate")).isNotNull();
+    assertThat(retrofit.contentCodec("x-upper")).isNull();
+    assertThat(retrofit.newBuilder().addContentCodec(UPPER).build().contentCodec("x-upper"))
+        .isSameAs(UPPER);
+  }
+
+  interface UnknownCodec {
+    @Compress("br") @POST("/") Call<String> method(@Body String body);
+  }
+
+  @Test public void unknownCodec() {
+    try {
+      new Retrofit.Builder()
+          .baseUrl(server.url("/"))
+          .addConverterFactory(new ToStringConverterFactory())
+          .build()
+          .create(UnknownCodec.class)
+          .method("Hi");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("No content codec found for @Compress(\"br\").\n"
+          + "    for method UnknownCodec.method");
+    }
+  }
+
+  interface NotBody {
+    @POST("/") Call<String> method(@Compress @Header("a") String a, @Body String body);
+  }
+
+  @Test public void compressParameterMustBeBody() {
+    try {
+      new Retrofit.Builder()
+          .baseUrl(server.url("/"))
+          .addConverterFactory(new ToStringConverterFactory())
+          .build()
+          .create(NotBody.class)
+          .method("a", "Hi");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Compress parameters must also be annotated with @Body. "
+          + "(parameter #1)\n    for method NotBody.method");
+    }
+  }
+
+  interface NoBody {
+    @Compress @GET("/") Call<String> method();
+  }
+
+  @Test public void compressRequiresBodyMethod() {
+    try {
+      new Retrofit.Builder()
+          .baseUrl(server.url("/"))
+          .addConverterFactory(new ToStringConverterFactory())
+          .build()
+          .create(NoBody.class)
+          .method();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Compress can only be specified on HTTP methods with request "
+          + "body (e.g., @POST).\n    for method NoBody.method");
+    }
+  }
+}
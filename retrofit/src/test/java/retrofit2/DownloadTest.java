@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.Okio;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.http.Destination;
+import retrofit2.http.GET;
+
+import static okhttp3.mockwebserver.SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class DownloadTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  interface Service {
+    @GET("/") Call<File> file();
+    @GET("/") Call<File> file(@Destination File destination);
+    @GET("/") Call<java.nio.file.Path> path();
+    @GET("/") Call<java.nio.file.Path> path(@Destination java.nio.file.Path destination);
+    @GET("/") Call<File> fileToPath(@Destination java.nio.file.Path destination);
+  }
+
+  private Service service() {
+    return new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build()
+        .create(Service.class);
+  }
+
+  private static String read(File file) throws IOException {
+    return Okio.buffer(Okio.source(file)).readUtf8();
+  }
+
+  @Test public void fileWithoutDestinationIsTemporary() throws IOException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    File file = service().file().execute().body();
+    try {
+      assertThat(read(file)).isEqualTo("Hi");
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test public void fileDestinationIsReplaced() throws IOException {
+    File destination = temporaryFolder.newFile("artifact.bin");
+    Okio.buffer(Okio.sink(destination)).writeUtf8("Old").close();
+    server.enqueue(new MockResponse().setBody("New"));
+
+    File file = service().file(destination).execute().body();
+    assertThat(file).isEqualTo(destination);
+    assertThat(read(destination)).isEqualTo("New");
+    assertThat(temporaryFolder.getRoot().list()).containsOnly("artifact.bin");
+  }
+
+  @Test public void largeBody() throws IOException {
+    Buffer body = new Buffer();
+    for (int i = 0; i < 100000; i++) {
+      body.writeUtf8("Line ").writeUtf8(String.valueOf(i)).writeByte('\n');
+    }
+    long size = body.size();
+    server.enqueue(new MockResponse().setBody(body));
+
+    File destination = new File(temporaryFolder.getRoot(), "large.txt");
+    service().file(destination).execute();
+    assertThat(destination.length()).isEqualTo(size);
+  }
+
+  @Test public void failedDownloadLeavesDestinationUntouched() throws IOException {
+    File destination = temporaryFolder.newFile("artifact.bin");
+    Okio.buffer(Okio.sink(destination)).writeUtf8("Old").close();
+    server.enqueue(new MockResponse()
+        .setBody(new Buffer().write(new byte[64 * 1024]))
+        .setSocketPolicy(DISCONNECT_DURING_RESPONSE_BODY));
+
+    try {
+      service().file(destination).execute();
+      fail();
+    } catch (IOException ignored) {
+    }
+    assertThat(read(destination)).isEqualTo("Old");
+    assertThat(temporaryFolder.getRoot().list()).containsOnly("artifact.bin");
+  }
+
+  @Test public void errorResponseIsNotSaved() throws IOException {
+    File destination = new File(temporaryFolder.getRoot(), "artifact.bin");
+    server.enqueue(new MockResponse().setResponseCode(404).setBody("Not found"));
+
+    Response<File> response = service().file(destination).execute();
+    assertThat(response.code()).isEqualTo(404);
+    assertThat(response.errorBody().string()).isEqualTo("Not found");
+    assertThat(destination.exists()).isFalse();
+  }
+
+  @Test public void pathDestination() throws IOException {
+    java.nio.file.Path destination = temporaryFolder.getRoot().toPath().resolve("artifact.bin");
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    java.nio.file.Path path = service().path(destination).execute().body();
+    assertThat((Object) path).isEqualTo(destination);
+    assertThat(new String(Files.readAllBytes(path), "UTF-8")).isEqualTo("Hi");
+  }
+
+  @Test public void pathWithoutDestinationIsTemporary() throws IOException {
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    java.nio.file.Path path = service().path().execute().body();
+    try {
+      assertThat(new String(Files.readAllBytes(path), "UTF-8")).isEqualTo("Hi");
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test public void fileReturnTypeWithPathDestination() throws IOException {
+    java.nio.file.Path destination = temporaryFolder.getRoot().toPath().resolve("artifact.bin");
+    server.enqueue(new MockResponse().setBody("Hi"));
+
+    File file = service().fileToPath(destination).execute().body();
+    assertThat(file).isEqualTo(destination.toFile());
+    assertThat(read(file)).isEqualTo("Hi");
+  }
+
+  @Test public void destinationSurvivesRebuiltRequest() throws IOException {
+    File destination = new File(temporaryFolder.getRoot(), "artifact.bin");
+    server.enqueue(new MockResponse().setBody("Hi"));
+    OkHttpClient client = new OkHttpClient.Builder()
+        .addInterceptor(new Interceptor() {
+          @Override public okhttp3.Response intercept(Chain chain) throws IOException {
+            // A new request has none of the original's tags.
+            return chain.proceed(new Request.Builder().url(chain.request().url()).build());
+          }
+        })
+        .build();
+    Service service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .client(client)
+        .build()
+        .create(Service.class);
+
+    File file = service.file(destination).execute().body();
+    assertThat(file).isEqualTo(destination);
+    assertThat(read(destination)).isEqualTo("Hi");
+  }
+
+  interface NotFile {
+    @GET("/") Call<ResponseBody> body(@Destination File destination);
+  }
+
+  @Test public void destinationRequiresFileResponseType() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(NotFile.class).body(temporaryFolder.getRoot());
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Destination requires java.io.File or java.nio.file.Path as "
+          + "response type. Found: class okhttp3.ResponseBody\n"
+          + "    for method NotFile.body");
+    }
+  }
+}
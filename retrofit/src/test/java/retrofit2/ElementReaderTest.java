@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ProtocolException;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class ElementReaderTest {
+  private static final Converter<ResponseBody, String> STRING =
+      new Converter<ResponseBody, String>() {
+        @Override public String convert(ResponseBody value) throws IOException {
+          return value.contentType() + " " + value.string();
+        }
+      };
+
+  private static ElementReader<String> reader(String contentType, String body) {
+    return ElementReader.create(ResponseBody.create(MediaType.get(contentType), body), STRING);
+  }
+
+  @Test public void eventStream() throws IOException {
+    ElementReader<String> reader = reader("text/event-stream",
+        ": comment\n"
+            + "event: greeting\n"
+            + "id: 1\n"
+            + "data: Hello\n"
+            + "\n"
+            + "retry: 1000\n"
+            + "\n"
+            + "data:first\n"
+            + "data\n"
+            + "data:  last\n"
+            + "\r\n"
+            + "data: unterminated\n");
+    assertThat(reader.read()).isEqualTo("text/plain; charset=utf-8 Hello");
+    assertThat(reader.read()).isEqualTo("text/plain; charset=utf-8 first\n\n last");
+    assertThat(reader.read()).isNull();
+    assertThat(reader.read()).isNull();
+  }
+
+  @Test public void ndjson() throws IOException {
+    ElementReader<String> reader = reader("application/x-ndjson; charset=utf-8",
+        "{\"a\":1}\n\n  \r\n{\"b\":2}");
+    assertThat(reader.read()).isEqualTo("application/json; charset=utf-8 {\"a\":1}");
+    assertThat(reader.read()).isEqualTo("application/json; charset=utf-8 {\"b\":2}");
+    assertThat(reader.read()).isNull();
+  }
+
+  @Test public void lengthPrefixed() throws IOException {
+    Buffer body = new Buffer()
+        .writeByte(0).writeInt(5).writeUtf8("Hello")
+        .writeByte(0).writeInt(0)
+        .writeByte(0).writeInt(5).writeUtf8("World");
+    ElementReader<String> reader = ElementReader.create(
+        ResponseBody.create(MediaType.get("application/x-length-prefixed"), -1, body), STRING);
+    assertThat(reader.read()).isEqualTo("application/octet-stream Hello");
+    assertThat(reader.read()).isEqualTo("application/octet-stream ");
+    assertThat(reader.read()).isEqualTo("application/octet-stream World");
+    assertThat(reader.read()).isNull();
+  }
+
+  @Test public void lengthPrefixedTruncatedThrows() throws IOException {
+    Buffer body = new Buffer().writeByte(0).writeInt(5).writeUtf8("Hel");
+    ElementReader<String> reader = ElementReader.create(
+        ResponseBody.create(MediaType.get("application/x-length-prefixed"), -1, body), STRING);
+    try {
+      reader.read();
+      fail();
+    } catch (EOFException expected) {
+    }
+  }
+
+  @Test public void lengthPrefixedFlagsThrow() throws IOException {
+    Buffer body = new Buffer().writeByte(1).writeInt(5).writeUtf8("Hello");
+    ElementReader<String> reader = ElementReader.create(
+        ResponseBody.create(MediaType.get("application/x-length-prefixed"), -1, body), STRING);
+    try {
+      reader.read();
+      fail();
+    } catch (ProtocolException e) {
+      assertThat(e).hasMessage("Unsupported message flags: 1");
+    }
+  }
+
+  @Test public void lengthPrefixedTooLargeThrows() throws IOException {
+    Buffer body = new Buffer().writeByte(0).writeInt(4 * 1024 * 1024 + 1).writeUtf8("Hello");
+    ElementReader<String> reader = ElementReader.create(
+        ResponseBody.create(MediaType.get("application/x-length-prefixed"), -1, body), STRING);
+    try {
+      reader.read();
+      fail();
+    } catch (ProtocolException e) {
+      assertThat(e).hasMessage("Message of 4194305 bytes exceeds the maximum of 4194304");
+    }
+  }
+
+  @Test public void otherContentTypeIsOneElement() throws IOException {
+    ElementReader<String> reader = reader("application/json", "{\"a\":1}\n{\"b\":2}\n");
+    assertThat(reader.read())
+        .isEqualTo("application/json; charset=utf-8 {\"a\":1}\n{\"b\":2}\n");
+    assertThat(reader.read()).isNull();
+  }
+
+  @Test public void isElementStream() {
+    assertThat(ElementReader.isElementStream(MediaType.get("text/event-stream"))).isTrue();
+    assertThat(ElementReader.isElementStream(MediaType.get("Application/X-NDJSON"))).isTrue();
+    assertThat(ElementReader.isElementStream(MediaType.get("application/ndjson"))).isTrue();
+    assertThat(ElementReader.isElementStream(MediaType.get("application/x-length-prefixed")))
+        .isTrue();
+    assertThat(ElementReader.isElementStream(MediaType.get("application/json"))).isFalse();
+    assertThat(ElementReader.isElementStream(null)).isFalse();
+  }
+
+  @Test public void nullElementThrows() throws IOException {
+    ElementReader<Object> reader = ElementReader.create(
+        ResponseBody.create(MediaType.get("application/x-ndjson"), "null\n"),
+        new Converter<ResponseBody, Object>() {
+          @Override public Object convert(ResponseBody value) {
+            return null;
+          }
+        });
+    try {
+      reader.read();
+      fail();
+    } catch (NullPointerException e) {
+      assertThat(e.getMessage()).endsWith(" returned null for an element.");
+    }
+  }
+
+  @Test public void closeAbandonsElements() throws IOException {
+    ElementReader<String> reader = reader("application/x-ndjson", "1\n2\n");
+    assertThat(reader.read()).isEqualTo("application/json; charset=utf-8 1");
+    reader.close();
+    assertThat(reader.read()).isNull();
+  }
+
+  @Test public void sourceIsOpenedOnce() throws IOException {
+    // Like OkHttpCall's bodies, each call to source() wraps the stream in a new buffer.
+    final BufferedSource stream = new Buffer().writeUtf8("1\n2\n3\n");
+    ResponseBody body = new ResponseBody() {
+      @Override public MediaType contentType() {
+        return MediaType.get("application/x-ndjson");
+      }
+
+      @Override public long contentLength() {
+        return -1;
+      }
+
+      @Override public BufferedSource source() {
+        return Okio.buffer((Source) stream);
+      }
+    };
+    ElementReader<String> reader = ElementReader.create(body, STRING);
+    assertThat(reader.read()).isEqualTo("application/json; charset=utf-8 1");
+    assertThat(reader.read()).isEqualTo("application/json; charset=utf-8 2");
+    assertThat(reader.read()).isEqualTo("application/json; charset=utf-8 3");
+    assertThat(reader.read()).isNull();
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okhttp3.WebSocketListener;
+import org.junit.Test;
+import retrofit2.CallSchedulerTest.NoopCallback;
+import retrofit2.CallSchedulerTest.NoopRetrofitCallback;
+import retrofit2.CallSchedulerTest.RecordingCallFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Url;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class LoadBalancerTest {
+  private final HttpUrl one = HttpUrl.get("http://one.example.com/api/");
+  private final HttpUrl two = HttpUrl.get("http://two.example.com/api/");
+  private final LoadBalancer loadBalancer = new LoadBalancer(Arrays.asList(one, two));
+  private final LoadBalancer.Endpoint endpointOne = loadBalancer.endpoints[0];
+  private final LoadBalancer.Endpoint endpointTwo = loadBalancer.endpoints[1];
+
+  @Test public void prefersFewerCallsInFlight() {
+    endpointOne.callStarted();
+    endpointOne.callStarted();
+    endpointTwo.callStarted();
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(loadBalancer.select(0L)).isSameAs(endpointTwo);
+    }
+  }
+
+  @Test public void prefersLowerLatency() {
+    endpointOne.ewmaNanos = 100L;
+    endpointTwo.ewmaNanos = 10L;
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(loadBalancer.select(0L)).isSameAs(endpointTwo);
+    }
+  }
+
+  @Test public void latencyIsMovingAverage() {
+    endpointOne.callSucceeded(endpointOne.callStarted(), 0L);
+    endpointOne.ewmaNanos = 100L;
+    endpointOne.inFlight.incrementAndGet();
+    endpointOne.callSucceeded(0L, 500L);
+    assertThat(endpointOne.ewmaNanos).isEqualTo(200L);
+    assertThat(endpointOne.inFlight.get()).isZero();
+  }
+
+  @Test public void consecutiveFailuresEjectUntilTimeout() {
+    for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD; i++) {
+      endpointOne.callStarted();
+      endpointOne.callFailed(true, 1000L);
+    }
+    assertThat(endpointOne.inFlight.get()).isZero();
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(loadBalancer.select(1000L)).isSameAs(endpointTwo);
+    }
+    assertThat(endpointOne.isAvailable(1000L + LoadBalancer.EJECTION_NANOS)).isTrue();
+  }
+
+  @Test public void canceledCallsDoNotEject() {
+    for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD; i++) {
+      endpointOne.callStarted();
+      endpointOne.callFailed(false, 0L);
+    }
+    assertThat(endpointOne.isAvailable(0L)).isTrue();
+  }
+
+  @Test public void successResetsFailures() {
+    for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD - 1; i++) {
+      endpointOne.callStarted();
+      endpointOne.callFailed(true, 0L);
+    }
+    endpointOne.callSucceeded(endpointOne.callStarted(), 0L);
+    endpointOne.callStarted();
+    endpointOne.callFailed(true, 0L);
+    assertThat(endpointOne.isAvailable(0L)).isTrue();
+  }
+
+  @Test public void allEjectedPicksSoonestRetry() {
+    for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD; i++) {
+      endpointOne.callStarted();
+      endpointOne.callFailed(true, 2000L);
+      endpointTwo.callStarted();
+      endpointTwo.callFailed(true, 1000L);
+    }
+    assertThat(loadBalancer.select(3000L)).isSameAs(endpointTwo);
+  }
+
+  @Test public void wrappedCallUsesSelectedEndpoint() {
+    for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD; i++) {
+      endpointOne.callStarted();
+      endpointOne.callFailed(true);
+    }
+    RecordingCallFactory callFactory = new RecordingCallFactory();
+    Request request = new Request.Builder().url("http://one.example.com/api/users?page=2").build();
+    loadBalancer.wrap(callFactory).newCall(request).enqueue(new NoopCallback());
+
+    assertThat(callFactory.dispatched.get(0).request.url())
+        .isEqualTo(HttpUrl.get("http://two.example.com/api/users?page=2"));
+    assertThat(endpointTwo.inFlight.get()).isEqualTo(1);
+    callFactory.dispatched.get(0).complete();
+    assertThat(endpointTwo.inFlight.get()).isZero();
+  }
+
+  @Test public void wrappedWebSocketUsesSelectedEndpoint() {
+    for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD; i++) {
+      endpointOne.callStarted();
+      endpointOne.callFailed(true);
+    }
+    final List<Request> requests = new ArrayList<>();
+    final List<WebSocketListener> listeners = new ArrayList<>();
+    final okhttp3.WebSocket delegate = new OkHttpClient().newWebSocket(
+        new Request.Builder().url("http://two.example.com/").build(), new WebSocketListener() {});
+    delegate.cancel();
+    okhttp3.WebSocket.Factory factory = new okhttp3.WebSocket.Factory() {
+      @Override public okhttp3.WebSocket newWebSocket(Request request,
+          WebSocketListener listener) {
+        requests.add(request);
+        listeners.add(listener);
+        return delegate;
+      }
+    };
+    final List<okhttp3.WebSocket> opened = new ArrayList<>();
+    Request request = new Request.Builder().url("http://one.example.com/api/chat").build();
+    okhttp3.WebSocket webSocket = loadBalancer.wrapWebSockets(factory)
+        .newWebSocket(request, new WebSocketListener() {
+          @Override public void onOpen(okhttp3.WebSocket webSocket, okhttp3.Response response) {
+            opened.add(webSocket);
+          }
+        });
+
+    assertThat(requests.get(0).url()).isEqualTo(HttpUrl.get("http://two.example.com/api/chat"));
+    assertThat(endpointTwo.inFlight.get()).isEqualTo(1);
+    okhttp3.Response response = new okhttp3.Response.Builder()
+        .request(requests.get(0))
+        .protocol(Protocol.HTTP_1_1)
+        .code(101)
+        .message("Switching Protocols")
+        .build();
+    listeners.get(0).onOpen(delegate, response);
+    assertThat(endpointTwo.inFlight.get()).isZero();
+    assertThat(opened).containsExactly(webSocket);
+  }
+
+  @Test public void queuedCallsAreNotInFlight() {
+    RecordingCallFactory callFactory = new RecordingCallFactory();
+    okhttp3.Call.Factory factory = new CallScheduler(1).wrap(loadBalancer.wrap(callFactory));
+    Request request = new Request.Builder().url(one).build();
+
+    factory.newCall(request).enqueue(new NoopCallback());
+    factory.newCall(request).enqueue(new NoopCallback());
+    assertThat(endpointOne.inFlight.get() + endpointTwo.inFlight.get()).isEqualTo(1);
+
+    callFactory.dispatched.get(0).complete();
+    assertThat(callFactory.dispatched).hasSize(2);
+    assertThat(endpointOne.inFlight.get() + endpointTwo.inFlight.get()).isEqualTo(1);
+  }
+
+  interface Service {
+    @GET("users") Call<ResponseBody> users();
+    @GET Call<ResponseBody> url(@Url String url);
+  }
+
+  @Test public void urlParameterIsNotBalanced() {
+    RecordingCallFactory callFactory = new RecordingCallFactory();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrls(Arrays.asList(one, two))
+        .callFactory(callFactory)
+        .build();
+    Service service = retrofit.create(Service.class);
+    LoadBalancer.Endpoint[] endpoints = retrofit.loadBalancer.endpoints;
+
+    service.url("http://other.example.com/").enqueue(new NoopRetrofitCallback());
+    assertThat(callFactory.dispatched.get(0).request.url().host()).isEqualTo("other.example.com");
+    assertThat(endpoints[0].inFlight.get() + endpoints[1].inFlight.get()).isZero();
+
+    service.users().enqueue(new NoopRetrofitCallback());
+    assertThat(endpoints[0].inFlight.get() + endpoints[1].inFlight.get()).isEqualTo(1);
+  }
+}
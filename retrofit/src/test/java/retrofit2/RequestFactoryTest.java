@@ -15,6 +15,7 @@
  */
 package retrofit2;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.math.BigInteger;
@@ -35,8 +36,10 @@ import okio.Buffer;
 import org.junit.Test;
 import retrofit2.helpers.NullObjectConverterFactory;
 import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.BaseUrl;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
+import retrofit2.http.Destination;
 import retrofit2.http.Field;
 import retrofit2.http.FieldMap;
 import retrofit2.http.FormUrlEncoded;
@@ -54,6 +57,7 @@ import retrofit2.http.PUT;
 import retrofit2.http.Part;
 import retrofit2.http.PartMap;
 import retrofit2.http.Path;
+import retrofit2.http.Priority;
 import retrofit2.http.Query;
 import retrofit2.http.QueryMap;
 import retrofit2.http.QueryName;
@@ -1398,6 +1402,179 @@ public final class RequestFactoryTest {
     }
   }
 
+  @Test public void getWithBaseUrlOverride() {
+    class Example {
+      @GET("foo/{bar}/")
+      Call<ResponseBody> method(@BaseUrl HttpUrl baseUrl, @Path("bar") String bar,
+          @Query("kit") String kit) {
+        return null;
+      }
+    }
+
+    Request request =
+        buildRequest(Example.class, HttpUrl.get("https://shard1.example.com:8443/"), "b", "k");
+    assertThat(request.method()).isEqualTo("GET");
+    assertThat(request.url().toString())
+        .isEqualTo("https://shard1.example.com:8443/foo/b/?kit=k");
+  }
+
+  @Test public void getWithBaseUrlOverrideKeepsBasePath() {
+    class Example {
+      @GET("foo/")
+      Call<ResponseBody> method(@BaseUrl String baseUrl) {
+        return null;
+      }
+    }
+
+    Retrofit.Builder builder = new Retrofit.Builder()
+        .baseUrl("http://example.com/api/")
+        .addConverterFactory(new ToStringConverterFactory());
+    Request request = buildRequest(Example.class, builder, "http://shard2.example.com/ignored/");
+    assertThat(request.url().toString()).isEqualTo("http://shard2.example.com/api/foo/");
+  }
+
+  @Test public void getWithNullBaseUrl() {
+    class Example {
+      @GET("foo/")
+      Call<ResponseBody> method(@BaseUrl HttpUrl baseUrl) {
+        return null;
+      }
+    }
+
+    try {
+      buildRequest(Example.class, (HttpUrl) null);
+      fail();
+    } catch (NullPointerException expected) {
+      assertThat(expected).hasMessage("@BaseUrl parameter is null.");
+    }
+  }
+
+  @Test public void getWithNonHttpUrlBaseUrlThrows() {
+    class Example {
+      @GET("foo/")
+      Call<ResponseBody> method(@BaseUrl URI baseUrl) {
+        return null;
+      }
+    }
+
+    try {
+      buildRequest(Example.class, URI.create("http://example.com/"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@BaseUrl must be okhttp3.HttpUrl or String type. (parameter #1)\n"
+          + "    for method Example.method");
+    }
+  }
+
+  @Test public void multipleBaseUrlsThrows() {
+    class Example {
+      @GET("foo/")
+      Call<ResponseBody> method(@BaseUrl String one, @BaseUrl String two) {
+        return null;
+      }
+    }
+
+    try {
+      buildRequest(Example.class, "http://a.example.com/", "http://b.example.com/");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("Multiple @BaseUrl method annotations found. (parameter #2)\n"
+          + "    for method Example.method");
+    }
+  }
+
+  @Test public void methodPriorityTagged() {
+    class Example {
+      @Priority(5)
+      @GET("foo/")
+      Call<ResponseBody> method() {
+        return null;
+      }
+    }
+
+    Request request = buildRequest(Example.class);
+    assertThat(request.tag(CallScheduler.PriorityTag.class).value).isEqualTo(5);
+  }
+
+  @Test public void noPriorityNotTagged() {
+    class Example {
+      @GET("foo/")
+      Call<ResponseBody> method() {
+        return null;
+      }
+    }
+
+    Request request = buildRequest(Example.class);
+    assertThat(request.tag(CallScheduler.PriorityTag.class)).isNull();
+  }
+
+  @Test public void priorityParameterOverridesMethod() {
+    class Example {
+      @Priority(5)
+      @GET("foo/")
+      Call<ResponseBody> method(@Priority Integer priority) {
+        return null;
+      }
+    }
+
+    Request request = buildRequest(Example.class, 9);
+    assertThat(request.tag(CallScheduler.PriorityTag.class).value).isEqualTo(9);
+
+    Request nullRequest = buildRequest(Example.class, new Object[] { null });
+    assertThat(nullRequest.tag(CallScheduler.PriorityTag.class).value).isEqualTo(5);
+  }
+
+  @Test public void destinationTagged() {
+    class Example {
+      @GET("foo/")
+      Call<File> method(@Destination File file) {
+        return null;
+      }
+    }
+
+    File file = new File("foo.bin");
+    Request request = buildRequest(Example.class, file);
+    assertThat(request.tag(BuiltInConverters.DestinationTag.class).target).isSameAs(file);
+
+    Request nullRequest = buildRequest(Example.class, new Object[] { null });
+    assertThat(nullRequest.tag(BuiltInConverters.DestinationTag.class)).isNull();
+  }
+
+  @Test public void destinationParameterMustBeFileOrPath() {
+    class Example {
+      @GET("foo/")
+      Call<File> method(@Destination String file) {
+        return null;
+      }
+    }
+
+    try {
+      buildRequest(Example.class, "foo.bin");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage(
+          "@Destination parameter must be java.io.File or java.nio.file.Path type. (parameter #1)\n"
+              + "    for method Example.method");
+    }
+  }
+
+  @Test public void priorityParameterMustBeInt() {
+    class Example {
+      @GET("foo/")
+      Call<ResponseBody> method(@Priority String priority) {
+        return null;
+      }
+    }
+
+    try {
+      buildRequest(Example.class, "high");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Priority parameter must be int or Integer type. (parameter #1)\n"
+          + "    for method Example.method");
+    }
+  }
+
   @Test public void getUrlAndUrlParamThrows() {
     class Example {
       @GET("foo/bar")
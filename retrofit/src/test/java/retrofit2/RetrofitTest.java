@@ -23,6 +23,8 @@ import java.lang.annotation.Annotation;
 import java.lang.annotation.Retention;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +50,7 @@ import retrofit2.helpers.NonMatchingCallAdapterFactory;
 import retrofit2.helpers.NonMatchingConverterFactory;
 import retrofit2.helpers.ToStringConverterFactory;
 import retrofit2.http.Body;
+import retrofit2.http.Client;
 import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.Query;
@@ -121,6 +124,10 @@ public final class RetrofitTest {
     @Retention(RUNTIME)
     @interface Foo {}
   }
+  interface NamedClient {
+    @GET("/") Call<ResponseBody> normal();
+    @Client("bulk") @GET("/") Call<ResponseBody> bulk();
+  }
   interface MutableParameters {
     @GET("/") Call<String> method(@Query("i") AtomicInteger value);
   }
@@ -181,6 +188,44 @@ public final class RetrofitTest {
     assertSame(callFactory, two.callFactory());
   }
 
+  @Test public void cloneWithSameConvertersReusesParsedMethods() throws IOException {
+    final AtomicInteger converterLookups = new AtomicInteger();
+    Converter.Factory countingFactory = new ToStringConverterFactory() {
+      @Override public Converter<ResponseBody, ?> responseBodyConverter(Type type,
+          Annotation[] annotations, Retrofit retrofit) {
+        converterLookups.incrementAndGet();
+        return super.responseBodyConverter(type, annotations, retrofit);
+      }
+    };
+    Retrofit one = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(countingFactory)
+        .build();
+    server.enqueue(new MockResponse().setBody("Hi"));
+    assertEquals("Hi", one.create(CallMethod.class).disallowed().execute().body());
+    assertEquals(1, converterLookups.get());
+
+    okhttp3.Call.Factory callFactory = spy(new okhttp3.Call.Factory() {
+      @Override public okhttp3.Call newCall(Request request) {
+        return new OkHttpClient().newCall(request);
+      }
+    });
+    Retrofit two = one.newBuilder()
+        .callFactory(callFactory)
+        .build();
+    server.enqueue(new MockResponse().setBody("Hey"));
+    assertEquals("Hey", two.create(CallMethod.class).disallowed().execute().body());
+    assertEquals(1, converterLookups.get());
+    verify(callFactory).newCall(any(Request.class));
+
+    Retrofit three = one.newBuilder()
+        .addConverterFactory(new NonMatchingConverterFactory())
+        .build();
+    server.enqueue(new MockResponse().setBody("Hello"));
+    assertEquals("Hello", three.create(CallMethod.class).disallowed().execute().body());
+    assertEquals(2, converterLookups.get());
+  }
+
   // 클론 시 동작 확인.
   @Test public void builtInConvertersAbsentInCloneBuilder() {
     Retrofit retrofit = new Retrofit.Builder()
@@ -376,6 +421,7 @@ public final class RetrofitTest {
       assertThat(e.getCause()).hasMessage(""
           + "Could not locate call adapter for java.util.concurrent.Future<java.lang.String>.\n"
           + "  Tried:\n"
+          + "   * retrofit2.CompletableFutureCallAdapterFactory\n"
           + "   * retrofit2.DefaultCallAdapterFactory");
     }
   }
@@ -741,6 +787,59 @@ public final class RetrofitTest {
     assertThat(retrofit.baseUrl()).isSameAs(url);
   }
 
+  @Test public void baseUrlsSpreadCallsAcrossServers() throws IOException {
+    MockWebServer server2 = new MockWebServer();
+    server2.start();
+    try {
+      Retrofit retrofit = new Retrofit.Builder()
+          .baseUrls(Arrays.asList(server.url("/"), server2.url("/")))
+          .build();
+      assertThat(retrofit.baseUrl()).isEqualTo(server.url("/"));
+      assertThat(retrofit.baseUrls()).containsExactly(server.url("/"), server2.url("/"));
+
+      CallMethod example = retrofit.create(CallMethod.class);
+      for (int i = 0; i < 20; i++) {
+        server.enqueue(new MockResponse());
+        server2.enqueue(new MockResponse());
+        example.getResponseBody().execute();
+      }
+      assertThat(server.getRequestCount() + server2.getRequestCount()).isEqualTo(20);
+      assertThat(server.getRequestCount()).isNotZero();
+      assertThat(server2.getRequestCount()).isNotZero();
+    } finally {
+      server2.shutdown();
+    }
+  }
+
+  @Test public void baseUrlsMustShareSamePath() {
+    try {
+      new Retrofit.Builder().baseUrls(Arrays.asList(HttpUrl.get("http://a.example.com/api/"),
+          HttpUrl.get("http://b.example.com/other/")));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("baseUrls must share the same path: "
+          + "http://a.example.com/api/, http://b.example.com/other/");
+    }
+  }
+
+  @Test public void baseUrlsEmptyThrows() {
+    try {
+      new Retrofit.Builder().baseUrls(Collections.<HttpUrl>emptyList());
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("baseUrls must not be empty.");
+    }
+  }
+
+  @Test public void baseUrlClearsBaseUrls() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrls(Arrays.asList(HttpUrl.get("http://a.example.com/"),
+            HttpUrl.get("http://b.example.com/")))
+        .baseUrl("http://c.example.com/")
+        .build();
+    assertThat(retrofit.baseUrls()).containsExactly(HttpUrl.get("http://c.example.com/"));
+  }
+
   @Test public void clientNullThrows() {
     try {
       new Retrofit.Builder().client(null);
@@ -794,6 +893,52 @@ public final class RetrofitTest {
     verifyNoMoreInteractions(callFactory);
   }
 
+  @Test public void namedCallFactoryUsedForClientAnnotation() throws IOException {
+    okhttp3.Call.Factory callFactory = spy(new okhttp3.Call.Factory() {
+      @Override public okhttp3.Call newCall(Request request) {
+        return new OkHttpClient().newCall(request);
+      }
+    });
+    okhttp3.Call.Factory bulkCallFactory = spy(new okhttp3.Call.Factory() {
+      @Override public okhttp3.Call newCall(Request request) {
+        return new OkHttpClient().newCall(request);
+      }
+    });
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .callFactory(callFactory)
+        .callFactory("bulk", bulkCallFactory)
+        .build();
+    assertThat(retrofit.callFactory("bulk")).isSameAs(bulkCallFactory);
+    assertThat(retrofit.newBuilder().build().callFactory("bulk")).isSameAs(bulkCallFactory);
+
+    server.enqueue(new MockResponse());
+    server.enqueue(new MockResponse());
+
+    NamedClient service = retrofit.create(NamedClient.class);
+    service.bulk().execute();
+    verify(bulkCallFactory).newCall(any(Request.class));
+    verifyZeroInteractions(callFactory);
+
+    service.normal().execute();
+    verify(callFactory).newCall(any(Request.class));
+    verifyNoMoreInteractions(bulkCallFactory);
+  }
+
+  @Test public void clientAnnotationWithoutNamedCallFactoryThrows() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build();
+    NamedClient service = retrofit.create(NamedClient.class);
+    try {
+      service.bulk();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("No call factory registered for @Client(\"bulk\").\n"
+          + "    for method NamedClient.bulk");
+    }
+  }
+
   @Test public void callFactoryReturningNullThrows() throws IOException {
     okhttp3.Call.Factory callFactory = new okhttp3.Call.Factory() {
       @Override public okhttp3.Call newCall(Request request) {
@@ -1195,6 +1340,7 @@ public final class RetrofitTest {
           + "Could not locate call adapter for class java.lang.String.\n"
           + "  Tried:\n"
           + "   * retrofit2.helpers.NonMatchingCallAdapterFactory\n"
+          + "   * retrofit2.CompletableFutureCallAdapterFactory\n"
           + "   * retrofit2.DefaultCallAdapterFactory");
     }
 
@@ -1227,6 +1373,7 @@ public final class RetrofitTest {
           + "   * retrofit2.helpers.DelegatingCallAdapterFactory\n"
           + "  Tried:\n"
           + "   * retrofit2.helpers.NonMatchingCallAdapterFactory\n"
+          + "   * retrofit2.CompletableFutureCallAdapterFactory\n"
           + "   * retrofit2.DefaultCallAdapterFactory");
     }
 
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.http.Destination;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+import retrofit2.http.Segmented;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class SegmentedDownloadTest {
+  private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  interface Service {
+    @Segmented(4) @GET("/") Call<File> file(@Destination File destination);
+    @Segmented(4) @GET("/") Call<java.nio.file.Path> path(
+        @Destination java.nio.file.Path destination);
+  }
+
+  private final ByteString body = randomBytes(100000);
+  private final List<String> ranges = Collections.synchronizedList(new ArrayList<String>());
+  private final List<String> acceptEncodings =
+      Collections.synchronizedList(new ArrayList<String>());
+  private final AtomicInteger failRangesStartingAt = new AtomicInteger(-1);
+  private volatile int contentRangeOffset;
+  private volatile boolean acceptRanges = true;
+  private volatile String etag = "\"v1\"";
+  private Service service;
+  private File destination;
+
+  private static ByteString randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(0).nextBytes(bytes);
+    return ByteString.of(bytes);
+  }
+
+  @Before public void setUp() {
+    server.setDispatcher(new Dispatcher() {
+      @Override public MockResponse dispatch(RecordedRequest request) {
+        acceptEncodings.add(request.getHeader("Accept-Encoding"));
+        MockResponse response = new MockResponse().setHeader("ETag", etag);
+        if (acceptRanges) response.setHeader("Accept-Ranges", "bytes");
+        if (request.getMethod().equals("HEAD")) {
+          return response.setHeader("Content-Length", body.size());
+        }
+        String range = request.getHeader("Range");
+        if (range == null) {
+          return response.setBody(new Buffer().write(body));
+        }
+        ranges.add(range);
+        Matcher matcher = RANGE.matcher(range);
+        assertThat(matcher.matches()).isTrue();
+        int start = Integer.parseInt(matcher.group(1));
+        int end = Integer.parseInt(matcher.group(2)) + 1;
+        if (start == failRangesStartingAt.get()) {
+          return new MockResponse().setResponseCode(500);
+        }
+        if (!etag.equals(request.getHeader("If-Range"))) {
+          return response.setBody(new Buffer().write(body));
+        }
+        return response
+            .setResponseCode(206)
+            .setHeader("Content-Range", "bytes " + (start + contentRangeOffset) + "-"
+                + (end - 1) + "/" + body.size())
+            .setBody(new Buffer().write(body.substring(start, end)));
+      }
+    });
+    service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build()
+        .create(Service.class);
+    destination = new File(temporaryFolder.getRoot(), "artifact.bin");
+  }
+
+  private ByteString read(File file) throws IOException {
+    return Okio.buffer(Okio.source(file)).readByteString();
+  }
+
+  @Test public void downloadsRangesConcurrently() throws IOException {
+    Response<File> response = service.file(destination).execute();
+    assertThat(response.body()).isEqualTo(destination);
+    assertThat(read(destination)).isEqualTo(body);
+    assertThat(ranges).containsOnly(
+        "bytes=0-24999", "bytes=25000-49999", "bytes=50000-74999", "bytes=75000-99999");
+    assertThat(temporaryFolder.getRoot().list()).containsOnly("artifact.bin");
+  }
+
+  @Test public void pathDestination() throws IOException {
+    java.nio.file.Path path = destination.toPath();
+    Response<java.nio.file.Path> response = service.path(path).execute();
+    assertThat((Object) response.body()).isEqualTo(path);
+    assertThat(read(destination)).isEqualTo(body);
+    assertThat(ranges).hasSize(4);
+  }
+
+  @Test public void requestsIdentityEncoding() throws IOException {
+    service.file(destination).execute();
+    assertThat(acceptEncodings).hasSize(5).containsOnly("identity");
+  }
+
+  @Test public void unexpectedContentRangeFails() throws IOException {
+    contentRangeOffset = 1;
+    try {
+      service.file(destination).execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e.getMessage()).matches(
+          "Expected Content-Range bytes \\d+-\\d+/100000 for segment \\d but was .*");
+    }
+    assertThat(destination.exists()).isFalse();
+  }
+
+  @Test public void singleStreamWithoutRangeSupport() throws IOException {
+    acceptRanges = false;
+
+    service.file(destination).execute();
+    assertThat(read(destination)).isEqualTo(body);
+    assertThat(ranges).isEmpty();
+  }
+
+  @Test public void resumesIncompleteSegments() throws IOException {
+    failRangesStartingAt.set(50000);
+    try {
+      service.file(destination).execute();
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Expected a partial response for segment 2 but was 500");
+    }
+    assertThat(destination.exists()).isFalse();
+    assertThat(temporaryFolder.getRoot().list())
+        .containsOnly("artifact.bin.part", "artifact.bin.segments");
+
+    failRangesStartingAt.set(-1);
+    ranges.clear();
+    service.file(destination).execute();
+    assertThat(read(destination)).isEqualTo(body);
+    assertThat(ranges).containsExactly("bytes=50000-74999");
+    assertThat(temporaryFolder.getRoot().list()).containsOnly("artifact.bin");
+  }
+
+  @Test public void changedBodyStartsOver() throws IOException {
+    failRangesStartingAt.set(50000);
+    try {
+      service.file(destination).execute();
+      fail();
+    } catch (IOException expected) {
+    }
+
+    failRangesStartingAt.set(-1);
+    etag = "\"v2\"";
+    ranges.clear();
+    service.file(destination).execute();
+    assertThat(read(destination)).isEqualTo(body);
+    assertThat(ranges).hasSize(4);
+  }
+
+  @Test public void asynchronous() throws Exception {
+    final CountDownLatch latch = new CountDownLatch(1);
+    service.file(destination).enqueue(new Callback<File>() {
+      @Override public void onResponse(Call<File> call, Response<File> response) {
+        latch.countDown();
+      }
+
+      @Override public void onFailure(Call<File> call, Throwable t) {
+        t.printStackTrace();
+      }
+    });
+    assertThat(latch.await(10, SECONDS)).isTrue();
+    assertThat(read(destination)).isEqualTo(body);
+  }
+
+  interface NoDestination {
+    @Segmented(4) @GET("/") Call<File> file();
+  }
+
+  @Test public void destinationRequired() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(NoDestination.class).file();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Segmented methods require a @Destination parameter.\n"
+          + "    for method NoDestination.file");
+    }
+  }
+
+  interface NotGet {
+    @Segmented(4) @POST("/") Call<File> file(@Destination File destination);
+  }
+
+  @Test public void getRequired() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(NotGet.class).file(destination);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@Segmented can only be used with GET.\n"
+          + "    for method NotGet.file");
+    }
+  }
+
+  interface NotFile {
+    @Segmented(4) @GET("/") Call<Void> file(@Destination File destination);
+  }
+
+  @Test public void fileReturnTypeRequired() {
+    Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+    try {
+      retrofit.create(NotFile.class).file(destination);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage(
+          "@Segmented methods must return java.io.File or java.nio.file.Path.\n"
+              + "    for method NotFile.file");
+    }
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.CallSchedulerTest.RecordingCallFactory;
+import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.Compress;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+import retrofit2.http.Query;
+
+import static okhttp3.mockwebserver.SocketPolicy.DISCONNECT_AT_START;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class StreamingCallTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @POST("telemetry")
+    StreamingCall<String, String> upload(@Query("source") String source);
+  }
+
+  private Retrofit retrofit;
+  private Service service;
+
+  @Before public void setUp() {
+    retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  private static Buffer frames(String... messages) {
+    Buffer buffer = new Buffer();
+    for (String message : messages) {
+      buffer.writeByte(0).writeInt(message.length()).writeUtf8(message);
+    }
+    return buffer;
+  }
+
+  @Test public void sendAndReceiveMessages() throws Exception {
+    server.enqueue(new MockResponse()
+        .setHeader("Content-Type", "application/x-length-prefixed")
+        .setBody(frames("ack 1", "ack 2")));
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    call.send("one");
+    call.send("two");
+    call.halfClose();
+    assertThat(listener.next()).isEqualTo("message ack 1");
+    assertThat(listener.next()).isEqualTo("message ack 2");
+    assertThat(listener.next()).isEqualTo("complete");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getMethod()).isEqualTo("POST");
+    assertThat(request.getPath()).isEqualTo("/telemetry?source=sensor");
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/x-length-prefixed");
+    assertThat(request.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+    assertThat(request.getBody().readByteString()).isEqualTo(frames("one", "two").readByteString());
+  }
+
+  @Test public void otherResponseIsOneMessage() throws Exception {
+    server.enqueue(new MockResponse().setBody("done"));
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    call.halfClose();
+    assertThat(listener.next()).isEqualTo("message done");
+    assertThat(listener.next()).isEqualTo("complete");
+    assertThat(server.takeRequest().getBodySize()).isEqualTo(0);
+  }
+
+  @Test public void unsuccessfulResponseFails() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(404).setBody("Nope"));
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    call.send("one");
+    call.halfClose();
+    assertThat(listener.next()).isEqualTo("failure retrofit2.HttpException");
+    HttpException e = (HttpException) listener.failure;
+    assertThat(e.code()).isEqualTo(404);
+    assertThat(e.response().errorBody().string()).isEqualTo("Nope");
+  }
+
+  @Test public void connectionFailureFails() throws Exception {
+    server.enqueue(new MockResponse().setSocketPolicy(DISCONNECT_AT_START));
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    call.halfClose();
+    assertThat((String) listener.next()).startsWith("failure java.");
+    assertThat(listener.failure).isInstanceOf(IOException.class);
+  }
+
+  @Test public void sendAfterConnectionFailureThrows() throws Exception {
+    MockWebServer closed = new MockWebServer();
+    closed.start();
+    closed.shutdown(); // Nothing listens on its port, so connecting is refused.
+    Service service = retrofit.newBuilder()
+        .baseUrl(closed.url("/"))
+        .build()
+        .create(Service.class);
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    assertThat((String) listener.next()).startsWith("failure java.");
+    char[] message = new char[32 * 1024];
+    Arrays.fill(message, 'a');
+    try {
+      for (int i = 0; i < 3; i++) { // More than the 64 KiB which may wait to be written.
+        call.send(new String(message));
+      }
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Call failed");
+      assertThat(e.getCause()).isSameAs(listener.failure);
+    }
+  }
+
+  @Test public void cancel() throws Exception {
+    server.enqueue(new MockResponse().setBody("done"));
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    call.send("one");
+    call.cancel();
+    assertThat(call.isCanceled()).isTrue();
+    assertThat((String) listener.next()).startsWith("failure java.");
+    assertThat(listener.failure).isInstanceOf(IOException.class);
+    try {
+      call.send("two");
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Canceled");
+    }
+  }
+
+  @Test public void sendRequiresStart() throws IOException {
+    StreamingCall<String, String> call = service.upload("sensor");
+    try {
+      call.send("one");
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Not started.");
+    }
+  }
+
+  @Test public void sendAfterHalfCloseThrows() throws Exception {
+    server.enqueue(new MockResponse());
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    call.halfClose();
+    try {
+      call.send("one");
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Already half-closed.");
+    }
+    assertThat(listener.next()).isEqualTo("message ");
+  }
+
+  @Test public void sendTooLargeThrows() throws Exception {
+    server.enqueue(new MockResponse());
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    RecordingListener listener = new RecordingListener();
+    call.start(listener);
+    char[] message = new char[4 * 1024 * 1024 + 1];
+    Arrays.fill(message, 'a');
+    try {
+      call.send(new String(message));
+      fail();
+    } catch (ProtocolException e) {
+      assertThat(e).hasMessage("Message of 4194305 bytes exceeds the maximum of 4194304");
+    }
+    call.halfClose();
+    assertThat(listener.next()).isEqualTo("message ");
+  }
+
+  @Test public void startTwiceThrows() {
+    server.enqueue(new MockResponse());
+
+    StreamingCall<String, String> call = service.upload("sensor");
+    call.start(new StreamingCall.Listener<String, String>() {});
+    assertThat(call.isStarted()).isTrue();
+    try {
+      call.start(new StreamingCall.Listener<String, String>() {});
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Already started.");
+    }
+    StreamingCall<String, String> clone = call.clone();
+    assertThat(clone.isStarted()).isFalse();
+    assertThat(clone.request().url()).isEqualTo(call.request().url());
+    call.halfClose();
+  }
+
+  interface NoRequestBody {
+    @GET("/") StreamingCall<String, String> upload();
+  }
+
+  @Test public void methodMustHaveRequestBody() {
+    try {
+      retrofit.create(NoRequestBody.class).upload();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("StreamingCall can only be returned from HTTP methods with request"
+          + " body (e.g., @POST).\n"
+          + "    for method NoRequestBody.upload");
+    }
+  }
+
+  interface BodyParameter {
+    @POST("/") StreamingCall<String, String> upload(@Body String body);
+  }
+
+  @Test public void bodyParametersNotAllowed() {
+    try {
+      retrofit.create(BodyParameter.class).upload("Hi");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("StreamingCall methods cannot have @Body, @Field, or @Part"
+          + " parameters. Sent messages are the request body.\n"
+          + "    for method BodyParameter.upload");
+    }
+  }
+
+  interface Unparameterized {
+    @SuppressWarnings("rawtypes") // Testing error handling.
+    @POST("/") StreamingCall upload();
+  }
+
+  @Test public void returnTypeMustBeParameterized() {
+    try {
+      retrofit.create(Unparameterized.class).upload();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("StreamingCall return type must be parameterized as"
+          + " StreamingCall<Send, Receive>.\n"
+          + "    for method Unparameterized.upload");
+    }
+  }
+
+  interface Compressed {
+    @Compress @POST("/") StreamingCall<String, String> upload();
+  }
+
+  @Test public void compressNotAllowed() {
+    try {
+      retrofit.create(Compressed.class).upload();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("StreamingCall methods cannot use @Compress.\n"
+          + "    for method Compressed.upload");
+    }
+  }
+
+  @Test public void callsAreBalancedAndScheduled() throws Exception {
+    HttpUrl one = HttpUrl.get("http://one.example.com/");
+    HttpUrl two = HttpUrl.get("http://two.example.com/");
+    RecordingCallFactory callFactory = new RecordingCallFactory();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrls(Arrays.asList(one, two))
+        .callFactory(callFactory)
+        .callScheduler(new CallScheduler(1))
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    LoadBalancer.Endpoint[] endpoints = retrofit.loadBalancer.endpoints;
+    for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD; i++) {
+      endpoints[0].callStarted();
+      endpoints[0].callFailed(true);
+    }
+    Service service = retrofit.create(Service.class);
+
+    service.upload("sensor").start(new RecordingListener());
+    service.upload("sensor").start(new RecordingListener());
+    assertThat(callFactory.dispatched).hasSize(1);
+    assertThat(callFactory.dispatched.get(0).request.url().host()).isEqualTo("two.example.com");
+  }
+
+  static final class RecordingListener extends StreamingCall.Listener<String, String> {
+    final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    volatile Throwable failure;
+
+    @Override public void onMessage(StreamingCall<String, String> call, String message) {
+      events.add("message " + message);
+    }
+
+    @Override public void onComplete(StreamingCall<String, String> call) {
+      events.add("complete");
+    }
+
+    @Override public void onFailure(StreamingCall<String, String> call, Throwable t) {
+      failure = t;
+      events.add("failure " + t.getClass().getName());
+    }
+
+    Object next() throws InterruptedException {
+      Object event = events.poll(5, TimeUnit.SECONDS);
+      if (event == null) throw new AssertionError("Timed out waiting for an event");
+      return event;
+    }
+  }
+}
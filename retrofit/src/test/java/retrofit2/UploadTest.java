@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Random;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.ByteString;
+import okio.Okio;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.http.Body;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class UploadTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  interface Service {
+    @POST("/") Call<ResponseBody> file(@Body File body);
+    @POST("/") Call<ResponseBody> path(@Body java.nio.file.Path body);
+    @POST("/") Call<ResponseBody> channel(@Body FileChannel body);
+    @POST("/") Call<ResponseBody> buffer(@Body ByteBuffer body);
+    @POST("/") Call<ResponseBody> mapped(@Body MappedByteBuffer body);
+    @Multipart @POST("/") Call<ResponseBody> part(@Part("file") File file);
+  }
+
+  private final ByteString content = randomBytes(100000);
+  private Service service;
+  private File file;
+
+  private static ByteString randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(0).nextBytes(bytes);
+    return ByteString.of(bytes);
+  }
+
+  @Before public void setUp() throws IOException {
+    service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .build()
+        .create(Service.class);
+    file = temporaryFolder.newFile("upload.bin");
+    Okio.buffer(Okio.sink(file)).write(content).close();
+  }
+
+  private RecordedRequest upload(Call<ResponseBody> call) throws Exception {
+    server.enqueue(new MockResponse());
+    call.execute();
+    return server.takeRequest();
+  }
+
+  @Test public void file() throws Exception {
+    RecordedRequest request = upload(service.file(file));
+    assertThat(request.getHeader("Content-Type")).isEqualTo("application/octet-stream");
+    assertThat(request.getHeader("Content-Length")).isEqualTo("100000");
+    assertThat(request.getBody().readByteString()).isEqualTo(content);
+  }
+
+  @Test public void path() throws Exception {
+    RecordedRequest request = upload(service.path(file.toPath()));
+    assertThat(request.getHeader("Content-Length")).isEqualTo("100000");
+    assertThat(request.getBody().readByteString()).isEqualTo(content);
+  }
+
+  @Test public void fileChannelFromItsPosition() throws Exception {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      channel.position(1000);
+      RecordedRequest request = upload(service.channel(channel));
+      assertThat(request.getHeader("Content-Length")).isEqualTo("99000");
+      assertThat(request.getBody().readByteString()).isEqualTo(content.substring(1000));
+      assertThat(channel.position()).isEqualTo(1000);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  @Test public void mappedByteBuffer() throws Exception {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      MappedByteBuffer buffer = randomAccessFile.getChannel()
+          .map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+      RecordedRequest request = upload(service.mapped(buffer));
+      assertThat(request.getHeader("Content-Length")).isEqualTo("100000");
+      assertThat(request.getBody().readByteString()).isEqualTo(content);
+      assertThat(buffer.position()).isEqualTo(0);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  @Test public void byteBufferFromItsPosition() throws Exception {
+    ByteBuffer buffer = ByteBuffer.wrap(content.toByteArray());
+    buffer.position(10);
+    buffer.limit(20);
+    RecordedRequest request = upload(service.buffer(buffer));
+    assertThat(request.getBody().readByteString()).isEqualTo(content.substring(10, 20));
+    assertThat(buffer.position()).isEqualTo(10);
+  }
+
+  @Test public void bodiesCanBeWrittenRepeatedly() throws IOException {
+    RequestBody body = service.file(file).request().body();
+    Buffer first = new Buffer();
+    body.writeTo(first);
+    Buffer second = new Buffer();
+    body.writeTo(second);
+    assertThat(first.readByteString()).isEqualTo(content);
+    assertThat(second.readByteString()).isEqualTo(content);
+  }
+
+  @Test public void truncatedFileFails() throws IOException {
+    RequestBody body = service.file(file).request().body();
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    randomAccessFile.setLength(10);
+    randomAccessFile.close();
+    try {
+      body.writeTo(new Buffer());
+      fail();
+    } catch (IOException e) {
+      assertThat(e).hasMessage("Expected 100000 bytes but the file ended after 10");
+    }
+  }
+
+  @Test public void multipartFile() throws Exception {
+    RecordedRequest request = upload(service.part(file));
+    Buffer body = request.getBody();
+    String multipart = body.clone().readString(Charset.forName("ISO-8859-1"));
+    assertThat(multipart).contains("Content-Disposition: form-data; name=\"file\"\r\n"
+        + "Content-Transfer-Encoding: binary\r\n"
+        + "Content-Type: application/octet-stream\r\n"
+        + "Content-Length: 100000\r\n");
+    assertThat(body.indexOf(content)).isNotEqualTo(-1L);
+  }
+}
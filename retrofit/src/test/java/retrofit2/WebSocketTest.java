@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2026 Square, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package retrofit2;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import retrofit2.helpers.ToStringConverterFactory;
+import retrofit2.http.Destination;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Segmented;
+import retrofit2.http.WebSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public final class WebSocketTest {
+  @Rule public final MockWebServer server = new MockWebServer();
+
+  interface Service {
+    @WebSocket("rooms/{room}")
+    WebSocketChannel<String, String> chat(@Path("room") String room, @Query("user") String user,
+        @Header("X-Token") String token);
+
+    @WebSocket("/")
+    WebSocketChannel<RequestBody, ResponseBody> bytes();
+
+    @WebSocket("/")
+    WebSocketChannel<String, Integer> numbers();
+  }
+
+  private final OkHttpClient client = new OkHttpClient();
+  private Service service;
+
+  @Before public void setUp() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .client(client)
+        .addConverterFactory(new ToStringConverterFactory())
+        .addConverterFactory(new Converter.Factory() {
+          @Override public @Nullable Converter<ResponseBody, ?> responseBodyConverter(
+              java.lang.reflect.Type type, java.lang.annotation.Annotation[] annotations,
+              Retrofit retrofit) {
+            if (type != Integer.class) return null;
+            return new Converter<ResponseBody, Integer>() {
+              @Override public Integer convert(ResponseBody value) throws IOException {
+                return Integer.parseInt(value.string());
+              }
+            };
+          }
+        })
+        .build();
+    service = retrofit.create(Service.class);
+  }
+
+  @Test public void textMessages() throws Exception {
+    server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+
+    WebSocketChannel<String, String> channel = service.chat("general", "jake", "s3cr3t");
+    RecordingListener<String, String> listener = new RecordingListener<>();
+    channel.open(listener);
+    assertThat(listener.next()).isEqualTo("open 101");
+    assertThat(channel.send("Hello")).isTrue();
+    assertThat(channel.send("World")).isTrue();
+    assertThat(listener.next()).isEqualTo("message echo Hello");
+    assertThat(listener.next()).isEqualTo("message echo World");
+    assertThat(channel.close(1000, "Bye")).isTrue();
+    assertThat(listener.next()).isEqualTo("closing 1000 Bye");
+    assertThat(listener.next()).isEqualTo("closed 1000 Bye");
+
+    RecordedRequest request = server.takeRequest();
+    assertThat(request.getMethod()).isEqualTo("GET");
+    assertThat(request.getPath()).isEqualTo("/rooms/general?user=jake");
+    assertThat(request.getHeader("X-Token")).isEqualTo("s3cr3t");
+    assertThat(request.getHeader("Upgrade")).isEqualTo("websocket");
+    assertThat(channel.request().url().encodedPath()).isEqualTo("/rooms/general");
+  }
+
+  @Test public void binaryMessages() throws Exception {
+    server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+
+    WebSocketChannel<RequestBody, ResponseBody> channel = service.bytes();
+    RecordingListener<RequestBody, ResponseBody> listener = new RecordingListener<>();
+    channel.open(listener);
+    assertThat(listener.next()).isEqualTo("open 101");
+    byte[] bytes = { 0, 1, 2, (byte) 0xff };
+    assertThat(channel.send(RequestBody.create(MediaType.get("application/x-protobuf"), bytes)))
+        .isTrue();
+    ResponseBody body = listener.nextMessage();
+    assertThat(body.contentType()).isEqualTo(MediaType.get("application/octet-stream"));
+    assertThat(body.bytes()).isEqualTo(bytes);
+    channel.cancel();
+  }
+
+  @Test public void receiveConversionFailureFailsChannel() throws Exception {
+    server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+
+    WebSocketChannel<String, Integer> channel = service.numbers();
+    RecordingListener<String, Integer> listener = new RecordingListener<>();
+    channel.open(listener);
+    assertThat(listener.next()).isEqualTo("open 101");
+    channel.send("1");
+    assertThat(listener.next()).isEqualTo("failure java.lang.NumberFormatException");
+    assertThat(channel.send("2")).isFalse();
+    assertThat(listener.events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  @Test public void handshakeRejected() throws Exception {
+    server.enqueue(new MockResponse().setResponseCode(404));
+
+    WebSocketChannel<String, String> channel = service.chat("general", "jake", "s3cr3t");
+    RecordingListener<String, String> listener = new RecordingListener<>();
+    channel.open(listener);
+    assertThat(listener.next()).isEqualTo("failure java.net.ProtocolException 404");
+  }
+
+  @Test public void sendBeforeOpenReturnsFalse() throws IOException {
+    WebSocketChannel<String, String> channel = service.chat("general", "jake", "s3cr3t");
+    assertThat(channel.isOpened()).isFalse();
+    assertThat(channel.send("Hello")).isFalse();
+    assertThat(channel.close(1000, null)).isFalse();
+  }
+
+  @Test public void openTwiceThrows() {
+    server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+
+    WebSocketChannel<String, String> channel = service.chat("general", "jake", "s3cr3t");
+    channel.open(new WebSocketChannel.Listener<String, String>() {});
+    assertThat(channel.isOpened()).isTrue();
+    try {
+      channel.open(new WebSocketChannel.Listener<String, String>() {});
+      fail();
+    } catch (IllegalStateException e) {
+      assertThat(e).hasMessage("Already opened.");
+    }
+    WebSocketChannel<String, String> clone = channel.clone();
+    assertThat(clone.isOpened()).isFalse();
+    channel.cancel();
+    assertThat(channel.isCanceled()).isTrue();
+    assertThat(clone.isCanceled()).isFalse();
+  }
+
+  @Test public void listenerInvokedOnCallbackExecutor() throws Exception {
+    server.enqueue(new MockResponse().withWebSocketUpgrade(new EchoListener()));
+
+    final AtomicInteger executions = new AtomicInteger();
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .callbackExecutor(new Executor() {
+          @Override public void execute(Runnable command) {
+            executions.incrementAndGet();
+            command.run();
+          }
+        })
+        .build();
+    WebSocketChannel<String, String> channel =
+        retrofit.create(Service.class).chat("general", "jake", "s3cr3t");
+    RecordingListener<String, String> listener = new RecordingListener<>();
+    channel.open(listener);
+    assertThat(listener.next()).isEqualTo("open 101");
+    channel.send("Hello");
+    assertThat(listener.next()).isEqualTo("message echo Hello");
+    assertThat(executions.get()).isEqualTo(2);
+    channel.cancel();
+  }
+
+  interface NotChannel {
+    @WebSocket("/") Call<String> chat();
+  }
+
+  @Test public void returnTypeMustBeChannel() {
+    try {
+      Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+      retrofit.create(NotChannel.class).chat();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("@WebSocket methods must return WebSocketChannel.\n"
+          + "    for method NotChannel.chat");
+    }
+  }
+
+  interface Unparameterized {
+    @SuppressWarnings("rawtypes") // Testing error handling.
+    @WebSocket("/") WebSocketChannel chat();
+  }
+
+  @Test public void returnTypeMustBeParameterized() {
+    try {
+      Retrofit retrofit = new Retrofit.Builder().baseUrl(server.url("/")).build();
+      retrofit.create(Unparameterized.class).chat();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("WebSocketChannel return type must be parameterized as"
+          + " WebSocketChannel<Send, Receive>.\n"
+          + "    for method Unparameterized.chat");
+    }
+  }
+
+  interface TwoMethods {
+    @GET("/") @WebSocket("/") WebSocketChannel<String, String> chat();
+  }
+
+  @Test public void onlyOneHttpMethod() {
+    try {
+      Retrofit retrofit = new Retrofit.Builder()
+          .baseUrl(server.url("/"))
+          .addConverterFactory(new ToStringConverterFactory())
+          .build();
+      retrofit.create(TwoMethods.class).chat();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage(
+          "Only one HTTP method is allowed. Found: GET and WebSocket.\n"
+              + "    for method TwoMethods.chat");
+    }
+  }
+
+  @Test public void callFactoryMustCreateWebSockets() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .callFactory(new okhttp3.Call.Factory() {
+          @Override public okhttp3.Call newCall(Request request) {
+            return client.newCall(request);
+          }
+        })
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    try {
+      retrofit.create(Service.class).chat("general", "jake", "s3cr3t");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).startsWith("@WebSocket methods require a call factory which is"
+          + " also an okhttp3.WebSocket.Factory (e.g., OkHttpClient). Found: ");
+    }
+  }
+
+  interface Unsupported {
+    @Segmented(2) @WebSocket("/") WebSocketChannel<String, String> segmented();
+    @WebSocket("/") WebSocketChannel<String, String> destination(@Destination File file);
+  }
+
+  @Test public void callAnnotationsAreRejected() {
+    Retrofit retrofit = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .addConverterFactory(new ToStringConverterFactory())
+        .build();
+    Unsupported service = retrofit.create(Unsupported.class);
+    try {
+      service.segmented();
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("WebSocketChannel methods cannot use @Segmented.\n"
+          + "    for method Unsupported.segmented");
+    }
+    try {
+      service.destination(new File("chat.log"));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e).hasMessage("WebSocketChannel methods cannot use @Destination.\n"
+          + "    for method Unsupported.destination");
+    }
+  }
+
+  @Test public void socketsAreBalanced() throws Exception {
+    MockWebServer other = new MockWebServer();
+    other.start();
+    try {
+      other.enqueue(new MockResponse().setResponseCode(503));
+      Retrofit retrofit = new Retrofit.Builder()
+          .baseUrls(Arrays.asList(server.url("/"), other.url("/")))
+          .client(client)
+          .addConverterFactory(new ToStringConverterFactory())
+          .build();
+      LoadBalancer.Endpoint[] endpoints = retrofit.loadBalancer.endpoints;
+      for (int i = 0; i < LoadBalancer.EJECTION_THRESHOLD; i++) {
+        endpoints[0].callStarted();
+        endpoints[0].callFailed(true);
+      }
+
+      WebSocketChannel<String, String> channel =
+          retrofit.create(Service.class).chat("general", "jake", "s3cr3t");
+      RecordingListener<String, String> listener = new RecordingListener<>();
+      channel.open(listener);
+      assertThat(listener.next()).isEqualTo("failure java.net.ProtocolException 503");
+
+      assertThat(other.takeRequest().getPath()).isEqualTo("/rooms/general?user=jake");
+      assertThat(server.getRequestCount()).isZero();
+      assertThat(endpoints[1].inFlight.get()).isZero();
+      assertThat(endpoints[1].consecutiveFailures.get()).isEqualTo(1);
+    } finally {
+      other.shutdown();
+    }
+  }
+
+  static final class EchoListener extends WebSocketListener {
+    @Override public void onMessage(okhttp3.WebSocket webSocket, String text) {
+      webSocket.send("echo " + text);
+    }
+
+    @Override public void onMessage(okhttp3.WebSocket webSocket, ByteString bytes) {
+      webSocket.send(bytes);
+    }
+
+    @Override public void onClosing(okhttp3.WebSocket webSocket, int code, String reason) {
+      webSocket.close(code, reason);
+    }
+  }
+
+  static final class RecordingListener<S, R> extends WebSocketChannel.Listener<S, R> {
+    final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+
+    @Override public void onOpen(WebSocketChannel<S, R> channel, okhttp3.Response response) {
+      events.add("open " + response.code());
+    }
+
+    @Override public void onMessage(WebSocketChannel<S, R> channel, R message) {
+      events.add(message instanceof String ? "message " + message : message);
+    }
+
+    @Override public void onClosing(WebSocketChannel<S, R> channel, int code, String reason) {
+      events.add("closing " + code + " " + reason);
+    }
+
+    @Override public void onClosed(WebSocketChannel<S, R> channel, int code, String reason) {
+      events.add("closed " + code + " " + reason);
+    }
+
+    @Override public void onFailure(WebSocketChannel<S, R> channel, Throwable t,
+        @Nullable okhttp3.Response response) {
+      events.add("failure " + t.getClass().getName()
+          + (response != null ? " " + response.code() : ""));
+    }
+
+    Object next() throws InterruptedException {
+      Object event = events.poll(5, TimeUnit.SECONDS);
+      if (event == null) throw new AssertionError("Timed out waiting for an event");
+      return event;
+    }
+
+    @SuppressWarnings("unchecked") // Only used when R is not String.
+    R nextMessage() throws InterruptedException {
+      return (R) next();
+    }
+  }
+}